@@ -88,6 +88,9 @@ public class Lang
     /** The RDF syntax <a href="https://jena.apache.org/documentation/io/rdf-binary.html">RDF Thrift</a> */
     public static Lang RDFTHRIFT ;
 
+    /** Binary RDF with an incrementally built term dictionary: see {@link org.apache.jena.riot.dict.DictRDF}. */
+    public static Lang RDFDICT ;
+
     /** <a href="https://w3c.github.io/shacl/shacl-compact-syntax/">SHACL Compact Syntax</a> (2020-07-01) */
     public static Lang SHACLC;
 
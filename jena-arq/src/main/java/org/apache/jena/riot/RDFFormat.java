@@ -35,6 +35,11 @@ public class RDFFormat {
     public static final RDFFormatVariant FLAT           = new RDFFormatVariant("flat") ;
     /** Print with fixed indentation width and linebreaks after each sequence element */
     public static final RDFFormatVariant LONG           = new RDFFormatVariant("long") ;
+    /**
+     * Pretty printing, one chunk of subjects at a time, formatting chunks in parallel.
+     * Blank nodes are nested, and lists abbreviated, when not used elsewhere.
+     */
+    public static final RDFFormatVariant CHUNKED        = new RDFFormatVariant("chunked") ;
 
     /** Use ASCII output (N-triples, N-Quads) */
     public static final RDFFormatVariant ASCII          = new RDFFormatVariant("ascii") ;
@@ -42,6 +47,12 @@ public class RDFFormat {
     public static final RDFFormatVariant UTF8           = new RDFFormatVariant("utf-8") ;
     /** Variant for RDF Thrift using values */
     public static final RDFFormatVariant ValueEncoding  = new RDFFormatVariant("Value") ;
+    /** Variant for RDF-DICT with compressed blocks */
+    public static final RDFFormatVariant COMPRESSED     = new RDFFormatVariant("compressed") ;
+    /** Write by streaming, without building the whole output in memory */
+    public static final RDFFormatVariant STREAMING      = new RDFFormatVariant("streaming") ;
+    /** Write by streaming, in single-line, expanded form */
+    public static final RDFFormatVariant STREAMING_FLAT = new RDFFormatVariant("streaming-flat") ;
 
     /** Turtle - pretty form */
     public static final RDFFormat        TURTLE_PRETTY  = new RDFFormat(Lang.TURTLE, PRETTY) ;
@@ -55,6 +66,8 @@ public class RDFFormat {
     public static final RDFFormat        TURTLE_FLAT    = new RDFFormat(Lang.TURTLE, FLAT) ;
     /** Turtle - with fixed indentation width and linebreaks after each sequence element */
     public static final RDFFormat        TURTLE_LONG    = new RDFFormat(Lang.TURTLE, LONG) ;
+    /** Turtle - pretty form, for large graphs, written in chunks of subjects */
+    public static final RDFFormat        TURTLE_CHUNKED = new RDFFormat(Lang.TURTLE, CHUNKED) ;
 
     /** N-Triples in UTF-8 */
     public static final RDFFormat        NTRIPLES_UTF8  = new RDFFormat(Lang.NTRIPLES, UTF8) ;
@@ -84,6 +97,8 @@ public class RDFFormat {
     public static final RDFFormat        TRIG_FLAT      = new RDFFormat(Lang.TRIG, FLAT) ;
     /** TriG - with fixed indentation width and linebreaks after each sequence element */
     public static final RDFFormat        TRIG_LONG      = new RDFFormat(Lang.TRIG, LONG) ;
+    /** TriG - pretty form, for large datasets, written in chunks of subjects */
+    public static final RDFFormat        TRIG_CHUNKED   = new RDFFormat(Lang.TRIG, CHUNKED) ;
 
     /** SHACL Compact Syntax */
     public static final RDFFormat        SHACLC         = new RDFFormat(Lang.SHACLC);
@@ -101,6 +116,10 @@ public class RDFFormat {
     public static RDFFormat             JSONLD11_FLAT   = new RDFFormat(Lang.JSONLD11, RDFFormat.FLAT);
     /** JSON LD 1.1 default form - multi-line JSON */
     public static RDFFormat             JSONLD11        = JSONLD11_PRETTY;
+    /** JSON LD 1.1 - streamed, multi-line JSON, one node object per subject, prefixes as the context */
+    public static RDFFormat             JSONLD11_STREAMING      = new RDFFormat(Lang.JSONLD11, RDFFormat.STREAMING);
+    /** JSON LD 1.1 - streamed, single-line JSON in expanded form */
+    public static RDFFormat             JSONLD11_STREAMING_FLAT = new RDFFormat(Lang.JSONLD11, RDFFormat.STREAMING_FLAT);
 
 
 // ---- JSONLD 1.0 / jsonld-java -- support removed in Jena 5
@@ -210,6 +229,16 @@ public class RDFFormat {
      */
     public static final RDFFormat RDF_THRIFT_VALUES     = new RDFFormat(Lang.RDFTHRIFT, ValueEncoding) ;
 
+    /**
+     * RDF-DICT output. Each term is written once, then referred to by a dictionary id.
+     *
+     * @see #RDF_DICT_COMPRESSED
+     */
+    public static final RDFFormat RDF_DICT              = new RDFFormat(Lang.RDFDICT) ;
+
+    /** RDF-DICT output with each block compressed. */
+    public static final RDFFormat RDF_DICT_COMPRESSED   = new RDFFormat(Lang.RDFDICT, COMPRESSED) ;
+
     /**
      * The "null" output format (a sink that prints nothing, usually quite
      * efficiently)
@@ -52,6 +52,7 @@ public class RDFLanguages
     public static final String strLangTriX       = "TriX";
     public static final String strLangRDFPROTO   = "RDF-PROTO";
     public static final String strLangRDFTHRIFT  = "RDF-THRIFT";
+    public static final String strLangRDFDICT    = "RDF-DICT";
 
     /* ".owl" is not a formally registered file extension for OWL using RDF/XML. It
      * was mentioned in OWL1 (when there was formally only one syntax for publishing
@@ -148,6 +149,12 @@ public class RDFLanguages
                                                      .addAltNames("RDF_THRIFT", "RDFTHRIFT", "RDF/THRIFT", "TRDF")
                                                      .addFileExtensions("rt", "trdf")
                                                      .build();
+
+    /** Binary RDF with an incrementally built term dictionary: see {@link org.apache.jena.riot.dict.DictRDF}. */
+    public static final Lang RDFDICT    = LangBuilder.create(strLangRDFDICT, contentTypeRDFDict)
+                                                     .addAltNames("RDF_DICT", "RDFDICT", "RDF/DICT")
+                                                     .addFileExtensions("rdict")
+                                                     .build();
     /** Text */
     public static final Lang TEXT       = LangBuilder.create("text", contentTypeTextPlain)
                                                      .addAltNames("TEXT")
@@ -217,6 +224,7 @@ public class RDFLanguages
         Lang.TRIG       = RDFLanguages.TRIG;
         Lang.RDFPROTO   = RDFLanguages.RDFPROTO;
         Lang.RDFTHRIFT  = RDFLanguages.RDFTHRIFT;
+        Lang.RDFDICT    = RDFLanguages.RDFDICT;
         Lang.TRIX       = RDFLanguages.TRIX;
         Lang.RDFNULL    = RDFLanguages.RDFNULL;
         Lang.RDFRAW     = RDFLanguages.RDFRAW;
@@ -247,6 +255,7 @@ public class RDFLanguages
         register(NQUADS);
         register(RDFPROTO);
         register(RDFTHRIFT);
+        register(RDFDICT);
         register(TRIX);
         register(RDFNULL);
         register(RDFRAW);
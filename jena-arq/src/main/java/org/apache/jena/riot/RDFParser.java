@@ -21,18 +21,22 @@ package org.apache.jena.riot;
 import static org.apache.jena.riot.RDFLanguages.NQUADS;
 import static org.apache.jena.riot.RDFLanguages.NTRIPLES;
 import static org.apache.jena.riot.RDFLanguages.RDFJSON;
+import static org.apache.jena.riot.RDFLanguages.TRIG;
+import static org.apache.jena.riot.RDFLanguages.TURTLE;
 import static org.apache.jena.riot.RDFLanguages.sameLang;
 
 import java.io.*;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiFunction;
 
 import org.apache.jena.atlas.io.IO;
 import org.apache.jena.atlas.lib.InternalErrorException;
@@ -109,6 +113,7 @@ public class RDFParser {
     private final FactoryRDF          factory;
     private final ErrorHandler        errorHandler;
     private final Context             context;
+    private final int                 parallel;
     // Some cases the parser is reusable (read a file), some are not (input streams).
     private boolean                 canUseThisParser = true;
 
@@ -203,7 +208,8 @@ public class RDFParser {
                             String parserBaseURI, boolean strict, Optional<Boolean> checking,
                             boolean canonicalLexicalValues, LangTagForm langTagForm,
                             boolean resolveURIs, IRIxResolver resolver, PrefixMap prefixMap,
-                            FactoryRDF factory, ErrorHandler errorHandler, Context context) {
+                            FactoryRDF factory, ErrorHandler errorHandler, Context context,
+                            int parallel) {
         int x = countNonNull(uri, path, content, inputStream, javaReader);
         if ( x >= 2 )
             throw new IllegalArgumentException("Only one source allowed: one of uri, path, content, inputStream and javaReader must be set");
@@ -235,6 +241,7 @@ public class RDFParser {
         this.factory = factory;
         this.errorHandler = errorHandler;
         this.context = context;
+        this.parallel = parallel;
     }
 
     /** Count the nulls */
@@ -410,6 +417,8 @@ public class RDFParser {
                 if ( readerRiot == null )
                     throw new RiotException("No parser registered for content type: " + ct.getContentTypeStr());
             }
+            if ( parseParallel(RDFLanguages.contentTypeToLang(ct), input, destination) )
+                return;
             read(readerRiot, input, null, baseURI, context, ct, destination);
         }
     }
@@ -427,6 +436,12 @@ public class RDFParser {
         ReaderRIOT readerRiot = createReader(ct);
         if ( readerRiot == null )
             throw new RiotException("No parser registered for content type: " + ct.getContentTypeStr());
+        InputStream in = inputStream;
+        if ( in == null && stringToParse != null && parallel > 1 )
+            in = new ByteArrayInputStream(stringToParse.getBytes(StandardCharsets.UTF_8));
+        if ( in != null && parseParallel(RDFLanguages.contentTypeToLang(ct), in, destination) )
+            return;
+
         Reader jr = javaReader;
         if ( stringToParse != null )
             jr = new StringReader(stringToParse);
@@ -434,6 +449,31 @@ public class RDFParser {
         read(readerRiot, inputStream, jr, baseURI, context, ct, destination);
     }
 
+    /**
+     * Parse with several threads, if requested and the syntax has a parallel parser.
+     * Returns false if the input has not been parsed.
+     */
+    private boolean parseParallel(Lang lang, InputStream input, StreamRDF destination) {
+        if ( parallel <= 1 || lang == null )
+            return false;
+        // Each chunk has its own FactoryRDF and ParserProfile.
+        BiFunction<FactoryRDF, ErrorHandler, ParserProfile> profileMaker =
+                (factoryRDF, handler) -> makeParserProfile(lang, factoryRDF, handler);
+        if ( sameLang(NTRIPLES, lang) || sameLang(NQUADS, lang) ) {
+            ParallelParserNTuples.create().source(input).lang(lang)
+                    .threads(parallel).errorHandler(errorHandler).parserProfile(profileMaker)
+                    .parse(destination);
+            return true;
+        }
+        if ( sameLang(TURTLE, lang) || sameLang(TRIG, lang) ) {
+            ParallelParserTurtle.create().source(input).lang(lang)
+                    .threads(parallel).errorHandler(errorHandler).parserProfile(profileMaker)
+                    .parse(destination);
+            return true;
+        }
+        return false;
+    }
+
     /** Call the RIOT reader, from either an InputStream or a Reader */
     private static void read(ReaderRIOT readerRiot, InputStream inputStream, Reader javaReader,
                              String baseUri, Context context,
@@ -515,8 +555,19 @@ public class RDFParser {
         return reader ;
     }
 
-    // See also RiotLib.profile but this version has RDFParser specific features.
     private ParserProfile makeParserProfile(Lang lang) {
+        PrefixMap pmap = ( this.prefixMap != null ) ? this.prefixMap : PrefixMapFactory.create();
+        return makeParserProfile(lang, factory, errorHandler, pmap);
+    }
+
+    /** A parser profile for parsing in parallel; the prefix map is not shared. */
+    private ParserProfile makeParserProfile(Lang lang, FactoryRDF factory, ErrorHandler errorHandler) {
+        PrefixMap pmap = ( this.prefixMap != null ) ? PrefixMapFactory.create(this.prefixMap) : PrefixMapFactory.create();
+        return makeParserProfile(lang, factory, errorHandler, pmap);
+    }
+
+    // See also RiotLib.profile but this version has RDFParser specific features.
+    private ParserProfile makeParserProfile(Lang lang, FactoryRDF factory, ErrorHandler errorHandler, PrefixMap pmap) {
         boolean resolve = resolveURIs;
         boolean allowRelative = false;
         boolean checking$ = strict;
@@ -545,7 +596,6 @@ public class RDFParser {
         IRIxResolver parserResolver = (resolver != null)
                 ? resolver
                 : IRIxResolver.create().base(baseStr).resolve(resolve).allowRelative(allowRelative).build();
-        PrefixMap pmap = ( this.prefixMap != null ) ? this.prefixMap : PrefixMapFactory.create();
         ParserProfileStd parserFactory = new ParserProfileStd(factory, errorHandler,
                                                               parserResolver, pmap,
                                                               context, checking$, strict);
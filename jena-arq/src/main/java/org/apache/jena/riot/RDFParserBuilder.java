@@ -107,6 +107,8 @@ public class RDFParserBuilder {
     // Bad news.
     private ErrorHandler errorHandler = null;
 
+    private int parallel = 1;
+
     public static RDFParserBuilder create() { return new RDFParserBuilder() ; }
     private RDFParserBuilder() {}
 
@@ -443,6 +445,26 @@ public class RDFParserBuilder {
         return this;
     }
 
+    /**
+     * Parse N-Triples, N-Quads, Turtle and TriG using several threads.
+     * Other syntaxes, and input from a {@link Reader}, are parsed as usual.
+     * The default is 1, which is the normal, single-threaded, parser.
+     * <p>
+     * Each part of the input is parsed with its own {@link FactoryRDF}, so any
+     * {@link #factory} or {@link #labelToNode} setting is not used; blank node labels
+     * are the same blank node throughout the input. A {@link #prefixes prefix map}
+     * is used for the starting prefixes but not updated.
+     *
+     * @see ParallelParserNTuples
+     * @see ParallelParserTurtle
+     */
+    public RDFParserBuilder parallel(int threads) {
+        if ( threads < 1 )
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        this.parallel = threads;
+        return this;
+    }
+
     /**
      * Set the {@link FactoryRDF} to use. {@link FactoryRDF} control how parser output is
      * turned into {@code Node} and how {@code Triple}s and {@code Quad}s are built. This
@@ -678,7 +700,8 @@ public class RDFParserBuilder {
                              parserBaseURI, strict, checking,
                              canonicalValues, langTagForm,
                              resolveURIs, resolver, prefixMap,
-                             factory$, errorHandler$, context);
+                             factory$, errorHandler$, context,
+                             parallel);
     }
 
     private FactoryRDF buildFactoryRDF() {
@@ -718,6 +741,7 @@ public class RDFParserBuilder {
         builder.factory =           this.factory;
         builder.labelToNode =       this.labelToNode;
         builder.errorHandler =      this.errorHandler;
+        builder.parallel =          this.parallel;
         return builder;
     }
 }
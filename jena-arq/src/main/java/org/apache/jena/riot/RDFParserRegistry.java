@@ -70,6 +70,7 @@ public class RDFParserRegistry
         registerLangTriples(RDFXML,     ReaderRDFXML_SAX.factory);
         registerLangTriples(RDFPROTO,   RiotParsers.factoryRDFProtobuf);
         registerLangTriples(RDFTHRIFT,  RiotParsers.factoryRDFThrift);
+        registerLangTriples(RDFDICT,    RiotParsers.factoryRDFDict);
 
         registerLangTriples(TRIX,       ReaderTriX.factory);
         registerLangTriples(RDFNULL,    ReaderRDFNULL.factory);
@@ -82,6 +83,7 @@ public class RDFParserRegistry
         registerLangQuads(TRIG,         RiotParsers.factoryTRIG);
         registerLangQuads(RDFPROTO,     RiotParsers.factoryRDFProtobuf);
         registerLangQuads(RDFTHRIFT,    RiotParsers.factoryRDFThrift);
+        registerLangQuads(RDFDICT,      RiotParsers.factoryRDFDict);
         registerLangQuads(TRIX,         ReaderTriX.factory);
         registerLangQuads(RDFNULL,      ReaderRDFNULL.factory);
 
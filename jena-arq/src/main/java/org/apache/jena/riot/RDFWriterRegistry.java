@@ -21,6 +21,8 @@ package org.apache.jena.riot;
 import java.util.* ;
 
 import org.apache.jena.atlas.lib.CharSpace ;
+import org.apache.jena.riot.dict.WriterDatasetDict;
+import org.apache.jena.riot.dict.WriterGraphDict;
 import org.apache.jena.riot.protobuf.WriterDatasetProtobuf;
 import org.apache.jena.riot.protobuf.WriterGraphProtobuf;
 import org.apache.jena.riot.system.RiotLib ;
@@ -70,6 +72,8 @@ public class RDFWriterRegistry
                 return new TurtleWriterFlat() ;
             if ( Objects.equals(RDFFormat.TURTLE_LONG, serialization) )
                 return new TurtleWriterLong() ;
+            if ( Objects.equals(RDFFormat.TURTLE_CHUNKED, serialization) )
+                return new TurtleWriterChunked() ;
 
             if ( Objects.equals(RDFFormat.NTRIPLES_UTF8, serialization) )
                 return new NTriplesWriter() ;
@@ -101,6 +105,8 @@ public class RDFWriterRegistry
                 return new TriGWriterFlat() ;
             if ( Objects.equals(RDFFormat.TRIG_LONG, serialization) )
                 return new TriGWriterLong() ;
+            if ( Objects.equals(RDFFormat.TRIG_CHUNKED, serialization) )
+                return new TriGWriterChunked() ;
             if ( Objects.equals(RDFFormat.NQUADS_UTF8, serialization) )
                 return new NQuadsWriter() ;
             if ( Objects.equals(RDFFormat.NQUADS_ASCII, serialization) )
@@ -121,10 +127,14 @@ public class RDFWriterRegistry
         // Safer here than as statics due to class initialization ordering effects.
         WriterDatasetRIOTFactory wdsJsonldFactory11 = syntaxForm -> new JsonLD11Writer(syntaxForm);
         WriterGraphRIOTFactory wgJsonldFactory11    = syntaxForm -> RiotLib.adapter(new JsonLD11Writer(syntaxForm));
+        WriterDatasetRIOTFactory wdsJsonldStreamingFactory = syntaxForm -> new JsonLD11WriterStreaming(syntaxForm);
+        WriterGraphRIOTFactory wgJsonldStreamingFactory    = syntaxForm -> new JsonLD11WriterStreaming(syntaxForm);
         WriterGraphRIOTFactory wgProtoFactory       = syntaxForm -> new WriterGraphProtobuf(syntaxForm);
         WriterDatasetRIOTFactory wdsProtoFactory    = syntaxForm -> new WriterDatasetProtobuf(syntaxForm);
         WriterGraphRIOTFactory wgThriftFactory      = syntaxForm -> new WriterGraphThrift(syntaxForm);
         WriterDatasetRIOTFactory wdsThriftFactory   = syntaxForm -> new WriterDatasetThrift(syntaxForm);
+        WriterGraphRIOTFactory wgDictFactory        = syntaxForm -> new WriterGraphDict(syntaxForm);
+        WriterDatasetRIOTFactory wdsDictFactory     = syntaxForm -> new WriterDatasetDict(syntaxForm);
         WriterGraphRIOTFactory wgTriXFactory        = syntaxForm -> new WriterTriX();
         WriterDatasetRIOTFactory wdsTriXFactory     = syntaxForm -> new WriterTriX() ;
 
@@ -152,6 +162,7 @@ public class RDFWriterRegistry
         register(Lang.RDFNULL,     RDFFormat.RDFNULL) ;
         register(Lang.RDFPROTO,    RDFFormat.RDF_PROTO) ;
         register(Lang.RDFTHRIFT,   RDFFormat.RDF_THRIFT) ;
+        register(Lang.RDFDICT,     RDFFormat.RDF_DICT) ;
 
         register(Lang.TRIX,        RDFFormat.TRIX) ;
 
@@ -161,6 +172,7 @@ public class RDFWriterRegistry
         register(RDFFormat.TURTLE_BLOCKS,  wgfactory) ;
         register(RDFFormat.TURTLE_FLAT,    wgfactory) ;
         register(RDFFormat.TURTLE_LONG,    wgfactory) ;
+        register(RDFFormat.TURTLE_CHUNKED, wgfactory) ;
 
         register(RDFFormat.NTRIPLES,       wgfactory) ;
         register(RDFFormat.NTRIPLES_ASCII, wgfactory) ;
@@ -176,6 +188,11 @@ public class RDFWriterRegistry
         register(RDFFormat.JSONLD11_PLAIN,              wdsJsonldFactory11) ;
         register(RDFFormat.JSONLD11_FLAT,               wdsJsonldFactory11) ;
 
+        register(RDFFormat.JSONLD11_STREAMING,          wgJsonldStreamingFactory) ;
+        register(RDFFormat.JSONLD11_STREAMING_FLAT,     wgJsonldStreamingFactory) ;
+        register(RDFFormat.JSONLD11_STREAMING,          wdsJsonldStreamingFactory) ;
+        register(RDFFormat.JSONLD11_STREAMING_FLAT,     wdsJsonldStreamingFactory) ;
+
         // JSON-LD System defaults.
         register(RDFFormat.JSONLD,                      jsonldWriterGraphDefault) ;
         register(RDFFormat.JSONLD_PRETTY,               jsonldWriterGraphDefault) ;
@@ -197,6 +214,7 @@ public class RDFWriterRegistry
         register(RDFFormat.TRIG_BLOCKS,    wgfactory) ;
         register(RDFFormat.TRIG_FLAT,      wgfactory) ;
         register(RDFFormat.TRIG_LONG,      wgfactory) ;
+        register(RDFFormat.TRIG_CHUNKED,   wgfactory) ;
 
         register(RDFFormat.NQUADS,         wgfactory) ;
         register(RDFFormat.NQUADS_ASCII,   wgfactory) ;
@@ -206,6 +224,8 @@ public class RDFWriterRegistry
         register(RDFFormat.RDF_PROTO_VALUES,    wgProtoFactory) ;
         register(RDFFormat.RDF_THRIFT,          wgThriftFactory) ;
         register(RDFFormat.RDF_THRIFT_VALUES,   wgThriftFactory) ;
+        register(RDFFormat.RDF_DICT,            wgDictFactory) ;
+        register(RDFFormat.RDF_DICT_COMPRESSED, wgDictFactory) ;
 
         register(RDFFormat.TRIX, wgTriXFactory) ;
 
@@ -214,6 +234,7 @@ public class RDFWriterRegistry
         register(RDFFormat.TRIG_PRETTY,    wdsfactory) ;
         register(RDFFormat.TRIG_BLOCKS,    wdsfactory) ;
         register(RDFFormat.TRIG_FLAT,      wdsfactory) ;
+        register(RDFFormat.TRIG_CHUNKED,   wdsfactory) ;
 
         register(RDFFormat.NQUADS,         wdsfactory) ;
         register(RDFFormat.NQUADS_ASCII,   wdsfactory) ;
@@ -223,6 +244,8 @@ public class RDFWriterRegistry
         register(RDFFormat.RDF_PROTO_VALUES,    wdsProtoFactory) ;
         register(RDFFormat.RDF_THRIFT,          wdsThriftFactory) ;
         register(RDFFormat.RDF_THRIFT_VALUES,   wdsThriftFactory) ;
+        register(RDFFormat.RDF_DICT,            wdsDictFactory) ;
+        register(RDFFormat.RDF_DICT_COMPRESSED, wdsDictFactory) ;
 
         register(RDFFormat.TRIX, wdsTriXFactory) ;
     }
@@ -156,4 +156,16 @@ public class RIOT {
      * Printing style. Whether to use a "wide" or "long" indentation style.
      */
     public static final Symbol symTurtleIndentStyle = SystemARQ.allocSymbol(TURTLE_SYMBOL_BASE, "indentStyle");
+
+    /**
+     * Chunked writing ({@link RDFFormat#TURTLE_CHUNKED}, {@link RDFFormat#TRIG_CHUNKED}):
+     * the number of subjects in each chunk. Default 10,000.
+     */
+    public static final Symbol symTurtleChunkSize = SystemARQ.allocSymbol(TURTLE_SYMBOL_BASE, "chunkSize");
+
+    /**
+     * Chunked writing ({@link RDFFormat#TURTLE_CHUNKED}, {@link RDFFormat#TRIG_CHUNKED}):
+     * the number of threads formatting chunks. Default, the number of processors.
+     */
+    public static final Symbol symTurtleWriterThreads = SystemARQ.allocSymbol(TURTLE_SYMBOL_BASE, "writerThreads");
 }
@@ -82,6 +82,10 @@ public class WebContent {
     public static final String contentTypeRDFThrift = "application/rdf+thrift";
     public static final ContentType ctRDFTHRIFT = ContentType.create(contentTypeRDFThrift);
 
+    // Unofficial
+    public static final String      contentTypeRDFDict           = "application/rdf+dict" ;
+    public static final ContentType ctRDFDict                    = ContentType.create(contentTypeRDFDict) ;
+
     public static final String contentTypeNQuadsAlt1 = "text/n-quads";
     public static final ContentType ctNQuadsAlt1 = ContentType.create(contentTypeNQuadsAlt1);
 
@@ -133,6 +137,10 @@ public class WebContent {
     public static final String      contentTypeResultsThrift     = "application/sparql-results+thrift" ;
     public static final ContentType ctResultsThrift              = ContentType.create(contentTypeResultsThrift) ;
 
+    // Unofficial
+    public static final String      contentTypeResultsDict       = "application/sparql-results+dict" ;
+    public static final ContentType ctResultsDict                = ContentType.create(contentTypeResultsDict) ;
+
     public static final String contentTypeSPARQLQuery = "application/sparql-query";
     public static final ContentType ctSPARQLQuery     = ContentType.create(contentTypeSPARQLQuery);
 
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.compact;
+
+import java.nio.file.Path;
+
+import org.apache.jena.graph.Graph;
+
+/**
+ * A compact, read-only, file format for a graph that is memory mapped when opened.
+ * <p>
+ * The file holds a dictionary of RDF terms, each encoded as an RDF Thrift term,
+ * followed by three sorted indexes of fixed width term id triples (SPO, POS, OSP).
+ * Opening the file maps it into memory and reads the header only; the cost does
+ * not depend on the size of the graph. Lookups binary search the mapped data
+ * and the operating system pages in what is used.
+ * <pre>
+ *    Graph graph = ...
+ *    CompactGraph.write(graph, path);
+ *    Graph graph2 = CompactGraph.open(path);
+ * </pre>
+ * The file layout is:
+ * <pre>
+ *   Header (64 bytes)
+ *     0  int   magic "JCG1"
+ *     4  int   version
+ *     8  long  number of terms
+ *    16  long  number of triples
+ *    24  long  file offset of the term offsets table
+ *    32  long  file offset of the term bytes
+ *    40  long  file offset of the SPO index
+ *    48  long  file offset of the POS index
+ *    56  long  file offset of the OSP index
+ *   Term offsets: (number of terms + 1) longs, relative to the start of the term bytes
+ *   Term bytes: RDF Thrift compact encoding of each term, in unsigned byte order
+ *   Padding to a multiple of 8 bytes
+ *   SPO, POS, OSP: each a sorted sequence of 3 int term ids per triple
+ * </pre>
+ * The id of a term is its position in the dictionary. All numbers are big-endian.
+ */
+public class CompactGraph {
+    static final int  MAGIC          = 0x4A434731; // "JCG1"
+    static final int  VERSION        = 1;
+    static final int  HEADER_SIZE    = 64;
+
+    static final int  OFFSET_MAGIC   = 0;
+    static final int  OFFSET_VERSION = 4;
+    static final int  OFFSET_NTERMS  = 8;
+    static final int  OFFSET_NTRIPLES = 16;
+    static final int  OFFSET_TERM_OFFSETS = 24;
+    static final int  OFFSET_TERM_BYTES = 32;
+    static final int  OFFSET_SPO     = 40;
+    static final int  OFFSET_POS     = 48;
+    static final int  OFFSET_OSP     = 56;
+
+    /**
+     * Write a graph to a file in compact graph format.
+     * The writer works in memory and is limited to about 715 million triples;
+     * a larger graph causes a {@link org.apache.jena.riot.RiotException}.
+     */
+    public static void write(Graph graph, Path path) {
+        CompactGraphWriter.write(graph, path);
+    }
+
+    /**
+     * Open a file in compact graph format as a read-only graph.
+     * Closing the graph closes the file.
+     */
+    public static Graph open(Path path) {
+        return GraphCompact.open(path);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.compact;
+
+import static org.apache.jena.riot.compact.CompactGraph.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.thrift.ThriftConvert;
+
+/** Build a compact graph file. See {@link CompactGraph} for the layout. */
+class CompactGraphWriter {
+
+    // Record layouts: which triple slot goes in each position of an index record.
+    static final int[] SPO = { 0, 1, 2 };
+    static final int[] POS = { 1, 2, 0 };
+    static final int[] OSP = { 2, 0, 1 };
+
+    // Triples are held as 3 ints each in one array (and a second array for the
+    // index records) so the number of triples is limited by the largest Java array.
+    static final int MAX_TRIPLES = (Integer.MAX_VALUE - 8) / 3;
+
+    static void write(Graph graph, Path path) {
+        // Provisional ids in order of first appearance.
+        Map<Node, Integer> provisional = new HashMap<>();
+        int[] triples = new int[3*1024];
+        int numTriples = 0;
+        for ( var iter = graph.find() ; iter.hasNext() ; ) {
+            Triple t = iter.next();
+            if ( numTriples == MAX_TRIPLES )
+                throw new RiotException("Compact graph: too many triples (the limit is "+MAX_TRIPLES+")");
+            if ( 3 * numTriples + 3 > triples.length )
+                triples = Arrays.copyOf(triples, (int)Math.min(2L * triples.length, 3L * MAX_TRIPLES));
+            triples[3*numTriples]   = termId(provisional, t.getSubject());
+            triples[3*numTriples+1] = termId(provisional, t.getPredicate());
+            triples[3*numTriples+2] = termId(provisional, t.getObject());
+            numTriples++;
+        }
+
+        // Encode the terms, sort by encoding and renumber by position.
+        int numTerms = provisional.size();
+        byte[][] encoded = new byte[numTerms][];
+        provisional.forEach((node, id) -> encoded[id] = ThriftConvert.termToBytes(ThriftConvert.convert(node, false)));
+        Integer[] order = new Integer[numTerms];
+        for ( int i = 0 ; i < numTerms ; i++ )
+            order[i] = i;
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(encoded[a], encoded[b]));
+        int[] renumber = new int[numTerms];
+        for ( int i = 0 ; i < numTerms ; i++ )
+            renumber[order[i]] = i;
+        for ( int i = 0 ; i < 3 * numTriples ; i++ )
+            triples[i] = renumber[triples[i]];
+
+        long termBytesLength = 0;
+        for ( byte[] bytes : encoded )
+            termBytesLength += bytes.length;
+        long offsetTermOffsets = HEADER_SIZE;
+        long offsetTermBytes = offsetTermOffsets + 8L * (numTerms + 1);
+        long endTermBytes = offsetTermBytes + termBytesLength;
+        long padding = (8 - (endTermBytes & 7)) & 7;
+        long indexSize = 12L * numTriples;
+        long offsetSPO = endTermBytes + padding;
+        long offsetPOS = offsetSPO + indexSize;
+        long offsetOSP = offsetPOS + indexSize;
+
+        try ( OutputStream output = Files.newOutputStream(path) ) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 128 * 1024));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(numTerms);
+            out.writeLong(numTriples);
+            out.writeLong(offsetTermOffsets);
+            out.writeLong(offsetTermBytes);
+            out.writeLong(offsetSPO);
+            out.writeLong(offsetPOS);
+            out.writeLong(offsetOSP);
+
+            long x = 0;
+            for ( int i = 0 ; i < numTerms ; i++ ) {
+                out.writeLong(x);
+                x += encoded[order[i]].length;
+            }
+            out.writeLong(x);
+            for ( int i = 0 ; i < numTerms ; i++ )
+                out.write(encoded[order[i]]);
+            for ( int i = 0 ; i < padding ; i++ )
+                out.write(0);
+
+            int[] records = new int[3 * numTriples];
+            writeIndex(out, triples, records, numTriples, SPO);
+            writeIndex(out, triples, records, numTriples, POS);
+            writeIndex(out, triples, records, numTriples, OSP);
+            out.flush();
+        } catch (IOException ex) {
+            IO.exception(ex);
+        }
+    }
+
+    private static int termId(Map<Node, Integer> ids, Node node) {
+        Integer id = ids.get(node);
+        if ( id == null ) {
+            id = ids.size();
+            ids.put(node, id);
+        }
+        return id;
+    }
+
+    private static void writeIndex(DataOutputStream out, int[] triples, int[] records, int numTriples, int[] layout) throws IOException {
+        for ( int i = 0 ; i < numTriples ; i++ ) {
+            records[3*i]   = triples[3*i + layout[0]];
+            records[3*i+1] = triples[3*i + layout[1]];
+            records[3*i+2] = triples[3*i + layout[2]];
+        }
+        sort(records, 0, numTriples);
+        for ( int i = 0 ; i < 3 * numTriples ; i++ )
+            out.writeInt(records[i]);
+    }
+
+    // ---- Sort records of 3 ints in place, without boxing.
+
+    /** Sort records [lo, hi). */
+    static void sort(int[] a, int lo, int hi) {
+        while ( hi - lo > 16 ) {
+            int mid = (lo + hi) >>> 1;
+            // Median of three, moved to lo.
+            if ( compare(a, mid, lo) < 0 )
+                swap(a, mid, lo);
+            if ( compare(a, hi - 1, lo) < 0 )
+                swap(a, hi - 1, lo);
+            if ( compare(a, hi - 1, mid) < 0 )
+                swap(a, hi - 1, mid);
+            swap(a, lo, mid);
+            // Partition around the pivot at lo.
+            int i = lo;
+            int j = hi;
+            for ( ;; ) {
+                do { i++; } while ( i < hi && compare(a, i, lo) < 0 );
+                do { j--; } while ( compare(a, j, lo) > 0 );
+                if ( i >= j )
+                    break;
+                swap(a, i, j);
+            }
+            swap(a, lo, j);
+            // Recurse on the smaller part, loop on the larger.
+            if ( j - lo < hi - j - 1 ) {
+                sort(a, lo, j);
+                lo = j + 1;
+            } else {
+                sort(a, j + 1, hi);
+                hi = j;
+            }
+        }
+        for ( int i = lo + 1 ; i < hi ; i++ )
+            for ( int j = i ; j > lo && compare(a, j, j - 1) < 0 ; j-- )
+                swap(a, j, j - 1);
+    }
+
+    private static int compare(int[] a, int i, int j) {
+        int x = Integer.compare(a[3*i], a[3*j]);
+        if ( x != 0 )
+            return x;
+        x = Integer.compare(a[3*i+1], a[3*j+1]);
+        if ( x != 0 )
+            return x;
+        return Integer.compare(a[3*i+2], a[3*j+2]);
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        if ( i == j )
+            return;
+        for ( int k = 0 ; k < 3 ; k++ ) {
+            int t = a[3*i+k];
+            a[3*i+k] = a[3*j+k];
+            a[3*j+k] = t;
+        }
+    }
+}
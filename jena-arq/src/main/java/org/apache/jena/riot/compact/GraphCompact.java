@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.compact;
+
+import static org.apache.jena.riot.compact.CompactGraph.*;
+
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+import org.apache.jena.graph.Capabilities;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.AllCapabilities;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.thrift.ThriftConvert;
+import org.apache.jena.shared.AddDeniedException;
+import org.apache.jena.shared.DeleteDeniedException;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NiceIterator;
+import org.apache.jena.util.iterator.NullIterator;
+
+/**
+ * A read-only graph over a memory mapped file in {@link CompactGraph} format.
+ * <p>
+ * A find pattern is answered from the index which has the bound terms as a prefix:
+ * SPO for S, SP and SPO; POS for P and PO; OSP for O and SO.
+ * The range of matching records is found by binary search, so a find
+ * touches only the pages it needs.
+ */
+public class GraphCompact extends GraphBase {
+    private static final int CACHE_SIZE = 4096;
+
+    private final MappedFile file;
+    private final long numTerms;
+    private final long numTriples;
+    private final long offsetTermOffsets;
+    private final long offsetTermBytes;
+    private final long offsetSPO;
+    private final long offsetPOS;
+    private final long offsetOSP;
+
+    private record CacheEntry(long id, Node node) {}
+    // Small direct-mapped cache of decoded terms. Entries are immutable so
+    // racing updates are safe; a lost update is only a cache miss.
+    private final CacheEntry[] cache = new CacheEntry[CACHE_SIZE];
+
+    /** Open a file in {@link CompactGraph} format. */
+    public static GraphCompact open(Path path) {
+        return new GraphCompact(MappedFile.open(path));
+    }
+
+    private GraphCompact(MappedFile file) {
+        this.file = file;
+        try {
+            if ( file.length() < HEADER_SIZE || file.getInt(OFFSET_MAGIC) != MAGIC )
+                throw new RiotException("Not a compact graph file");
+            int version = file.getInt(OFFSET_VERSION);
+            if ( version != VERSION )
+                throw new RiotException("Unsupported compact graph version: " + version);
+        } catch (RiotException ex) {
+            file.close();
+            throw ex;
+        }
+        this.numTerms = file.getLong(OFFSET_NTERMS);
+        this.numTriples = file.getLong(OFFSET_NTRIPLES);
+        this.offsetTermOffsets = file.getLong(OFFSET_TERM_OFFSETS);
+        this.offsetTermBytes = file.getLong(OFFSET_TERM_BYTES);
+        this.offsetSPO = file.getLong(OFFSET_SPO);
+        this.offsetPOS = file.getLong(OFFSET_POS);
+        this.offsetOSP = file.getLong(OFFSET_OSP);
+    }
+
+    @Override
+    public Capabilities getCapabilities() {
+        return AllCapabilities.updateNotAllowed;
+    }
+
+    @Override
+    public void performAdd(Triple t) {
+        throw new AddDeniedException("read-only graph");
+    }
+
+    @Override
+    public void performDelete(Triple t) {
+        throw new DeleteDeniedException("read-only graph");
+    }
+
+    @Override
+    public void clear() {
+        throw new DeleteDeniedException("read-only graph");
+    }
+
+    @Override
+    public void remove(Node s, Node p, Node o) {
+        throw new DeleteDeniedException("read-only graph");
+    }
+
+    @Override
+    protected int graphBaseSize() {
+        return (int)Math.min(numTriples, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() {
+        if ( !isClosed() )
+            file.close();
+        super.close();
+    }
+
+    @Override
+    protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+        Node s = concrete(triplePattern.getSubject());
+        Node p = concrete(triplePattern.getPredicate());
+        Node o = concrete(triplePattern.getObject());
+        long sId = lookup(s);
+        long pId = lookup(p);
+        long oId = lookup(o);
+        if ( sId == NOT_FOUND || pId == NOT_FOUND || oId == NOT_FOUND )
+            return NullIterator.instance();
+        if ( s != null ) {
+            if ( p == null && o != null )
+                return scan(offsetOSP, CompactGraphWriter.OSP, oId, sId, -1, 2);
+            return scan(offsetSPO, CompactGraphWriter.SPO, sId, pId, oId, bound(s, p, o));
+        }
+        if ( p != null )
+            return scan(offsetPOS, CompactGraphWriter.POS, pId, oId, -1, o == null ? 1 : 2);
+        if ( o != null )
+            return scan(offsetOSP, CompactGraphWriter.OSP, oId, -1, -1, 1);
+        return scan(offsetSPO, CompactGraphWriter.SPO, -1, -1, -1, 0);
+    }
+
+    private static Node concrete(Node node) {
+        return ( node == null || !node.isConcrete() ) ? null : node;
+    }
+
+    private static int bound(Node s, Node p, Node o) {
+        if ( p == null )
+            return 1;
+        return o == null ? 2 : 3;
+    }
+
+    // ---- Indexes
+
+    /** Records of the index starting at {@code offset} whose first {@code len} ids match the key. */
+    private ExtendedIterator<Triple> scan(long offset, int[] layout, long k1, long k2, long k3, int len) {
+        long lo = 0;
+        long hi = numTriples;
+        if ( len > 0 ) {
+            lo = searchIndex(offset, k1, k2, k3, len, false);
+            hi = searchIndex(offset, k1, k2, k3, len, true);
+        }
+        if ( lo >= hi )
+            return NullIterator.instance();
+        return new IndexIterator(offset, layout, lo, hi);
+    }
+
+    /**
+     * First record that is greater than or equal to ({@code upper} false),
+     * or strictly greater than ({@code upper} true), the key on the first {@code len} ids.
+     */
+    private long searchIndex(long offset, long k1, long k2, long k3, int len, boolean upper) {
+        long lo = 0;
+        long hi = numTriples;
+        while ( lo < hi ) {
+            long mid = (lo + hi) >>> 1;
+            int x = compareRecord(offset + 12 * mid, k1, k2, k3, len);
+            if ( x < 0 || (upper && x == 0) )
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    private int compareRecord(long position, long k1, long k2, long k3, int len) {
+        int x = Long.compare(file.getInt(position), k1);
+        if ( x != 0 || len == 1 )
+            return x;
+        x = Long.compare(file.getInt(position + 4), k2);
+        if ( x != 0 || len == 2 )
+            return x;
+        return Long.compare(file.getInt(position + 8), k3);
+    }
+
+    private class IndexIterator extends NiceIterator<Triple> {
+        private final long offset;
+        private final int[] layout;
+        private long index;
+        private final long end;
+
+        IndexIterator(long offset, int[] layout, long start, long end) {
+            this.offset = offset;
+            this.layout = layout;
+            this.index = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < end;
+        }
+
+        @Override
+        public Triple next() {
+            if ( !hasNext() )
+                throw new NoSuchElementException();
+            long position = offset + 12 * index;
+            index++;
+            Node[] spo = new Node[3];
+            spo[layout[0]] = term(file.getInt(position));
+            spo[layout[1]] = term(file.getInt(position + 4));
+            spo[layout[2]] = term(file.getInt(position + 8));
+            return Triple.create(spo[0], spo[1], spo[2]);
+        }
+    }
+
+    // ---- Dictionary
+
+    private static final long NOT_FOUND = -2;
+
+    /** Term id, -1 for an unbound position, or {@link #NOT_FOUND} for a term not in the graph. */
+    private long lookup(Node node) {
+        if ( node == null )
+            return -1;
+        byte[] key = ThriftConvert.termToBytes(ThriftConvert.convert(node, false));
+        long lo = 0;
+        long hi = numTerms - 1;
+        while ( lo <= hi ) {
+            long mid = (lo + hi) >>> 1;
+            int x = compareTerm(mid, key);
+            if ( x < 0 )
+                lo = mid + 1;
+            else if ( x > 0 )
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return NOT_FOUND;
+    }
+
+    /** Compare the encoding of term {@code id} with {@code key}, unsigned bytewise. */
+    private int compareTerm(long id, byte[] key) {
+        long start = offsetTermBytes + file.getLong(offsetTermOffsets + 8 * id);
+        long len = file.getLong(offsetTermOffsets + 8 * (id + 1)) - (start - offsetTermBytes);
+        long n = Math.min(len, key.length);
+        for ( int i = 0 ; i < n ; i++ ) {
+            int x = Integer.compare(file.getByte(start + i) & 0xFF, key[i] & 0xFF);
+            if ( x != 0 )
+                return x;
+        }
+        return Long.compare(len, key.length);
+    }
+
+    private Node term(long id) {
+        int slot = (int)(id & (CACHE_SIZE - 1));
+        CacheEntry entry = cache[slot];
+        if ( entry != null && entry.id == id )
+            return entry.node;
+        long start = file.getLong(offsetTermOffsets + 8 * id);
+        long finish = file.getLong(offsetTermOffsets + 8 * (id + 1));
+        byte[] bytes = file.getBytes(offsetTermBytes + start, (int)(finish - start));
+        Node node = ThriftConvert.convert(ThriftConvert.termFromBytes(bytes));
+        cache[slot] = new CacheEntry(id, node);
+        return node;
+    }
+}
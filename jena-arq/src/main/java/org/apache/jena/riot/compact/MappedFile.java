@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.compact;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.jena.atlas.io.IO;
+
+/**
+ * A read-only file mapped into memory.
+ * <p>
+ * The file is mapped in segments of 1GiB, so files larger than 2GiB can be read.
+ * Reads of an {@code int} or {@code long} must be aligned to its size so that
+ * they never cross a segment boundary.
+ */
+final class MappedFile implements AutoCloseable {
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long length;
+
+    static MappedFile open(Path path) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            return new MappedFile(channel);
+        } catch (IOException ex) {
+            IO.exception(ex);
+            return null;
+        }
+    }
+
+    private MappedFile(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.length = channel.size();
+        int count = (int)((length + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+        this.segments = new MappedByteBuffer[count];
+        for ( int i = 0 ; i < count ; i++ ) {
+            long start = (long)i << SEGMENT_BITS;
+            long size = Math.min(SEGMENT_SIZE, length - start);
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        }
+    }
+
+    long length() {
+        return length;
+    }
+
+    byte getByte(long position) {
+        return segments[(int)(position >>> SEGMENT_BITS)].get((int)(position & SEGMENT_MASK));
+    }
+
+    int getInt(long position) {
+        return segments[(int)(position >>> SEGMENT_BITS)].getInt((int)(position & SEGMENT_MASK));
+    }
+
+    long getLong(long position) {
+        return segments[(int)(position >>> SEGMENT_BITS)].getLong((int)(position & SEGMENT_MASK));
+    }
+
+    /** Copy bytes, which may span segments, into a new array. */
+    byte[] getBytes(long position, int len) {
+        byte[] bytes = new byte[len];
+        int done = 0;
+        while ( done < len ) {
+            long pos = position + done;
+            MappedByteBuffer segment = segments[(int)(pos >>> SEGMENT_BITS)];
+            int offset = (int)(pos & SEGMENT_MASK);
+            int n = Math.min(len - done, segment.capacity() - offset);
+            segment.get(offset, bytes, done, n);
+            done += n;
+        }
+        return bytes;
+    }
+
+    /**
+     * The mapping itself stays valid until the buffers are garbage collected;
+     * Java provides no way to unmap a buffer.
+     */
+    @Override
+    public void close() {
+        try { channel.close(); }
+        catch (IOException ex) { IO.exception(ex); }
+    }
+}
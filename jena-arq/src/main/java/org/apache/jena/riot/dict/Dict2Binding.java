@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.dict;
+
+import java.util.List;
+
+import org.apache.jena.atlas.iterator.IteratorSlotted;
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingBuilder;
+
+/** Bindings read, one row at a time, from a SPARQL result set encoded in RDF-DICT. */
+public class Dict2Binding extends IteratorSlotted<Binding> {
+
+    private final DictDecoder decoder;
+    private final BindingBuilder builder = Binding.builder();
+    private List<Var> vars = List.of();
+    private Binding next = null;
+
+    private final DictDecoder.Handler handler = new DictDecoder.Handler() {
+        @Override
+        public void vars(List<String> varNames) {
+            vars = Var.varList(varNames);
+        }
+
+        @Override
+        public void row(Node[] row) {
+            builder.reset();
+            for ( int i = 0 ; i < row.length ; i++ ) {
+                if ( row[i] != null )
+                    builder.add(vars.get(i), row[i]);
+            }
+            next = builder.build();
+        }
+    };
+
+    Dict2Binding(DictDecoder decoder) {
+        this.decoder = decoder;
+        // The variables are the first message.
+        decoder.step(handler);
+    }
+
+    public List<Var> getVars() {
+        return vars;
+    }
+
+    @Override
+    protected Binding moveToNext() {
+        next = null;
+        while ( next == null ) {
+            if ( !decoder.step(handler) )
+                return null;
+        }
+        return next;
+    }
+
+    @Override
+    protected boolean hasMore() {
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.dict;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/** Send decoded RDF-DICT to a {@link StreamRDF}. */
+class Dict2StreamRDF implements DictDecoder.Handler {
+
+    private final StreamRDF dest;
+
+    Dict2StreamRDF(StreamRDF dest) {
+        this.dest = dest;
+    }
+
+    @Override
+    public void triple(Node s, Node p, Node o) {
+        dest.triple(Triple.create(s, p, o));
+    }
+
+    @Override
+    public void quad(Node g, Node s, Node p, Node o) {
+        dest.quad(Quad.create(g, s, p, o));
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        dest.prefix(prefix, iri);
+    }
+
+    @Override
+    public void base(String iri) {
+        dest.base(iri);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.dict;
+
+/**
+ * Constants of the RDF-DICT encoding.
+ * <p>
+ * A stream is a header ({@link #MAGIC}, {@link #VERSION}, flags) followed by blocks.
+ * A block is the length of its content, then, if {@link #FLAG_DEFLATE} is set, the
+ * length of the compressed content, then the bytes. A block of length zero ends the
+ * stream. Messages do not span blocks.
+ * <p>
+ * All integers are unsigned variable length (7 bits per byte, least significant
+ * first). A string is its length in bytes, then the UTF-8 bytes.
+ * <p>
+ * A message is a tag byte and its arguments. Each term definition message gives the
+ * next dictionary id (starting at 1) to the term; other messages refer to terms by
+ * id, with 0 meaning "absent" (the default graph of a quad, an unbound variable of a
+ * row).
+ */
+class DictConst {
+    static final byte[] MAGIC           = { 'R', 'D', 'F', 'D' };
+    static final int    VERSION         = 1;
+
+    /** Flag: block contents are compressed with DEFLATE. */
+    static final int    FLAG_DEFLATE    = 0x01;
+
+    // Term definitions.
+    /** IRI: string. */
+    static final int    DEF_IRI         = 0x01;
+    /** Blank node: label string. */
+    static final int    DEF_BNODE       = 0x02;
+    /** Literal of datatype {@code xsd:string}: lexical form. */
+    static final int    DEF_STRING      = 0x03;
+    /** Literal with language tag: lexical form, language tag. */
+    static final int    DEF_LANG        = 0x04;
+    /** Literal with language tag and base direction: lexical form, language tag, direction. */
+    static final int    DEF_DIRLANG     = 0x05;
+    /** Literal with datatype: lexical form, id of the datatype IRI. */
+    static final int    DEF_DATATYPE    = 0x06;
+    /** Triple term: ids of subject, predicate, object. */
+    static final int    DEF_TRIPLE      = 0x07;
+
+    // Directives.
+    /** Prefix: prefix string, IRI string. */
+    static final int    PREFIX          = 0x10;
+    /** Base: IRI string. */
+    static final int    BASE            = 0x11;
+
+    // Data.
+    /** Triple: ids of subject, predicate, object. */
+    static final int    TRIPLE          = 0x20;
+    /** Quad: ids of graph (0 for the default graph), subject, predicate, object. */
+    static final int    QUAD            = 0x21;
+    /** Clear the dictionary; the next definition is id 1. */
+    static final int    RESET           = 0x30;
+    /** Result set variables: count, then the name strings. */
+    static final int    VARS            = 0x40;
+    /** Result set row: one id per variable, 0 for unbound. */
+    static final int    ROW             = 0x41;
+
+    /** Default size, in bytes, at which a block is written. */
+    static final int    BLOCK_SIZE      = 64 * 1024;
+
+    /** Default number of dictionary entries before the dictionary is reset. */
+    static final int    DICT_SIZE       = 1024 * 1024;
+}
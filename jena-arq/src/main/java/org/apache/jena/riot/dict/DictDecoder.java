@@ -0,0 +1,371 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.dict;
+
+import static org.apache.jena.riot.dict.DictConst.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * Read RDF-DICT, one message at a time, from an {@link InputStream} or from a
+ * {@link ByteBuffer} holding the whole stream.
+ * <p>
+ * Terms are decoded directly from the block bytes into the dictionary; an uncompressed
+ * block in a {@code ByteBuffer} is not copied.
+ */
+class DictDecoder {
+
+    /** Receiver of the messages other than term definitions. */
+    interface Handler {
+        default void triple(Node s, Node p, Node o)         { throw new RiotDictException("Unexpected triple"); }
+        default void quad(Node g, Node s, Node p, Node o)   { throw new RiotDictException("Unexpected quad"); }
+        default void prefix(String prefix, String iri)      {}
+        default void base(String iri)                       {}
+        default void vars(List<String> varNames)            { throw new RiotDictException("Unexpected variables"); }
+        /** A result set row; null for unbound. The array is reused for the next row. */
+        default void row(Node[] row)                        { throw new RiotDictException("Unexpected row"); }
+    }
+
+    private final InputStream input;
+    private final ByteBuffer source;
+    private final boolean compressed;
+    private final Inflater inflater;
+
+    private ByteBuffer block = null;
+    private byte[] blockBytes = new byte[0];
+    private byte[] compressedBytes = new byte[0];
+    private byte[] stringBytes = new byte[256];
+    private boolean finished = false;
+
+    // Ids start at 1.
+    private Node[] dictionary = new Node[1024];
+    private int dictCount = 0;
+    private Node[] row = null;
+
+    DictDecoder(InputStream input) {
+        this.input = input;
+        this.source = null;
+        this.compressed = header(ByteBuffer.wrap(readBytes(input, MAGIC.length + 2)));
+        this.inflater = compressed ? new Inflater() : null;
+    }
+
+    DictDecoder(ByteBuffer source) {
+        this.input = null;
+        this.source = source.duplicate();
+        this.compressed = header(this.source);
+        this.inflater = compressed ? new Inflater() : null;
+    }
+
+    private static byte[] readBytes(InputStream input, int length) {
+        try {
+            return input.readNBytes(length);
+        } catch (IOException ex) {
+            IO.exception(ex);
+            return null;
+        }
+    }
+
+    private static boolean header(ByteBuffer bytes) {
+        if ( bytes.remaining() < MAGIC.length + 2 )
+            throw new RiotDictException("Not RDF-DICT: too short");
+        for ( byte b : MAGIC ) {
+            if ( bytes.get() != b )
+                throw new RiotDictException("Not RDF-DICT: bad header");
+        }
+        int version = bytes.get() & 0xFF;
+        if ( version != VERSION )
+            throw new RiotDictException("RDF-DICT: unsupported version: " + version);
+        int flags = bytes.get() & 0xFF;
+        return ( flags & FLAG_DEFLATE ) != 0;
+    }
+
+    /**
+     * Decode messages until one that is not a term definition, and send it to the handler.
+     * Return false at the end of the stream.
+     */
+    boolean step(Handler handler) {
+        for ( ;; ) {
+            if ( block == null || !block.hasRemaining() ) {
+                if ( !nextBlock() )
+                    return false;
+                continue;
+            }
+            int tag = block.get() & 0xFF;
+            switch (tag) {
+                case DEF_IRI ->         define(NodeFactory.createURI(string()));
+                case DEF_BNODE ->       define(NodeFactory.createBlankNode(string()));
+                case DEF_STRING ->      define(NodeFactory.createLiteralString(string()));
+                case DEF_LANG -> {
+                    String lex = string();
+                    define(NodeFactory.createLiteralLang(lex, string()));
+                }
+                case DEF_DIRLANG -> {
+                    String lex = string();
+                    String lang = string();
+                    define(NodeFactory.createLiteralDirLang(lex, lang, string()));
+                }
+                case DEF_DATATYPE -> {
+                    String lex = string();
+                    Node dt = term();
+                    if ( dt == null || !dt.isURI() )
+                        throw new RiotDictException("Bad datatype: " + dt);
+                    RDFDatatype datatype = TypeMapper.getInstance().getSafeTypeByName(dt.getURI());
+                    define(NodeFactory.createLiteral(lex, datatype));
+                }
+                case DEF_TRIPLE -> {
+                    Node s = term();
+                    Node p = term();
+                    Node o = term();
+                    define(NodeFactory.createTripleNode(s, p, o));
+                }
+                case RESET ->           dictCount = 0;
+                case PREFIX -> {
+                    String prefix = string();
+                    handler.prefix(prefix, string());
+                    return true;
+                }
+                case BASE -> {
+                    handler.base(string());
+                    return true;
+                }
+                case TRIPLE -> {
+                    Node s = term();
+                    Node p = term();
+                    Node o = term();
+                    handler.triple(s, p, o);
+                    return true;
+                }
+                case QUAD -> {
+                    Node g = term();
+                    Node s = term();
+                    Node p = term();
+                    Node o = term();
+                    handler.quad(g == null ? Quad.defaultGraphIRI : g, s, p, o);
+                    return true;
+                }
+                case VARS -> {
+                    int n = varint();
+                    List<String> varNames = new ArrayList<>(n);
+                    for ( int i = 0 ; i < n ; i++ )
+                        varNames.add(string());
+                    row = new Node[n];
+                    handler.vars(varNames);
+                    return true;
+                }
+                case ROW -> {
+                    if ( row == null )
+                        throw new RiotDictException("Row before variables");
+                    for ( int i = 0 ; i < row.length ; i++ )
+                        row[i] = term();
+                    handler.row(row);
+                    return true;
+                }
+                default ->
+                    throw new RiotDictException("Unknown message: 0x" + Integer.toHexString(tag));
+            }
+        }
+    }
+
+    /** Decode all the messages. */
+    void decode(Handler handler) {
+        while ( step(handler) ) {}
+    }
+
+    // ---- Dictionary
+
+    private void define(Node node) {
+        dictCount++;
+        if ( dictCount == dictionary.length )
+            dictionary = Arrays.copyOf(dictionary, 2 * dictionary.length);
+        dictionary[dictCount] = node;
+    }
+
+    /** The term for the next id; null for id 0. */
+    private Node term() {
+        int id = varint();
+        if ( id == 0 )
+            return null;
+        if ( id > dictCount )
+            throw new RiotDictException("Undefined term id: " + id);
+        return dictionary[id];
+    }
+
+    // ---- Block content
+
+    private int varint() {
+        int value = 0;
+        for ( int shift = 0 ; shift < 32 ; shift += 7 ) {
+            if ( !block.hasRemaining() )
+                throw new RiotDictException("Truncated block");
+            byte b = block.get();
+            value |= ( b & 0x7F ) << shift;
+            if ( b >= 0 )
+                return value;
+        }
+        throw new RiotDictException("Bad integer");
+    }
+
+    private String string() {
+        int length = varint();
+        if ( length < 0 || length > block.remaining() )
+            throw new RiotDictException("Truncated block");
+        if ( block.hasArray() ) {
+            int position = block.position();
+            String string = new String(block.array(), block.arrayOffset() + position, length, StandardCharsets.UTF_8);
+            block.position(position + length);
+            return string;
+        }
+        if ( length > stringBytes.length )
+            stringBytes = new byte[Math.max(length, 2 * stringBytes.length)];
+        block.get(stringBytes, 0, length);
+        return new String(stringBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // ---- Blocks
+
+    private boolean nextBlock() {
+        if ( finished )
+            return false;
+        int length = ( input != null ) ? streamVarint() : bufferVarint();
+        if ( length == 0 ) {
+            finished = true;
+            if ( inflater != null )
+                inflater.end();
+            return false;
+        }
+        if ( input != null )
+            block = streamBlock(length);
+        else
+            block = bufferBlock(length);
+        return true;
+    }
+
+    private ByteBuffer bufferBlock(int length) {
+        if ( !compressed ) {
+            if ( length > source.remaining() )
+                throw new RiotDictException("Truncated block");
+            ByteBuffer b = source.slice(source.position(), length);
+            source.position(source.position() + length);
+            return b;
+        }
+        int compressedLength = bufferVarint();
+        if ( compressedLength > source.remaining() )
+            throw new RiotDictException("Truncated block");
+        ByteBuffer compressedBlock = source.slice(source.position(), compressedLength);
+        source.position(source.position() + compressedLength);
+        inflater.reset();
+        inflater.setInput(compressedBlock);
+        return inflate(length);
+    }
+
+    private ByteBuffer streamBlock(int length) {
+        try {
+            if ( !compressed ) {
+                ensureBlockBytes(length);
+                readFully(blockBytes, length);
+                return ByteBuffer.wrap(blockBytes, 0, length);
+            }
+            int compressedLength = streamVarint();
+            if ( compressedLength > compressedBytes.length )
+                compressedBytes = new byte[compressedLength];
+            readFully(compressedBytes, compressedLength);
+            inflater.reset();
+            inflater.setInput(compressedBytes, 0, compressedLength);
+            return inflate(length);
+        } catch (IOException ex) {
+            IO.exception(ex);
+            return null;
+        }
+    }
+
+    private ByteBuffer inflate(int length) {
+        ensureBlockBytes(length);
+        try {
+            int n = 0;
+            while ( n < length ) {
+                int x = inflater.inflate(blockBytes, n, length - n);
+                if ( x == 0 && ( inflater.finished() || inflater.needsInput() ) )
+                    break;
+                n += x;
+            }
+            if ( n != length )
+                throw new RiotDictException("Bad compressed block: expected " + length + " bytes, got " + n);
+        } catch (DataFormatException ex) {
+            throw new RiotDictException("Bad compressed block", ex);
+        }
+        return ByteBuffer.wrap(blockBytes, 0, length);
+    }
+
+    private void ensureBlockBytes(int length) {
+        if ( length > blockBytes.length )
+            blockBytes = new byte[Math.max(length, BLOCK_SIZE + 1024)];
+    }
+
+    private void readFully(byte[] bytes, int length) throws IOException {
+        int n = input.readNBytes(bytes, 0, length);
+        if ( n != length )
+            throw new RiotDictException("Truncated block");
+    }
+
+    private int bufferVarint() {
+        int value = 0;
+        for ( int shift = 0 ; shift < 32 ; shift += 7 ) {
+            if ( !source.hasRemaining() )
+                throw new RiotDictException("Truncated stream");
+            byte b = source.get();
+            value |= ( b & 0x7F ) << shift;
+            if ( b >= 0 )
+                return value;
+        }
+        throw new RiotDictException("Bad integer");
+    }
+
+    private int streamVarint() {
+        try {
+            int value = 0;
+            for ( int shift = 0 ; shift < 32 ; shift += 7 ) {
+                int b = input.read();
+                if ( b < 0 )
+                    throw new RiotDictException("Truncated stream");
+                value |= ( b & 0x7F ) << shift;
+                if ( ( b & 0x80 ) == 0 )
+                    return value;
+            }
+            throw new RiotDictException("Bad integer");
+        } catch (IOException ex) {
+            IO.exception(ex);
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.dict;
+
+import static org.apache.jena.riot.dict.DictConst.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.TextDirection;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.vocabulary.XSD;
+
+/**
+ * Write RDF-DICT: messages are encoded into a block buffer, and each term is
+ * defined the first time it is used. The block is written to the output stream,
+ * compressed or not, when it reaches the block size.
+ */
+class DictEncoder {
+
+    private final OutputStream out;
+    private final int blockSize;
+    private final int dictSize;
+    private final Map<Node, Integer> dictionary = new HashMap<>();
+    private int nextId = 1;
+
+    private byte[] buffer;
+    private int pos = 0;
+
+    private final Deflater deflater;
+    private byte[] compressed;
+
+    private final byte[] varintBytes = new byte[5];
+    private int[] rowIds = new int[0];
+    private boolean finished = false;
+
+    DictEncoder(OutputStream out, boolean compress) {
+        this(out, compress, BLOCK_SIZE, DICT_SIZE);
+    }
+
+    DictEncoder(OutputStream out, boolean compress, int blockSize, int dictSize) {
+        this.out = out;
+        this.blockSize = blockSize;
+        this.dictSize = dictSize;
+        this.buffer = new byte[blockSize + 1024];
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        this.compressed = compress ? new byte[blockSize + 1024] : null;
+        try {
+            out.write(MAGIC);
+            out.write(VERSION);
+            out.write(compress ? FLAG_DEFLATE : 0);
+        } catch (IOException ex) { IO.exception(ex); }
+    }
+
+    void triple(Triple triple) {
+        triple(triple.getSubject(), triple.getPredicate(), triple.getObject());
+    }
+
+    void triple(Node s, Node p, Node o) {
+        startMessage();
+        int is = term(s);
+        int ip = term(p);
+        int io = term(o);
+        tag(TRIPLE);
+        varint(is);
+        varint(ip);
+        varint(io);
+        endMessage();
+    }
+
+    void quad(Quad quad) {
+        startMessage();
+        Node g = quad.getGraph();
+        int ig = ( g == null || Quad.isDefaultGraph(g) ) ? 0 : term(g);
+        int is = term(quad.getSubject());
+        int ip = term(quad.getPredicate());
+        int io = term(quad.getObject());
+        tag(QUAD);
+        varint(ig);
+        varint(is);
+        varint(ip);
+        varint(io);
+        endMessage();
+    }
+
+    void prefix(String prefix, String iri) {
+        tag(PREFIX);
+        string(prefix);
+        string(iri);
+        endMessage();
+    }
+
+    void base(String iri) {
+        tag(BASE);
+        string(iri);
+        endMessage();
+    }
+
+    void vars(List<String> varNames) {
+        tag(VARS);
+        varint(varNames.size());
+        for ( String name : varNames )
+            string(name);
+        rowIds = new int[varNames.size()];
+        endMessage();
+    }
+
+    /** A row of a result set; null for an unbound variable. */
+    void row(Node[] row) {
+        if ( row.length != rowIds.length )
+            throw new RiotDictException("Row length " + row.length + " : variables " + rowIds.length);
+        startMessage();
+        for ( int i = 0 ; i < row.length ; i++ )
+            rowIds[i] = ( row[i] == null ) ? 0 : term(row[i]);
+        tag(ROW);
+        for ( int id : rowIds )
+            varint(id);
+        endMessage();
+    }
+
+    /** Write the remaining messages and the end of the stream, and flush the output stream. */
+    void finish() {
+        if ( finished )
+            return;
+        finished = true;
+        flushBlock();
+        writeVarint(0);
+        if ( deflater != null )
+            deflater.end();
+        IO.flush(out);
+    }
+
+    // ---- Dictionary
+
+    /**
+     * Reset the dictionary, if full, before the terms of a message are defined, so
+     * that the ids used by the message are all in the current dictionary.
+     */
+    private void startMessage() {
+        if ( nextId > dictSize ) {
+            dictionary.clear();
+            nextId = 1;
+            tag(RESET);
+        }
+    }
+
+    private int term(Node node) {
+        Integer id = dictionary.get(node);
+        if ( id != null )
+            return id;
+        define(node);
+        int newId = nextId++;
+        dictionary.put(node, newId);
+        return newId;
+    }
+
+    /** Write the definition of a term, after the definitions of any terms it uses. */
+    private void define(Node node) {
+        if ( node.isURI() ) {
+            tag(DEF_IRI);
+            string(node.getURI());
+            return;
+        }
+        if ( node.isBlank() ) {
+            tag(DEF_BNODE);
+            string(node.getBlankNodeLabel());
+            return;
+        }
+        if ( node.isLiteral() ) {
+            String lex = node.getLiteralLexicalForm();
+            String lang = node.getLiteralLanguage();
+            if ( lang != null && !lang.isEmpty() ) {
+                TextDirection dir = node.getLiteralTextDirection();
+                if ( dir != null ) {
+                    tag(DEF_DIRLANG);
+                    string(lex);
+                    string(lang);
+                    string(dir.direction());
+                } else {
+                    tag(DEF_LANG);
+                    string(lex);
+                    string(lang);
+                }
+                return;
+            }
+            String dt = node.getLiteralDatatypeURI();
+            if ( dt == null || dt.equals(XSD.xstring.getURI()) ) {
+                tag(DEF_STRING);
+                string(lex);
+                return;
+            }
+            int idDatatype = term(NodeFactory.createURI(dt));
+            tag(DEF_DATATYPE);
+            string(lex);
+            varint(idDatatype);
+            return;
+        }
+        if ( node.isNodeTriple() ) {
+            Triple triple = node.getTriple();
+            int is = term(triple.getSubject());
+            int ip = term(triple.getPredicate());
+            int io = term(triple.getObject());
+            tag(DEF_TRIPLE);
+            varint(is);
+            varint(ip);
+            varint(io);
+            return;
+        }
+        throw new RiotDictException("Can't encode: " + node);
+    }
+
+    // ---- Block buffer
+
+    private void endMessage() {
+        if ( pos >= blockSize )
+            flushBlock();
+    }
+
+    private void ensure(int n) {
+        if ( pos + n > buffer.length ) {
+            byte[] b = new byte[Math.max(2 * buffer.length, pos + n)];
+            System.arraycopy(buffer, 0, b, 0, pos);
+            buffer = b;
+        }
+    }
+
+    private void tag(int tag) {
+        ensure(1);
+        buffer[pos++] = (byte)tag;
+    }
+
+    private void varint(int value) {
+        ensure(5);
+        while ( (value & ~0x7F) != 0 ) {
+            buffer[pos++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[pos++] = (byte)value;
+    }
+
+    private void string(String string) {
+        int length = string.length();
+        if ( isASCII(string) ) {
+            varint(length);
+            ensure(length);
+            for ( int i = 0 ; i < length ; i++ )
+                buffer[pos++] = (byte)string.charAt(i);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        varint(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    private static boolean isASCII(String string) {
+        for ( int i = 0 ; i < string.length() ; i++ ) {
+            if ( string.charAt(i) >= 0x80 )
+                return false;
+        }
+        return true;
+    }
+
+    private void flushBlock() {
+        if ( pos == 0 )
+            return;
+        try {
+            writeVarint(pos);
+            if ( deflater == null ) {
+                out.write(buffer, 0, pos);
+            } else {
+                deflater.reset();
+                deflater.setInput(buffer, 0, pos);
+                deflater.finish();
+                int length = 0;
+                while ( !deflater.finished() ) {
+                    if ( length == compressed.length ) {
+                        byte[] b = new byte[2 * compressed.length];
+                        System.arraycopy(compressed, 0, b, 0, length);
+                        compressed = b;
+                    }
+                    length += deflater.deflate(compressed, length, compressed.length - length);
+                }
+                writeVarint(length);
+                out.write(compressed, 0, length);
+            }
+        } catch (IOException ex) { IO.exception(ex); }
+        pos = 0;
+    }
+
+    private void writeVarint(int value) {
+        int n = 0;
+        while ( (value & ~0x7F) != 0 ) {
+            varintBytes[n++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        varintBytes[n++] = (byte)value;
+        try {
+            out.write(varintBytes, 0, n);
+        } catch (IOException ex) { IO.exception(ex); }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.dict;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.graph.Node;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.exec.RowSet;
+import org.apache.jena.sparql.exec.RowSetStream;
+
+/**
+ * Operations on RDF-DICT, a binary encoding of RDF where each term is written once,
+ * when it is first used, and is then referred to by a dictionary id. The stream is
+ * written in blocks, which may be compressed.
+ * <p>
+ * The dictionary is built as the stream is read so the reader does not need to see
+ * all the data before decoding starts. The writer starts a new dictionary after
+ * about a million terms to bound the memory used by both sides.
+ * <p>
+ * Other binary encodings are {@link org.apache.jena.riot.thrift.ThriftRDF} and
+ * {@link org.apache.jena.riot.protobuf.ProtobufRDF}.
+ */
+public class DictRDF {
+
+    /**
+     * An {@link StreamRDF} that writes to an output stream.
+     * Call {@link StreamRDF#start()}...{@link StreamRDF#finish()}.
+     */
+    public static StreamRDF streamToOutputStream(OutputStream output) {
+        return streamToOutputStream(output, false);
+    }
+
+    /**
+     * An {@link StreamRDF} that writes to an output stream, optionally compressing
+     * each block. Call {@link StreamRDF#start()}...{@link StreamRDF#finish()}.
+     */
+    public static StreamRDF streamToOutputStream(OutputStream output, boolean compress) {
+        return new StreamRDF2Dict(output, compress);
+    }
+
+    /**
+     * Read an input stream and send the triples, quads and prefixes to the {@link StreamRDF}.
+     */
+    public static void inputStreamToStreamRDF(InputStream input, StreamRDF stream) {
+        input = IO.ensureBuffered(input);
+        stream.start();
+        try {
+            new DictDecoder(input).decode(new Dict2StreamRDF(stream));
+        } finally { stream.finish(); }
+    }
+
+    /**
+     * Decode a {@link ByteBuffer} holding a whole RDF-DICT stream, from its position,
+     * and send the triples, quads and prefixes to the {@link StreamRDF}. The buffer
+     * position is not changed. Uncompressed blocks are decoded in-place.
+     */
+    public static void bufferToStreamRDF(ByteBuffer buffer, StreamRDF stream) {
+        stream.start();
+        try {
+            new DictDecoder(buffer).decode(new Dict2StreamRDF(stream));
+        } finally { stream.finish(); }
+    }
+
+    /** Return a streaming {@link RowSet} read from an input stream. */
+    public static RowSet readRowSet(InputStream input) {
+        Dict2Binding d2b = new Dict2Binding(new DictDecoder(IO.ensureBuffered(input)));
+        return RowSetStream.create(d2b.getVars(), d2b);
+    }
+
+    /** Return a {@link RowSet} decoding a {@link ByteBuffer} holding a whole RDF-DICT result set. */
+    public static RowSet readRowSet(ByteBuffer buffer) {
+        Dict2Binding d2b = new Dict2Binding(new DictDecoder(buffer));
+        return RowSetStream.create(d2b.getVars(), d2b);
+    }
+
+    /** Write a {@link RowSet} to an output stream. */
+    public static void writeRowSet(OutputStream out, RowSet rowSet) {
+        writeRowSet(out, rowSet, false);
+    }
+
+    /** Write a {@link RowSet} to an output stream, optionally compressing each block. */
+    public static void writeRowSet(OutputStream out, RowSet rowSet, boolean compress) {
+        List<Var> vars = rowSet.getResultVars();
+        DictEncoder encoder = new DictEncoder(out, compress);
+        encoder.vars(Var.varNames(vars));
+        Node[] row = new Node[vars.size()];
+        rowSet.forEachRemaining(binding -> {
+            fill(row, vars, binding);
+            encoder.row(row);
+        });
+        encoder.finish();
+    }
+
+    private static void fill(Node[] row, List<Var> vars, Binding binding) {
+        for ( int i = 0 ; i < row.length ; i++ )
+            row[i] = binding.get(vars.get(i));
+    }
+}
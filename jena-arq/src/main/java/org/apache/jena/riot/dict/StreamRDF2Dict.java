@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.dict;
+
+import java.io.OutputStream;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * Encode a {@link StreamRDF} as RDF-DICT.
+ * The output is written when {@link #finish()} is called, or block by block before that.
+ * The output stream is not closed.
+ */
+public class StreamRDF2Dict implements StreamRDF, AutoCloseable {
+
+    private final DictEncoder encoder;
+
+    public StreamRDF2Dict(OutputStream out) {
+        this(out, false);
+    }
+
+    /**
+     * Encode to an output stream.
+     * @param out the output stream
+     * @param compress whether to compress each block with DEFLATE
+     */
+    public StreamRDF2Dict(OutputStream out, boolean compress) {
+        this.encoder = new DictEncoder(out, compress);
+    }
+
+    @Override
+    public void start() {}
+
+    @Override
+    public void triple(Triple triple) {
+        encoder.triple(triple);
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        encoder.quad(quad);
+    }
+
+    @Override
+    public void base(String base) {
+        encoder.base(base);
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        encoder.prefix(prefix, iri);
+    }
+
+    @Override
+    public void finish() {
+        encoder.finish();
+    }
+
+    @Override
+    public void close() {
+        finish();
+    }
+}
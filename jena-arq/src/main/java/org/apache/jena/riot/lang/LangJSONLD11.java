@@ -35,7 +35,10 @@ import jakarta.json.JsonObject;
 import jakarta.json.JsonString;
 import jakarta.json.JsonStructure;
 import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
 import jakarta.json.stream.JsonLocation;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParsingException;
 import org.apache.jena.atlas.logging.Log;
 import org.apache.jena.atlas.web.ContentType;
 import org.apache.jena.riot.Lang;
@@ -62,6 +65,13 @@ public class LangJSONLD11 implements ReaderRIOT {
      */
     public static final Symbol JSONLD_OPTIONS = SystemARQ.allocSymbol(SYMBOLS_NS, "options");
 
+    /**
+     * value: "true" to read a top-level array, or a top-level object of {@literal @context}
+     * then {@literal @graph}, one element at a time, without reading the whole document
+     * into memory. Other documents are read as usual.
+     */
+    public static final Symbol JSONLD_STREAMING = SystemARQ.allocSymbol(SYMBOLS_NS, "streaming");
+
     public LangJSONLD11(Lang language, ParserProfile profile, ErrorHandler errorHandler) {
         this.profile = profile;
         this.errorHandler = errorHandler;
@@ -70,16 +80,28 @@ public class LangJSONLD11 implements ReaderRIOT {
     @Override
     public void read(InputStream input, String baseURI, ContentType ct, StreamRDF output, Context context) {
         try {
+            if ( isStreaming(context) ) {
+                readStreaming(JsonProvider.provider().createParser(input), baseURI, output, context);
+                return;
+            }
             Document document = JsonDocument.of(input);
             read(document, baseURI, output, context);
         } catch (JsonLdError ex) {
             handleJsonLdError(ex);
+        } catch (JsonParsingException ex) {
+            handleJsonParsingException(ex);
         } catch (Exception ex) {
             errorHandler.error(ex.getMessage(), -1, -1);
             throw new RiotException(ex);
         }
     }
 
+    private void handleJsonParsingException(JsonParsingException ex) {
+        JsonLocation loc = ex.getLocation();
+        errorHandler.error(ex.getMessage(), loc.getLineNumber(), loc.getColumnNumber());
+        throw new RiotException(ex);
+    }
+
     private void handleJsonLdError(JsonLdError ex) {
         if (ex.getCause() instanceof jakarta.json.stream.JsonParsingException exp) {
             JsonLocation loc = exp.getLocation();
@@ -93,17 +115,36 @@ public class LangJSONLD11 implements ReaderRIOT {
     @Override
     public void read(Reader in, String baseURI, ContentType ct, StreamRDF output, Context context) {
         try {
+            if ( isStreaming(context) ) {
+                readStreaming(JsonProvider.provider().createParser(in), baseURI, output, context);
+                return;
+            }
             Document document = JsonDocument.of(in);
             read(document, baseURI, output, context);
         } catch (JsonLdError ex) {
             ex.printStackTrace();
             handleJsonLdError(ex);
+        } catch (JsonParsingException ex) {
+            handleJsonParsingException(ex);
         } catch (Exception ex) {
             errorHandler.error(ex.getMessage(), -1, -1);
             throw new RiotException(ex);
         }
     }
 
+    private static boolean isStreaming(Context context) {
+        return context != null && context.isTrue(JSONLD_STREAMING);
+    }
+
+    private void readStreaming(JsonParser parser, String baseURI, StreamRDF output, Context context) throws JsonLdError {
+        try ( parser ) {
+            JsonLdOptions opts = getJsonLdOptions(baseURI, context);
+            LangJSONLD11Streaming streaming = new LangJSONLD11Streaming(profile, opts, baseURI, output,
+                                                                        json -> read(JsonDocument.of(json), baseURI, output, context));
+            streaming.parse(parser);
+        }
+    }
+
     private void read(Document document, String baseURI, StreamRDF output, Context context) throws JsonLdError {
         // JSON-LD to RDF
         JsonLdOptions opts = getJsonLdOptions(baseURI, context);
@@ -146,7 +187,7 @@ public class LangJSONLD11 implements ReaderRIOT {
         }
     }
 
-    private static void extractPrefixes(JsonValue jsonValue, BiConsumer<String, String> action) {
+    static void extractPrefixes(JsonValue jsonValue, BiConsumer<String, String> action) {
         if (jsonValue == null)
             return;
         // JSON-LD 1.1 section 9.4
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.lang;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.apicatalog.jsonld.JsonLd;
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.JsonLdOptions;
+import com.apicatalog.jsonld.document.JsonDocument;
+import com.apicatalog.jsonld.lang.Keywords;
+import com.apicatalog.rdf.*;
+
+import jakarta.json.*;
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.ParserProfile;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * Read JSON-LD 1.1 one node object at a time.
+ * <p>
+ * The document is read with a JSON pull parser. When it is a top-level array, or
+ * an object with {@code @context} then {@code @graph} and no other members, each
+ * element is expanded and converted to RDF on its own, with the context,
+ * and the triples are sent to the {@link StreamRDF} before the next element is read.
+ * Memory use is bounded by the largest element, not the document.
+ * <p>
+ * Any other document is read into memory and passed to the fallback, which
+ * processes the whole document.
+ * <p>
+ * Blank node labels in the document name the same blank node wherever they
+ * occur. They are changed to IRIs, private to this parse, before the element is
+ * converted to RDF, because conversion relabels blank nodes.
+ */
+class LangJSONLD11Streaming {
+    /** Process a whole document. */
+    interface Fallback { void accept(JsonStructure document) throws JsonLdError; }
+
+    private static final JsonProvider provider = JsonProvider.provider();
+
+    private final ParserProfile profile;
+    private final JsonLdOptions options;
+    private final String baseURI;
+    private final StreamRDF output;
+    private final Fallback fallback;
+    private final String bnodeIRI = "urn:x-jena-bnode:" + UUID.randomUUID() + ":";
+
+    LangJSONLD11Streaming(ParserProfile profile, JsonLdOptions options, String baseURI, StreamRDF output,
+                          Fallback fallback) {
+        this.profile = profile;
+        // A copy to share the context and document caches between elements.
+        this.options = new JsonLdOptions(options);
+        this.baseURI = baseURI;
+        this.output = output;
+        this.fallback = fallback;
+    }
+
+    void parse(JsonParser parser) throws JsonLdError {
+        if ( !parser.hasNext() )
+            throw new RiotException("Empty JSON-LD document");
+        Event event = parser.next();
+        switch (event) {
+            case START_ARRAY -> {
+                while ( ( event = parser.next() ) != Event.END_ARRAY )
+                    element(null, parser.getValue());
+            }
+            case START_OBJECT -> topLevelObject(parser);
+            default ->
+                throw new RiotException("JSON-LD document is not an array or object");
+        }
+    }
+
+    private void topLevelObject(JsonParser parser) throws JsonLdError {
+        JsonValue context = null;
+        boolean graphDone = false;
+        JsonObjectBuilder other = null;
+        Event event;
+        while ( ( event = parser.next() ) != Event.END_OBJECT ) {
+            if ( event != Event.KEY_NAME )
+                throw new RiotException("Bad JSON: " + event);
+            String key = parser.getString();
+            Event valueEvent = parser.next();
+            if ( graphDone )
+                throw new RiotException("Streaming JSON-LD: '" + key + "' after '@graph' in the top-level object");
+            if ( other == null && Keywords.GRAPH.equals(key) && ( context != null || options.getExpandContext() != null ) ) {
+                graph(context, parser, valueEvent);
+                graphDone = true;
+                continue;
+            }
+            JsonValue value = parser.getValue();
+            if ( other == null && Keywords.CONTEXT.equals(key) ) {
+                context = value;
+                LangJSONLD11.extractPrefixes(context, output::prefix);
+                continue;
+            }
+            // Not the shape for streaming: read the rest and process the whole document.
+            if ( other == null ) {
+                other = provider.createObjectBuilder();
+                if ( context != null )
+                    other.add(Keywords.CONTEXT, context);
+            }
+            other.add(key, value);
+        }
+        if ( graphDone )
+            return;
+        JsonObjectBuilder builder = ( other != null ) ? other : provider.createObjectBuilder();
+        if ( other == null && context != null )
+            builder.add(Keywords.CONTEXT, context);
+        fallback.accept(builder.build());
+    }
+
+    private void graph(JsonValue context, JsonParser parser, Event event) throws JsonLdError {
+        if ( event != Event.START_ARRAY ) {
+            element(context, parser.getValue());
+            return;
+        }
+        while ( ( event = parser.next() ) != Event.END_ARRAY )
+            element(context, parser.getValue());
+    }
+
+    /** Expand one element of the top-level array or of {@code @graph}, and send its RDF to the output. */
+    private void element(JsonValue context, JsonValue element) throws JsonLdError {
+        JsonObjectBuilder builder = provider.createObjectBuilder();
+        if ( context != null )
+            builder.add(Keywords.CONTEXT, context);
+        builder.add(Keywords.GRAPH, provider.createArrayBuilder().add(element));
+        JsonArray expanded = JsonLd.expand(JsonDocument.of(builder.build())).options(options).base(baseURI).get();
+        if ( expanded.isEmpty() )
+            return;
+        if ( hasBlankNodeLabels(expanded) )
+            expanded = relabel(expanded).asJsonArray();
+        RdfDataset dataset = JsonLd.toRdf(JsonDocument.of(expanded)).options(options).base(baseURI).get();
+        // Blank nodes created by the conversion are fresh for each element.
+        Map<String, Node> scope = new HashMap<>();
+        for ( RdfNQuad rdfQuad : dataset.toList() ) {
+            Node s = node(rdfQuad.getSubject(), scope);
+            Node p = node(rdfQuad.getPredicate(), scope);
+            Node o = node(rdfQuad.getObject(), scope);
+            Optional<RdfResource> gn = rdfQuad.getGraphName();
+            if ( gn.isEmpty() )
+                output.triple(Triple.create(s, p, o));
+            else
+                output.quad(Quad.create(node(gn.get(), scope), s, p, o));
+        }
+    }
+
+    // ---- Blank node labels
+
+    private static boolean isLabel(JsonValue value) {
+        return value.getValueType() == JsonValue.ValueType.STRING && ((JsonString)value).getString().startsWith("_:");
+    }
+
+    private static boolean hasBlankNodeLabels(JsonValue value) {
+        switch (value.getValueType()) {
+            case ARRAY:
+                for ( JsonValue v : value.asJsonArray() )
+                    if ( hasBlankNodeLabels(v) )
+                        return true;
+                return false;
+            case OBJECT: {
+                JsonObject object = value.asJsonObject();
+                if ( object.containsKey(Keywords.VALUE) )
+                    return false;
+                for ( Map.Entry<String, JsonValue> e : object.entrySet() ) {
+                    if ( Keywords.ID.equals(e.getKey()) && isLabel(e.getValue()) )
+                        return true;
+                    if ( Keywords.TYPE.equals(e.getKey()) && e.getValue().getValueType() == JsonValue.ValueType.ARRAY ) {
+                        for ( JsonValue t : e.getValue().asJsonArray() )
+                            if ( isLabel(t) )
+                                return true;
+                    }
+                    if ( hasBlankNodeLabels(e.getValue()) )
+                        return true;
+                }
+                return false;
+            }
+            default:
+                return false;
+        }
+    }
+
+    /** Replace blank node labels in expanded JSON-LD by private IRIs. Value objects are not changed. */
+    private JsonValue relabel(JsonValue value) {
+        switch (value.getValueType()) {
+            case ARRAY: {
+                JsonArrayBuilder builder = provider.createArrayBuilder();
+                for ( JsonValue v : value.asJsonArray() )
+                    builder.add(relabel(v));
+                return builder.build();
+            }
+            case OBJECT: {
+                JsonObject object = value.asJsonObject();
+                if ( object.containsKey(Keywords.VALUE) )
+                    return object;
+                JsonObjectBuilder builder = provider.createObjectBuilder();
+                for ( Map.Entry<String, JsonValue> e : object.entrySet() ) {
+                    String key = e.getKey();
+                    JsonValue v = e.getValue();
+                    if ( Keywords.ID.equals(key) || Keywords.TYPE.equals(key) )
+                        builder.add(key, relabelString(v));
+                    else
+                        builder.add(key, relabel(v));
+                }
+                return builder.build();
+            }
+            default:
+                return value;
+        }
+    }
+
+    private JsonValue relabelString(JsonValue value) {
+        if ( value.getValueType() == JsonValue.ValueType.ARRAY ) {
+            JsonArrayBuilder builder = provider.createArrayBuilder();
+            for ( JsonValue v : value.asJsonArray() )
+                builder.add(relabelString(v));
+            return builder.build();
+        }
+        if ( !isLabel(value) )
+            return value;
+        String label = ((JsonString)value).getString().substring(2);
+        return provider.createValue(bnodeIRI + URLEncoder.encode(label, StandardCharsets.UTF_8));
+    }
+
+    // ---- Terms
+
+    private Node node(RdfValue value, Map<String, Node> scope) {
+        if ( value.isBlankNode() )
+            return scope.computeIfAbsent(value.getValue(), x -> profile.createBlankNode(null, -1, -1));
+        if ( value.isIRI() ) {
+            String iri = value.getValue();
+            if ( iri.startsWith(bnodeIRI) ) {
+                String label = URLDecoder.decode(iri.substring(bnodeIRI.length()), StandardCharsets.UTF_8);
+                return profile.createBlankNode(null, label, -1, -1);
+            }
+            return profile.createURI(iri, -1, -1);
+        }
+        if ( value.isLiteral() ) {
+            RdfLiteral literal = (RdfLiteral)value;
+            String lex = literal.getValue();
+            Optional<String> lang = literal.getLanguage();
+            if ( lang.isPresent() )
+                return profile.createLangLiteral(lex, lang.get(), -1, -1);
+            RDFDatatype datatype = NodeFactory.getType(literal.getDatatype());
+            return profile.createTypedLiteral(lex, datatype, -1, -1);
+        }
+        throw new RiotException("Not recognized: " + value);
+    }
+}
@@ -27,6 +27,8 @@ import org.apache.jena.atlas.json.io.parser.TokenizerJSON;
 import org.apache.jena.atlas.lib.InternalErrorException;
 import org.apache.jena.atlas.web.ContentType;
 import org.apache.jena.riot.*;
+import org.apache.jena.riot.dict.DictRDF;
+import org.apache.jena.riot.dict.RiotDictException;
 import org.apache.jena.riot.protobuf.ProtobufRDF;
 import org.apache.jena.riot.protobuf.RiotProtobufException;
 import org.apache.jena.riot.system.*;
@@ -66,6 +68,9 @@ public class RiotParsers {
     public static ReaderRIOTFactory factoryRDFProtobuf =
             (Lang language, ParserProfile profile) -> new ReaderRDFProtobuf(profile);
 
+    public static ReaderRIOTFactory factoryRDFDict =
+            (Lang language, ParserProfile profile) -> new ReaderRDFDict(profile);
+
     public static ReaderRIOTFactory factoryJSONLD =
             (Lang language, ParserProfile profile) -> new LangJSONLD11(language, profile, profile.getErrorHandler());
 
@@ -240,6 +245,32 @@ public class RiotParsers {
         }
     }
 
+    private static class ReaderRDFDict implements ReaderRIOT {
+        private final ParserProfile profile;
+
+        public ReaderRDFDict(ParserProfile profile) {
+            this.profile = profile;
+        }
+
+        @Override
+        public void read(InputStream in, String baseURI, ContentType ct, StreamRDF output, Context context) {
+            try {
+                DictRDF.inputStreamToStreamRDF(in, output);
+            } catch (RiotDictException ex) {
+                if ( profile != null && profile.getErrorHandler() != null )
+                    profile.getErrorHandler().error(ex.getMessage(), -1, -1);
+                else
+                    ErrorHandlerFactory.errorHandlerStd.error(ex.getMessage(), -1, -1);
+                throw ex;
+            }
+        }
+
+        @Override
+        public void read(Reader reader, String baseURI, ContentType ct, StreamRDF output, Context context) {
+            throw new RiotException("RDF-DICT : Reading binary data from a java.io.reader is not supported. Please use an InputStream");
+        }
+    }
+
     private static class ReaderRDFThrift implements ReaderRIOT {
         private final ParserProfile profile;
         public ReaderRDFThrift(ParserProfile profile) { this.profile = profile; }
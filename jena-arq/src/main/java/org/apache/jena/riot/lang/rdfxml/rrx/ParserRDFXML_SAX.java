@@ -42,7 +42,6 @@ import org.apache.jena.riot.out.NodeFmtLib;
 import org.apache.jena.riot.system.FactoryRDF;
 import org.apache.jena.riot.system.ParserProfile;
 import org.apache.jena.riot.system.StreamRDF;
-import org.apache.jena.sparql.util.Context;
 import org.apache.jena.util.XML11Char;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDF.Nodes;
@@ -345,7 +344,6 @@ public class ParserRDFXML_SAX
     // ---- Parser Setup
     private final ParserProfile parserProfile;
     private final FactoryRDF factory;
-    private final Context context;
     private final org.apache.jena.riot.system.ErrorHandler errorHandler;
     private final String initialXmlBase;
     private final String initialXmlLang;
@@ -418,7 +416,7 @@ public class ParserRDFXML_SAX
 
 // // Forming objects.
 // private ParseType parseType = null;
-    public ParserRDFXML_SAX(String xmlBase, ParserProfile parserProfile, StreamRDF destination, Context context) {
+    public ParserRDFXML_SAX(String xmlBase, ParserProfile parserProfile, StreamRDF destination) {
         // Debug
         if ( TRACE )
         {
@@ -435,7 +433,6 @@ public class ParserRDFXML_SAX
         this.parserProfile = parserProfile;
         this.factory = parserProfile.getFactorRDF();
         this.errorHandler = parserProfile.getErrorHandler();
-        this.context = context;
         this.initialXmlBase = xmlBase;
         this.initialXmlLang = "";
         if ( xmlBase != null ) {
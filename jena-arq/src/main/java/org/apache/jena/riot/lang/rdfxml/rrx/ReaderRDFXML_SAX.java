@@ -21,6 +21,8 @@ package org.apache.jena.riot.lang.rdfxml.rrx;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import org.apache.jena.atlas.io.IOX;
 import org.apache.jena.atlas.web.ContentType;
@@ -31,6 +33,7 @@ import org.apache.jena.sparql.util.Context;
 import org.apache.jena.util.JenaXMLInput;
 import org.xml.sax.InputSource;
 import org.xml.sax.XMLReader;
+import org.xml.sax.ext.DefaultHandler2;
 
 /**
  * RDF/XML parser.
@@ -54,21 +57,21 @@ public class ReaderRDFXML_SAX implements ReaderRIOT
     @Override
     public void read(InputStream in, String baseURI, ContentType ct, StreamRDF output, Context context) {
         InputSource input = new InputSource(in) ;
-        parse(input, baseURI, ct, output, context);
+        parse(input, baseURI, ct, output);
     }
 
     @Override
     public void read(Reader reader, String baseURI, ContentType ct, StreamRDF output, Context context) {
         InputSource input = new InputSource(reader) ;
-        parse(input, baseURI, ct, output, context);
+        parse(input, baseURI, ct, output);
     }
 
-    private void parse(InputSource inputSource, String xmlBase, ContentType ct, StreamRDF destination, Context context) {
-        ParserRDFXML_SAX sax2rdf = new ParserRDFXML_SAX(xmlBase, parserProfile, destination, RIOT.getContext().copy());
-        // Configured to avoid XXE
-        XMLReader xmlReader;
+    private void parse(InputSource inputSource, String xmlBase, ContentType ct, StreamRDF destination) {
+        ParserRDFXML_SAX sax2rdf = new ParserRDFXML_SAX(xmlBase, parserProfile, destination);
+        XMLReader xmlReader = null;
+        boolean reusable = false;
         try {
-            xmlReader = createXMLReader();
+            xmlReader = borrowXMLReader();
             // 4 call backs.
             xmlReader.setDTDHandler(sax2rdf);
             xmlReader.setEntityResolver(sax2rdf);
@@ -79,6 +82,7 @@ public class ReaderRDFXML_SAX implements ReaderRIOT
             destination.start();
             try {
                 xmlReader.parse(inputSource);
+                reusable = true;
             } finally { destination.finish(); }
         } catch (RiotException ex) {
             throw ex;
@@ -88,10 +92,41 @@ public class ReaderRDFXML_SAX implements ReaderRIOT
             throw ex;
         } catch (Exception ex) {
             throw new RiotException(ex);
+        } finally {
+            // A reader that failed part way through is not reused.
+            if ( reusable )
+                returnXMLReader(xmlReader);
+        }
+    }
+
+    // Creating an XMLReader is much of the cost of parsing a small document,
+    // so readers are kept and reused. They are not thread safe; each is used
+    // by one parse at a time.
+    private static final int PoolSize = 2 * Runtime.getRuntime().availableProcessors();
+    private static final BlockingQueue<XMLReader> pool = new ArrayBlockingQueue<>(PoolSize);
+    // Handlers for a reader in the pool, so it does not keep the last parse reachable.
+    private static final DefaultHandler2 noHandler = new DefaultHandler2();
+
+    private static XMLReader borrowXMLReader() throws Exception {
+        XMLReader xmlReader = pool.poll();
+        return ( xmlReader != null ) ? xmlReader : createXMLReader();
+    }
+
+    private static void returnXMLReader(XMLReader xmlReader) {
+        try {
+            xmlReader.setDTDHandler(noHandler);
+            xmlReader.setEntityResolver(noHandler);
+            xmlReader.setErrorHandler(noHandler);
+            xmlReader.setContentHandler(noHandler);
+            xmlReader.setProperty("http://xml.org/sax/properties/lexical-handler", noHandler);
+        } catch (Exception ex) {
+            return;
         }
+        pool.offer(xmlReader);
     }
 
     private static XMLReader createXMLReader() throws Exception {
+        // Configured to avoid XXE
         XMLReader xmlreader = JenaXMLInput.createXMLReader();
         xmlreader.setFeature("http://xml.org/sax/features/namespaces", true);
         xmlreader.setFeature("http://xml.org/sax/features/namespace-prefixes", true);
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.rdfc;
+
+import java.util.Map;
+
+import org.apache.jena.atlas.lib.Chars;
+import org.apache.jena.graph.Node;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.vocabulary.XSD;
+
+/**
+ * Canonical N-Quads lines, as used by RDFC-1.0.
+ * <p>
+ * Literals escape {@code \b \t \n \f \r " \} with a backslash and other control characters
+ * as {@code \}{@code uXXXX}; no other characters are escaped. {@code xsd:string} is
+ * not written. The default graph has no graph term.
+ */
+class CanonicalNQuads {
+
+    /** Canonical N-Quads line, blank nodes relabelled, ending with a newline. */
+    static String quad(Quad quad, Map<Node, String> labels) {
+        StringBuilder sb = new StringBuilder(128);
+        node(sb, quad.getSubject(), labels);
+        sb.append(' ');
+        node(sb, quad.getPredicate(), labels);
+        sb.append(' ');
+        node(sb, quad.getObject(), labels);
+        if ( !quad.isDefaultGraph() ) {
+            sb.append(' ');
+            node(sb, quad.getGraph(), labels);
+        }
+        sb.append(" .\n");
+        return sb.toString();
+    }
+
+    /**
+     * N-Quads line for the first degree hash: the reference blank node
+     * is written as {@code _:a} and any other blank node as {@code _:z}.
+     */
+    static String quadFirstDegree(Quad quad, Node reference) {
+        StringBuilder sb = new StringBuilder(128);
+        nodeFirstDegree(sb, quad.getSubject(), reference);
+        sb.append(' ');
+        nodeFirstDegree(sb, quad.getPredicate(), reference);
+        sb.append(' ');
+        nodeFirstDegree(sb, quad.getObject(), reference);
+        if ( !quad.isDefaultGraph() ) {
+            sb.append(' ');
+            nodeFirstDegree(sb, quad.getGraph(), reference);
+        }
+        sb.append(" .\n");
+        return sb.toString();
+    }
+
+    private static void nodeFirstDegree(StringBuilder sb, Node node, Node reference) {
+        if ( node.isBlank() )
+            sb.append(node.equals(reference) ? "_:a" : "_:z");
+        else
+            node(sb, node, null);
+    }
+
+    private static void node(StringBuilder sb, Node node, Map<Node, String> labels) {
+        if ( node.isURI() ) {
+            sb.append('<').append(node.getURI()).append('>');
+            return;
+        }
+        if ( node.isBlank() ) {
+            String label = labels.get(node);
+            if ( label == null )
+                throw new RiotException("No canonical label for blank node: " + node);
+            sb.append("_:").append(label);
+            return;
+        }
+        if ( node.isLiteral() ) {
+            literal(sb, node);
+            return;
+        }
+        throw new RiotException("Not supported in canonical N-Quads: " + node);
+    }
+
+    private static void literal(StringBuilder sb, Node node) {
+        sb.append('"');
+        escape(sb, node.getLiteralLexicalForm());
+        sb.append('"');
+        String lang = node.getLiteralLanguage();
+        if ( lang != null && !lang.isEmpty() ) {
+            sb.append('@').append(lang);
+            return;
+        }
+        String dt = node.getLiteralDatatypeURI();
+        if ( dt != null && !dt.equals(XSD.xstring.getURI()) )
+            sb.append("^^<").append(dt).append('>');
+    }
+
+    private static void escape(StringBuilder sb, String string) {
+        for ( int i = 0 ; i < string.length() ; i++ ) {
+            char ch = string.charAt(i);
+            switch (ch) {
+                case '\b': sb.append("\\b");  break;
+                case '\t': sb.append("\\t");  break;
+                case '\n': sb.append("\\n");  break;
+                case '\f': sb.append("\\f");  break;
+                case '\r': sb.append("\\r");  break;
+                case '"':  sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                default:
+                    if ( ch <= 0x1F || ch == 0x7F ) {
+                        sb.append("\\u");
+                        for ( int shift = 12 ; shift >= 0 ; shift -= 4 )
+                            sb.append(Chars.hexDigitsUC[(ch >> shift) & 0xF]);
+                    } else {
+                        sb.append(ch);
+                    }
+            }
+        }
+    }
+}
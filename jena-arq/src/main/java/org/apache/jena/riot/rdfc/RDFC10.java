@@ -0,0 +1,537 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.rdfc;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.jena.atlas.data.*;
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.atlas.iterator.IteratorSlotted;
+import org.apache.jena.atlas.lib.Sink;
+import org.apache.jena.graph.Node;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * RDF Dataset Canonicalization (<a href="https://www.w3.org/TR/rdf-canon/">RDFC-1.0</a>)
+ * with SHA-256, and a dataset digest based on it.
+ * <p>
+ * The canonical form is the sorted canonical N-Quads of the dataset with blank nodes
+ * relabelled {@code c14n0}, {@code c14n1}, ...; the {@link #digest digest} is the
+ * SHA-256 of that document. Isomorphic datasets have the same digest.
+ * <p>
+ * Only quads with blank nodes are kept for the labelling algorithm; the
+ * first degree hashes, which are independent of each other, and the serialization
+ * of the output are calculated in parallel for large inputs.
+ * <p>
+ * Blank node structures that need deep N-degree hashing are limited
+ * (see {@link #maxWork}) so that a poisoned dataset can not run indefinitely.
+ * <p>
+ * Memory: the labelling algorithm keeps the quads that mention blank nodes.
+ * {@link #write write} and {@link #digest digest} sort the output lines with a
+ * {@link SortedDataBag} that spills to temporary files after
+ * {@link #spillThreshold} lines, so ground quads are not all held in memory.
+ * {@link #canonicalNQuads()} returns a list and so holds the whole output.
+ */
+public class RDFC10 {
+
+    /** Default limit on the number of calls of the N-degree hash algorithm. */
+    public static final int DefaultMaxWork = 100_000;
+
+    // Below this number of blank nodes/quads, work is done on the caller's thread.
+    private static final int ParallelThreshold = 10_000;
+    // Quads serialized together when writing to the sort.
+    private static final int ChunkSize = 100_000;
+
+    /** Default number of output lines sorted in memory before spilling to disk. */
+    public static final long DefaultSpillThreshold = 1_000_000;
+
+    /**
+     * Canonical N-Quads of the dataset, sorted, each line ending with a newline.
+     * The list holds the whole output; use {@link #write} or {@link #digest} for
+     * large datasets.
+     */
+    public static List<String> canonicalNQuads(DatasetGraph dsg) {
+        return create(dsg).canonicalNQuads();
+    }
+
+    /** Write the canonical N-Quads of the dataset. */
+    public static void write(OutputStream output, DatasetGraph dsg) {
+        create(dsg).write(output);
+    }
+
+    /** The SHA-256 digest of the canonical N-Quads of the dataset. */
+    public static byte[] digest(DatasetGraph dsg) {
+        return create(dsg).digest();
+    }
+
+    /** The SHA-256 digest of the canonical N-Quads of the dataset, as a lowercase hex string. */
+    public static String digestHex(DatasetGraph dsg) {
+        return hex(digest(dsg));
+    }
+
+    /** The canonical labels of the blank nodes of the dataset. */
+    public static Map<Node, String> canonicalLabels(DatasetGraph dsg) {
+        return create(dsg).canonicalLabels();
+    }
+
+    /** Prepare to canonicalize a dataset. */
+    public static RDFC10 create(DatasetGraph dsg) {
+        return new RDFC10(dsg);
+    }
+
+    // ---- Algorithm state
+
+    private final DatasetGraph dsg;
+    private int maxWork = DefaultMaxWork;
+    private long spillThreshold = DefaultSpillThreshold;
+    private int work = 0;
+
+    // Blank node to the quads that mention it.
+    private final Map<Node, List<Quad>> blankNodeToQuads = new HashMap<>();
+    // Blank node to its first degree hash.
+    private Map<Node, String> firstDegreeHashes;
+    private final IdentifierIssuer canonicalIssuer = new IdentifierIssuer("c14n");
+    private boolean done = false;
+
+    private RDFC10(DatasetGraph dsg) {
+        this.dsg = dsg;
+    }
+
+    /** Set the limit on the number of calls of the N-degree hash algorithm. */
+    public RDFC10 maxWork(int maxWork) {
+        this.maxWork = maxWork;
+        return this;
+    }
+
+    /** Set the number of output lines sorted in memory before spilling to disk. */
+    public RDFC10 spillThreshold(long spillThreshold) {
+        this.spillThreshold = spillThreshold;
+        return this;
+    }
+
+    /** The canonical labels of the blank nodes. */
+    public Map<Node, String> canonicalLabels() {
+        run();
+        return Collections.unmodifiableMap(canonicalIssuer.issued);
+    }
+
+    /** Write the canonical N-Quads. */
+    public void write(OutputStream output) {
+        try {
+            forEachNQuad(line -> {
+                try {
+                    output.write(line.getBytes(StandardCharsets.UTF_8));
+                } catch (IOException ex) { throw new UncheckedIOException(ex); }
+            });
+            output.flush();
+        } catch (IOException ex) { throw new UncheckedIOException(ex); }
+    }
+
+    /** The SHA-256 digest of the canonical N-Quads. */
+    public byte[] digest() {
+        MessageDigest md = sha256();
+        forEachNQuad(line -> md.update(line.getBytes(StandardCharsets.UTF_8)));
+        return md.digest();
+    }
+
+    /**
+     * Pass each line of the canonical N-Quads, in order, to {@code action}.
+     * Lines are sorted with a {@link SortedDataBag}, which spills to disk.
+     */
+    public void forEachNQuad(Consumer<String> action) {
+        run();
+        Map<Node, String> labels = canonicalIssuer.issued;
+        ThresholdPolicy<String> policy = ThresholdPolicyFactory.count(spillThreshold);
+        SortedDataBag<String> bag = BagFactory.newSortedBag(policy, lineSerialization, RDFC10::compareCodePoints);
+        try {
+            // Serialize in chunks, in parallel when large; the bag is single threaded.
+            List<Quad> chunk = new ArrayList<>();
+            Iterator<Quad> quads = dsg.find();
+            while ( quads.hasNext() ) {
+                chunk.add(quads.next());
+                if ( chunk.size() >= ChunkSize || !quads.hasNext() ) {
+                    Stream<Quad> stream = ( chunk.size() > ParallelThreshold ) ? chunk.parallelStream() : chunk.stream();
+                    stream.map(q -> CanonicalNQuads.quad(q, labels)).toList().forEach(bag::add);
+                    chunk.clear();
+                }
+            }
+            Iterator<String> lines = bag.iterator();
+            try {
+                lines.forEachRemaining(action);
+            } finally { Iter.close(lines); }
+        } finally { bag.close(); }
+    }
+
+    /** Canonical N-Quads, sorted, each line ending with a newline. The list holds the whole output. */
+    public List<String> canonicalNQuads() {
+        run();
+        Map<Node, String> labels = canonicalIssuer.issued;
+        List<Quad> quads = Iter.toList(dsg.find());
+        Stream<Quad> stream = ( quads.size() > ParallelThreshold ) ? quads.parallelStream() : quads.stream();
+        String[] lines = stream.map(q -> CanonicalNQuads.quad(q, labels)).toArray(String[]::new);
+        // Code point order of UTF-8 strings. String.compareTo is UTF-16 order
+        // which differs only for supplementary characters.
+        Arrays.parallelSort(lines, RDFC10::compareCodePoints);
+        return Arrays.asList(lines);
+    }
+
+    private void run() {
+        if ( done )
+            return;
+        done = true;
+        // Step 2: blank node to quads map.
+        dsg.find().forEachRemaining(quad -> {
+            checkNoTripleTerms(quad);
+            addBlankNode(quad.getSubject(), quad);
+            addBlankNode(quad.getObject(), quad);
+            addBlankNode(quad.getGraph(), quad);
+        });
+        // Step 3: first degree hashes.
+        if ( blankNodeToQuads.size() > ParallelThreshold )
+            firstDegreeHashes = blankNodeToQuads.keySet().parallelStream()
+                    .collect(Collectors.toConcurrentMap(n -> n, this::hashFirstDegreeQuads));
+        else
+            firstDegreeHashes = blankNodeToQuads.keySet().stream()
+                    .collect(Collectors.toMap(n -> n, this::hashFirstDegreeQuads));
+        SortedMap<String, List<Node>> hashToBlankNodes = new TreeMap<>(RDFC10::compareCodePoints);
+        firstDegreeHashes.forEach((n, h) -> hashToBlankNodes.computeIfAbsent(h, x -> new ArrayList<>()).add(n));
+
+        // Step 4: unique first degree hashes.
+        Iterator<Map.Entry<String, List<Node>>> iter = hashToBlankNodes.entrySet().iterator();
+        while ( iter.hasNext() ) {
+            Map.Entry<String, List<Node>> e = iter.next();
+            if ( e.getValue().size() > 1 )
+                continue;
+            canonicalIssuer.issue(e.getValue().get(0));
+            iter.remove();
+        }
+
+        // Step 5: shared first degree hashes.
+        for ( List<Node> identifierList : hashToBlankNodes.values() ) {
+            List<HashResult> hashPathList = new ArrayList<>();
+            for ( Node n : identifierList ) {
+                if ( canonicalIssuer.hasId(n) )
+                    continue;
+                IdentifierIssuer temporaryIssuer = new IdentifierIssuer("b");
+                temporaryIssuer.issue(n);
+                hashPathList.add(hashNDegreeQuads(n, temporaryIssuer));
+            }
+            hashPathList.sort((r1, r2) -> compareCodePoints(r1.hash, r2.hash));
+            for ( HashResult result : hashPathList ) {
+                for ( Node existing : result.issuer.issued.keySet() )
+                    canonicalIssuer.issue(existing);
+            }
+        }
+    }
+
+    private void addBlankNode(Node node, Quad quad) {
+        if ( !node.isBlank() )
+            return;
+        // Each quad once for a blank node, even if it mentions the blank node
+        // more than once (e.g. "_:a :p _:a"), as other implementations do.
+        // The components of a quad are added one after the other, so a repeat
+        // is the last entry.
+        List<Quad> quads = blankNodeToQuads.computeIfAbsent(node, x -> new ArrayList<>());
+        if ( quads.isEmpty() || quads.get(quads.size()-1) != quad )
+            quads.add(quad);
+    }
+
+    private static void checkNoTripleTerms(Quad quad) {
+        if ( quad.getSubject().isNodeTriple() || quad.getObject().isNodeTriple() )
+            throw new RiotException("RDFC-1.0: triple terms are not supported: " + quad);
+    }
+
+    /** 4.6 Hash First Degree Quads */
+    private String hashFirstDegreeQuads(Node referenceBlankNode) {
+        List<Quad> quads = blankNodeToQuads.get(referenceBlankNode);
+        String[] nquads = new String[quads.size()];
+        for ( int i = 0 ; i < nquads.length ; i++ )
+            nquads[i] = CanonicalNQuads.quadFirstDegree(quads.get(i), referenceBlankNode);
+        Arrays.sort(nquads, RDFC10::compareCodePoints);
+        MessageDigest md = sha256();
+        for ( String s : nquads )
+            md.update(s.getBytes(StandardCharsets.UTF_8));
+        return hex(md.digest());
+    }
+
+    /** 4.7 Hash Related Blank Node */
+    private String hashRelatedBlankNode(Node related, Quad quad, IdentifierIssuer issuer, char position) {
+        StringBuilder input = new StringBuilder();
+        input.append(position);
+        if ( position != 'g' )
+            input.append('<').append(quad.getPredicate().getURI()).append('>');
+        if ( canonicalIssuer.hasId(related) )
+            input.append("_:").append(canonicalIssuer.getId(related));
+        else if ( issuer.hasId(related) )
+            input.append("_:").append(issuer.getId(related));
+        else
+            input.append(firstDegreeHashes.get(related));
+        return sha256Hex(input.toString());
+    }
+
+    /** 4.8 Hash N-Degree Quads */
+    private HashResult hashNDegreeQuads(Node identifier, IdentifierIssuer issuer) {
+        if ( ++work > maxWork )
+            throw new RiotException("RDFC-1.0: exceeded the limit on N-degree hashing ("+maxWork+")");
+        SortedMap<String, List<Node>> hashToRelated = new TreeMap<>(RDFC10::compareCodePoints);
+        for ( Quad quad : blankNodeToQuads.get(identifier) ) {
+            relatedBlankNode(quad.getSubject(), 's', identifier, quad, issuer, hashToRelated);
+            relatedBlankNode(quad.getObject(), 'o', identifier, quad, issuer, hashToRelated);
+            relatedBlankNode(quad.getGraph(), 'g', identifier, quad, issuer, hashToRelated);
+        }
+
+        StringBuilder dataToHash = new StringBuilder();
+        for ( Map.Entry<String, List<Node>> e : hashToRelated.entrySet() ) {
+            dataToHash.append(e.getKey());
+            String chosenPath = "";
+            IdentifierIssuer chosenIssuer = null;
+            for ( List<Node> permutation : permutations(e.getValue()) ) {
+                IdentifierIssuer issuerCopy = issuer.copy();
+                StringBuilder path = new StringBuilder();
+                List<Node> recursionList = new ArrayList<>();
+                boolean skip = false;
+                for ( Node related : permutation ) {
+                    if ( canonicalIssuer.hasId(related) ) {
+                        path.append("_:").append(canonicalIssuer.getId(related));
+                    } else {
+                        if ( !issuerCopy.hasId(related) )
+                            recursionList.add(related);
+                        path.append("_:").append(issuerCopy.issue(related));
+                    }
+                    if ( worsePath(path, chosenPath) ) {
+                        skip = true;
+                        break;
+                    }
+                }
+                if ( skip )
+                    continue;
+                for ( Node related : recursionList ) {
+                    HashResult result = hashNDegreeQuads(related, issuerCopy);
+                    path.append("_:").append(issuerCopy.issue(related));
+                    path.append('<').append(result.hash).append('>');
+                    issuerCopy = result.issuer;
+                    if ( worsePath(path, chosenPath) ) {
+                        skip = true;
+                        break;
+                    }
+                }
+                if ( skip )
+                    continue;
+                if ( chosenPath.isEmpty() || compareCodePoints(path.toString(), chosenPath) < 0 ) {
+                    chosenPath = path.toString();
+                    chosenIssuer = issuerCopy;
+                }
+            }
+            dataToHash.append(chosenPath);
+            issuer = chosenIssuer;
+        }
+        return new HashResult(sha256Hex(dataToHash.toString()), issuer);
+    }
+
+    private void relatedBlankNode(Node component, char position, Node identifier, Quad quad,
+                                  IdentifierIssuer issuer, Map<String, List<Node>> hashToRelated) {
+        if ( !component.isBlank() || component.equals(identifier) )
+            return;
+        String hash = hashRelatedBlankNode(component, quad, issuer, position);
+        hashToRelated.computeIfAbsent(hash, x -> new ArrayList<>()).add(component);
+    }
+
+    private static boolean worsePath(CharSequence path, String chosenPath) {
+        return !chosenPath.isEmpty()
+                && path.length() >= chosenPath.length()
+                && compareCodePoints(path.toString(), chosenPath) > 0;
+    }
+
+    /** All permutations, generated in lexicographic order of positions. */
+    private static List<List<Node>> permutations(List<Node> nodes) {
+        List<List<Node>> result = new ArrayList<>();
+        int n = nodes.size();
+        int[] idx = new int[n];
+        for ( int i = 0 ; i < n ; i++ )
+            idx[i] = i;
+        while ( true ) {
+            List<Node> perm = new ArrayList<>(n);
+            for ( int i : idx )
+                perm.add(nodes.get(i));
+            result.add(perm);
+            // Next permutation.
+            int i = n - 2;
+            while ( i >= 0 && idx[i] >= idx[i + 1] )
+                i--;
+            if ( i < 0 )
+                return result;
+            int j = n - 1;
+            while ( idx[j] <= idx[i] )
+                j--;
+            int x = idx[i]; idx[i] = idx[j]; idx[j] = x;
+            for ( int a = i + 1, b = n - 1 ; a < b ; a++, b-- ) {
+                x = idx[a]; idx[a] = idx[b]; idx[b] = x;
+            }
+        }
+    }
+
+    private record HashResult(String hash, IdentifierIssuer issuer) {}
+
+    /** 4.3 Issue Identifier: issued identifiers in the order issued. */
+    static class IdentifierIssuer {
+        private final String prefix;
+        private final LinkedHashMap<Node, String> issued;
+
+        IdentifierIssuer(String prefix) {
+            this(prefix, new LinkedHashMap<>());
+        }
+
+        private IdentifierIssuer(String prefix, LinkedHashMap<Node, String> issued) {
+            this.prefix = prefix;
+            this.issued = issued;
+        }
+
+        boolean hasId(Node node) {
+            return issued.containsKey(node);
+        }
+
+        String getId(Node node) {
+            return issued.get(node);
+        }
+
+        String issue(Node node) {
+            String id = issued.get(node);
+            if ( id != null )
+                return id;
+            id = prefix + issued.size();
+            issued.put(node, id);
+            return id;
+        }
+
+        IdentifierIssuer copy() {
+            return new IdentifierIssuer(prefix, new LinkedHashMap<>(issued));
+        }
+    }
+
+    // ---- Support
+
+    /** Compare strings by Unicode code point. */
+    static int compareCodePoints(String s1, String s2) {
+        int len1 = s1.length();
+        int len2 = s2.length();
+        int lim = Math.min(len1, len2);
+        for ( int i = 0 ; i < lim ; i++ ) {
+            char c1 = s1.charAt(i);
+            char c2 = s2.charAt(i);
+            if ( c1 == c2 )
+                continue;
+            if ( Character.isSurrogate(c1) || Character.isSurrogate(c2) )
+                return Integer.compare(s1.codePointAt(i), s2.codePointAt(i));
+            return c1 - c2;
+        }
+        return len1 - len2;
+    }
+
+    /** Spill file format for output lines: length, then UTF-8 bytes. */
+    private static final SerializationFactory<String> lineSerialization = new SerializationFactory<>() {
+        @Override
+        public Sink<String> createSerializer(OutputStream out) {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+            return new Sink<>() {
+                @Override
+                public void send(String line) {
+                    byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                    try {
+                        data.writeInt(bytes.length);
+                        data.write(bytes);
+                    } catch (IOException ex) { throw new UncheckedIOException(ex); }
+                }
+
+                @Override
+                public void flush() {
+                    try { data.flush(); } catch (IOException ex) { throw new UncheckedIOException(ex); }
+                }
+
+                @Override
+                public void close() {
+                    try { data.close(); } catch (IOException ex) { throw new UncheckedIOException(ex); }
+                }
+            };
+        }
+
+        @Override
+        public Iterator<String> createDeserializer(InputStream in) {
+            DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+            return new IteratorSlotted<>() {
+                private String next = read();
+
+                private String read() {
+                    try {
+                        int len = data.readInt();
+                        return new String(data.readNBytes(len), StandardCharsets.UTF_8);
+                    } catch (EOFException ex) {
+                        return null;
+                    } catch (IOException ex) { throw new UncheckedIOException(ex); }
+                }
+
+                @Override
+                protected boolean hasMore() {
+                    return next != null;
+                }
+
+                @Override
+                protected String moveToNext() {
+                    String line = next;
+                    next = read();
+                    return line;
+                }
+
+                @Override
+                protected void closeIterator() {
+                    try { data.close(); } catch (IOException ex) { throw new UncheckedIOException(ex); }
+                }
+            };
+        }
+    };
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RiotException("SHA-256 not available", ex);
+        }
+    }
+
+    private static String sha256Hex(String string) {
+        return hex(sha256().digest(string.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(2 * bytes.length);
+        for ( byte b : bytes ) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -52,6 +52,11 @@ public class ResultSetLang {
                      .addFileExtensions("srp")
                      .build();
 
+    public static final Lang RS_Dict = LangBuilder.create("SPARQL-Results-Dict", WebContent.contentTypeResultsDict)
+                     .addAltNames("SRD")
+                     .addFileExtensions("srd")
+                     .build();
+
     public static final Lang RS_Text = LangBuilder.create("SPARQL-Results-Text", WebContent.contentTypeTextPlain)
                      .addFileExtensions("txt")
                      .build();
@@ -68,6 +73,7 @@ public class ResultSetLang {
         RDFLanguages.register(RS_CSV);
         RDFLanguages.register(RS_TSV);
         RDFLanguages.register(RS_Thrift);
+        RDFLanguages.register(RS_Dict);
         // Not output-only text.
         RDFLanguages.register(RS_None);
 
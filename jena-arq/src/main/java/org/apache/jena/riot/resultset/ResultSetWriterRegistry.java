@@ -80,6 +80,7 @@ public class ResultSetWriterRegistry {
         register(RS_Text,     factory) ;
         register(RS_Thrift,   factory) ;
         register(RS_Protobuf, factory) ;
+        register(RS_Dict,     factory) ;
         register(RS_None,     factory) ;
     }
 
@@ -65,6 +65,7 @@ public class RowSetReaderRegistry {
 
         register(RS_Thrift,     RowSetReaderThrift.factory);
         register(RS_Protobuf,   RowSetReaderProtobuf.factory);
+        register(RS_Dict,       RowSetReaderDict.factory);
 
         register(RS_None,       RowSetReaderNone.factory);
     };
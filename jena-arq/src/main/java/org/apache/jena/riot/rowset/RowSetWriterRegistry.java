@@ -64,6 +64,7 @@ public class RowSetWriterRegistry {
 
         register(RS_Thrift,     RowSetWriterThrift.factory);
         register(RS_Protobuf,   RowSetWriterProtobuf.factory);
+        register(RS_Dict,       RowSetWriterDict.factory);
 
         register(RS_Text,       RowSetWriterText.factory);
         register(RS_None,       RowSetWriterNone.factory);
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.rowset.rw;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+
+import org.apache.jena.atlas.logging.Log;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingBase;
+import org.apache.jena.sparql.util.NodeFactoryExtra;
+
+/**
+ * A {@link Binding} for result set readers that keeps IRIs and literals as the
+ * strings from the input and creates the {@link Node} when the variable is first
+ * asked for with {@link #get(Var)}.
+ * <p>
+ * Clients that only use some of the columns of a result set do not pay for
+ * creating the nodes of the others. Errors in a literal, such as a bad language
+ * tag, are reported when the term is decoded.
+ * <p>
+ * Blank nodes and triple terms are decoded by the reader and added as nodes
+ * because blank node labels are scoped to the whole result set.
+ */
+public final class BindingLazy extends BindingBase {
+
+    /** Undecoded IRI or literal. */
+    private static final class Term {
+        final String value;
+        final String lang;
+        final String datatype;
+        final boolean isIRI;
+
+        Term(String value, String lang, String datatype, boolean isIRI) {
+            this.value = value;
+            this.lang = lang;
+            this.datatype = datatype;
+            this.isIRI = isIRI;
+        }
+
+        Node decode() {
+            return isIRI
+                    ? NodeFactory.createURI(value)
+                    : NodeFactoryExtra.createLiteralNode(value, lang, datatype);
+        }
+    }
+
+    private final Var[] vars;
+    // Each slot is a Node or a Term; a Term is replaced by its Node when decoded.
+    private final Object[] values;
+
+    private BindingLazy(Var[] vars, Object[] values) {
+        super(null);
+        this.vars = vars;
+        this.values = values;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    protected Iterator<Var> vars1() {
+        return Arrays.asList(vars).iterator();
+    }
+
+    @Override
+    protected int size1() {
+        return vars.length;
+    }
+
+    @Override
+    protected boolean isEmpty1() {
+        return vars.length == 0;
+    }
+
+    @Override
+    protected boolean contains1(Var var) {
+        return index(var) >= 0;
+    }
+
+    @Override
+    protected Node get1(Var var) {
+        int idx = index(var);
+        return ( idx < 0 ) ? null : node(idx);
+    }
+
+    private int index(Var var) {
+        for ( int i = 0 ; i < vars.length ; i++ ) {
+            if ( vars[i].equals(var) )
+                return i;
+        }
+        return -1;
+    }
+
+    private Node node(int idx) {
+        Object x = values[idx];
+        if ( x instanceof Node n )
+            return n;
+        // A race between threads decodes the term twice, to equal nodes.
+        Node n = ((Term)x).decode();
+        values[idx] = n;
+        return n;
+    }
+
+    /**
+     * Builder for a {@link BindingLazy}. A second value for a variable is ignored,
+     * with a warning if it is a different term.
+     */
+    public static final class Builder {
+        private Var[] vars = new Var[4];
+        private Object[] values = new Object[4];
+        private int size = 0;
+
+        private Builder() {}
+
+        /** Add a decoded term. */
+        public Builder add(Var var, Node node) {
+            Objects.requireNonNull(node);
+            return add$(var, node);
+        }
+
+        /** Add an IRI, to be created when first used. */
+        public Builder addIRI(Var var, String iri) {
+            Objects.requireNonNull(iri);
+            return add$(var, new Term(iri, null, null, true));
+        }
+
+        /**
+         * Add a literal, to be created when first used.
+         * The language tag and datatype may be null or "".
+         */
+        public Builder addLiteral(Var var, String lexicalForm, String lang, String datatype) {
+            Objects.requireNonNull(lexicalForm);
+            return add$(var, new Term(lexicalForm, lang, datatype, false));
+        }
+
+        private Builder add$(Var var, Object value) {
+            Objects.requireNonNull(var);
+            for ( int i = 0 ; i < size ; i++ ) {
+                if ( vars[i].equals(var) ) {
+                    if ( !asNode(values[i]).equals(asNode(value)) )
+                        Log.warn(BindingLazy.class,
+                                 String.format("Multiple occurences of a binding for variable '%s' with different values - ignored", var.getName()));
+                    return this;
+                }
+            }
+            if ( size == vars.length ) {
+                vars = Arrays.copyOf(vars, 2 * size);
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            vars[size] = var;
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        private static Node asNode(Object x) {
+            return ( x instanceof Node n ) ? n : ((Term)x).decode();
+        }
+
+        public Builder reset() {
+            Arrays.fill(vars, 0, size, null);
+            Arrays.fill(values, 0, size, null);
+            size = 0;
+            return this;
+        }
+
+        /** Build the binding; the builder is reset and can be reused. */
+        public Binding build() {
+            Binding b = new BindingLazy(Arrays.copyOf(vars, size), Arrays.copyOf(values, size));
+            reset();
+            return b;
+        }
+    }
+}
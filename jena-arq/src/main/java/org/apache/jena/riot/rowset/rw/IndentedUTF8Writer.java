@@ -0,0 +1,373 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.rowset.rw;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.apache.jena.atlas.io.AWriter;
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.atlas.io.IndentedWriter;
+import org.apache.jena.atlas.lib.Chars;
+
+/**
+ * Output for the result set writers that encodes UTF-8 directly into a byte buffer.
+ * <p>
+ * Strings that are all ASCII are copied byte-for-byte; JSON and XML escaping is done
+ * while encoding, without building intermediate strings. The buffer is written to the
+ * {@link OutputStream} in whole chunks, and the stream is only flushed by {@link #flush()}.
+ * <p>
+ * Indentation works as for {@link IndentedWriter}: output is padded to the current
+ * indent whenever something is written before that column, so layouts written with an
+ * {@code IndentedWriter} come out the same. Unlike {@code IndentedWriter}, a newline
+ * character in a string is written as it is; only {@link #println()} starts a new line.
+ */
+final class IndentedUTF8Writer implements AWriter {
+    /** The default chunk size; the default output buffer size of the Jetty servlet output stream. */
+    static final int ChunkSize = 32 * 1024;
+
+    // Worst case bytes for one char: a JSON unicode escape (6), or &#x0000; in XML (8).
+    private static final int MaxCharBytes = 8;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int pos = 0;
+    private long flushCount = 0;
+
+    private int unitIndent = 2;
+    private int currentIndent = 0;
+    private int column = 0;
+    // A high surrogate from write(char), waiting for the low surrogate.
+    private char highSurrogate = 0;
+
+    IndentedUTF8Writer(OutputStream out) {
+        this(out, ChunkSize);
+    }
+
+    IndentedUTF8Writer(OutputStream out, int chunkSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(chunkSize, 64)];
+    }
+
+    // ---- Indentation
+
+    void setUnitIndent(int x)   { unitIndent = x; }
+    void incIndent()            { incIndent(unitIndent); }
+    void incIndent(int x)       { currentIndent += x; }
+    void decIndent()            { decIndent(unitIndent); }
+    void decIndent(int x)       { currentIndent -= x; }
+
+    private void pad() {
+        if ( highSurrogate != 0 )
+            unpairedSurrogate();
+        while ( column < currentIndent ) {
+            ensure(1);
+            buffer[pos++] = ' ';
+            column++;
+        }
+    }
+
+    // ---- AWriter
+
+    @Override
+    public IndentedUTF8Writer write(char ch) {
+        if ( highSurrogate != 0 && Character.isLowSurrogate(ch) ) {
+            // Surrogate pair written one char at a time.
+            ensure(4);
+            encode4(Character.toCodePoint(highSurrogate, ch));
+            highSurrogate = 0;
+            column++;
+            return this;
+        }
+        pad();
+        if ( Character.isHighSurrogate(ch) ) {
+            highSurrogate = ch;
+            column++;
+            return this;
+        }
+        ensure(4);
+        encode(ch);
+        column++;
+        return this;
+    }
+
+    private void unpairedSurrogate() {
+        highSurrogate = 0;
+        ensure(1);
+        buffer[pos++] = '?';
+    }
+
+    @Override
+    public IndentedUTF8Writer write(char[] cbuf) {
+        return write(new String(cbuf));
+    }
+
+    @Override
+    public IndentedUTF8Writer write(String string) {
+        pad();
+        int len = string.length();
+        for ( int i = 0 ; i < len ; i++ ) {
+            char ch = string.charAt(i);
+            if ( ch < 0x80 ) {
+                if ( pos == buffer.length )
+                    flushBuffer();
+                buffer[pos++] = (byte)ch;
+            } else {
+                ensure(4);
+                i = encode(string, i);
+            }
+        }
+        column += len;
+        return this;
+    }
+
+    @Override public IndentedUTF8Writer print(char ch)      { return write(ch); }
+    @Override public IndentedUTF8Writer print(char[] cbuf)  { return write(cbuf); }
+    @Override public IndentedUTF8Writer print(String string) { return write(string); }
+
+    @Override
+    public IndentedUTF8Writer printf(String fmt, Object... args) {
+        return write(String.format(fmt, args));
+    }
+
+    @Override
+    public IndentedUTF8Writer println(String string) {
+        write(string);
+        return println();
+    }
+
+    @Override
+    public IndentedUTF8Writer println() {
+        pad();
+        ensure(1);
+        buffer[pos++] = '\n';
+        column = 0;
+        return this;
+    }
+
+    /**
+     * Write bytes already encoded, such as from {@link #capture}, that take up
+     * {@code columns} characters. The bytes may end with a newline but must not
+     * contain other newlines.
+     */
+    void writeBytes(byte[] bytes, int columns) {
+        pad();
+        if ( bytes.length > buffer.length - pos )
+            flushBuffer();
+        if ( bytes.length > buffer.length ) {
+            try { out.write(bytes); } catch (IOException ex) { IO.exception(ex); }
+        } else {
+            System.arraycopy(bytes, 0, buffer, pos, bytes.length);
+            pos += bytes.length;
+        }
+        boolean endsWithNewline = ( bytes.length > 0 && bytes[bytes.length - 1] == '\n' );
+        column = endsWithNewline ? 0 : column + columns;
+    }
+
+    // ---- Escaping
+
+    /** Write a JSON string, with quotes, escaped as {@code JsonIO.escape}. */
+    void writeJsonString(String string) {
+        pad();
+        ensure(1);
+        buffer[pos++] = '"';
+        int len = string.length();
+        for ( int i = 0 ; i < len ; i++ ) {
+            char ch = string.charAt(i);
+            ensure(MaxCharBytes);
+            switch (ch) {
+                case '"':  esc('"'); break;
+                case '\\': esc('\\'); break;
+                case '/':
+                    // Avoid </ which confuses if it's in HTML
+                    if ( i > 0 && string.charAt(i - 1) == '<' )
+                        esc('/');
+                    else
+                        buffer[pos++] = '/';
+                    break;
+                case '\b': esc('b'); break;
+                case '\f': esc('f'); break;
+                case '\n': esc('n'); break;
+                case '\r': esc('r'); break;
+                case '\t': esc('t'); break;
+                default:
+                    if ( ch < ' ' || (ch >= '\u007F' && ch <= '\u009F') || (ch >= '\u2000' && ch < '\u2100') ) {
+                        buffer[pos++] = '\\';
+                        buffer[pos++] = 'u';
+                        hex4(ch);
+                    } else if ( ch < 0x80 ) {
+                        buffer[pos++] = (byte)ch;
+                    } else {
+                        i = encode(string, i);
+                    }
+            }
+        }
+        ensure(1);
+        buffer[pos++] = '"';
+        column += len + 2;
+    }
+
+    private void esc(char ch) {
+        buffer[pos++] = '\\';
+        buffer[pos++] = (byte)ch;
+    }
+
+    /** Write XML element text: {@code & < >} as entities, control characters as {@code &#xXXXX;}. */
+    void writeXmlText(String string) {
+        pad();
+        int len = string.length();
+        for ( int i = 0 ; i < len ; i++ ) {
+            char ch = string.charAt(i);
+            ensure(MaxCharBytes);
+            if ( ch < ' ' ) {
+                // Strictly error in XML 1.0
+                buffer[pos++] = '&';
+                buffer[pos++] = '#';
+                buffer[pos++] = 'x';
+                hex4(ch);
+                buffer[pos++] = ';';
+                continue;
+            }
+            switch (ch) {
+                case '&': ascii("&amp;"); break;
+                case '<': ascii("&lt;");  break;
+                case '>': ascii("&gt;");  break;
+                default:
+                    if ( ch < 0x80 )
+                        buffer[pos++] = (byte)ch;
+                    else
+                        i = encode(string, i);
+            }
+        }
+        column += len;
+    }
+
+    private void ascii(String s) {
+        for ( int i = 0 ; i < s.length() ; i++ )
+            buffer[pos++] = (byte)s.charAt(i);
+    }
+
+    private void hex4(int ch) {
+        buffer[pos++] = (byte)Chars.hexDigitsUC[(ch >> 12) & 0xF];
+        buffer[pos++] = (byte)Chars.hexDigitsUC[(ch >> 8) & 0xF];
+        buffer[pos++] = (byte)Chars.hexDigitsUC[(ch >> 4) & 0xF];
+        buffer[pos++] = (byte)Chars.hexDigitsUC[ch & 0xF];
+    }
+
+    // ---- Capture
+
+    /**
+     * Run an output action and return the bytes it wrote, so they can be written
+     * again with {@link #writeBytes}. Returns null if the output did not fit in the
+     * rest of the buffer after making space for {@code reserve} bytes; the output is
+     * still written.
+     */
+    byte[] capture(int reserve, Runnable action) {
+        pad();
+        if ( reserve > buffer.length )
+            reserve = buffer.length;
+        if ( buffer.length - pos < reserve )
+            flushBuffer();
+        int start = pos;
+        long flushes = flushCount;
+        action.run();
+        if ( flushes != flushCount )
+            // Flushed part way through.
+            return null;
+        return Arrays.copyOfRange(buffer, start, pos);
+    }
+
+    // ---- UTF-8
+
+    private void encode(char ch) {
+        if ( Character.isSurrogate(ch) ) {
+            // Unpaired surrogate: as java.io writers.
+            buffer[pos++] = '?';
+            return;
+        }
+        encode3(ch);
+    }
+
+    /** Encode the non-ASCII char at {@code idx}, and the next one if a surrogate pair. Return the last index used. */
+    private int encode(String string, int idx) {
+        char ch = string.charAt(idx);
+        if ( ch < 0x800 ) {
+            buffer[pos++] = (byte)(0xC0 | (ch >> 6));
+            buffer[pos++] = (byte)(0x80 | (ch & 0x3F));
+            return idx;
+        }
+        if ( Character.isHighSurrogate(ch) && idx + 1 < string.length() && Character.isLowSurrogate(string.charAt(idx + 1)) ) {
+            encode4(Character.toCodePoint(ch, string.charAt(idx + 1)));
+            return idx + 1;
+        }
+        encode(ch);
+        return idx;
+    }
+
+    private void encode4(int cp) {
+        buffer[pos++] = (byte)(0xF0 | (cp >> 18));
+        buffer[pos++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+        buffer[pos++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+        buffer[pos++] = (byte)(0x80 | (cp & 0x3F));
+    }
+
+    private void encode3(char ch) {
+        if ( ch < 0x80 ) {
+            buffer[pos++] = (byte)ch;
+        } else if ( ch < 0x800 ) {
+            buffer[pos++] = (byte)(0xC0 | (ch >> 6));
+            buffer[pos++] = (byte)(0x80 | (ch & 0x3F));
+        } else {
+            buffer[pos++] = (byte)(0xE0 | (ch >> 12));
+            buffer[pos++] = (byte)(0x80 | ((ch >> 6) & 0x3F));
+            buffer[pos++] = (byte)(0x80 | (ch & 0x3F));
+        }
+    }
+
+    // ---- Buffer
+
+    private void ensure(int n) {
+        if ( buffer.length - pos < n )
+            flushBuffer();
+    }
+
+    private void flushBuffer() {
+        if ( pos == 0 )
+            return;
+        try { out.write(buffer, 0, pos); } catch (IOException ex) { IO.exception(ex); }
+        pos = 0;
+        flushCount++;
+    }
+
+    @Override
+    public IndentedUTF8Writer flush() {
+        if ( highSurrogate != 0 )
+            unpairedSurrogate();
+        flushBuffer();
+        IO.flush(out);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        flush();
+        IO.close(out);
+    }
+}
@@ -21,7 +21,9 @@ package org.apache.jena.riot.rowset.rw;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 
@@ -46,7 +48,6 @@ import org.apache.jena.riot.system.SyntaxLabels;
 import org.apache.jena.sparql.ARQConstants;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.engine.binding.Binding;
-import org.apache.jena.sparql.engine.binding.BindingBuilder;
 import org.apache.jena.sparql.exec.QueryExecResult;
 import org.apache.jena.sparql.exec.RowSet;
 import org.apache.jena.sparql.resultset.ResultSetException;
@@ -109,6 +110,9 @@ public class RowSetReaderXML implements RowSetReader {
         private List<Var>    variables        = new ArrayList<>();
         // Current binding/query solution.
         private Binding         binding          = null;
+        // Reused for each result.
+        private final BindingLazy.Builder builder = BindingLazy.builder();
+        private final Map<String, Var> varCache = new HashMap<>();
         private boolean         inputGraphLabels = ARQ.isTrue(ARQ.inputGraphBNodeLabels);
 
         private final LabelToNode  bNodes;
@@ -355,7 +359,7 @@ public class RowSetReaderXML implements RowSetReader {
             if ( finished )
                 return null ;
             // At the start of <result>
-            BindingBuilder builder = Binding.builder() ;
+            builder.reset() ;
             String varName = null ;
             while (parser.hasNext()) {
                 int event = parser.next() ;
@@ -384,13 +388,25 @@ public class RowSetReaderXML implements RowSetReader {
                             break ;
                         }
 
-                        Node value = parseOneTerm(tag);
-                        if ( value != null ) {
-                            if ( varName == null )
-                                throw new ResultSetException("No name for variable") ;
-                            addBinding(builder, Var.alloc(varName), value) ;
-                            break;
+                        if ( isTag(tag, XMLResults.dfUnbound) )
+                            break ;
+                        if ( varName == null )
+                            throw new ResultSetException("No name for variable") ;
+                        Var var = var(varName) ;
+                        // IRIs and literals are decoded when used.
+                        if ( isTag(tag, XMLResults.dfURI) ) {
+                            builder.addIRI(var, parser.getElementText()) ;
+                            break ;
                         }
+                        if ( isTag(tag, XMLResults.dfLiteral) ) {
+                            String datatype = parser.getAttributeValue(null, XMLResults.dfAttrDatatype) ;
+                            String langTag = parser.getAttributeValue(XML_NS, "lang") ;
+                            builder.addLiteral(var, parser.getElementText(), langTag, datatype) ;
+                            break ;
+                        }
+                        Node value = parseOneTerm(tag);
+                        if ( value != null )
+                            builder.add(var, value) ;
                         break ;
                     default :
                 }
@@ -511,18 +527,15 @@ public class RowSetReaderXML implements RowSetReader {
             return false;
         }
 
-        static protected void addBinding(BindingBuilder builder, Var var, Node value) {
-            Node n = builder.get(var);
-            if ( n != null ) {
-                if ( n.equals(value) )
-                    // Same - silently skip.
-                    return;
-                // Different - warn and skip.
-                Log.warn(ResultsStAX.class,
-                         String.format("Multiple occurences of a binding for variable '%s' with different values - ignored", var.getName()));
-                return;
+        private Var var(String varName) {
+            // Variables repeat in every result.
+            Var v = varCache.get(varName) ;
+            if ( v == null ) {
+                v = Var.alloc(varName) ;
+                if ( varCache.size() < 1000 )
+                    varCache.put(varName, v) ;
             }
-            builder.add(var, value);
+            return v ;
         }
 
         private boolean isTag(String localName, String expectedName) {
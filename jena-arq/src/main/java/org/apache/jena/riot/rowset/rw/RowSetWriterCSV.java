@@ -55,7 +55,7 @@ public class RowSetWriterCSV implements RowSetWriter {
 
     @Override
     public void write(OutputStream out, RowSet resultSet, Context context) {
-        output(IO.wrapUTF8(out), resultSet, context);
+        output(new IndentedUTF8Writer(out), resultSet, context);
     }
 
     @Override
@@ -65,7 +65,7 @@ public class RowSetWriterCSV implements RowSetWriter {
 
     @Override
     public void write(OutputStream out, boolean result, Context context) {
-        output(IO.wrapUTF8(out), result);
+        output(new IndentedUTF8Writer(out), result);
     }
 
     private static void output(AWriter out, boolean booleanResult) {
@@ -134,19 +134,34 @@ public class RowSetWriterCSV implements RowSetWriter {
             str = str.substring(2);
         }
 
-        str = csvSafe(str);
-        w.write(str);
-        w.flush();
+        w.write(csvSafe(str));
     }
 
     static protected String csvSafe(String str) {
         // Apparently, there are CSV parsers that only accept "" as an escaped quote
         // if inside a "..."
-        if ( str.contains("\"") || str.contains(",") || str.contains("\r") || str.contains("\n") )
-            str = "\"" + str.replaceAll("\"", "\"\"") + "\"";
-        else if ( str.isEmpty() )
+        if ( str.isEmpty() )
             // Return the quoted empty string.
-            str = "\"\"";
+            return "\"\"";
+        int len = str.length();
+        for ( int i = 0 ; i < len ; i++ ) {
+            char ch = str.charAt(i);
+            if ( ch == '"' || ch == ',' || ch == '\r' || ch == '\n' )
+                return csvQuote(str);
+        }
         return str;
     }
+
+    private static String csvQuote(String str) {
+        StringBuilder sb = new StringBuilder(str.length() + 8);
+        sb.append('"');
+        for ( int i = 0 ; i < str.length() ; i++ ) {
+            char ch = str.charAt(i);
+            if ( ch == '"' )
+                sb.append('"');
+            sb.append(ch);
+        }
+        sb.append('"');
+        return sb.toString();
+    }
 }
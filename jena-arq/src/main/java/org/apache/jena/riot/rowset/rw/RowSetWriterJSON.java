@@ -22,11 +22,12 @@ import static org.apache.jena.riot.rowset.rw.JSONResultsKW.*;
 
 import java.io.OutputStream;
 import java.io.Writer;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Objects;
 
 import org.apache.jena.atlas.io.IO;
-import org.apache.jena.atlas.io.IndentedWriter;
 import org.apache.jena.atlas.json.io.JSWriter;
 import org.apache.jena.atlas.logging.Log;
 import org.apache.jena.graph.Node;
@@ -82,13 +83,13 @@ public class RowSetWriterJSON implements RowSetWriter {
 
     @Override
     public void write(OutputStream outStream, RowSet rowSet, Context context) {
-        IndentedWriter out = new IndentedWriter(outStream);
+        IndentedUTF8Writer out = new IndentedUTF8Writer(outStream);
         try {
             ResultSetWriterTableJSON x = new ResultSetWriterTableJSON(out, context);
             x.write(rowSet);
         }
         finally {
-            IO.flush(out);
+            out.flush();
         }
     }
 
@@ -96,21 +97,39 @@ public class RowSetWriterJSON implements RowSetWriter {
     // This holds the state of the writing of one ResultSet.
     static class ResultSetWriterTableJSON {
         private final NodeToLabel    labels;
-        private final  IndentedWriter out;
+        private final IndentedUTF8Writer out;
+        // IRI values already written, as bytes.
+        private final Map<Node, byte[]> uriCache = new HashMap<>();
+        private static final int MaxCachedURIs = 10_000;
+        private static final int MaxCachedURILength = 1_000;
         /** Control whether the type/literal/fileds all go on one line. */
         private static final boolean MultiLineValues   = false;
         /** Control whether variables in header are one per line (minor). */
         private static final boolean MultiLineVarNames = false;
 
+        // Keywords, quoted.
+        private static final String qBindings  = quoteName(kBindings);
+        private static final String qBnode     = quoteName(kBnode);
+        private static final String qDatatype  = quoteName(kDatatype);
+        private static final String qHead      = quoteName(kHead);
+        private static final String qLiteral   = quoteName(kLiteral);
+        private static final String qObject    = quoteName(kObject);
+        private static final String qPredicate = quoteName(kPredicate);
+        private static final String qResults   = quoteName(kResults);
+        private static final String qSubject   = quoteName(kSubject);
+        private static final String qTriple    = quoteName(kTriple);
+        private static final String qType      = quoteName(kType);
+        private static final String qUnbound   = quoteName(kUnbound);
+        private static final String qUri       = quoteName(kUri);
+        private static final String qValue     = quoteName(kValue);
+        private static final String qVars      = quoteName(kVars);
+        private static final String qXmlLang   = quoteName(kXmlLang);
+
         private static final int MainIndent = 2 ;
         private static final int VarIndent = 2 ;
         private static final int OuterIndent = Math.min(2, MainIndent);
 
-        private ResultSetWriterTableJSON(OutputStream outStream, Context context) {
-            this(new IndentedWriter(outStream), context);
-        }
-
-        private ResultSetWriterTableJSON(IndentedWriter indentedOut, Context context) {
+        private ResultSetWriterTableJSON(IndentedUTF8Writer indentedOut, Context context) {
             out = indentedOut;
             out.setUnitIndent(MainIndent);
 
@@ -133,9 +152,9 @@ public class RowSetWriterJSON implements RowSetWriter {
 
 
         private void writeRows(RowSet rowSet) {
-            println(out, quoteName(kResults), ": {");
+            println(out, qResults, ": {");
             incIndent(out);
-            println(out, quoteName(kBindings), ": [");
+            println(out, qBindings, ": [");
             incIndent(out);
 
             boolean firstRow = true;
@@ -157,7 +176,7 @@ public class RowSetWriterJSON implements RowSetWriter {
         // Write policy - write objects, leave point of output just after the closing "}"
 
         private void writeHeader(RowSet rs) {
-            println(out, quoteName(kHead),": {");
+            println(out, qHead,": {");
             incIndent(out);
             writeHeaderLink(out, rs);
             writeHeaderVars(out, rs);
@@ -165,15 +184,15 @@ public class RowSetWriterJSON implements RowSetWriter {
             print(out, "}");
         }
 
-        private static void writeHeaderLink(IndentedWriter out, RowSet rs) {
+        private static void writeHeaderLink(IndentedUTF8Writer out, RowSet rs) {
             // ---- link
             // out.println("\"link\": [] ,") ;
         }
 
         //  "var": [  ... ]
-        private static void writeHeaderVars(IndentedWriter out, RowSet rs) {
+        private static void writeHeaderVars(IndentedUTF8Writer out, RowSet rs) {
             // On one line.
-            print(out, quoteName(kVars), ": [ ");
+            print(out, qVars, ": [ ");
             if ( MultiLineVarNames )
                 println(out);
             incIndent(out);
@@ -189,7 +208,7 @@ public class RowSetWriterJSON implements RowSetWriter {
             println(out, " ]");
         }
 
-        private void writeRow(IndentedWriter out, RowSet rowSet, Binding binding) {
+        private void writeRow(IndentedUTF8Writer out, RowSet rowSet, Binding binding) {
             print(out, "{ ");
             //incIndent(out);
             out.incIndent(VarIndent);
@@ -230,18 +249,38 @@ public class RowSetWriterJSON implements RowSetWriter {
          * i.e.    "var": { ... term ... }
          * Separating comma handled by caller writeRow
          */
-        private void writeVarValue(IndentedWriter out, Var var, Node value, boolean firstInRow) {
+        private void writeVarValue(IndentedUTF8Writer out, Var var, Node value, boolean firstInRow) {
             if ( value == null )
                 // Skip if no value.
                 return;
             println(out);
             // Do not use quoteName - varName may not be JSON-safe as a bare name.
-            print(out, quote(var.getVarName()), ": ");
+            out.writeJsonString(var.getVarName());
+            print(out, ": ");
             writeValue(out, value, MultiLineValues);
             // No newline - allow for " ,"
         }
 
-        private void writeValue(IndentedWriter out, Node value, boolean multiLine) {
+        private void writeValue(IndentedUTF8Writer out, Node value, boolean multiLine) {
+            if ( value.isURI() && !multiLine ) {
+                // IRIs are often repeated in results: write the bytes from the first time.
+                byte[] bytes = uriCache.get(value);
+                if ( bytes != null ) {
+                    out.writeBytes(bytes, bytes.length);
+                    return;
+                }
+                String uri = value.getURI();
+                if ( uriCache.size() < MaxCachedURIs && uri.length() < MaxCachedURILength ) {
+                    bytes = out.capture(8 * uri.length() + 64, () -> writeValue$(out, value, false));
+                    if ( bytes != null )
+                        uriCache.put(value, bytes);
+                    return;
+                }
+            }
+            writeValue$(out, value, multiLine);
+        }
+
+        private void writeValue$(IndentedUTF8Writer out, Node value, boolean multiLine) {
             if ( multiLine || value.isNodeTriple() )
                 println(out, "{");
             else
@@ -273,67 +312,74 @@ public class RowSetWriterJSON implements RowSetWriter {
 
         // On entry to writeTerm : ready to start the "type" field.
 
-        private void writeValueUnbound(IndentedWriter out, boolean multiLine) {
-            print(out, quoteName(kType), ": ", quote(kUnbound), " , ") ;
+        private void writeValueUnbound(IndentedUTF8Writer out, boolean multiLine) {
+            print(out, qType, ": ", qUnbound, " , ") ;
             if ( MultiLineValues )
                 println(out) ;
-            print(out, quoteName(kValue), ": null") ;
+            print(out, qValue, ": null") ;
         }
 
-        private void writeValueLiteral(IndentedWriter out, Node literal, boolean multiLine) {
+        private void writeValueLiteral(IndentedUTF8Writer out, Node literal, boolean multiLine) {
             String datatype = literal.getLiteralDatatypeURI();
             String lang = literal.getLiteralLanguage();
 
             if ( Util.isSimpleString(literal) || Util.isLangString(literal) ) {
-                print(out, quoteName(kType), ": ", quote(kLiteral), " , ");
+                print(out, qType, ": ", qLiteral, " , ");
                 if ( multiLine )
                     println(out);
 
                 if ( lang != null && !lang.equals("") ) {
-                    print(out, quoteName(kXmlLang), ": ", quote(lang), " , ");
+                    print(out, qXmlLang, ": ");
+                    out.writeJsonString(lang);
+                    print(out, " , ");
                     if ( multiLine )
                         println(out);
                 }
             } else {
-                print(out, quoteName(kType), ": ", quote(kLiteral), " , ");
+                print(out, qType, ": ", qLiteral, " , ");
                 if ( MultiLineValues )
                     println(out);
 
-                print(out, quoteName(kDatatype), ": ", quote(datatype), " , ");
+                print(out, qDatatype, ": ");
+                out.writeJsonString(datatype);
+                print(out, " , ");
                 if ( multiLine )
                     println(out);
             }
 
-            print(out, quoteName(kValue), ": ", quote(literal.getLiteralLexicalForm()));
+            print(out, qValue, ": ");
+            out.writeJsonString(literal.getLiteralLexicalForm());
         }
 
-        private void writeValueBlankNode(IndentedWriter out, Node resource, boolean multiLine) {
+        private void writeValueBlankNode(IndentedUTF8Writer out, Node resource, boolean multiLine) {
             String label = labels.get(null, resource);
             // Comes with leading "_:"
             label = label.substring(2);
 
-            print(out, quoteName(kType), ": ", quote(kBnode), " , ");
+            print(out, qType, ": ", qBnode, " , ");
             if ( multiLine )
                 println(out);
-            print(out, quoteName(kValue), ": ", quote(label));
+            print(out, qValue, ": ");
+            out.writeJsonString(label);
         }
 
-        private void writeValueURI(IndentedWriter out, Node resource, boolean multiLine) {
-            print(out, quoteName(kType), ": ", quote(kUri), " , ");
+        private void writeValueURI(IndentedUTF8Writer out, Node resource, boolean multiLine) {
+            print(out, qType, ": ", qUri, " , ");
             if ( multiLine )
                 println(out);
-            print(out, quoteName(kValue), ": ", quote(resource.getURI()));
+            print(out, qValue, ": ");
+            out.writeJsonString(resource.getURI());
             return;
         }
 
-        private void writeValueNodeTriple(IndentedWriter out, Node value, boolean multiLine) {
+        private void writeValueNodeTriple(IndentedUTF8Writer out, Node value, boolean multiLine) {
             Triple triple = value.getTriple();
-            print(out, quoteName(kType), ": ", quote(kTriple), " , ");
+            print(out, qType, ": ", qTriple, " , ");
             println(out);
 
             //if ( multiLineValues )
             // println(out);
-            print(out, quoteName(kValue), ": ");
+            print(out, qValue, ": ");
 
             // Allow for different multiline choice for triple components
             boolean multiLineInnerValue = multiLine;
@@ -344,17 +390,17 @@ public class RowSetWriterJSON implements RowSetWriter {
             incIndent(out);
 
             // ---
-            print(out, quoteName(kSubject), ": ");
+            print(out, qSubject, ": ");
             print(out, " ");
 
             writeValue(out, triple.getSubject(), multiLineInnerValue);
             println(out, " ,");
 
-            print(out, quoteName(kPredicate), ": ");
+            print(out, qPredicate, ": ");
             writeValue(out, triple.getPredicate(), multiLineInnerValue);
             println(out, " ,");
 
-            print(out, quoteName(kObject), ": ");
+            print(out, qObject, ": ");
             print(out, "  ");
             writeValue(out, triple.getObject(), multiLineInnerValue);
             // End of triple object.
@@ -365,12 +411,12 @@ public class RowSetWriterJSON implements RowSetWriter {
             return;
         }
 
-        private void writeValueNodeGraph(IndentedWriter out, Node value, boolean multiLine) {
+        private void writeValueNodeGraph(IndentedUTF8Writer out, Node value, boolean multiLine) {
             throw new UnsupportedOperationException("Graph terms");
         }
 
         private static String quote(String string) {
-            // Scope for efficiency improvement.
+            // Only used for keywords; values are written with writeJsonString.
             return JSWriter.outputQuotedString(string);
         }
 
@@ -388,20 +434,20 @@ public class RowSetWriterJSON implements RowSetWriter {
 
         // Intercept all operations - development assistance.
 
-        private static void incIndent(IndentedWriter out) {
+        private static void incIndent(IndentedUTF8Writer out) {
             out.incIndent();
         }
 
-        private static void decIndent(IndentedWriter out) {
+        private static void decIndent(IndentedUTF8Writer out) {
             out.decIndent();
         }
 
-        private static void print(IndentedWriter out, String... strings) {
+        private static void print(IndentedUTF8Writer out, String... strings) {
             for ( String s : strings )
                 out.print(s);
         }
 
-        private static void println(IndentedWriter out, String... strings) {
+        private static void println(IndentedUTF8Writer out, String... strings) {
             print(out, strings);
             out.println();
         }
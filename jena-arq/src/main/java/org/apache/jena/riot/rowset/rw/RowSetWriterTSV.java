@@ -56,7 +56,7 @@ public class RowSetWriterTSV implements RowSetWriter {
 
     @Override
     public void write(OutputStream out, RowSet rowSet, Context context) {
-        output(IO.wrapUTF8(out), rowSet);
+        output(new IndentedUTF8Writer(out), rowSet);
     }
 
     @Override
@@ -66,7 +66,7 @@ public class RowSetWriterTSV implements RowSetWriter {
 
     @Override
     public void write(OutputStream out, boolean result, Context context) {
-        output(IO.wrapUTF8(out), result);
+        output(new IndentedUTF8Writer(out), result);
     }
 
     private static void output(AWriter out, boolean booleanResult) {
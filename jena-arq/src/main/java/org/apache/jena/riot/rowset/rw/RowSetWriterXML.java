@@ -22,6 +22,8 @@ import static org.apache.jena.riot.rowset.rw.XMLResults.*;
 
 import java.io.OutputStream;
 import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
 import org.apache.jena.atlas.io.IndentedWriter;
@@ -149,15 +151,19 @@ public class RowSetWriterXML implements RowSetWriter {
         private String stylesheetURL = null ;
         private boolean xmlInst = true ;
 
-        private final IndentedWriter  out ;
+        private final IndentedUTF8Writer out ;
         private int bNodeCounter = 0 ;
         private final NodeToLabel bNodeMap;
+        // IRI values already written, as bytes.
+        private final Map<Node, byte[]> uriCache = new HashMap<>();
+        private static final int MaxCachedURIs = 10_000;
+        private static final int MaxCachedURILength = 1_000;
 
         private XMLOutputRowSet(OutputStream outStream, Context context) {
-            this(new IndentedWriter(outStream), context);
+            this(new IndentedUTF8Writer(outStream), context);
         }
 
-        private XMLOutputRowSet(IndentedWriter indentedOut, Context context) {
+        private XMLOutputRowSet(IndentedUTF8Writer indentedOut, Context context) {
             out = indentedOut;
             boolean outputGraphBNodeLabels = (context != null) && context.isTrue(ARQ.outputGraphBNodeLabels);
             bNodeMap = outputGraphBNodeLabels
@@ -303,11 +309,27 @@ public class RowSetWriterXML implements RowSetWriter {
         }
 
         private void printURI(Node nodeURI) {
+            // IRIs are often repeated in results: write the bytes from the first time.
+            byte[] bytes = uriCache.get(nodeURI);
+            if ( bytes != null ) {
+                out.writeBytes(bytes, 0);
+                return;
+            }
             String uri = nodeURI.getURI();
+            if ( uriCache.size() < MaxCachedURIs && uri.length() < MaxCachedURILength ) {
+                bytes = out.capture(8 * uri.length() + 64, () -> printURI$(uri));
+                if ( bytes != null )
+                    uriCache.put(nodeURI, bytes);
+                return;
+            }
+            printURI$(uri);
+        }
+
+        private void printURI$(String uri) {
             out.print("<");
             out.print(dfURI);
             out.print(">");
-            out.print(xml_escape(uri));
+            out.writeXmlText(uri);
             out.print("</");
             out.print(dfURI);
             out.println(">");
@@ -320,7 +342,7 @@ public class RowSetWriterXML implements RowSetWriter {
             out.print("<");
             out.print(dfBNode);
             out.print(">");
-            out.print(xml_escape(label));
+            out.writeXmlText(label);
             out.print("</");
             out.print(dfBNode);
             out.println(">");
@@ -348,7 +370,7 @@ public class RowSetWriterXML implements RowSetWriter {
             }
 
             out.print(">");
-            out.print(xml_escape(literal.getLiteralLexicalForm()));
+            out.writeXmlText(literal.getLiteralLexicalForm());
             out.print("</");
             out.print(dfLiteral);
             out.println(">");
@@ -387,38 +409,6 @@ public class RowSetWriterXML implements RowSetWriter {
             out.println(">");
         }
 
-        private static String xml_escape(String string) {
-            final StringBuilder sb = new StringBuilder(string);
-
-            int offset = 0;
-            String replacement;
-            char found;
-            for (int i = 0; i < string.length(); i++) {
-                found = string.charAt(i);
-
-                if ( found < ' ' ) {
-                    // Strictly error in XML 1.0
-                    replacement = String.format("&#x%04X;", (int)found);
-                } else {
-                    switch (found) {
-                        case '&' : replacement = "&amp;"; break;
-                        case '<' : replacement = "&lt;"; break;
-                        case '>' : replacement = "&gt;"; break;
-                        case '\r': replacement = "&#x0D;"; break;
-                        case '\n': replacement = "&#x0A;"; break;
-                        default  : replacement = null;
-                    }
-                }
-
-                if (replacement != null) {
-                    sb.replace(offset + i, offset + i + 1, replacement);
-                    offset += replacement.length() - 1; // account for added chars
-                }
-            }
-
-            return sb.toString();
-        }
-
         /** @return Returns the stylesheetURL. */
         public String getStylesheetURL()
         { return stylesheetURL ; }
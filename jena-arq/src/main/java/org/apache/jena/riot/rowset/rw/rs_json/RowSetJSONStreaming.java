@@ -26,8 +26,9 @@ import java.io.InputStreamReader;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -38,11 +39,10 @@ import org.apache.jena.atlas.iterator.IteratorSlotted;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.rowset.rw.BindingLazy;
 import org.apache.jena.riot.system.ErrorHandler;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.engine.binding.Binding;
-import org.apache.jena.sparql.engine.binding.BindingBuilder;
-import org.apache.jena.sparql.engine.binding.BindingFactory;
 import org.apache.jena.sparql.exec.RowSet;
 import org.apache.jena.sparql.resultset.ResultSetException;
 import org.apache.jena.sparql.util.NodeFactoryExtra;
@@ -51,8 +51,10 @@ import org.apache.jena.vocabulary.RDF;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 /**
  * Streaming RowSet implementation for application/sparql-results+json
@@ -344,71 +346,203 @@ public class RowSetJSONStreaming<E> extends IteratorSlotted<Binding> implements
         return result;
     }
 
-    static Binding parseBinding(
-            Gson gson, JsonReader reader, LabelToNode labelMap,
-            Function<JsonObject, Node> onUnknownRdfTermType) throws IOException {
-        JsonObject obj = gson.fromJson(reader, JsonObject.class);
-
-        BindingBuilder bb = BindingFactory.builder();
-
-        for (Entry<String, JsonElement> e : obj.entrySet()) {
-            Var v = Var.alloc(e.getKey());
-            JsonElement nodeElt = e.getValue();
-
-            Node node = parseOneTerm(nodeElt, labelMap, onUnknownRdfTermType);
-            bb.add(v, node);
+    /**
+     * Parse a binding, with the reader at the start of the JSON object.
+     * IRIs and literals are decoded when used; see {@link BindingLazy}.
+     */
+    static Binding parseBinding(JsonReader reader, LabelToNode labelMap, Map<String, Var> varCache,
+                                BindingLazy.Builder builder, TermParts term,
+                                Function<JsonObject, Node> onUnknownRdfTermType) throws IOException {
+        builder.reset();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            Var v = varCache.get(name);
+            if ( v == null ) {
+                v = Var.alloc(name);
+                if ( varCache.size() < MaxVarCache )
+                    varCache.put(name, v);
+            }
+            readTerm(reader, term);
+            switch (term.type) {
+            case kUri:
+                builder.addIRI(v, term.value);
+                break;
+            case kTypedLiteral: /* Legacy */
+            case kLiteral:
+                builder.addLiteral(v, term.value, term.lang, term.datatype);
+                break;
+            default:
+                builder.add(v, toNode(term, labelMap, onUnknownRdfTermType));
+                break;
+            }
         }
-
-        return bb.build();
+        reader.endObject();
+        return builder.build();
     }
 
-    static Node parseOneTerm(JsonElement jsonElt, LabelToNode labelMap, Function<JsonObject, Node> onUnknownRdfTermType) {
+    /** Limit on the number of variable names remembered by {@link #parseBinding}. */
+    private static final int MaxVarCache = 1000;
 
-        if (jsonElt == null) {
-            throw new ResultSetException("Expected a json object for an RDF term but got null");
+    /**
+     * The parts of an RDF term in JSON; reused between terms.
+     * String members are held directly; any other member, such as the object
+     * value of a triple term or a key this reader does not know, is kept as JSON
+     * in {@code others} so the term can be passed on unchanged.
+     */
+    static final class TermParts {
+        String type;
+        String value;
+        String lang;
+        String datatype;
+        JsonObject others;
+
+        void reset() {
+            type = null;
+            value = null;
+            lang = null;
+            datatype = null;
+            others = null;
+        }
+
+        void other(String key, JsonElement elt) {
+            if ( others == null )
+                others = new JsonObject();
+            others.add(key, elt);
+        }
+
+        /** The term as a JSON object, as it appeared in the results. */
+        JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            if ( type != null )
+                json.addProperty(kType, type);
+            if ( value != null )
+                json.addProperty(kValue, value);
+            if ( lang != null )
+                json.addProperty(kXmlLang, lang);
+            if ( datatype != null )
+                json.addProperty(kDatatype, datatype);
+            if ( others != null )
+                others.entrySet().forEach(e -> json.add(e.getKey(), e.getValue()));
+            return json;
         }
+    }
 
-        JsonObject term = jsonElt.getAsJsonObject();
+    /** Read an RDF term JSON object into {@code term}, checking it is well-formed. */
+    private static void readTerm(JsonReader reader, TermParts term) throws IOException {
+        term.reset();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            boolean isString = reader.peek() == JsonToken.STRING;
+            switch (key) {
+            case kType:
+                if ( isString ) {
+                    term.type = reader.nextString();
+                    continue;
+                }
+                break;
+            case kValue:
+                if ( isString ) {
+                    term.value = reader.nextString();
+                    continue;
+                }
+                break;
+            case kXmlLang:
+                if ( isString ) {
+                    term.lang = reader.nextString();
+                    continue;
+                }
+                break;
+            case kDatatype:
+                if ( isString ) {
+                    term.datatype = reader.nextString();
+                    continue;
+                }
+                break;
+            }
+            term.other(key, JsonParser.parseReader(reader));
+        }
+        reader.endObject();
 
-        Node result;
-        String type = expectNonNull(term, kType).getAsString();
-        JsonElement valueJson = expectNonNull(term, kValue);
-        String valueStr;
-        switch (type) {
+        if ( term.type == null )
+            throw new ResultSetException("Unexpected null value for key: " + kType);
+        switch (term.type) {
         case kUri:
-            valueStr = valueJson.getAsString();
-            result = NodeFactory.createURI(valueStr);
+        case kBnode:
+            expectString(term, kValue, term.value);
             break;
         case kTypedLiteral: /* Legacy */
         case kLiteral:
-            valueStr = valueJson.getAsString();
-            JsonElement langJson = term.get(kXmlLang);
-            JsonElement dtJson = term.get(kDatatype);
-
-            String lang = langJson == null ? null : langJson.getAsString();
-            String dtStr = dtJson == null ? null : dtJson.getAsString();
-
-            if ( lang != null ) {
+            expectString(term, kValue, term.value);
+            if ( term.others != null && ( term.others.has(kXmlLang) || term.others.has(kDatatype) ) )
+                throw new ResultSetException("Expected a string for the language and datatype: " + term.toJson());
+            if ( term.lang != null && term.datatype != null && !term.datatype.equals(RDF.dtLangString.getURI()) ) {
                 // Strictly, xml:lang=... and datatype=rdf:langString is wrong
                 // (the datatype should be absent)
                 // The RDF specs recommend omitting the datatype. They did
                 // however come after the SPARQL 1.1 docs
                 // it's more of a "SHOULD" than a "MUST".
                 // datatype=xsd:string is also unnecessary.
-                if ( dtStr != null && !dtStr.equals(RDF.dtLangString.getURI()) ) {
-                    // Must agree.
-                    throw new ResultSetException("Both language and datatype defined, datatype is not rdf:langString:\n" + term);
-                }
+                throw new ResultSetException("Both language and datatype defined, datatype is not rdf:langString: " + term.lang + " " + term.datatype);
             }
-
-            result = NodeFactoryExtra.createLiteralNode(valueStr, lang, dtStr);
             break;
+        default:
+            // Triple terms and other types: the value may be any JSON.
+            if ( term.value == null && ( term.others == null || !term.others.has(kValue) ) )
+                throw new ResultSetException("Unexpected null value for key: " + kValue);
+        }
+    }
+
+    private static void expectString(TermParts term, String key, String str) {
+        if ( str != null )
+            return;
+        if ( term.others == null || !term.others.has(key) )
+            throw new ResultSetException("Unexpected null value for key: " + key);
+        throw new ResultSetException("Expected a string for key: " + key + ": " + term.toJson());
+    }
+
+    private static Node toNode(TermParts term, LabelToNode labelMap, Function<JsonObject, Node> onUnknownRdfTermType) {
+        switch (term.type) {
+        case kUri:
+            return NodeFactory.createURI(term.value);
+        case kTypedLiteral: /* Legacy */
+        case kLiteral:
+            return NodeFactoryExtra.createLiteralNode(term.value, term.lang, term.datatype);
         case kBnode:
-            valueStr = valueJson.getAsString();
-            result = labelMap.get(null, valueStr);
-            break;
+            return labelMap.get(null, term.value);
+        default:
+            // Triple terms are rare; parse the JSON tree.
+            return parseOneTerm(term.toJson(), labelMap, onUnknownRdfTermType);
+        }
+    }
+
+    /** Parse an RDF term from a JSON tree; used for triple terms and custom term types. */
+    static Node parseOneTerm(JsonElement jsonElt, LabelToNode labelMap, Function<JsonObject, Node> onUnknownRdfTermType) {
+        if ( jsonElt == null || !jsonElt.isJsonObject() )
+            throw new ResultSetException("Expected a json object for an RDF term but got " + jsonElt);
+        JsonObject term = jsonElt.getAsJsonObject();
+        String type = expectPrimitive(term, kType);
+        switch (type) {
+        case kUri:
+            return NodeFactory.createURI(expectPrimitive(term, kValue));
+        case kTypedLiteral: /* Legacy */
+        case kLiteral: {
+            String valueStr = expectPrimitive(term, kValue);
+            String lang = optPrimitive(term, kXmlLang);
+            String dtStr = optPrimitive(term, kDatatype);
+            if ( lang != null && dtStr != null && !dtStr.equals(RDF.dtLangString.getURI()) )
+                // See readTerm.
+                throw new ResultSetException("Both language and datatype defined, datatype is not rdf:langString:\n" + term);
+            return NodeFactoryExtra.createLiteralNode(valueStr, lang, dtStr);
+        }
+        case kBnode:
+            return labelMap.get(null, expectPrimitive(term, kValue));
         case kStatement:
-        case kTriple:
+        case kTriple: {
+            JsonElement valueJson = expectNonNull(term, kValue);
+            if ( !valueJson.isJsonObject() )
+                throw new ResultSetException("Expected a json object for a triple term: " + term);
             JsonObject tripleJson = valueJson.getAsJsonObject();
 
             JsonElement js = expectOneKey(tripleJson, kSubject, kSubjectAlt);
@@ -418,51 +552,50 @@ public class RowSetJSONStreaming<E> extends IteratorSlotted<Binding> implements
             Node s = parseOneTerm(js, labelMap, onUnknownRdfTermType);
             Node p = parseOneTerm(jp, labelMap, onUnknownRdfTermType);
             Node o = parseOneTerm(jo, labelMap, onUnknownRdfTermType);
-
-            result = NodeFactory.createTripleNode(s, p, o);
-            break;
+            return NodeFactory.createTripleNode(s, p, o);
+        }
         default:
-            if (onUnknownRdfTermType != null) {
-                result = onUnknownRdfTermType.apply(term);
-                if (result == null) {
-                    throw new ResultSetException("Custom handler returned null for unknown rdf term type '" + type + "'");
-                }
-            } else {
+            expectNonNull(term, kValue);
+            if ( onUnknownRdfTermType == null )
                 throw new ResultSetException("Object key not recognized as valid for an RDF term: " + term);
-            }
-            break;
+            Node result = onUnknownRdfTermType.apply(term);
+            if ( result == null )
+                throw new ResultSetException("Custom handler returned null for unknown rdf term type '" + type + "'");
+            return result;
         }
-
-        return result;
     }
 
     static JsonElement expectNonNull(JsonObject json, String key) {
         JsonElement v = json.get(key);
-        if ( v == null )
+        if ( v == null || v.isJsonNull() )
             throw new ResultSetException("Unexpected null value for key: " + key);
-
         return v;
     }
 
+    private static String expectPrimitive(JsonObject json, String key) {
+        JsonElement v = expectNonNull(json, key);
+        if ( !v.isJsonPrimitive() )
+            throw new ResultSetException("Expected a string for key: " + key + ": " + json);
+        return v.getAsString();
+    }
+
+    private static String optPrimitive(JsonObject json, String key) {
+        JsonElement v = json.get(key);
+        return v == null || v.isJsonNull() ? null : expectPrimitive(json, key);
+    }
+
     static JsonElement expectOneKey(JsonObject json, String ...keys) {
         JsonElement result = null;
-
         for (String key : keys) {
             JsonElement tmp = json.get(key);
-
-            if (tmp != null) {
-                if (result != null) {
+            if ( tmp != null ) {
+                if ( result != null )
                     throw new ResultSetException("More than one key out of " + Arrays.asList(keys));
-                }
-
                 result = tmp;
             }
         }
-
-        if (result == null) {
+        if ( result == null )
             throw new ResultSetException("One or more of the required keys " + Arrays.asList(keys) + " was not found");
-        }
-
         return result;
     }
 
@@ -545,6 +678,11 @@ public class RowSetJSONStreaming<E> extends IteratorSlotted<Binding> implements
         protected Function<JsonObject, Node> unknownRdfTermTypeHandler;
         protected UnexpectedJsonEltHandler unexpectedJsonHandler;
 
+        // Reused for each binding.
+        private final Map<String, Var> varCache = new HashMap<>();
+        private final BindingLazy.Builder builder = BindingLazy.builder();
+        private final TermParts term = new TermParts();
+
         public RsJsonEltEncoderDft(LabelToNode labelMap,
                 Function<JsonObject, Node> unknownRdfTermTypeHandler,
                 UnexpectedJsonEltHandler unexpectedJsonHandler) {
@@ -568,7 +706,7 @@ public class RowSetJSONStreaming<E> extends IteratorSlotted<Binding> implements
 
         @Override
         public RsJsonEltDft newBindingElt(Gson gson, JsonReader reader) throws IOException {
-            Binding binding = parseBinding(gson, reader, labelMap, unknownRdfTermTypeHandler);
+            Binding binding = parseBinding(reader, labelMap, varCache, builder, term, unknownRdfTermTypeHandler);
             return new RsJsonEltDft(binding);
         }
 
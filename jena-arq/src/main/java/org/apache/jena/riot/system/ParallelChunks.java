@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.system;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * Parse chunks of the input on a pool of threads, sending the output of each chunk
+ * to a {@link StreamRDF} on the calling thread, either in the order the chunks were
+ * submitted or in the order they finish.
+ * <p>
+ * At most two chunks per thread are in progress, which bounds the memory used.
+ *
+ * @see ParallelParserNTuples
+ * @see ParallelParserTurtle
+ */
+class ParallelChunks implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final CompletionService<ChunkOutput> completion;
+    private final Deque<Future<ChunkOutput>> pending = new ArrayDeque<>();
+    private final int maxPending;
+    private final StreamRDF output;
+
+    ParallelChunks(String threadName, int threads, boolean ordered, StreamRDF output) {
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.completion = ordered ? null : new ExecutorCompletionService<>(executor);
+        this.maxPending = 2 * threads;
+        this.output = output;
+    }
+
+    /** Submit a chunk, first sending the output of earlier chunks if too many are in progress. */
+    void submit(Callable<ChunkOutput> task) {
+        pending.add(completion == null ? executor.submit(task) : completion.submit(task));
+        while ( pending.size() >= maxPending )
+            deliver();
+    }
+
+    /** Wait for, and send, the output of all chunks. */
+    void finish() {
+        while ( !pending.isEmpty() )
+            deliver();
+    }
+
+    @Override
+    public void close() {
+        pending.forEach(f -> f.cancel(true));
+        executor.shutdownNow();
+    }
+
+    private void deliver() {
+        try {
+            Future<ChunkOutput> future;
+            if ( completion == null ) {
+                future = pending.removeFirst();
+            } else {
+                future = completion.take();
+                pending.remove(future);
+            }
+            future.get().sendTo(output);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RiotException("Interrupted", ex);
+        } catch (ExecutionException ex) {
+            if ( ex.getCause() instanceof RuntimeException runtimeEx )
+                throw runtimeEx;
+            if ( ex.getCause() instanceof Error error )
+                throw error;
+            throw new RiotException(ex.getCause());
+        }
+    }
+
+    /**
+     * {@link FactoryRDF} for one chunk. Labelled blank nodes are allocated from the
+     * shared seed, so they are the same in every chunk; anonymous blank nodes
+     * ({@code []}, lists) are fresh, so they do not clash between chunks.
+     */
+    static FactoryRDF factoryRDF(UUID seed) {
+        return new FactoryRDFCaching(FactoryRDFCaching.DftNodeCacheSize, LabelToNode.createScopeByDocumentHash(seed)) {
+            @Override
+            public Node createBlankNode() {
+                return NodeFactory.createBlankNode();
+            }
+        };
+    }
+
+    /** Report line numbers relative to the whole input, given the line a chunk starts on. */
+    static ErrorHandler lineOffset(ErrorHandler errorHandler, long startLine) {
+        return ( startLine == 1 ) ? errorHandler : new ErrorHandlerLineOffset(errorHandler, startLine - 1);
+    }
+
+    static long countNewlines(byte[] bytes, int length) {
+        long count = 0;
+        for ( int i = 0 ; i < length ; i++ ) {
+            if ( bytes[i] == '\n' )
+                count++;
+        }
+        return count;
+    }
+
+    /** The output of parsing one chunk, in order. */
+    static class ChunkOutput extends StreamRDFBase {
+        private record Prefix(String prefix, String iri) {}
+        private record Base(String base) {}
+
+        private final List<Object> items = new ArrayList<>();
+
+        @Override public void triple(Triple triple)               { items.add(triple); }
+        @Override public void quad(Quad quad)                     { items.add(quad); }
+        @Override public void base(String base)                   { items.add(new Base(base)); }
+        @Override public void prefix(String prefix, String iri)   { items.add(new Prefix(prefix, iri)); }
+
+        void sendTo(StreamRDF output) {
+            for ( Object item : items ) {
+                if ( item instanceof Triple triple )
+                    output.triple(triple);
+                else if ( item instanceof Quad quad )
+                    output.quad(quad);
+                else if ( item instanceof Prefix prefix )
+                    output.prefix(prefix.prefix(), prefix.iri());
+                else if ( item instanceof Base base )
+                    output.base(base.base());
+            }
+        }
+    }
+
+    private static class ErrorHandlerLineOffset implements ErrorHandler {
+        private final ErrorHandler other;
+        private final long offset;
+
+        ErrorHandlerLineOffset(ErrorHandler other, long offset) {
+            this.other = other;
+            this.offset = offset;
+        }
+
+        private long line(long line) {
+            return line < 0 ? line : line + offset;
+        }
+
+        @Override
+        public void warning(String message, long line, long col) {
+            other.warning(message, line(line), col);
+        }
+
+        @Override
+        public void error(String message, long line, long col) {
+            other.error(message, line(line), col);
+        }
+
+        @Override
+        public void fatal(String message, long line, long col) {
+            other.fatal(message, line(line), col);
+        }
+    }
+}
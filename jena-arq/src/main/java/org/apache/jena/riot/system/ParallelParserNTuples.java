@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.system;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.irix.IRIs;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.lang.LangNQuads;
+import org.apache.jena.riot.lang.LangNTriples;
+import org.apache.jena.riot.lang.LangRIOT;
+import org.apache.jena.riot.tokens.Tokenizer;
+import org.apache.jena.riot.tokens.TokenizerText;
+
+/**
+ * Parse N-Triples or N-Quads using several threads.
+ * <p>
+ * Both syntaxes are line based, so the input can be split into chunks at newlines.
+ * Each chunk is parsed on a worker thread with its own {@link ParserProfile}, and the
+ * triples or quads are sent to the {@link StreamRDF} on the calling thread, either in
+ * input order (the default) or in the order that chunks finish.
+ * <p>
+ * All chunks allocate blank nodes with the same seed, so a blank node label
+ * is the same blank node wherever it occurs in the input.
+ * Errors report line numbers in the whole input.
+ * <pre>
+ *    ParallelParserNTuples.create()
+ *        .source(path)
+ *        .lang(Lang.NQUADS)
+ *        .threads(8)
+ *        .parse(output);
+ * </pre>
+ * For comparison, {@link AsyncParser} moves a single-threaded parser to another thread.
+ *
+ * @see ParallelParserTurtle
+ */
+public class ParallelParserNTuples {
+
+    /** Default size, in bytes, of the chunks the input is split into. */
+    public static final int DefaultChunkSize = 4 * 1024 * 1024;
+
+    private Path path = null;
+    private InputStream input = null;
+    private Lang lang = Lang.NTRIPLES;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = DefaultChunkSize;
+    private boolean ordered = true;
+    private ErrorHandler errorHandler = ErrorHandlerFactory.getDefaultErrorHandler();
+    private BiFunction<FactoryRDF, ErrorHandler, ParserProfile> profileMaker = null;
+
+    public static ParallelParserNTuples create() {
+        return new ParallelParserNTuples();
+    }
+
+    private ParallelParserNTuples() {}
+
+    /** Parse a file. */
+    public ParallelParserNTuples source(Path path) {
+        this.path = Objects.requireNonNull(path);
+        this.input = null;
+        return this;
+    }
+
+    /** Parse an input stream. The stream is not closed. */
+    public ParallelParserNTuples source(InputStream input) {
+        this.input = Objects.requireNonNull(input);
+        this.path = null;
+        return this;
+    }
+
+    /** Set the syntax: N-Triples (the default) or N-Quads. */
+    public ParallelParserNTuples lang(Lang lang) {
+        if ( !RDFLanguages.sameLang(Lang.NTRIPLES, lang) && !RDFLanguages.sameLang(Lang.NQUADS, lang) )
+            throw new RiotException("Not N-Triples or N-Quads: " + lang);
+        this.lang = lang;
+        return this;
+    }
+
+    /** Number of worker threads. */
+    public ParallelParserNTuples threads(int threads) {
+        if ( threads < 1 )
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        this.threads = threads;
+        return this;
+    }
+
+    /** Size, in bytes, of the chunks the input is split into. */
+    public ParallelParserNTuples chunkSize(int chunkSize) {
+        if ( chunkSize < 1 )
+            throw new IllegalArgumentException("Chunk size must be at least 1: " + chunkSize);
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Whether output is in input order (true, the default) or in the order that chunks
+     * are parsed (false), which keeps the workers busier.
+     */
+    public ParallelParserNTuples ordered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    public ParallelParserNTuples errorHandler(ErrorHandler errorHandler) {
+        this.errorHandler = Objects.requireNonNull(errorHandler);
+        return this;
+    }
+
+    /**
+     * Set the function that creates the {@link ParserProfile} for each chunk,
+     * given the {@link FactoryRDF} and {@link ErrorHandler} for the chunk.
+     * The default is {@link RiotLib#profile(Lang, String, ErrorHandler, FactoryRDF)}.
+     */
+    public ParallelParserNTuples parserProfile(BiFunction<FactoryRDF, ErrorHandler, ParserProfile> profileMaker) {
+        this.profileMaker = profileMaker;
+        return this;
+    }
+
+    /** Parse, sending the output to the {@link StreamRDF} on the calling thread. */
+    public void parse(StreamRDF output) {
+        if ( path != null ) {
+            try ( InputStream in = Files.newInputStream(path) ) {
+                parse(in, output);
+            } catch (IOException ex) { IO.exception(ex); }
+            return;
+        }
+        if ( input == null )
+            throw new RiotException("No source to parse");
+        parse(input, output);
+    }
+
+    // ---- Implementation
+
+    private void parse(InputStream in, StreamRDF output) {
+        UUID seed = UUID.randomUUID();
+        output.start();
+        try ( ParallelChunks chunks = new ParallelChunks("ParallelParserNTuples", threads, ordered, output) ) {
+            byte[] carry = new byte[0];
+            long line = 1;
+            boolean eof = false;
+            while ( !eof ) {
+                byte[] buffer = new byte[Math.max(chunkSize, 2 * carry.length)];
+                System.arraycopy(carry, 0, buffer, 0, carry.length);
+                int request = buffer.length - carry.length;
+                int n = in.readNBytes(buffer, carry.length, request);
+                eof = ( n < request );
+                int length = carry.length + n;
+                int end = length;
+                if ( !eof ) {
+                    end = lastNewline(buffer, length) + 1;
+                    if ( end == 0 ) {
+                        // A line longer than the buffer: read more before parsing.
+                        carry = buffer;
+                        continue;
+                    }
+                }
+                carry = new byte[length - end];
+                System.arraycopy(buffer, end, carry, 0, carry.length);
+                if ( end == 0 )
+                    continue;
+
+                long startLine = line;
+                int chunkLength = end;
+                line += ParallelChunks.countNewlines(buffer, chunkLength);
+                chunks.submit(() -> parseChunk(buffer, chunkLength, startLine, seed));
+            }
+            chunks.finish();
+        } catch (IOException ex) {
+            IO.exception(ex);
+        }
+        output.finish();
+    }
+
+    private ParallelChunks.ChunkOutput parseChunk(byte[] bytes, int length, long startLine, UUID seed) {
+        ErrorHandler handler = ParallelChunks.lineOffset(errorHandler, startLine);
+        FactoryRDF factory = ParallelChunks.factoryRDF(seed);
+        ParserProfile profile = ( profileMaker != null )
+                ? profileMaker.apply(factory, handler)
+                : RiotLib.profile(lang, IRIs.getBaseStr(), handler, factory);
+        Tokenizer tokenizer = TokenizerText.create()
+                .source(new ByteArrayInputStream(bytes, 0, length))
+                .errorHandler(handler)
+                .build();
+        ParallelChunks.ChunkOutput chunkOutput = new ParallelChunks.ChunkOutput();
+        LangRIOT parser = RDFLanguages.sameLang(Lang.NQUADS, lang)
+                ? new LangNQuads(tokenizer, profile, chunkOutput)
+                : new LangNTriples(tokenizer, profile, chunkOutput);
+        parser.parse();
+        return chunkOutput;
+    }
+
+    private static int lastNewline(byte[] bytes, int length) {
+        for ( int i = length - 1 ; i >= 0 ; i-- ) {
+            if ( bytes[i] == '\n' )
+                return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.system;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.atlas.lib.IRILib;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.irix.IRIs;
+import org.apache.jena.riot.*;
+import org.apache.jena.riot.lang.rdfxml.RRX;
+import org.apache.jena.sparql.core.DatasetGraph;
+
+/**
+ * Parse many RDF/XML documents using several threads.
+ * <p>
+ * Each document is parsed on a worker thread and the triples are sent to the
+ * {@link StreamRDF} on the calling thread, either in the order the documents were
+ * added (the default) or in the order they finish. Each worker thread keeps its
+ * parser and {@link ParserProfile} from one document to the next, so the setup cost
+ * of parsing is paid once per thread, not once per document. Blank nodes are scoped
+ * to each document, as when the documents are parsed one at a time.
+ * <pre>
+ *    ParallelParserRDFXML.create()
+ *        .sources(paths)
+ *        .threads(8)
+ *        .parse(dataset);
+ * </pre>
+ * The triples of a document are kept in memory until they are sent to the output, so
+ * this is intended for many small and medium sized documents; a single large document
+ * is better parsed with {@link RDFParser}. Documents are read as input streams;
+ * files are not memory mapped.
+ *
+ * @see ParallelParserNTuples
+ */
+public class ParallelParserRDFXML {
+
+    private record Document(String baseURI, Supplier<InputStream> input) {}
+
+    private final List<Document> documents = new ArrayList<>();
+    private Lang lang = Lang.RDFXML;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean ordered = true;
+    private boolean namedGraphs = false;
+    private boolean skipBadDocuments = false;
+    private ErrorHandler errorHandler = ErrorHandlerFactory.getDefaultErrorHandler();
+
+    public static ParallelParserRDFXML create() {
+        return new ParallelParserRDFXML();
+    }
+
+    private ParallelParserRDFXML() {}
+
+    /** Add a file. The base URI is the file's IRI. */
+    public ParallelParserRDFXML source(Path path) {
+        Objects.requireNonNull(path);
+        String filename = path.toString();
+        documents.add(new Document(IRILib.filenameToIRI(filename), ()->IO.openFile(filename)));
+        return this;
+    }
+
+    /** Add files. */
+    public ParallelParserRDFXML sources(Collection<Path> paths) {
+        paths.forEach(this::source);
+        return this;
+    }
+
+    /**
+     * Add a document, given its base URI and a function to open it.
+     * The input stream is opened on a worker thread, and closed after parsing.
+     */
+    public ParallelParserRDFXML source(String baseURI, Supplier<InputStream> input) {
+        documents.add(new Document(Objects.requireNonNull(baseURI), Objects.requireNonNull(input)));
+        return this;
+    }
+
+    /**
+     * Set the RDF/XML parser: {@link Lang#RDFXML} (the default) for the registered
+     * RDF/XML parser, or one of the parser specific languages in {@link RRX}.
+     */
+    public ParallelParserRDFXML lang(Lang lang) {
+        if ( !RDFLanguages.sameLang(Lang.RDFXML, lang) && !lang.equals(RRX.RDFXML_SAX) &&
+             !lang.equals(RRX.RDFXML_StAX_sr) && !lang.equals(RRX.RDFXML_StAX_ev) )
+            throw new RiotException("Not RDF/XML: " + lang);
+        this.lang = lang;
+        return this;
+    }
+
+    /** Number of worker threads. */
+    public ParallelParserRDFXML threads(int threads) {
+        if ( threads < 1 )
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Whether output is in the order the documents were added (true, the default) or
+     * in the order that documents are parsed (false), which keeps the workers busier.
+     */
+    public ParallelParserRDFXML ordered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * Whether to send the triples of each document as quads in a graph named
+     * by the document's base URI (default false).
+     */
+    public ParallelParserRDFXML namedGraphs(boolean namedGraphs) {
+        this.namedGraphs = namedGraphs;
+        return this;
+    }
+
+    /**
+     * Whether a document with a syntax error is skipped (true) or ends the parse
+     * (false, the default). The error is reported to the error handler and none of
+     * the triples from a skipped document are output.
+     */
+    public ParallelParserRDFXML skipBadDocuments(boolean skipBadDocuments) {
+        this.skipBadDocuments = skipBadDocuments;
+        return this;
+    }
+
+    /** Set the error handler. Messages start with the base URI of the document. */
+    public ParallelParserRDFXML errorHandler(ErrorHandler errorHandler) {
+        this.errorHandler = Objects.requireNonNull(errorHandler);
+        return this;
+    }
+
+    /** Parse into a dataset. */
+    public void parse(DatasetGraph dataset) {
+        parse(StreamRDFLib.dataset(dataset));
+    }
+
+    /** Parse, sending the output to the {@link StreamRDF} on the calling thread. */
+    public void parse(StreamRDF output) {
+        ReaderRIOTFactory factory = RDFParserRegistry.getFactory(lang);
+        if ( factory == null )
+            throw new RiotException("No parser registered for " + lang);
+        // One parser per worker thread. The pool threads end when the parse finishes.
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(()->new Worker(factory, lang, errorHandler));
+        output.start();
+        try ( ParallelChunks chunks = new ParallelChunks("ParallelParserRDFXML", threads, ordered, output) ) {
+            for ( Document document : documents )
+                chunks.submit(()->workers.get().parse(document, namedGraphs, skipBadDocuments));
+            chunks.finish();
+        }
+        output.finish();
+    }
+
+    // ---- Implementation
+
+    private static class Worker {
+        private final DocumentErrorHandler errorHandler;
+        private final ParserProfile profile;
+        private final ReaderRIOT reader;
+
+        Worker(ReaderRIOTFactory factory, Lang lang, ErrorHandler errorHandler) {
+            this.errorHandler = new DocumentErrorHandler(errorHandler);
+            this.profile = RiotLib.profile(Lang.RDFXML, IRIs.getBaseStr(), this.errorHandler, RiotLib.factoryRDF());
+            this.reader = factory.create(lang, profile);
+        }
+
+        ParallelChunks.ChunkOutput parse(Document document, boolean namedGraphs, boolean skipBadDocuments) {
+            // New blank node scope for each document.
+            profile.getFactorRDF().reset();
+            // The parser sets the base; clear the last document's base so it is not resolved against it.
+            profile.setBaseIRI(null);
+            errorHandler.document = document.baseURI();
+            ParallelChunks.ChunkOutput chunkOutput = new ParallelChunks.ChunkOutput();
+            StreamRDF destination = chunkOutput;
+            if ( namedGraphs ) {
+                Node graphName = NodeFactory.createURI(document.baseURI());
+                destination = StreamRDFLib.extendTriplesToQuads(graphName, chunkOutput);
+            }
+            try ( InputStream input = document.input().get() ) {
+                reader.read(input, document.baseURI(), null, destination, RIOT.getContext());
+            } catch (RiotException ex) {
+                if ( !skipBadDocuments )
+                    throw ex;
+                return new ParallelChunks.ChunkOutput();
+            } catch (IOException ex) {
+                IO.exception(ex);
+            }
+            return chunkOutput;
+        }
+    }
+
+    /** Put the document base URI at the start of error messages. */
+    private static class DocumentErrorHandler implements ErrorHandler {
+        private final ErrorHandler other;
+        private String document = null;
+
+        DocumentErrorHandler(ErrorHandler other) {
+            this.other = other;
+        }
+
+        private String message(String message) {
+            return document + ": " + message;
+        }
+
+        @Override
+        public void warning(String message, long line, long col) {
+            other.warning(message(message), line, col);
+        }
+
+        @Override
+        public void error(String message, long line, long col) {
+            other.error(message(message), line, col);
+        }
+
+        @Override
+        public void fatal(String message, long line, long col) {
+            other.fatal(message(message), line, col);
+        }
+    }
+}
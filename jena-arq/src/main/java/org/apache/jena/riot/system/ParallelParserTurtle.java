@@ -0,0 +1,455 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.system;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.irix.IRIs;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.lang.LangRIOT;
+import org.apache.jena.riot.lang.LangTriG;
+import org.apache.jena.riot.lang.LangTurtle;
+import org.apache.jena.riot.tokens.Tokenizer;
+import org.apache.jena.riot.tokens.TokenizerText;
+
+/**
+ * Parse Turtle or TriG using several threads.
+ * <p>
+ * The input is pre-scanned for the ends of top-level statements, taking IRIs,
+ * strings, comments and nesting into account, and split into chunks of whole
+ * statements. Each chunk is parsed on a worker thread, starting with the prefixes
+ * and base in force at the start of the chunk, and the output is sent to the
+ * {@link StreamRDF} on the calling thread, in input order (the default) or in the
+ * order that chunks finish.
+ * <p>
+ * This works well for data that is a long sequence of statements after a header of
+ * prefixes, the common form of large Turtle files. A statement end is only recognized
+ * when the {@code .} is followed by whitespace, a comment, or a character that can not
+ * continue a name or number; a file written with no such places is parsed as one chunk.
+ * <p>
+ * All chunks allocate blank nodes with the same seed, so a blank node label
+ * is the same blank node wherever it occurs in the input.
+ * Errors report line numbers in the whole input.
+ * <pre>
+ *    ParallelParserTurtle.create()
+ *        .source(path)
+ *        .lang(Lang.TURTLE)
+ *        .base("http://example/")
+ *        .threads(8)
+ *        .parse(output);
+ * </pre>
+ *
+ * @see ParallelParserNTuples
+ * @see org.apache.jena.riot.RDFParserBuilder#parallel(int)
+ */
+public class ParallelParserTurtle {
+
+    /** Default size, in bytes, of the chunks the input is split into. */
+    public static final int DefaultChunkSize = 4 * 1024 * 1024;
+
+    private Path path = null;
+    private InputStream input = null;
+    private Lang lang = Lang.TURTLE;
+    private String baseIRI = null;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = DefaultChunkSize;
+    private boolean ordered = true;
+    private ErrorHandler errorHandler = ErrorHandlerFactory.getDefaultErrorHandler();
+    private BiFunction<FactoryRDF, ErrorHandler, ParserProfile> profileMaker = null;
+
+    public static ParallelParserTurtle create() {
+        return new ParallelParserTurtle();
+    }
+
+    private ParallelParserTurtle() {}
+
+    /** Parse a file. */
+    public ParallelParserTurtle source(Path path) {
+        this.path = Objects.requireNonNull(path);
+        this.input = null;
+        return this;
+    }
+
+    /** Parse an input stream. The stream is not closed. */
+    public ParallelParserTurtle source(InputStream input) {
+        this.input = Objects.requireNonNull(input);
+        this.path = null;
+        return this;
+    }
+
+    /** Set the syntax: Turtle (the default) or TriG. */
+    public ParallelParserTurtle lang(Lang lang) {
+        if ( !RDFLanguages.sameLang(Lang.TURTLE, lang) && !RDFLanguages.sameLang(Lang.TRIG, lang) )
+            throw new RiotException("Not Turtle or TriG: " + lang);
+        this.lang = lang;
+        return this;
+    }
+
+    /** Set the base IRI. The default is the system base. */
+    public ParallelParserTurtle base(String baseIRI) {
+        this.baseIRI = baseIRI;
+        return this;
+    }
+
+    /** Number of worker threads. */
+    public ParallelParserTurtle threads(int threads) {
+        if ( threads < 1 )
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Size, in bytes, of the chunks the input is split into.
+     * A chunk is larger if a statement is larger.
+     */
+    public ParallelParserTurtle chunkSize(int chunkSize) {
+        if ( chunkSize < 1 )
+            throw new IllegalArgumentException("Chunk size must be at least 1: " + chunkSize);
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Whether output is in input order (true, the default) or in the order that chunks
+     * are parsed (false), which keeps the workers busier.
+     */
+    public ParallelParserTurtle ordered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    public ParallelParserTurtle errorHandler(ErrorHandler errorHandler) {
+        this.errorHandler = Objects.requireNonNull(errorHandler);
+        return this;
+    }
+
+    /**
+     * Set the function that creates the {@link ParserProfile} for each chunk,
+     * given the {@link FactoryRDF} and {@link ErrorHandler} for the chunk.
+     * The prefixes and base in force at the start of the chunk are then added to the profile.
+     * The default is {@link RiotLib#profile(Lang, String, ErrorHandler, FactoryRDF)}.
+     */
+    public ParallelParserTurtle parserProfile(BiFunction<FactoryRDF, ErrorHandler, ParserProfile> profileMaker) {
+        this.profileMaker = profileMaker;
+        return this;
+    }
+
+    /** Parse, sending the output to the {@link StreamRDF} on the calling thread. */
+    public void parse(StreamRDF output) {
+        if ( path != null ) {
+            try ( InputStream in = Files.newInputStream(path) ) {
+                parse(in, output);
+            } catch (IOException ex) { IO.exception(ex); }
+            return;
+        }
+        if ( input == null )
+            throw new RiotException("No source to parse");
+        parse(input, output);
+    }
+
+    // ---- Implementation
+
+    private boolean isTriG() {
+        return RDFLanguages.sameLang(Lang.TRIG, lang);
+    }
+
+    private ParserProfile profile(FactoryRDF factory, ErrorHandler handler) {
+        if ( profileMaker != null )
+            return profileMaker.apply(factory, handler);
+        String base = ( baseIRI != null ) ? baseIRI : IRIs.getBaseStr();
+        return RiotLib.profile(lang, base, handler, factory);
+    }
+
+    private void parse(InputStream in, StreamRDF output) {
+        UUID seed = UUID.randomUUID();
+        // Tracks the prefixes and base at the start of each chunk.
+        // Errors in directives are reported when the chunk is parsed.
+        ParserProfile directives = profile(RiotLib.factoryRDF(), ErrorHandlerFactory.errorHandlerNoLogging);
+        List<int[]> directiveRanges = new ArrayList<>();
+        output.start();
+        try ( ParallelChunks chunks = new ParallelChunks("ParallelParserTurtle", threads, ordered, output) ) {
+            byte[] carry = new byte[0];
+            long line = 1;
+            boolean eof = false;
+            while ( !eof ) {
+                byte[] buffer = new byte[Math.max(chunkSize, 2 * carry.length)];
+                System.arraycopy(carry, 0, buffer, 0, carry.length);
+                int request = buffer.length - carry.length;
+                int n = in.readNBytes(buffer, carry.length, request);
+                eof = ( n < request );
+                int length = carry.length + n;
+                directiveRanges.clear();
+                int end = scan(buffer, length, eof, isTriG(), directiveRanges);
+                if ( eof )
+                    end = length;
+                else if ( end == 0 ) {
+                    // A statement longer than the buffer: read more before parsing.
+                    carry = buffer;
+                    continue;
+                }
+                carry = new byte[length - end];
+                System.arraycopy(buffer, end, carry, 0, carry.length);
+                if ( end == 0 )
+                    continue;
+
+                long startLine = line;
+                int chunkLength = end;
+                String chunkBase = directives.getBaseURI();
+                PrefixMap chunkPrefixes = PrefixMapFactory.create(directives.getPrefixMap());
+                chunks.submit(() -> parseChunk(buffer, chunkLength, startLine, seed, chunkBase, chunkPrefixes));
+                line += ParallelChunks.countNewlines(buffer, chunkLength);
+                for ( int[] range : directiveRanges ) {
+                    if ( range[1] <= end )
+                        directive(directives, buffer, range[0], range[1]);
+                }
+            }
+            chunks.finish();
+        } catch (IOException ex) {
+            IO.exception(ex);
+        }
+        output.finish();
+    }
+
+    private ParallelChunks.ChunkOutput parseChunk(byte[] bytes, int length, long startLine, UUID seed, String base, PrefixMap prefixes) {
+        ErrorHandler handler = ParallelChunks.lineOffset(errorHandler, startLine);
+        ParserProfile profile = profile(ParallelChunks.factoryRDF(seed), handler);
+        if ( base != null )
+            profile.setBaseIRI(base);
+        profile.getPrefixMap().putAll(prefixes);
+        ParallelChunks.ChunkOutput chunkOutput = new ParallelChunks.ChunkOutput();
+        parser(bytes, 0, length, profile, handler, chunkOutput).parse();
+        return chunkOutput;
+    }
+
+    /** Parse a directive to update the prefixes and base in a profile. */
+    private void directive(ParserProfile profile, byte[] bytes, int start, int end) {
+        try {
+            parser(bytes, start, end - start, profile, profile.getErrorHandler(), StreamRDFLib.sinkNull()).parse();
+        } catch (RiotException ex) {}
+    }
+
+    private LangRIOT parser(byte[] bytes, int offset, int length, ParserProfile profile, ErrorHandler handler, StreamRDF dest) {
+        Tokenizer tokenizer = TokenizerText.create()
+                .source(new ByteArrayInputStream(bytes, offset, length))
+                .errorHandler(handler)
+                .build();
+        return isTriG()
+                ? new LangTriG(tokenizer, profile, dest)
+                : new LangTurtle(tokenizer, profile, dest);
+    }
+
+    // ---- Statement scanner
+
+    /**
+     * Find the end of the last complete top-level statement in {@code bytes[0, length)},
+     * adding the ranges of the directives ({@code @prefix}, {@code @base},
+     * {@code PREFIX}, {@code BASE}) to {@code directives}.
+     * Returns 0 if there is no complete statement.
+     */
+    /*package*/ static int scan(byte[] bytes, int length, boolean eof, boolean trig, List<int[]> directives) {
+        int lastEnd = 0;
+        int depth = 0;
+        boolean atStart = true;
+        int directiveStart = -1;
+        boolean sparqlDirective = false;
+        int i = 0;
+        while ( i < length ) {
+            int b = bytes[i];
+            if ( b == '#' ) {
+                // Comment to the end of the line.
+                while ( i < length && bytes[i] != '\n' )
+                    i++;
+                continue;
+            }
+            if ( b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f' ) {
+                i++;
+                continue;
+            }
+            if ( atStart ) {
+                atStart = false;
+                if ( depth == 0 && isDirective(bytes, i, length) ) {
+                    directiveStart = i;
+                    sparqlDirective = ( b != '@' );
+                }
+            }
+            switch (b) {
+                case '<': {
+                    if ( i + 1 < length && bytes[i+1] == '<' ) {
+                        depth++;
+                        i += 2;
+                        break;
+                    }
+                    int j = i + 1;
+                    while ( j < length && bytes[j] != '>' && bytes[j] != '\n' )
+                        j++;
+                    if ( j >= length )
+                        return lastEnd;
+                    i = j + 1;
+                    if ( sparqlDirective && depth == 0 && directiveStart >= 0 ) {
+                        // PREFIX and BASE end with the IRI.
+                        directives.add(new int[] {directiveStart, i});
+                        directiveStart = -1;
+                        sparqlDirective = false;
+                        lastEnd = i;
+                        atStart = true;
+                    }
+                    break;
+                }
+                case '>':
+                    if ( i + 1 < length && bytes[i+1] == '>' ) {
+                        depth--;
+                        i += 2;
+                    } else {
+                        i++;
+                    }
+                    break;
+                case '"':
+                case '\'':
+                    i = skipString(bytes, i, length);
+                    if ( i < 0 )
+                        return lastEnd;
+                    break;
+                case '[': case '(': case '{':
+                    depth++;
+                    i++;
+                    break;
+                case ']': case ')':
+                    depth--;
+                    i++;
+                    break;
+                case '}': {
+                    // Either a TriG graph or an annotation "|}".
+                    boolean annotation = ( i > 0 && bytes[i-1] == '|' );
+                    depth--;
+                    i++;
+                    if ( trig && !annotation && depth == 0 ) {
+                        lastEnd = i;
+                        atStart = true;
+                    }
+                    break;
+                }
+                case '\\':
+                    // Escaped character in a local name.
+                    i += 2;
+                    break;
+                case '.':
+                    i++;
+                    if ( depth == 0 && isTerminator(bytes, i, length, eof) ) {
+                        if ( directiveStart >= 0 ) {
+                            directives.add(new int[] {directiveStart, i});
+                            directiveStart = -1;
+                        }
+                        lastEnd = i;
+                        atStart = true;
+                    }
+                    break;
+                default:
+                    i++;
+            }
+        }
+        return lastEnd;
+    }
+
+    /** Whether a '.' followed by the byte at {@code idx} ends a statement, not a name or a number. */
+    private static boolean isTerminator(byte[] bytes, int idx, int length, boolean eof) {
+        if ( idx >= length )
+            return eof;
+        int b = bytes[idx];
+        if ( b < 0 )
+            // Non-ASCII, part of a name.
+            return false;
+        if ( RiotChars.isA2ZN(b) )
+            return false;
+        switch (b) {
+            case '_': case '-': case '.': case ':': case '%': case '\\':
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private static boolean isDirective(byte[] bytes, int idx, int length) {
+        return matchWord(bytes, idx, length, "@prefix", false) || matchWord(bytes, idx, length, "@base", false)
+               || matchWord(bytes, idx, length, "PREFIX", true) || matchWord(bytes, idx, length, "BASE", true);
+    }
+
+    private static boolean matchWord(byte[] bytes, int idx, int length, String word, boolean ignoreCase) {
+        int n = word.length();
+        if ( idx + n >= length )
+            return false;
+        for ( int i = 0 ; i < n ; i++ ) {
+            int b = bytes[idx + i];
+            int ch = word.charAt(i);
+            if ( b != ch && !(ignoreCase && Character.toUpperCase(b) == ch) )
+                return false;
+        }
+        return RiotChars.isWhitespace(bytes[idx + n]);
+    }
+
+    /** Skip a string starting at {@code idx}. Returns the index after it, or -1 if it is not complete. */
+    private static int skipString(byte[] bytes, int idx, int length) {
+        byte quote = bytes[idx];
+        if ( idx + 2 >= length )
+            return -1;
+        boolean longString = ( bytes[idx+1] == quote && bytes[idx+2] == quote );
+        if ( !longString && bytes[idx+1] == quote )
+            // Empty string.
+            return idx + 2;
+        int i = longString ? idx + 3 : idx + 1;
+        while ( i < length ) {
+            byte b = bytes[i];
+            if ( b == '\\' ) {
+                i += 2;
+                continue;
+            }
+            if ( b == quote ) {
+                if ( !longString )
+                    return i + 1;
+                // A long string ends with the last three of a run of quotes.
+                int j = i;
+                while ( j < length && bytes[j] == quote )
+                    j++;
+                if ( j >= length )
+                    return -1;
+                if ( j - i >= 3 )
+                    return j;
+                i = j;
+                continue;
+            }
+            if ( b == '\n' && !longString )
+                // Broken string; the parser will report it.
+                return i + 1;
+            i++;
+        }
+        return -1;
+    }
+}
@@ -171,21 +171,29 @@ public class RiotLib {
     }
 
     public static ParserProfile profile(Lang lang, String baseIRI, ErrorHandler handler) {
+        return profile(lang, baseIRI, handler, factoryRDF());
+    }
+
+    /**
+     * Create a parser profile for the language, using a specific {@link FactoryRDF}.
+     * Parsers using factories with the same blank node label policy, or policies with the same seed,
+     * produce the same blank node for the same label.
+     */
+    public static ParserProfile profile(Lang lang, String baseIRI, ErrorHandler handler, FactoryRDF factory) {
         if ( sameLang(NTRIPLES, lang) || sameLang(NQUADS, lang) ) {
             boolean checking = SysRIOT.isStrictMode();
             // If strict mode, do checking e.g. URIs
-            return profile(baseIRI, false, checking, handler);
+            return profile(baseIRI, false, checking, handler, factory);
         }
         if ( sameLang(RDFJSON, lang) )
-            return profile(baseIRI, false, true, handler);
-        return profile(baseIRI, true, true, handler);
+            return profile(baseIRI, false, true, handler, factory);
+        return profile(baseIRI, true, true, handler, factory);
     }
 
     /**
      * Create a parser profile for the given setup
      */
-    private static ParserProfile profile(String baseIRI, boolean resolveIRIs, boolean checking, ErrorHandler handler) {
-        LabelToNode labelToNode = SyntaxLabels.createLabelToNode();
+    private static ParserProfile profile(String baseIRI, boolean resolveIRIs, boolean checking, ErrorHandler handler, FactoryRDF factory) {
         IRIx base = resolveIRIs
                 ? IRIs.resolveIRI(baseIRI)
                 : IRIx.create(baseIRI);
@@ -194,7 +202,7 @@ public class RiotLib {
                 .resolve(resolveIRIs)
                 .allowRelative(false)
                 .build();
-        return RiotLib.createParserProfile(factoryRDF(labelToNode), handler, resolver, checking);
+        return RiotLib.createParserProfile(factory, handler, resolver, checking);
     }
 
     /**
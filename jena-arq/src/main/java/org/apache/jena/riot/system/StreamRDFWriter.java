@@ -29,8 +29,11 @@ import org.apache.jena.atlas.io.IO ;
 import org.apache.jena.atlas.lib.CharSpace ;
 import org.apache.jena.graph.Graph ;
 import org.apache.jena.riot.* ;
+import org.apache.jena.riot.dict.DictRDF;
 import org.apache.jena.riot.protobuf.ProtobufRDF;
 import org.apache.jena.riot.thrift.ThriftRDF;
+import org.apache.jena.riot.writer.JsonLD11WriterStreaming ;
+import org.apache.jena.riot.writer.StreamWriterJsonLD11 ;
 import org.apache.jena.riot.writer.StreamWriterTriX ;
 import org.apache.jena.riot.writer.WriterStreamRDFBlocks ;
 import org.apache.jena.riot.writer.WriterStreamRDFFlat ;
@@ -95,6 +98,14 @@ public class StreamRDFWriter {
         }
     } ;
 
+    private static StreamRDFWriterFactory streamWriterFactoryDict = new StreamRDFWriterFactory() {
+        @Override
+        public StreamRDF create(OutputStream output, RDFFormat format, Context context) {
+            boolean compress = RDFFormat.RDF_DICT_COMPRESSED.equals(format) ;
+            return DictRDF.streamToOutputStream(output, compress) ;
+        }
+    } ;
+
     private static StreamRDFWriterFactory streamWriterFactoryTriX = new StreamRDFWriterFactory() {
         @Override
         public StreamRDF create(OutputStream output, RDFFormat format, Context context) {
@@ -102,6 +113,15 @@ public class StreamRDFWriter {
         }
     } ;
 
+    private static StreamRDFWriterFactory streamWriterFactoryJsonLD11 = new StreamRDFWriterFactory() {
+        @Override
+        public StreamRDF create(OutputStream output, RDFFormat format, Context context) {
+            boolean compact = !RDFFormat.JSONLD11_STREAMING_FLAT.equals(format) ;
+            PrefixMap jsonldContext = ( context == null ) ? null : context.get(JsonLD11WriterStreaming.JSONLD_CONTEXT) ;
+            return new StreamWriterJsonLD11(output, compact, compact, jsonldContext) ;
+        }
+    } ;
+
     private static StreamRDFWriterFactory streamWriterFactoryNull = new StreamRDFWriterFactory() {
         @Override
         public StreamRDF create(OutputStream output, RDFFormat format, Context context) {
@@ -143,7 +163,9 @@ public class StreamRDFWriter {
         register(Lang.NQUADS,       RDFFormat.NQUADS) ;
         register(Lang.RDFPROTO,     RDFFormat.RDF_PROTO) ;
         register(Lang.RDFTHRIFT,    RDFFormat.RDF_THRIFT) ;
+        register(Lang.RDFDICT,      RDFFormat.RDF_DICT) ;
         register(Lang.TRIX,         RDFFormat.TRIX) ;
+        register(Lang.JSONLD11,     RDFFormat.JSONLD11_STREAMING) ;
         register(Lang.RDFNULL,      RDFFormat.RDFNULL) ;
         register(Lang.RDFRAW,       RDFFormat.RDFRAW) ;
 
@@ -166,7 +188,12 @@ public class StreamRDFWriter {
         register(RDFFormat.RDF_THRIFT,          streamWriterFactoryThrift) ;
         register(RDFFormat.RDF_THRIFT_VALUES,   streamWriterFactoryThrift) ;
 
+        register(RDFFormat.RDF_DICT,            streamWriterFactoryDict) ;
+        register(RDFFormat.RDF_DICT_COMPRESSED, streamWriterFactoryDict) ;
+
         register(RDFFormat.TRIX,            streamWriterFactoryTriX) ;
+        register(RDFFormat.JSONLD11_STREAMING,      streamWriterFactoryJsonLD11) ;
+        register(RDFFormat.JSONLD11_STREAMING_FLAT, streamWriterFactoryJsonLD11) ;
         register(RDFFormat.RDFNULL,         streamWriterFactoryNull) ;
         register(RDFFormat.RDFRAW,          streamWriterFactoryRaw) ;
     }
@@ -18,8 +18,10 @@
 
 package org.apache.jena.riot.tokens;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.jena.atlas.io.PeekReader;
 import org.apache.jena.atlas.lib.InternalErrorException;
@@ -28,7 +30,7 @@ import org.apache.jena.riot.system.ErrorHandler;
 import org.apache.jena.riot.system.ErrorHandlerFactory;
 import org.slf4j.Logger;
 
-/** Builder for TokenizerText */
+/** Builder for TokenizerText, or TokenizerBytes in {@linkplain #byteMode byte mode} */
 public class TokenizeTextBuilder {
 
     // One of these.
@@ -39,6 +41,7 @@ public class TokenizeTextBuilder {
 
     private boolean      singleLineMode  = false;
     private boolean      utf8            = true;
+    private boolean      byteMode        = false;
     private ErrorHandler errorHandler    = null;
 
     TokenizeTextBuilder() {}
@@ -84,6 +87,17 @@ public class TokenizeTextBuilder {
         return this;
     }
 
+    /**
+     * Use {@link TokenizerBytes}, which works on the UTF-8 bytes of the input
+     * and only recognizes the tokens of N-Triples and N-Quads.
+     * The source must be an {@link InputStream} or a string.
+     * Line mode and ASCII-only do not apply.
+     */
+    public TokenizeTextBuilder byteMode(boolean byteMode) {
+        this.byteMode = byteMode;
+        return this;
+    }
+
     public TokenizeTextBuilder errorHandler(ErrorHandler errorHandler) {
         this.errorHandler = errorHandler;
         return this;
@@ -116,6 +130,13 @@ public class TokenizeTextBuilder {
         int x = countNotNulls(peekReader, input, reader, string);
         if ( x > 1 )
             throw new InternalErrorException("Too many data sources");
+        if ( byteMode ) {
+            if ( input != null )
+                return TokenizerBytes.internal(input, errHandler);
+            if ( string != null )
+                return TokenizerBytes.internal(new ByteArrayInputStream(string.getBytes(StandardCharsets.UTF_8)), errHandler);
+            throw new IllegalStateException("Byte mode requires an InputStream or a string");
+        }
         PeekReader pr;
         if ( input != null ) {
             pr = utf8 ? PeekReader.makeUTF8(input) : PeekReader.makeASCII(input);
@@ -0,0 +1,707 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.tokens;
+
+import static org.apache.jena.atlas.lib.Chars.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.riot.RiotParseException;
+import org.apache.jena.riot.system.ErrorHandler;
+import org.apache.jena.riot.system.RiotChars;
+
+/**
+ * Tokenizer for N-Triples and N-Quads that works on the UTF-8 bytes of the input.
+ * <p>
+ * {@link TokenizerText} reads characters decoded from the input and builds each
+ * token image with a {@link StringBuilder}. This tokenizer scans the bytes directly.
+ * Tokens without escapes or non-ASCII characters become strings with a single
+ * copy of the bytes; otherwise the UTF-8 is validated and escapes are processed
+ * in one pass. IRIs and language tags are cached by their bytes so an IRI that
+ * has been seen recently is not decoded again, and the same {@code String} is
+ * returned, which makes later lookups in the parser's node cache cheaper.
+ * <p>
+ * Warnings about the characters of an IRI are reported when the IRI is decoded,
+ * that is, when it is not in the cache.
+ * <p>
+ * The tokens are IRIs, blank node labels, short strings and literals with language tags or datatypes,
+ * {@code .}, {@code <<}, {@code >>}, and {@code _}.
+ * Other Turtle tokens are not recognized.
+ *
+ * @see TokenizeTextBuilder#byteMode(boolean)
+ */
+public final class TokenizerBytes implements Tokenizer
+{
+    private static final int InitialBufferSize = 128 * 1024;
+    private static final int IRICacheSize = 4096;
+    private static final int LangCacheSize = 64;
+
+    private final InputStream input;
+    private final ErrorHandler errorHandler;
+
+    // Input bytes. The current line is [lineStart, lineEnd), including the newline.
+    private byte[] buffer;
+    private int limit = 0;
+    private int pos = 0;
+    private int lineStart = 0;
+    private int lineEnd = 0;
+    private long line = 1;
+    private boolean inputEOF = false;
+
+    // Workspace for decoding.
+    private char[] chars = new char[256];
+    // Set by decodeCodepoint: the index after the codepoint.
+    private int cpEnd;
+
+    private final ByteStringCache iriCache = new ByteStringCache(IRICacheSize);
+    private final ByteStringCache langCache = new ByteStringCache(LangCacheSize);
+
+    private Token token = null;
+    private boolean finished = false;
+
+    /*package*/ static TokenizerBytes internal(InputStream input, ErrorHandler errorHandler) {
+        return new TokenizerBytes(input, errorHandler);
+    }
+
+    private TokenizerBytes(InputStream input, ErrorHandler errorHandler) {
+        this.input = Objects.requireNonNull(input, "InputStream");
+        this.errorHandler = Objects.requireNonNull(errorHandler, "ErrorHandler");
+        this.buffer = new byte[InitialBufferSize];
+        skipBOM();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if ( finished )
+            return false;
+        if ( token != null )
+            return true;
+        if ( !skip() ) {
+            finished = true;
+            return false;
+        }
+        token = parseToken();
+        return true;
+    }
+
+    @Override
+    public boolean eof() {
+        return !hasNext();
+    }
+
+    @Override
+    public Token next() {
+        if ( !hasNext() )
+            throw new NoSuchElementException();
+        Token t = token;
+        token = null;
+        return t;
+    }
+
+    @Override
+    public Token peek() {
+        if ( !hasNext() )
+            return null;
+        return token;
+    }
+
+    @Override
+    public long getLine() {
+        return line;
+    }
+
+    @Override
+    public long getColumn() {
+        return column(pos);
+    }
+
+    @Override
+    public void close() {
+        IO.close(input);
+    }
+
+    // ---- Input
+
+    /** Column, counting UTF-16 characters, not bytes. */
+    private long column(int idx) {
+        long col = 1;
+        for ( int i = lineStart ; i < idx && i < limit ; i++ ) {
+            int b = buffer[i] & 0xFF;
+            if ( (b & 0xC0) != 0x80 )
+                col += ( (b & 0xF8) == 0xF0 ) ? 2 : 1;
+        }
+        return col;
+    }
+
+    private void skipBOM() {
+        while ( limit < 3 && !inputEOF )
+            fill();
+        if ( limit >= 3 && (buffer[0] & 0xFF) == 0xEF && (buffer[1] & 0xFF) == 0xBB && (buffer[2] & 0xFF) == 0xBF ) {
+            pos = 3;
+            lineStart = 3;
+            lineEnd = 3;
+        }
+    }
+
+    /**
+     * Move to the next line, which starts at {@code pos}. Reads more input until the
+     * buffer holds the whole line. Returns false at the end of the input.
+     */
+    private boolean nextLine() {
+        if ( lineEnd > lineStart && buffer[lineEnd-1] == '\n' )
+            line++;
+        lineStart = pos;
+        int searchFrom = pos;
+        for (;;) {
+            for ( int i = searchFrom ; i < limit ; i++ ) {
+                if ( buffer[i] == '\n' ) {
+                    lineEnd = i + 1;
+                    return true;
+                }
+            }
+            if ( inputEOF ) {
+                lineEnd = limit;
+                return lineEnd > lineStart;
+            }
+            searchFrom = limit - fill();
+        }
+    }
+
+    /**
+     * Read more bytes, first moving the current line to the start of the buffer and
+     * growing the buffer if the line fills it. Returns the distance the bytes moved.
+     */
+    private int fill() {
+        int shift = lineStart;
+        if ( shift > 0 ) {
+            System.arraycopy(buffer, shift, buffer, 0, limit - shift);
+            limit -= shift;
+            pos -= shift;
+            lineStart = 0;
+        }
+        if ( limit == buffer.length )
+            buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+        try {
+            int n = input.read(buffer, limit, buffer.length - limit);
+            if ( n < 0 )
+                inputEOF = true;
+            else
+                limit += n;
+        } catch (IOException ex) { IO.exception(ex); }
+        return shift;
+    }
+
+    /** Skip whitespace and comments. Returns false at the end of the input. */
+    private boolean skip() {
+        for (;;) {
+            if ( pos >= lineEnd ) {
+                if ( !nextLine() )
+                    return false;
+                continue;
+            }
+            byte b = buffer[pos];
+            if ( b == '#' ) {
+                // Comment to the end of the line.
+                pos = lineEnd;
+                continue;
+            }
+            if ( b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f' ) {
+                pos++;
+                continue;
+            }
+            return true;
+        }
+    }
+
+    private int peekByte() {
+        return ( pos < lineEnd ) ? buffer[pos] & 0xFF : EOF;
+    }
+
+    // ---- Tokens
+
+    private Token parseToken() {
+        Token token = new Token(getLine(), getColumn());
+        int b = buffer[pos] & 0xFF;
+        switch (b) {
+            case CH_LT:
+                pos++;
+                if ( peekByte() == CH_LT ) {
+                    pos++;
+                    token.setType(TokenType.LT2);
+                    return token;
+                }
+                token.setImage(readIRI());
+                token.setType(TokenType.IRI);
+                return token;
+            case CH_GT:
+                pos++;
+                if ( peekByte() != CH_GT )
+                    fatal("Unexpected '>'");
+                pos++;
+                token.setType(TokenType.GT2);
+                return token;
+            case CH_QUOTE1:
+            case CH_QUOTE2:
+                return readLiteral(token, b);
+            case CH_UNDERSCORE:
+                pos++;
+                if ( peekByte() == CH_COLON ) {
+                    pos++;
+                    token.setImage(readBlankNodeLabel());
+                    token.setType(TokenType.BNODE);
+                    return token;
+                }
+                token.setType(TokenType.UNDERSCORE);
+                return token;
+            case CH_DOT:
+                pos++;
+                token.setType(TokenType.DOT);
+                return token;
+            default:
+                if ( b < 0x80 )
+                    fatal("Unexpected character for N-Triples or N-Quads: '%c'", (char)b);
+                fatal("Unexpected character for N-Triples or N-Quads: 0x%02X", b);
+                return null;
+        }
+    }
+
+    // Looking at the character after '<'
+    private String readIRI() {
+        int start = pos;
+        int hash = 0;
+        for (;;) {
+            if ( pos >= lineEnd ) {
+                fatal("Broken IRI (End of file)");
+                return null;
+            }
+            byte b = buffer[pos];
+            if ( b == CH_GT )
+                break;
+            if ( b == NL ) {
+                fatal("Broken IRI (newline): %s", new String(buffer, start, pos - start, StandardCharsets.UTF_8));
+                return null;
+            }
+            hash = 31 * hash + b;
+            pos++;
+        }
+        int end = pos;
+        pos++;
+        String iri = iriCache.get(buffer, start, end, hash);
+        if ( iri == null ) {
+            iri = decodeIRI(start, end);
+            iriCache.put(buffer, start, end, hash, iri);
+        }
+        return iri;
+    }
+
+    private String decodeIRI(int start, int end) {
+        if ( isSimpleIRI(start, end) )
+            return new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+        int n = 0;
+        int idx = start;
+        while ( idx < end ) {
+            int ch = decodeCodepoint(idx);
+            idx = cpEnd;
+            switch (ch) {
+                case CR:
+                    fatal("Broken IRI (CR): %s", chars(n)); return null;
+                case CH_RSLASH: {
+                    // Unicode escapes only.
+                    if ( idx >= end )
+                        fatal("Broken escape sequence");
+                    int esc = buffer[idx++];
+                    if ( esc == 'u' ) {
+                        ch = readHex(idx, end, 4);
+                        idx += 4;
+                    } else if ( esc == 'U' ) {
+                        ch = readHex(idx, end, 8);
+                        idx += 8;
+                        if ( ch > Character.MAX_CODE_POINT )
+                            fatal("Illegal code point in \\U sequence value: 0x%08X", ch);
+                    } else {
+                        fatal("Illegal unicode escape sequence value: \\%c (0x%02X)", esc, esc);
+                    }
+                    break;
+                }
+                case CH_LT:
+                    fatal("Bad character in IRI (bad character: '<'): <%s[<]...>", chars(n)); return null;
+                case TAB:
+                    error("Bad character in IRI (tab character): <%s[tab]...>", chars(n)); break;
+                case '{': case '}': case '"': case '|': case '^': case '`' :
+                    warning("Illegal character in IRI (codepoint 0x%02X, '%c'): <%s[%c]...>", ch, (char)ch, chars(n), (char)ch);
+                    break;
+                case SPC:
+                    error("Bad character in IRI (space): <%s[space]...>", chars(n));
+                    break;
+                default:
+                    if ( ch <= 0x19 )
+                        warning("Illegal character in IRI (control char 0x%02X): <%s[0x%02X]...>", ch, chars(n), ch);
+            }
+            if ( ch >= 0xA0 && !TokenizerText.isUcsChar(ch) )
+                warning("Illegal character in IRI (Not a ucschar: 0x%04X): <%s[U+%04X]...>", ch, chars(n), ch);
+            n = appendCodepoint(n, ch);
+        }
+        return chars(n);
+    }
+
+    /** ASCII, no escapes and no characters that need a warning. */
+    private boolean isSimpleIRI(int start, int end) {
+        for ( int i = start ; i < end ; i++ ) {
+            int b = buffer[i];
+            if ( b <= SPC )     // Includes non-ASCII bytes which are negative.
+                return false;
+            switch (b) {
+                case CH_LT: case CH_RSLASH: case '{': case '}': case '"': case '|': case '^': case '`': case 0x7F:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private Token readLiteral(Token token, int quote) {
+        // The token type is STRING.
+        // We incorporate this into a token for LITERAL_LANG or LITERAL_DT.
+        token.setType(TokenType.STRING);
+        token.setStringType(quote == CH_QUOTE1 ? StringType.STRING1 : StringType.STRING2);
+        pos++;
+        if ( peekByte() == quote ) {
+            pos++;
+            if ( peekByte() == quote )
+                fatal("Triple quoted string not permitted");
+            token.setImage("");
+        } else {
+            token.setImage(readString(quote));
+        }
+
+        // White space after lexical part of a literal.
+        skip();
+        int ch = peekByte();
+        if ( ch == CH_AT ) {
+            pos++;
+            Token mainToken = new Token(token);
+            mainToken.setType(TokenType.LITERAL_LANG);
+            mainToken.setSubToken1(token);
+            mainToken.setImage2(langTag());
+            return mainToken;
+        }
+        if ( ch == '^' ) {
+            pos++;
+            if ( peekByte() != '^' )
+                fatal("expected \"^^\"");
+            pos++;
+            skip();
+            Token mainToken = new Token(token);
+            mainToken.setSubToken1(token);
+            mainToken.setImage(token.getImage());
+            if ( peekByte() != CH_LT || ( pos + 1 < lineEnd && buffer[pos+1] == CH_LT ) )
+                fatal("Datatype URI required after ^^ - URI or prefixed name expected");
+            Token subToken = new Token(getLine(), getColumn());
+            pos++;
+            subToken.setImage(readIRI());
+            subToken.setType(TokenType.IRI);
+            mainToken.setSubToken2(subToken);
+            mainToken.setType(TokenType.LITERAL_DT);
+            return mainToken;
+        }
+        return token;
+    }
+
+    // After the opening quote; reads the closing quote.
+    private String readString(int quote) {
+        int start = pos;
+        // Fast path: ASCII, no escapes.
+        while ( pos < lineEnd ) {
+            int b = buffer[pos];
+            if ( b == quote ) {
+                String s = new String(buffer, start, pos - start, StandardCharsets.ISO_8859_1);
+                pos++;
+                return s;
+            }
+            if ( b < 0 || b == CH_RSLASH || b == NL )
+                break;
+            pos++;
+        }
+        int n = 0;
+        int idx = start;
+        for (;;) {
+            if ( idx >= lineEnd ) {
+                pos = idx;
+                fatal("Broken token: %s", chars(n));
+            }
+            int ch = decodeCodepoint(idx);
+            idx = cpEnd;
+            if ( ch == quote ) {
+                pos = idx;
+                return chars(n);
+            }
+            if ( ch == NL ) {
+                pos = idx;
+                fatal("Broken token (newline): %s", chars(n));
+            }
+            if ( ch == NotACharacter || ch == ReverseOrderBOM )
+                warning("Unicode non-character U+%4X in string", ch);
+            if ( ch == CH_RSLASH ) {
+                pos = idx;
+                ch = readLiteralEscape();
+                idx = pos;
+            }
+            n = appendCodepoint(n, ch);
+        }
+    }
+
+    private int readLiteralEscape() {
+        if ( pos >= lineEnd )
+            fatal("Escape sequence not completed");
+        int c = buffer[pos++];
+        switch (c) {
+            case 'n':   return NL;
+            case 'r':   return CR;
+            case 't':   return TAB;
+            case 'f':   return '\f';
+            case 'b':   return BSPACE;
+            case '"':   return '"';
+            case '\'':  return '\'';
+            case '\\':  return '\\';
+            case 'u': {
+                int ch = readHex(pos, lineEnd, 4);
+                pos += 4;
+                return ch;
+            }
+            case 'U': {
+                int ch = readHex(pos, lineEnd, 8);
+                pos += 8;
+                if ( ch > Character.MAX_CODE_POINT )
+                    fatal("Illegal code point in \\U sequence value: 0x%08X", ch);
+                return ch;
+            }
+            default:
+                fatal("Illegal escape sequence value: %c (0x%02X)", (char)(c & 0xFF), c & 0xFF);
+                return 0;
+        }
+    }
+
+    private int readHex(int idx, int end, int N) {
+        int x = 0;
+        for ( int i = 0 ; i < N ; i++ ) {
+            if ( idx + i >= end )
+                fatal("Not a hexadecimal character (end of input)");
+            int b = buffer[idx + i];
+            int d = RiotChars.valHexChar(b);
+            if ( d < 0 )
+                fatal("Not a hexadecimal character: '%c'", (char)(b & 0xFF));
+            x = (x << 4) + d;
+        }
+        return x;
+    }
+
+    private String langTag() {
+        int start = pos;
+        int hash = 0;
+        while ( pos < lineEnd && RiotChars.isA2Z(buffer[pos]) )
+            hash = 31 * hash + buffer[pos++];
+        if ( pos == start )
+            fatal("Bad language tag");
+        while ( peekByte() == '-' ) {
+            hash = 31 * hash + buffer[pos++];
+            int x = pos;
+            while ( pos < lineEnd && RiotChars.isA2ZN(buffer[pos]) )
+                hash = 31 * hash + buffer[pos++];
+            if ( pos == x )
+                fatal("Bad language tag");
+        }
+        String lang = langCache.get(buffer, start, pos, hash);
+        if ( lang == null ) {
+            lang = new String(buffer, start, pos - start, StandardCharsets.ISO_8859_1).intern();
+            langCache.put(buffer, start, pos, hash, lang);
+        }
+        return lang;
+    }
+
+    // After "_:"
+    private String readBlankNodeLabel() {
+        int ch = peekByte();
+        if ( ch == EOF )
+            fatal("Blank node label missing (EOF found)");
+        if ( RiotChars.isWhitespace(ch) )
+            fatal("Blank node label missing");
+        int start = pos;
+        boolean ascii = ( ch < 0x80 );
+        if ( !ascii )
+            ch = decodeCodepoint(pos);
+        if ( !RiotChars.isPNChars_U_N(ch) )
+            fatal("Blank node label does not start with alphabetic or _ : '%c'", (char)ch);
+        if ( ch == REPLACEMENT )
+            warning("Unicode replacement character U+FFFD in blank node label");
+        pos = ascii ? pos + 1 : cpEnd;
+        // The end of the label, excluding any trailing dots.
+        int end = pos;
+        while ( pos < lineEnd ) {
+            int b = buffer[pos] & 0xFF;
+            if ( b < 0x80 ) {
+                if ( b == CH_DOT ) {
+                    pos++;
+                    continue;
+                }
+                if ( !RiotChars.isPNChars(b) )
+                    break;
+                pos++;
+            } else {
+                ch = decodeCodepoint(pos);
+                if ( !RiotChars.isPNChars(ch) )
+                    break;
+                if ( ch == REPLACEMENT )
+                    warning("Unicode replacement character U+FFFD in blank node label");
+                ascii = false;
+                pos = cpEnd;
+            }
+            end = pos;
+        }
+        // Trailing dots are not part of the label.
+        pos = end;
+        if ( ascii )
+            return new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+        return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    // ---- UTF-8
+
+    /**
+     * Decode the UTF-8 codepoint starting at {@code idx} in the current line,
+     * setting {@code cpEnd} to the index after it.
+     */
+    private int decodeCodepoint(int idx) {
+        int b0 = buffer[idx] & 0xFF;
+        if ( b0 < 0x80 ) {
+            cpEnd = idx + 1;
+            return b0;
+        }
+        int len;
+        int cp;
+        int min;
+        if ( (b0 & 0xE0) == 0xC0 ) {
+            len = 2; cp = b0 & 0x1F; min = 0x80;
+        } else if ( (b0 & 0xF0) == 0xE0 ) {
+            len = 3; cp = b0 & 0x0F; min = 0x800;
+        } else if ( (b0 & 0xF8) == 0xF0 ) {
+            len = 4; cp = b0 & 0x07; min = 0x10000;
+        } else {
+            badEncoding(idx);
+            return -1;
+        }
+        if ( idx + len > lineEnd )
+            badEncoding(idx);
+        for ( int i = 1 ; i < len ; i++ ) {
+            int b = buffer[idx + i] & 0xFF;
+            if ( (b & 0xC0) != 0x80 )
+                badEncoding(idx);
+            cp = (cp << 6) | (b & 0x3F);
+        }
+        // Overlong, surrogate or out of range.
+        if ( cp < min || cp > Character.MAX_CODE_POINT || (cp >= 0xD800 && cp <= 0xDFFF) )
+            badEncoding(idx);
+        cpEnd = idx + len;
+        return cp;
+    }
+
+    private void badEncoding(int idx) {
+        pos = idx;
+        fatal("Bad character encoding");
+    }
+
+    private int appendCodepoint(int n, int ch) {
+        if ( n + 2 > chars.length )
+            chars = Arrays.copyOf(chars, 2 * chars.length);
+        if ( ch < Character.MIN_SUPPLEMENTARY_CODE_POINT ) {
+            chars[n] = (char)ch;
+            return n + 1;
+        }
+        chars[n] = Character.highSurrogate(ch);
+        chars[n+1] = Character.lowSurrogate(ch);
+        return n + 2;
+    }
+
+    private String chars(int n) {
+        return new String(chars, 0, n);
+    }
+
+    // ---- Cache
+
+    /** Direct mapped cache from byte sequences to their decoded strings. */
+    private static class ByteStringCache {
+        private final byte[][] keys;
+        private final String[] values;
+        private final int mask;
+
+        ByteStringCache(int size) {
+            // Power of two.
+            int n = Integer.highestOneBit(size);
+            keys = new byte[n][];
+            values = new String[n];
+            mask = n - 1;
+        }
+
+        private int index(int hash) {
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+
+        String get(byte[] bytes, int start, int end, int hash) {
+            int idx = index(hash);
+            byte[] key = keys[idx];
+            if ( key != null && Arrays.equals(key, 0, key.length, bytes, start, end) )
+                return values[idx];
+            return null;
+        }
+
+        void put(byte[] bytes, int start, int end, int hash, String value) {
+            int idx = index(hash);
+            keys[idx] = Arrays.copyOfRange(bytes, start, end);
+            values[idx] = value;
+        }
+    }
+
+    // ---- Errors
+
+    /** Warning - can continue. */
+    private void warning(String message, Object... args) {
+        String msg = String.format(message, args);
+        errorHandler.warning(msg, getLine(), getColumn());
+    }
+
+    /** Error - can continue but the caller probably should stop. */
+    private void error(String message, Object... args) {
+        String msg = String.format(message, args);
+        errorHandler.error(msg, getLine(), getColumn());
+    }
+
+    /** Structural error - unrecoverable. */
+    private void fatal(String message, Object... args) {
+        String msg = String.format(message, args);
+        long line = getLine();
+        long col = getColumn();
+        errorHandler.fatal(msg, line, col);
+        // Errors must stop the tokenizer, whatever the error handler does.
+        throw new RiotParseException(msg, line, col);
+    }
+}
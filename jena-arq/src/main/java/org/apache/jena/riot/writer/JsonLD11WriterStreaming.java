@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.writer;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Objects;
+
+import org.apache.jena.atlas.lib.Lib;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.riot.*;
+import org.apache.jena.riot.system.PrefixMap;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFOps;
+import org.apache.jena.sparql.SystemARQ;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.util.Context;
+import org.apache.jena.sparql.util.Symbol;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+/**
+ * JSON-LD 1.1 writer that streams the output with {@link StreamWriterJsonLD11}
+ * instead of building a JSON-LD document and compacting it with Titanium.
+ * <p>
+ * Each graph is written subject by subject (using {@code find(s, ANY, ANY)}), so
+ * each subject is written as one node object. The context is the prefix map
+ * unless the {@link Context} has a {@link PrefixMap} for {@link #JSONLD_CONTEXT}.
+ * <p>
+ * {@link RDFFormat#JSONLD11_STREAMING} is compact JSON-LD with a context and
+ * {@link RDFFormat#JSONLD11_STREAMING_FLAT} is single-line expanded JSON-LD.
+ */
+public class JsonLD11WriterStreaming implements WriterDatasetRIOT, WriterGraphRIOT {
+
+    private static final String SYMBOLS_NS = "http://jena.apache.org/riot/jsonld#";
+
+    /** Context setting: a {@link PrefixMap} to use as the JSON-LD context. */
+    public static final Symbol JSONLD_CONTEXT = SystemARQ.allocSymbol(SYMBOLS_NS, "streamingContext");
+
+    private final RDFFormat format;
+
+    public JsonLD11WriterStreaming(RDFFormat syntaxForm) {
+        this.format = syntaxForm;
+    }
+
+    @Override
+    public Lang getLang() {
+        return format.getLang();
+    }
+
+    // Dataset
+    @Override
+    public void write(OutputStream out, DatasetGraph datasetGraph, PrefixMap prefixMap, String baseURI, Context context) {
+        write(create(out, null, prefixMap, context), datasetGraph);
+    }
+
+    @Override
+    public void write(Writer out, DatasetGraph datasetGraph, PrefixMap prefixMap, String baseURI, Context context) {
+        write(create(null, out, prefixMap, context), datasetGraph);
+    }
+
+    // Graph
+    @Override
+    public void write(OutputStream out, Graph graph, PrefixMap prefixMap, String baseURI, Context context) {
+        write(create(out, null, prefixMap, context), graph);
+    }
+
+    @Override
+    public void write(Writer out, Graph graph, PrefixMap prefixMap, String baseURI, Context context) {
+        write(create(null, out, prefixMap, context), graph);
+    }
+
+    private StreamRDF create(OutputStream output, Writer writer, PrefixMap prefixMap, Context context) {
+        PrefixMap jsonldContext = prefixMap;
+        if ( context == null )
+            context = ARQ.getContext();
+        Object x = context.get(JSONLD_CONTEXT);
+        if ( x != null ) {
+            if ( !(x instanceof PrefixMap) )
+                throw new RiotException("Not a PrefixMap: " + JSONLD_CONTEXT + " : " + Lib.className(x));
+            jsonldContext = (PrefixMap)x;
+        }
+        boolean compact = !Objects.equals(format.getVariant(), RDFFormat.STREAMING_FLAT);
+        boolean indented = compact;
+        return ( output != null )
+                ? new StreamWriterJsonLD11(output, compact, indented, jsonldContext)
+                : new StreamWriterJsonLD11(writer, compact, indented, jsonldContext);
+    }
+
+    private static void write(StreamRDF stream, DatasetGraph datasetGraph) {
+        stream.start();
+        sendGraph(stream, datasetGraph.getDefaultGraph(), null);
+        Iterator<Node> graphNames = datasetGraph.listGraphNodes();
+        graphNames.forEachRemaining(gn -> sendGraph(stream, datasetGraph.getGraph(gn), gn));
+        stream.finish();
+    }
+
+    private static void write(StreamRDF stream, Graph graph) {
+        stream.start();
+        sendGraph(stream, graph, null);
+        stream.finish();
+    }
+
+    /** Send a graph to the stream, subject by subject. */
+    private static void sendGraph(StreamRDF stream, Graph graph, Node graphName) {
+        ExtendedIterator<Node> subjects = GraphUtil.listSubjects(graph, Node.ANY, Node.ANY);
+        try {
+            subjects.forEachRemaining(s -> {
+                Iterator<Triple> iter = graph.find(s, Node.ANY, Node.ANY);
+                if ( graphName == null )
+                    StreamRDFOps.sendTriplesToStream(iter, stream);
+                else
+                    iter.forEachRemaining(t -> stream.quad(Quad.create(graphName, t)));
+            });
+        } finally {
+            subjects.close();
+        }
+    }
+}
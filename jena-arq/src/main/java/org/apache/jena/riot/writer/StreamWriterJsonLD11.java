@@ -0,0 +1,342 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.apicatalog.jsonld.lang.Keywords;
+
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonGeneratorFactory;
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.TextDirection;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.riot.system.PrefixMap;
+import org.apache.jena.riot.system.PrefixMapFactory;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.XSD;
+
+/**
+ * Write JSON-LD 1.1 by streaming.
+ * <p>
+ * Consecutive triples with the same subject become one node object, and
+ * consecutive quads with the same graph name are nested in one graph object.
+ * A subject that occurs again later in the stream is written as another node
+ * object for the same {@literal @id}, which JSON-LD processors merge. Only the
+ * triples of the current subject are held in memory.
+ * <p>
+ * There are two forms of output:
+ * <ul>
+ * <li>compact: a {@literal @context} of the prefixes and the {@literal @vocab}
+ *     (the prefix ""), compact IRIs, plain strings for {@code xsd:string} literals
+ *     and single values not in an array.
+ * <li>expanded: no context, absolute IRIs, and values always in arrays of
+ *     {@literal @id} and {@literal @value} objects.
+ * </ul>
+ * The context is the prefixes given before the first triple or quad unless set
+ * by the constructor. Literals are written with their lexical form, not as JSON
+ * numbers or booleans, so that the datatype is preserved. Triple terms are not
+ * supported.
+ *
+ * @see JsonLD11WriterStreaming
+ */
+public class StreamWriterJsonLD11 implements StreamRDF {
+
+    private static final Map<String, ?> configIndented = Map.of(JsonGenerator.PRETTY_PRINTING, true);
+    private static final Map<String, ?> configFlat = Map.of();
+
+    private final OutputStream output;
+    private final Writer writer;
+    private final JsonGenerator gen;
+    private final boolean compact;
+    private final boolean indented;
+    private final boolean fixedContext;
+    private final PrefixMap prefixMap;
+    private String vocab = null;
+
+    private boolean started = false;
+    private Node currentGraph = null;
+    private Node currentSubject = null;
+    private final Map<Node, List<Node>> properties = new LinkedHashMap<>();
+    // StreamRDF.start/finish count
+    private int depth = 0;
+
+    /**
+     * Write to an output stream.
+     *
+     * @param out the output stream, which is flushed, not closed, by {@link #finish()}
+     * @param compact compact output with a context; otherwise expanded form
+     * @param indented multi-line output
+     * @param context the prefixes for the context; if null, the prefixes sent to the stream
+     */
+    public StreamWriterJsonLD11(OutputStream out, boolean compact, boolean indented, PrefixMap context) {
+        this(out, null, compact, indented, context);
+    }
+
+    /**
+     * Write to a {@link Writer}.
+     *
+     * @see #StreamWriterJsonLD11(OutputStream, boolean, boolean, PrefixMap)
+     */
+    public StreamWriterJsonLD11(Writer out, boolean compact, boolean indented, PrefixMap context) {
+        this(null, out, compact, indented, context);
+    }
+
+    private StreamWriterJsonLD11(OutputStream output, Writer writer, boolean compact, boolean indented, PrefixMap context) {
+        this.output = output;
+        this.writer = writer;
+        this.compact = compact;
+        this.indented = indented;
+        this.fixedContext = ( context != null );
+        this.prefixMap = PrefixMapFactory.create();
+        if ( context != null )
+            context.forEach(this::addPrefix);
+        JsonGeneratorFactory factory = JsonProvider.provider().createGeneratorFactory(indented ? configIndented : configFlat);
+        this.gen = ( output != null ) ? factory.createGenerator(output, StandardCharsets.UTF_8) : factory.createGenerator(writer);
+    }
+
+    @Override
+    public void start() {
+        depth++;
+    }
+
+    @Override
+    public void finish() {
+        depth--;
+        if ( depth > 0 )
+            return;
+        writeStart();
+        flushSubject();
+        if ( currentGraph != null )
+            endGraph();
+        gen.writeEnd();
+        gen.writeEnd();
+        gen.flush();
+        try {
+            if ( output != null ) {
+                if ( indented ) output.write('\n');
+                output.flush();
+            } else {
+                if ( indented ) writer.write('\n');
+                writer.flush();
+            }
+        } catch (IOException ex) { IO.exception(ex); }
+    }
+
+    @Override
+    public void base(String base) {}
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        if ( started || fixedContext )
+            return;
+        addPrefix(prefix, iri);
+    }
+
+    private void addPrefix(String prefix, String iri) {
+        if ( prefix.isEmpty() ) {
+            vocab = iri;
+            return;
+        }
+        // JSON-LD 1.1: a simple term definition is only used as a prefix
+        // if the IRI ends with a gen-delim character.
+        if ( iri.isEmpty() || ":/?#[]@".indexOf(iri.charAt(iri.length() - 1)) < 0 )
+            return;
+        if ( prefix.startsWith("@") || prefix.equals("_") || prefix.contains(":") )
+            return;
+        prefixMap.add(prefix, iri);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        output(null, triple.getSubject(), triple.getPredicate(), triple.getObject());
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        Node g = quad.getGraph();
+        output(Quad.isDefaultGraph(g) ? null : g, quad.getSubject(), quad.getPredicate(), quad.getObject());
+    }
+
+    private void output(Node g, Node s, Node p, Node o) {
+        writeStart();
+        if ( !Objects.equals(g, currentGraph) ) {
+            flushSubject();
+            if ( currentGraph != null )
+                endGraph();
+            if ( g != null ) {
+                gen.writeStartObject();
+                gen.write(Keywords.ID, id(g));
+                gen.writeStartArray(Keywords.GRAPH);
+            }
+            currentGraph = g;
+        }
+        if ( !s.equals(currentSubject) ) {
+            flushSubject();
+            currentSubject = s;
+        }
+        properties.computeIfAbsent(p, x -> new ArrayList<>(2)).add(o);
+    }
+
+    private void writeStart() {
+        if ( started )
+            return;
+        started = true;
+        gen.writeStartObject();
+        if ( compact && ( vocab != null || !prefixMap.isEmpty() ) ) {
+            gen.writeStartObject(Keywords.CONTEXT);
+            prefixMap.forEach((prefix, iri) -> gen.write(prefix, iri));
+            if ( vocab != null )
+                gen.write(Keywords.VOCAB, vocab);
+            gen.writeEnd();
+        }
+        gen.writeStartArray(Keywords.GRAPH);
+    }
+
+    private void endGraph() {
+        gen.writeEnd();
+        gen.writeEnd();
+    }
+
+    // ---- Node object
+
+    private void flushSubject() {
+        if ( currentSubject == null )
+            return;
+        gen.writeStartObject();
+        gen.write(Keywords.ID, id(currentSubject));
+        List<Node> types = properties.get(RDF.Nodes.type);
+        if ( types != null && types.stream().allMatch(t -> t.isURI() || t.isBlank()) ) {
+            properties.remove(RDF.Nodes.type);
+            if ( compact && types.size() == 1 ) {
+                gen.write(Keywords.TYPE, vocabId(types.get(0)));
+            } else {
+                gen.writeStartArray(Keywords.TYPE);
+                types.forEach(t -> gen.write(vocabId(t)));
+                gen.writeEnd();
+            }
+        }
+        properties.forEach((p, objects) -> {
+            if ( !p.isURI() )
+                throw new RiotException("Predicate is not an IRI: " + p);
+            String key = compact ? vocabId(p) : p.getURI();
+            if ( compact && objects.size() == 1 ) {
+                gen.writeKey(key);
+                value(objects.get(0));
+                return;
+            }
+            gen.writeStartArray(key);
+            objects.forEach(this::value);
+            gen.writeEnd();
+        });
+        gen.writeEnd();
+        properties.clear();
+        currentSubject = null;
+    }
+
+    private void value(Node o) {
+        if ( o.isURI() || o.isBlank() ) {
+            gen.writeStartObject();
+            gen.write(Keywords.ID, id(o));
+            gen.writeEnd();
+            return;
+        }
+        if ( !o.isLiteral() )
+            throw new RiotException("Not supported in streaming JSON-LD: " + o);
+        String lex = o.getLiteralLexicalForm();
+        String lang = o.getLiteralLanguage();
+        String dt = o.getLiteralDatatypeURI();
+        boolean isString = ( lang == null || lang.isEmpty() ) && XSD.xstring.getURI().equals(dt);
+        if ( compact && isString ) {
+            gen.write(lex);
+            return;
+        }
+        gen.writeStartObject();
+        gen.write(Keywords.VALUE, lex);
+        if ( lang != null && !lang.isEmpty() ) {
+            gen.write(Keywords.LANGUAGE, lang);
+            TextDirection dir = o.getLiteralTextDirection();
+            if ( dir != null )
+                gen.write(Keywords.DIRECTION, dir.direction());
+        } else if ( !isString ) {
+            gen.write(Keywords.TYPE, compact ? vocabId(NodeFactory.createURI(dt)) : dt);
+        }
+        gen.writeEnd();
+    }
+
+    // ---- Terms
+
+    /** A subject, object or graph name: IRIs are document-relative, so compact IRIs but not the vocabulary. */
+    private String id(Node node) {
+        if ( node.isBlank() )
+            return "_:" + NodeFmtLib.encodeBNodeLabel(node.getBlankNodeLabel());
+        if ( !node.isURI() )
+            throw new RiotException("Not supported in streaming JSON-LD: " + node);
+        String iri = node.getURI();
+        return compact ? prefixed(iri) : iri;
+    }
+
+    /** A property, type or datatype: IRIs are vocabulary-relative. */
+    private String vocabId(Node node) {
+        if ( !compact || node.isBlank() )
+            return id(node);
+        String iri = node.getURI();
+        if ( vocab != null && iri.startsWith(vocab) && iri.length() > vocab.length() ) {
+            String local = iri.substring(vocab.length());
+            if ( isSimpleTerm(local) && !prefixMap.containsPrefix(local) )
+                return local;
+        }
+        return prefixed(iri);
+    }
+
+    private static boolean isSimpleTerm(String local) {
+        if ( local.startsWith("@") )
+            return false;
+        for ( int i = 0 ; i < local.length() ; i++ ) {
+            if ( ":/?#[]".indexOf(local.charAt(i)) >= 0 )
+                return false;
+        }
+        return true;
+    }
+
+    private String prefixed(String iri) {
+        String x = prefixMap.abbreviate(iri);
+        if ( x == null )
+            return iri;
+        int idx = x.indexOf(':');
+        if ( x.startsWith("//", idx + 1) )
+            return iri;
+        return x;
+    }
+}
@@ -0,0 +1,590 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.writer;
+
+import static org.apache.jena.graph.Node.ANY;
+import static org.apache.jena.riot.writer.WriterConst.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+import org.apache.jena.atlas.io.IndentedWriter;
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RIOT;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.out.NodeFormatter;
+import org.apache.jena.riot.out.NodeFormatterTTL;
+import org.apache.jena.riot.out.NodeFormatterTTL_MultiLine;
+import org.apache.jena.riot.out.NodeToLabel;
+import org.apache.jena.riot.system.PrefixMap;
+import org.apache.jena.riot.system.PrefixMapFactory;
+import org.apache.jena.riot.system.RiotLib;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.util.Context;
+import org.apache.jena.sparql.util.NodeCmp;
+import org.apache.jena.sparql.util.Symbol;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+/**
+ * Pretty-ish Turtle and TriG output that does not analyse the whole graph before writing.
+ * <p>
+ * Subjects are taken from the graph in chunks of {@link RIOT#symTurtleChunkSize}
+ * and sorted within each chunk. The triples of a chunk, together with the triples of
+ * the blank nodes that will be written nested inside them, are gathered on the calling
+ * thread; the text of the chunk is then formatted on a pool of
+ * {@link RIOT#symTurtleWriterThreads} threads and written out in order.
+ * At most two chunks per thread are in progress, and subjects are found without
+ * keeping a set of the subjects already seen, so memory use does not depend on the
+ * number of triples or subjects. When writing TriG, the graph names are held in memory
+ * to sort them; the blank nodes used in triple terms are also held in memory.
+ * <p>
+ * A blank node is written as {@code []} nested in the one triple that refers to it,
+ * and well-formed RDF lists are written as {@code ( )}, when the blank node is not
+ * used anywhere else. Other blank nodes are written with labels derived from the
+ * blank node, so they are the same in every chunk.
+ */
+class TurtleShellChunked {
+
+    /** Default number of top-level subjects in a chunk. */
+    static final int DftChunkSize = 10_000;
+
+    private final PrefixMap      prefixMap;
+    private final String         baseURI;
+    private final Context        context;
+    private final Consumer<byte[]> output;
+    private final int            chunkSize;
+    private final int            threads;
+    private final boolean        printTypeKeyword;
+    private final NodeFormatter  nodeFmt;
+
+    private final ExecutorService executor;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    // No output yet.
+    private boolean atStart = true;
+
+    // The data being written: the graph, and the dataset when writing TriG.
+    private DatasetGraph dsg          = null;
+    private Set<Node> graphNames      = Set.of();
+    private Graph graph               = null;
+    private Node graphName            = null;
+    // Blank nodes used in triple terms. These are always written with a label.
+    private Set<Node> inTripleTerms   = Set.of();
+    // Nesting decisions for the chunk being gathered.
+    private final Map<Node, Boolean> nestable = new HashMap<>();
+
+    TurtleShellChunked(Consumer<byte[]> output, PrefixMap prefixMap, String baseURI, Context context) {
+        this.output = output;
+        this.prefixMap = ( prefixMap == null ) ? PrefixMapFactory.emptyPrefixMap() : prefixMap;
+        this.baseURI = baseURI;
+        this.context = context;
+        this.chunkSize = Math.max(1, getInt(context, RIOT.symTurtleChunkSize, DftChunkSize));
+        this.threads = Math.max(1, getInt(context, RIOT.symTurtleWriterThreads, Runtime.getRuntime().availableProcessors()));
+        this.printTypeKeyword = ! this.prefixMap.getMapping().values().contains(rdfNS);
+        this.nodeFmt = createNodeFormatter(this.prefixMap);
+        this.executor = ( threads == 1 ) ? null : Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "TurtleWriterChunked");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static int getInt(Context context, Symbol symbol, int dftValue) {
+        return ( context == null ) ? dftValue : context.getInt(symbol, dftValue);
+    }
+
+    /** Write a graph as Turtle. */
+    void writeTurtle(Graph graph) {
+        try {
+            writeHeader();
+            this.inTripleTerms = blankNodesInTripleTerms(graph.find());
+            writeGraph(graph, null, 0);
+            finish();
+        } finally { close(); }
+    }
+
+    /** Write a dataset as TriG. */
+    void writeTriG(DatasetGraph dsg) {
+        try {
+            writeHeader();
+            this.dsg = dsg;
+            this.graphNames = Iter.toSet(dsg.listGraphNodes());
+            this.inTripleTerms = blankNodesInTripleTerms(dsg.find());
+            Graph dftGraph = dsg.getDefaultGraph();
+            if ( !dftGraph.isEmpty() )
+                writeGraph(dftGraph, null, 0);
+            List<Node> names = new ArrayList<>(graphNames);
+            names.sort(NodeCmp::compareRDFTerms);
+            for ( Node gn : names ) {
+                Graph g = dsg.getGraph(gn);
+                if ( g.isEmpty() )
+                    continue;
+                text(out -> {
+                    if ( !atStart )
+                        out.println();
+                    nodeFmt.format(out, gn);
+                    out.println(" {");
+                });
+                atStart = true;
+                writeGraph(g, gn, INDENT_GNMD);
+                text(out -> out.println("}"));
+                atStart = false;
+            }
+            finish();
+        } finally { close(); }
+    }
+
+    private void writeHeader() {
+        DirectiveStyle directiveStyle = WriterLib.directiveStyle(context);
+        boolean written = text(out -> {
+            if ( context == null || ! context.isTrue(RIOT.symTurtleOmitBase) )
+                RiotLib.writeBase(out, baseURI, directiveStyle);
+            RiotLib.writePrefixes(out, prefixMap, directiveStyle);
+        });
+        atStart = !written;
+    }
+
+    private void writeGraph(Graph graph, Node graphName, int indent) {
+        this.graph = graph;
+        this.graphName = graphName;
+        List<Node> subjects = new ArrayList<>(chunkSize);
+        // Subjects are found from the triples without a set of the subjects seen so far.
+        ExtendedIterator<Triple> iter = graph.find();
+        try {
+            Node lastSubject = null;
+            while ( iter.hasNext() ) {
+                Triple triple = iter.next();
+                Node subject = triple.getSubject();
+                if ( subject.equals(lastSubject) )
+                    continue;
+                lastSubject = subject;
+                if ( !isFirstTriple(triple) )
+                    // The subject is taken at another of its triples.
+                    continue;
+                if ( isNestable(subject) )
+                    // Written inside the one triple that refers to it.
+                    continue;
+                subjects.add(subject);
+                if ( subjects.size() >= chunkSize ) {
+                    submitChunk(subjects, indent);
+                    subjects = new ArrayList<>(chunkSize);
+                }
+            }
+        } finally { iter.close(); }
+        if ( !subjects.isEmpty() )
+            submitChunk(subjects, indent);
+    }
+
+    /** Whether a triple is the first triple of its subject, in the order of {@code find(s, ANY, ANY)}. */
+    private boolean isFirstTriple(Triple triple) {
+        ExtendedIterator<Triple> iter = graph.find(triple.getSubject(), ANY, ANY);
+        try {
+            return iter.hasNext() && iter.next().equals(triple);
+        } finally { iter.close(); }
+    }
+
+    // ---- Output pipeline
+
+    /** Output text written by the calling thread, in order with the chunks. Returns whether there was any text. */
+    private boolean text(Consumer<IndentedWriter> action) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        IndentedWriter out = new IndentedWriter(bytes);
+        action.accept(out);
+        out.flush();
+        if ( bytes.size() == 0 )
+            return false;
+        submit(CompletableFuture.completedFuture(bytes.toByteArray()));
+        return true;
+    }
+
+    private void submitChunk(List<Node> subjects, int indent) {
+        Chunk chunk = gather(subjects);
+        boolean leadingBlankLine = !atStart;
+        atStart = false;
+        Callable<byte[]> task = () -> format(chunk, indent, leadingBlankLine);
+        if ( executor == null ) {
+            try { submit(CompletableFuture.completedFuture(task.call())); }
+            catch (RuntimeException ex) { throw ex; }
+            catch (Exception ex) { throw new RiotException(ex); }
+        } else {
+            submit(executor.submit(task));
+        }
+    }
+
+    private void submit(Future<byte[]> future) {
+        pending.add(future);
+        while ( pending.size() > 2 * threads )
+            deliver();
+    }
+
+    private void finish() {
+        while ( !pending.isEmpty() )
+            deliver();
+    }
+
+    private void close() {
+        pending.forEach(f -> f.cancel(true));
+        pending.clear();
+        if ( executor != null )
+            executor.shutdownNow();
+    }
+
+    private void deliver() {
+        try {
+            output.accept(pending.removeFirst().get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RiotException("Interrupted", ex);
+        } catch (ExecutionException ex) {
+            if ( ex.getCause() instanceof RuntimeException runtimeEx )
+                throw runtimeEx;
+            if ( ex.getCause() instanceof Error error )
+                throw error;
+            throw new RiotException(ex.getCause());
+        }
+    }
+
+    // ---- Gathering a chunk (calling thread)
+
+    /** The data for one chunk: everything needed to format it without access to the graph. */
+    private static class Chunk {
+        final List<Node> subjects;
+        final Map<Node, List<Triple>> triples = new HashMap<>();
+        // Blank nodes written nested as [] or ().
+        final Set<Node> nested = new HashSet<>();
+        // Blank node subjects not used anywhere else, written as [].
+        final Set<Node> anonSubjects = new HashSet<>();
+        Chunk(List<Node> subjects) { this.subjects = subjects; }
+    }
+
+    private Chunk gather(List<Node> subjects) {
+        subjects.sort(NodeCmp::compareRDFTerms);
+        Chunk chunk = new Chunk(subjects);
+        Deque<Node> todo = new ArrayDeque<>();
+        for ( Node subject : subjects ) {
+            if ( isAnonSubject(subject) )
+                chunk.anonSubjects.add(subject);
+            todo.push(subject);
+            while ( !todo.isEmpty() ) {
+                Node node = todo.pop();
+                List<Triple> triples = triplesOfSubject(node);
+                chunk.triples.put(node, triples);
+                for ( Triple t : triples ) {
+                    Node obj = t.getObject();
+                    if ( !chunk.triples.containsKey(obj) && isNestable(obj) ) {
+                        chunk.nested.add(obj);
+                        todo.push(obj);
+                    }
+                }
+            }
+        }
+        nestable.clear();
+        return chunk;
+    }
+
+    private List<Triple> triplesOfSubject(Node subject) {
+        // Triples with the same predicate together, rdf:type first.
+        List<Triple> triples = new ArrayList<>(RiotLib.triplesOfSubject(graph, subject));
+        triples.sort((t1, t2) -> {
+            Node p1 = t1.getPredicate();
+            Node p2 = t2.getPredicate();
+            if ( p1.equals(p2) )
+                return 0;
+            if ( p1.equals(RDF_type) )
+                return -1;
+            if ( p2.equals(RDF_type) )
+                return 1;
+            return NodeCmp.compareRDFTerms(p1, p2);
+        });
+        return triples;
+    }
+
+    /**
+     * Whether a node is written nested inside the one triple that refers to it.
+     * It must be a blank node, with exactly one use as an object, and no other use
+     * outside the graph being written. The chain of such uses must lead back to a
+     * node that is written at the top level, not round a cycle.
+     */
+    private boolean isNestable(Node node) {
+        Boolean b = nestable.get(node);
+        if ( b != null )
+            return b;
+        boolean result = false;
+        Node parent = nestingParent(node);
+        Set<Node> visited = null;
+        while ( parent != null ) {
+            Node grandparent = nestingParent(parent);
+            if ( grandparent == null ) {
+                // parent is written at the top level.
+                result = true;
+                break;
+            }
+            Boolean parentNestable = nestable.get(parent);
+            if ( parentNestable != null ) {
+                result = parentNestable;
+                break;
+            }
+            if ( visited == null )
+                visited = new HashSet<>();
+            if ( parent.equals(node) || !visited.add(parent) )
+                // Cycle.
+                break;
+            parent = grandparent;
+        }
+        nestable.put(node, result);
+        return result;
+    }
+
+    /**
+     * The subject of the only triple with object {@code node}, if {@code node} is a blank
+     * node that may be nested, else null.
+     */
+    private Node nestingParent(Node node) {
+        if ( !node.isBlank() || inTripleTerms.contains(node) )
+            return null;
+        if ( dsg == null ) {
+            ExtendedIterator<Triple> iter = graph.find(ANY, ANY, node);
+            try {
+                if ( !iter.hasNext() )
+                    return null;
+                Triple triple = iter.next();
+                return iter.hasNext() ? null : triple.getSubject();
+            } finally { iter.close(); }
+        }
+        if ( graphNames.contains(node) )
+            return null;
+        Iterator<Quad> iter = dsg.find(ANY, ANY, ANY, node);
+        Quad quad;
+        try {
+            if ( !iter.hasNext() )
+                return null;
+            quad = iter.next();
+            if ( iter.hasNext() || !isThisGraph(quad.getGraph()) )
+                return null;
+        } finally { Iter.close(iter); }
+        return subjectOnlyInThisGraph(node) ? quad.getSubject() : null;
+    }
+
+    /** A blank node subject not used as an object, in a triple term, or in another graph. */
+    private boolean isAnonSubject(Node node) {
+        if ( !node.isBlank() || inTripleTerms.contains(node) )
+            return false;
+        if ( dsg == null )
+            return !graph.contains(ANY, ANY, node);
+        if ( graphNames.contains(node) || dsg.contains(ANY, ANY, ANY, node) )
+            return false;
+        return subjectOnlyInThisGraph(node);
+    }
+
+    private boolean subjectOnlyInThisGraph(Node node) {
+        Iterator<Quad> iter = dsg.find(ANY, node, ANY, ANY);
+        try {
+            while ( iter.hasNext() ) {
+                if ( !isThisGraph(iter.next().getGraph()) )
+                    return false;
+            }
+            return true;
+        } finally { Iter.close(iter); }
+    }
+
+    private boolean isThisGraph(Node gn) {
+        if ( graphName == null )
+            return Quad.isDefaultGraph(gn);
+        return graphName.equals(gn);
+    }
+
+    private static <T> Set<Node> blankNodesInTripleTerms(Iterator<T> iter) {
+        Set<Node> acc = new HashSet<>();
+        try {
+            while ( iter.hasNext() ) {
+                T item = iter.next();
+                Triple triple = ( item instanceof Quad quad ) ? quad.asTriple() : (Triple)item;
+                if ( triple.getSubject().isNodeTriple() )
+                    accBlankNodes(acc, triple.getSubject());
+                if ( triple.getObject().isNodeTriple() )
+                    accBlankNodes(acc, triple.getObject());
+            }
+        } finally { Iter.close(iter); }
+        return acc;
+    }
+
+    private static void accBlankNodes(Set<Node> acc, Node node) {
+        if ( node.isBlank() )
+            acc.add(node);
+        else if ( node.isNodeTriple() ) {
+            Triple triple = node.getTriple();
+            accBlankNodes(acc, triple.getSubject());
+            accBlankNodes(acc, triple.getObject());
+        }
+    }
+
+    // ---- Formatting a chunk (worker thread)
+
+    private NodeFormatter createNodeFormatter(PrefixMap pmap) {
+        // Labels come from the blank node itself so they are the same in every chunk.
+        NodeToLabel labels = NodeToLabel.createBNodeByLabelEncoded();
+        if ( context != null && context.isTrue(RIOT.multilineLiterals) )
+            return new NodeFormatterTTL_MultiLine(baseURI, pmap, labels);
+        return new NodeFormatterTTL(baseURI, pmap, labels);
+    }
+
+    private byte[] format(Chunk chunk, int indent, boolean leadingBlankLine) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * chunk.triples.size() + 64);
+        IndentedWriter out = new IndentedWriter(bytes);
+        // Prefix maps and node formatters are not shared between threads.
+        PrefixMap pmap = PrefixMapFactory.create(prefixMap);
+        ChunkFormatter formatter = new ChunkFormatter(out, createNodeFormatter(pmap), pmap, chunk);
+        out.incIndent(indent);
+        boolean first = true;
+        for ( Node subject : chunk.subjects ) {
+            if ( !first || leadingBlankLine )
+                out.println();
+            first = false;
+            formatter.writeSubject(subject);
+        }
+        out.decIndent(indent);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private class ChunkFormatter {
+        private final IndentedWriter out;
+        private final NodeFormatter nodeFmt;
+        private final PrefixMap pmap;
+        private final Chunk chunk;
+
+        ChunkFormatter(IndentedWriter out, NodeFormatter nodeFmt, PrefixMap pmap, Chunk chunk) {
+            this.out = out;
+            this.nodeFmt = nodeFmt;
+            this.pmap = pmap;
+            this.chunk = chunk;
+        }
+
+        void writeSubject(Node subject) {
+            if ( chunk.anonSubjects.contains(subject) )
+                out.print("[]");
+            else
+                nodeFmt.format(out, subject);
+            if ( out.getCurrentOffset() > LONG_SUBJECT )
+                out.println();
+            else
+                out.print(' ', GAP_S_P);
+            out.incIndent(INDENT_PREDICATE);
+            out.pad();
+            writePredicateObjectList(chunk.triples.get(subject));
+            out.decIndent(INDENT_PREDICATE);
+            out.println(" .");
+        }
+
+        private void writePredicateObjectList(List<Triple> triples) {
+            int predicateMaxWidth = Widths.calcWidthTriples(pmap, baseURI, triples, MIN_PREDICATE, LONG_PREDICATE, printTypeKeyword);
+            Node lastPredicate = null;
+            for ( Triple triple : triples ) {
+                Node p = triple.getPredicate();
+                if ( p.equals(lastPredicate) ) {
+                    out.print(" , ");
+                } else {
+                    if ( lastPredicate != null )
+                        out.println(" ;");
+                    writePredicate(p, predicateMaxWidth);
+                    lastPredicate = p;
+                }
+                writeObject(triple.getObject());
+            }
+        }
+
+        private void writePredicate(Node p, int predicateMaxWidth) {
+            int start = out.getCol();
+            if ( printTypeKeyword && RDF_type.equals(p) )
+                out.print("a");
+            else
+                nodeFmt.format(out, p);
+            if ( out.getCol() - start > LONG_PREDICATE ) {
+                out.incIndent(INDENT_OBJECT);
+                out.println();
+                out.decIndent(INDENT_OBJECT);
+                out.pad(INDENT_OBJECT);
+            } else {
+                out.pad(predicateMaxWidth);
+                out.print(' ', GAP_P_O);
+            }
+        }
+
+        private void writeObject(Node obj) {
+            if ( !chunk.nested.contains(obj) ) {
+                nodeFmt.format(out, obj);
+                return;
+            }
+            List<Node> elements = listElements(obj);
+            if ( elements != null ) {
+                out.print("(");
+                for ( Node elt : elements ) {
+                    out.print(' ');
+                    writeObject(elt);
+                }
+                out.print(" )");
+                return;
+            }
+            List<Triple> triples = chunk.triples.get(obj);
+            if ( triples.isEmpty() ) {
+                out.print("[]");
+                return;
+            }
+            int indent0 = out.getAbsoluteIndent();
+            out.setAbsoluteIndent(out.getCol());
+            out.print("[ ");
+            out.incIndent(2);
+            writePredicateObjectList(triples);
+            out.decIndent(2);
+            out.print(" ]");
+            out.setAbsoluteIndent(indent0);
+        }
+
+        /** The elements of a well-formed list of nested blank nodes, else null. */
+        private List<Node> listElements(Node head) {
+            List<Node> elements = new ArrayList<>();
+            Node cell = head;
+            while ( !RDF_Nil.equals(cell) ) {
+                if ( !chunk.nested.contains(cell) )
+                    return null;
+                List<Triple> triples = chunk.triples.get(cell);
+                if ( triples.size() != 2 )
+                    return null;
+                Node first = null;
+                Node rest = null;
+                for ( Triple t : triples ) {
+                    if ( RDF_First.equals(t.getPredicate()) )
+                        first = t.getObject();
+                    else if ( RDF_Rest.equals(t.getPredicate()) )
+                        rest = t.getObject();
+                }
+                if ( first == null || rest == null )
+                    return null;
+                elements.add(first);
+                cell = rest;
+            }
+            return elements;
+        }
+    }
+}
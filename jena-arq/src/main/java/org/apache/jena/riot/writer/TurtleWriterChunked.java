@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.irix.IRIs;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.PrefixMap;
+import org.apache.jena.sparql.util.Context;
+
+/**
+ * Turtle writer for large graphs: pretty printing one chunk of subjects at a time,
+ * with chunks formatted in parallel.
+ *
+ * @see RDFFormat#TURTLE_CHUNKED
+ */
+public class TurtleWriterChunked extends WriterGraphRIOTBase {
+    @Override
+    public Lang getLang() {
+        return Lang.TURTLE;
+    }
+
+    @Override
+    public void write(Writer out, Graph graph, PrefixMap prefixMap, String baseURI, Context context) {
+        output(bytes -> {
+            try { out.write(new String(bytes, StandardCharsets.UTF_8)); }
+            catch (IOException ex) { IO.exception(ex); }
+        }, graph, prefixMap, baseURI, context);
+        IO.flush(out);
+    }
+
+    @Override
+    public void write(OutputStream out, Graph graph, PrefixMap prefixMap, String baseURI, Context context) {
+        output(bytes -> {
+            try { out.write(bytes); }
+            catch (IOException ex) { IO.exception(ex); }
+        }, graph, prefixMap, baseURI, context);
+        IO.flush(out);
+    }
+
+    private void output(Consumer<byte[]> output, Graph graph, PrefixMap prefixMap, String baseURI, Context context) {
+        if ( baseURI != null )
+            baseURI = IRIs.resolve(baseURI);
+        new TurtleShellChunked(output, prefixMap, baseURI, context).writeTurtle(graph);
+    }
+}
@@ -98,7 +98,16 @@ public interface DatasetGraph extends Transactional, Closeable
 
     /** Add the {@code src} DatasetGraph to this one. */
     public default void addAll(DatasetGraph src) {
-        src.find().forEachRemaining(this::add);
+        addAll(src.find());
+    }
+
+    /**
+     * Add all the quads of the iterator.
+     * <p>
+     * Implementations may do this more efficiently than adding one quad at a time.
+     */
+    public default void addAll(Iterator<Quad> quads) {
+        quads.forEachRemaining(this::add);
     }
 
     /** Delete a quad */
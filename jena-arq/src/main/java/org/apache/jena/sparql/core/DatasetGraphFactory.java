@@ -26,6 +26,7 @@ import org.apache.jena.graph.Node;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.sparql.core.mem.DatasetGraphInMemory;
+import org.apache.jena.sparql.core.roaring.DatasetGraphRoaring;
 import org.apache.jena.sparql.graph.GraphFactory;
 import org.apache.jena.sys.JenaSystem;
 
@@ -61,6 +62,20 @@ public class DatasetGraphFactory
      */
     public static DatasetGraph createTxnMem() { return new DatasetGraphInMemory(); }
 
+    /**
+     * Create an in-memory {@link Dataset} that stores all quads in one store
+     * indexed by graph, subject, predicate and object using Roaring bitmaps.
+     * <p>
+     * This is suitable for datasets with very many named graphs. Graphs are views
+     * of the quad store; there is no per-graph storage.
+     * <p>
+     * This implementation provides "best effort" transactions; it only provides MRSW locking.
+     *
+     * @see DatasetGraphRoaring
+     * @see #createTxnMem
+     */
+    public static DatasetGraph createRoaring() { return new DatasetGraphRoaring(); }
+
     /**
      * Create a general-purpose  {@link DatasetGraph}.<br/>
      * Any graphs needed are in-memory unless explicitly added with {@link DatasetGraph#addGraph(Node, Graph)}.
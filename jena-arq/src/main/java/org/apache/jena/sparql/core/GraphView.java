@@ -18,6 +18,7 @@
 
 package org.apache.jena.sparql.core;
 
+import java.util.Collection ;
 import java.util.Iterator ;
 
 import org.apache.jena.atlas.iterator.Iter ;
@@ -147,6 +148,14 @@ public class GraphView extends GraphBase implements NamedGraph, Sync
         dsg.add(g, s, p, o) ;
     }
 
+    @Override
+    public void performAddAll( Collection<Triple> triples ) {
+        Node g = graphNode(graphName) ;
+        if ( Quad.isUnionGraph(g) )
+            throw new AddDeniedException("Can't update the union graph of a dataset") ;
+        dsg.addAll(Iter.map(triples.iterator(), t -> Quad.create(g, t))) ;
+    }
+
     @Override
     public void performDelete( Triple t ) {
         Node g = graphNode(graphName) ;
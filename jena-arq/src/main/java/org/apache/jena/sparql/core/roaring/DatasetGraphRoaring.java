@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.sparql.core.roaring;
+
+import java.util.Iterator;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.query.TxnType;
+import org.apache.jena.riot.system.PrefixMap;
+import org.apache.jena.riot.system.PrefixMapStd;
+import org.apache.jena.sparql.core.*;
+
+/**
+ * An in-memory {@link DatasetGraph} that keeps all quads, including those of the
+ * default graph, in one {@link RoaringQuadStore}.
+ * <p>
+ * Unlike {@link DatasetGraphMap}, there is no graph object per graph name;
+ * graphs are views of the quad store. This makes datasets with large numbers of
+ * small named graphs cheap to hold, and {@link #listGraphNodes} does not touch the quads.
+ * A find with any combination of bound positions, including the graph name, is
+ * answered by intersecting bitmaps.
+ * <p>
+ * This implementation provides "best effort" transactions; it only provides MRSW locking.
+ *
+ * @see DatasetGraphFactory#createRoaring()
+ */
+public class DatasetGraphRoaring extends DatasetGraphTriplesQuads
+{
+    private final RoaringQuadStore store = new RoaringQuadStore();
+    private final PrefixMap prefixes = new PrefixMapStd();
+
+    public DatasetGraphRoaring() {}
+
+    // ----
+    private final Transactional txn                     = TransactionalLock.createMRSW();
+    private final Transactional txn()                   { return txn; }
+    @Override public void begin()                       { txn().begin(); }
+    @Override public void begin(TxnType txnType)        { txn().begin(txnType); }
+    @Override public void begin(ReadWrite mode)         { txn().begin(mode); }
+    @Override public boolean promote(Promote txnType)   { return txn().promote(txnType); }
+    @Override public void commit()                      { txn().commit(); }
+    @Override public void abort()                       { txn().abort(); }
+    @Override public boolean isInTransaction()          { return txn().isInTransaction(); }
+    @Override public void end()                         { txn().end(); }
+    @Override public ReadWrite transactionMode()        { return txn().transactionMode(); }
+    @Override public TxnType transactionType()          { return txn().transactionType(); }
+    @Override public boolean supportsTransactions()     { return true; }
+    @Override public boolean supportsTransactionAbort() { return false; }
+    // ----
+
+    @Override
+    public Graph getDefaultGraph() {
+        return GraphView.createDefaultGraph(this);
+    }
+
+    @Override
+    public Graph getGraph(Node graphNode) {
+        return GraphView.createNamedGraph(this, graphNode);
+    }
+
+    @Override
+    public Graph getUnionGraph() {
+        return GraphView.createUnionGraph(this);
+    }
+
+    @Override
+    public Iterator<Node> listGraphNodes() {
+        return store.listGraphNodes(Quad.defaultGraphIRI);
+    }
+
+    @Override
+    public boolean containsGraph(Node graphNode) {
+        if ( Quad.isDefaultGraph(graphNode) )
+            return true;
+        if ( Quad.isUnionGraph(graphNode) )
+            return true;
+        return store.containsGraph(graphNode);
+    }
+
+    @Override
+    public long size() {
+        return store.countGraphs() - (store.containsGraph(Quad.defaultGraphIRI) ? 1 : 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return store.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+    }
+
+    @Override
+    public PrefixMap prefixes() {
+        return prefixes;
+    }
+
+    @Override
+    protected void addToDftGraph(Node s, Node p, Node o) {
+        store.add(Quad.create(Quad.defaultGraphIRI, s, p, o));
+    }
+
+    @Override
+    protected void addToNamedGraph(Node g, Node s, Node p, Node o) {
+        store.add(Quad.create(g, s, p, o));
+    }
+
+    @Override
+    protected void deleteFromDftGraph(Node s, Node p, Node o) {
+        store.remove(Quad.create(Quad.defaultGraphIRI, s, p, o));
+    }
+
+    @Override
+    protected void deleteFromNamedGraph(Node g, Node s, Node p, Node o) {
+        store.remove(Quad.create(g, s, p, o));
+    }
+
+    @Override
+    protected Iterator<Quad> findInDftGraph(Node s, Node p, Node o) {
+        return store.find(Quad.defaultGraphIRI, s, p, o);
+    }
+
+    @Override
+    protected Iterator<Quad> findInSpecificNamedGraph(Node g, Node s, Node p, Node o) {
+        return store.find(g, s, p, o);
+    }
+
+    @Override
+    protected Iterator<Quad> findInAnyNamedGraphs(Node s, Node p, Node o) {
+        return store.findExcludingGraph(Quad.defaultGraphIRI, s, p, o);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.sparql.core.roaring;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import org.apache.jena.mem2.collection.FastHashSet;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.util.iterator.NiceIterator;
+import org.roaringbitmap.BatchIterator;
+import org.roaringbitmap.ImmutableBitmapDataProvider;
+
+/**
+ * A quad iterator that iterates over quad indices in a RoaringBitmap {@link BatchIterator}.
+ * This is the quad version of {@link org.apache.jena.mem2.store.roaring.RoaringBitmapTripleIterator}.
+ * Only the #forEachRemaining method uses {@link ImmutableBitmapDataProvider#forEach} if there has been no
+ * #next or #hasNext call before.
+ */
+public class RoaringBitmapQuadIterator extends NiceIterator<Quad> {
+    protected static final int BUFFER_SIZE = 64;
+    private final ImmutableBitmapDataProvider bitmap;
+    private final FastHashSet<Quad> quads;
+    private final int initialSize;
+    private final BatchIterator batchIterator;
+    private final int[] buffer = new int[BUFFER_SIZE];
+    private int bufferIndex = -1;
+    private boolean batchIteratorHasBeenUsed = false;
+
+    public RoaringBitmapQuadIterator(final ImmutableBitmapDataProvider bitmap, final FastHashSet<Quad> quads) {
+        this.bitmap = bitmap;
+        this.batchIterator = bitmap.getBatchIterator();
+        this.quads = quads;
+        this.initialSize = quads.size();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (bufferIndex > 0)
+            return true;
+        if (this.batchIterator.hasNext()) {
+            batchIteratorHasBeenUsed = true;
+            bufferIndex = batchIterator.nextBatch(buffer);
+        }
+        return bufferIndex > 0;
+    }
+
+    @Override
+    public Quad next() {
+        if (quads.size() != initialSize) throw new ConcurrentModificationException();
+
+        if (this.hasNext())
+            return quads.getKeyAt(buffer[--bufferIndex]);
+
+        throw new NoSuchElementException();
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Quad> action) {
+        if (batchIteratorHasBeenUsed) {
+            while (-1 < --bufferIndex) {
+                action.accept(quads.getKeyAt(buffer[bufferIndex]));
+            }
+            while (batchIterator.hasNext()) {
+                bufferIndex = batchIterator.nextBatch(buffer);
+                while (-1 < --bufferIndex) {
+                    action.accept(quads.getKeyAt(buffer[bufferIndex]));
+                }
+            }
+        } else {
+            bitmap.forEach((int index) -> action.accept(quads.getKeyAt(index)));
+        }
+        if (quads.size() != initialSize) throw new ConcurrentModificationException();
+    }
+}
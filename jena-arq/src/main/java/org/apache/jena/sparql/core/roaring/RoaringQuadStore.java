@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.sparql.core.roaring;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.mem2.collection.FastHashMap;
+import org.apache.jena.mem2.collection.FastHashSet;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NiceIterator;
+import org.apache.jena.util.iterator.SingletonIterator;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * A quad store using the same approach as
+ * {@link org.apache.jena.mem2.store.roaring.RoaringTripleStore}
+ * with the graph name as a fourth indexed dimension.
+ * <p>
+ * Internal structure:
+ * - One indexed hash set that holds all quads.
+ * - Four hash maps indexed by graphs, subjects, predicates, and objects with RoaringBitmaps as values.
+ * - The bitmaps contain the indices of the quads in the central hash set.
+ * <p>
+ * A find with any combination of bound positions is answered by intersecting the bitmaps
+ * of the bound positions, smallest first. Graph names are the keys of the graph index, so
+ * listing the graphs does not touch the quads.
+ * <p>
+ * The default graph is stored as quads with graph name {@link Quad#defaultGraphIRI}.
+ * This class does not interpret graph names; callers map the default graph and
+ * the union graph onto this store.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class RoaringQuadStore {
+
+    final NodesToBitmapsMap graphBitmaps = new NodesToBitmapsMap();
+    final NodesToBitmapsMap subjectBitmaps = new NodesToBitmapsMap();
+    final NodesToBitmapsMap predicateBitmaps = new NodesToBitmapsMap();
+    final NodesToBitmapsMap objectBitmaps = new NodesToBitmapsMap();
+    final QuadSet quads = new QuadSet();
+
+    public RoaringQuadStore() {}
+
+    private static void addIndex(final NodesToBitmapsMap map, final Node node, final int index) {
+        final var bitmap = map.computeIfAbsent(node, RoaringBitmap::new);
+        bitmap.add(index);
+    }
+
+    private static void removeIndex(final NodesToBitmapsMap map, final Node node, final int index) {
+        final var bitmap = map.get(node);
+        bitmap.remove(index);
+        if (bitmap.isEmpty()) {
+            map.removeUnchecked(node);
+        }
+    }
+
+    /** Add a quad. Returns true if the quad was not already in the store. */
+    public boolean add(final Quad quad) {
+        final var index = quads.addAndGetIndex(quad);
+        if (index < 0) { /*quad already exists*/
+            return false;
+        }
+        addIndex(this.graphBitmaps, quad.getGraph(), index);
+        addIndex(this.subjectBitmaps, quad.getSubject(), index);
+        addIndex(this.predicateBitmaps, quad.getPredicate(), index);
+        addIndex(this.objectBitmaps, quad.getObject(), index);
+        return true;
+    }
+
+    /** Remove a quad. Returns true if the quad was in the store. */
+    public boolean remove(final Quad quad) {
+        final var index = quads.removeAndGetIndex(quad);
+        if (index < 0) { /*quad does not exist*/
+            return false;
+        }
+        removeIndex(this.graphBitmaps, quad.getGraph(), index);
+        removeIndex(this.subjectBitmaps, quad.getSubject(), index);
+        removeIndex(this.predicateBitmaps, quad.getPredicate(), index);
+        removeIndex(this.objectBitmaps, quad.getObject(), index);
+        return true;
+    }
+
+    public void clear() {
+        this.graphBitmaps.clear();
+        this.subjectBitmaps.clear();
+        this.predicateBitmaps.clear();
+        this.objectBitmaps.clear();
+        this.quads.clear();
+    }
+
+    public int countQuads() {
+        return this.quads.size();
+    }
+
+    public boolean isEmpty() {
+        return this.quads.isEmpty();
+    }
+
+    /** Number of quads in the graph {@code graphName}. */
+    public int countQuads(final Node graphName) {
+        final var bitmap = this.graphBitmaps.get(graphName);
+        return bitmap == null ? 0 : bitmap.getCardinality();
+    }
+
+    /** Test whether there are any quads with graph name {@code graphName}. */
+    public boolean containsGraph(final Node graphName) {
+        return this.graphBitmaps.containsKey(graphName);
+    }
+
+    /** Number of graph names with at least one quad. */
+    public int countGraphs() {
+        return this.graphBitmaps.size();
+    }
+
+    /** All graph names with at least one quad. */
+    public ExtendedIterator<Node> listGraphNodes() {
+        return this.graphBitmaps.keyIterator();
+    }
+
+    /** All graph names with at least one quad, except {@code excludedGraph}. */
+    public ExtendedIterator<Node> listGraphNodes(final Node excludedGraph) {
+        return this.graphBitmaps.keyIterator().filterDrop(excludedGraph::equals);
+    }
+
+    /**
+     * Test whether any quad matches the pattern.
+     * {@code null} and {@link Node#ANY} are wildcards.
+     */
+    public boolean contains(final Node g, final Node s, final Node p, final Node o) {
+        if (isConcrete(g) && isConcrete(s) && isConcrete(p) && isConcrete(o))
+            return this.quads.containsKey(Quad.create(g, s, p, o));
+        final var bitmaps = boundBitmaps(g, s, p, o);
+        if (bitmaps == null)
+            return false;
+        switch (bitmaps.length) {
+            case 0:
+                return !this.isEmpty();
+            case 1:
+                return true;
+            case 2:
+                return RoaringBitmap.intersects(bitmaps[0], bitmaps[1]);
+            default:
+                return !FastAggregation.naive_and(bitmaps).isEmpty();
+        }
+    }
+
+    /**
+     * Find quads matching the pattern.
+     * {@code null} and {@link Node#ANY} are wildcards.
+     */
+    public ExtendedIterator<Quad> find(final Node g, final Node s, final Node p, final Node o) {
+        if (isConcrete(g) && isConcrete(s) && isConcrete(p) && isConcrete(o)) {
+            final var quad = Quad.create(g, s, p, o);
+            return this.quads.containsKey(quad) ? new SingletonIterator<>(quad) : NiceIterator.emptyIterator();
+        }
+        final var bitmaps = boundBitmaps(g, s, p, o);
+        if (bitmaps == null)
+            return NiceIterator.emptyIterator();
+        switch (bitmaps.length) {
+            case 0:
+                return this.quads.keyIterator();
+            case 1:
+                return new RoaringBitmapQuadIterator(bitmaps[0], this.quads);
+            default:
+                return new RoaringBitmapQuadIterator(FastAggregation.naive_and(bitmaps), this.quads);
+        }
+    }
+
+    /**
+     * Find quads matching the pattern (s, p, o) in any graph except {@code excludedGraph}.
+     * This is used to find quads in all named graphs, excluding the default graph.
+     */
+    public ExtendedIterator<Quad> findExcludingGraph(final Node excludedGraph, final Node s, final Node p, final Node o) {
+        final var excluded = this.graphBitmaps.get(excludedGraph);
+        if (excluded == null)
+            return find(Node.ANY, s, p, o);
+        final var bitmaps = boundBitmaps(Node.ANY, s, p, o);
+        if (bitmaps == null)
+            return NiceIterator.emptyIterator();
+        final RoaringBitmap candidates;
+        switch (bitmaps.length) {
+            case 0: {
+                if (excluded.getCardinality() == this.quads.size())
+                    return NiceIterator.emptyIterator();
+                // Only the excluded graph's bitmap is known; filter the quads instead.
+                return this.quads.keyIterator().filterDrop(q -> excludedGraph.equals(q.getGraph()));
+            }
+            case 1:
+                candidates = RoaringBitmap.andNot(bitmaps[0], excluded);
+                break;
+            default:
+                candidates = FastAggregation.naive_and(bitmaps);
+                candidates.andNot(excluded);
+                break;
+        }
+        return new RoaringBitmapQuadIterator(candidates, this.quads);
+    }
+
+    /**
+     * The bitmaps for the concrete positions, smallest first,
+     * an empty array if there are no concrete positions,
+     * or null if a concrete position does not occur in the store at all.
+     */
+    private RoaringBitmap[] boundBitmaps(final Node g, final Node s, final Node p, final Node o) {
+        final RoaringBitmap[] bitmaps = new RoaringBitmap[4];
+        int n = 0;
+        if (isConcrete(g)) {
+            final var b = this.graphBitmaps.get(g);
+            if (b == null)
+                return null;
+            bitmaps[n++] = b;
+        }
+        if (isConcrete(s)) {
+            final var b = this.subjectBitmaps.get(s);
+            if (b == null)
+                return null;
+            bitmaps[n++] = b;
+        }
+        if (isConcrete(p)) {
+            final var b = this.predicateBitmaps.get(p);
+            if (b == null)
+                return null;
+            bitmaps[n++] = b;
+        }
+        if (isConcrete(o)) {
+            final var b = this.objectBitmaps.get(o);
+            if (b == null)
+                return null;
+            bitmaps[n++] = b;
+        }
+        if (n == 0)
+            return new RoaringBitmap[0];
+        final var result = Arrays.copyOf(bitmaps, n);
+        if (n > 1)
+            // Intersect the smallest bitmaps first.
+            Arrays.sort(result, Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+        return result;
+    }
+
+    private static boolean isConcrete(final Node node) {
+        return node != null && node.isConcrete();
+    }
+
+    /**
+     * Set of quads.
+     */
+    static class QuadSet extends FastHashSet<Quad> {
+
+        @Override
+        protected Quad[] newKeysArray(int size) {
+            return new Quad[size];
+        }
+    }
+
+    /**
+     * Map from {@link Node} to {@link RoaringBitmap}.
+     */
+    private static class NodesToBitmapsMap extends FastHashMap<Node, RoaringBitmap> {
+
+        @Override
+        protected Node[] newKeysArray(int size) {
+            return new Node[size];
+        }
+
+        @Override
+        protected RoaringBitmap[] newValuesArray(int size) {
+            return new RoaringBitmap[size];
+        }
+    }
+}
@@ -19,10 +19,13 @@
 package org.apache.jena.riot;
 
 import org.apache.jena.riot.adapters.TS_RIOTAdapters ;
+import org.apache.jena.riot.compact.TS_CompactGraph;
+import org.apache.jena.riot.dict.TS_RDFDict;
 import org.apache.jena.riot.lang.TS_Lang ;
 import org.apache.jena.riot.out.TS_Out ;
 import org.apache.jena.riot.process.TS_Process ;
 import org.apache.jena.riot.protobuf.TS_RDFProtobuf;
+import org.apache.jena.riot.rdfc.TS_RDFC;
 import org.apache.jena.riot.resultset.TS_ResultSetRIOT ;
 import org.apache.jena.riot.rowset.TS_RowSetRIOT;
 import org.apache.jena.riot.stream.TS_IO2 ;
@@ -49,7 +52,10 @@ import org.junit.runners.Suite ;
     , TS_ResultSetRIOT.class
     , TS_RDFProtobuf.class
     , TS_RDFThrift.class
+    , TS_RDFDict.class
     , TS_RowSetRIOT.class
+    , TS_RDFC.class
+    , TS_CompactGraph.class
     // Scripted tests in ARQTestSuite.
 })
 
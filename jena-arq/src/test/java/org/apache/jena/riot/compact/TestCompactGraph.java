@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.compact;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.shared.AddDeniedException;
+import org.apache.jena.shared.DeleteDeniedException;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.sse.SSE;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestCompactGraph {
+
+    private static Graph data = SSE.parseGraph("""
+        (graph
+          (:s :p :o)
+          (:s :p 123)
+          (:s :p "abc")
+          (:s :p "abc"@en)
+          (:s :q _:b)
+          (_:b :p "x")
+          (_:b :q :s)
+          (:o :p :s)
+          (:x :r "01"^^<http://www.w3.org/2001/XMLSchema#integer>)
+        )""");
+
+    private Path file;
+
+    @Before public void before() throws IOException {
+        file = Files.createTempFile("compact", ".jcg");
+    }
+
+    @After public void after() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private Graph roundTrip(Graph graph) {
+        CompactGraph.write(graph, file);
+        return CompactGraph.open(file);
+    }
+
+    @Test public void compact_empty() {
+        Graph graph = roundTrip(GraphFactory.createDefaultGraph());
+        assertEquals(0, graph.size());
+        assertFalse(graph.find().hasNext());
+        assertFalse(graph.contains(Node.ANY, SSE.parseNode(":p"), Node.ANY));
+        graph.close();
+    }
+
+    @Test public void compact_roundtrip() {
+        Graph graph = roundTrip(data);
+        assertEquals(data.size(), graph.size());
+        assertTrue(graph.isIsomorphicWith(data));
+        graph.close();
+    }
+
+    @Test public void compact_find_patterns() {
+        Graph graph = roundTrip(data);
+        List<Node> choices = List.of(Node.ANY,
+                                     SSE.parseNode(":s"), SSE.parseNode(":p"), SSE.parseNode(":o"),
+                                     SSE.parseNode("123"), SSE.parseNode("\"abc\"@en"),
+                                     SSE.parseNode(":notHere"));
+        for ( Node s : choices ) for ( Node p : choices ) for ( Node o : choices )
+            assertEquals(s+" "+p+" "+o, set(data, s, p, o), set(graph, s, p, o));
+        graph.close();
+    }
+
+    @Test public void compact_terms_exact() {
+        Graph graph = roundTrip(data);
+        // Term equality: "01"^^xsd:integer is not 1.
+        assertTrue(graph.contains(Node.ANY, Node.ANY, SSE.parseNode("'01'^^xsd:integer")));
+        assertFalse(graph.contains(Node.ANY, Node.ANY, SSE.parseNode("1")));
+        Node bnode = NodeFactory.createBlankNode(data.find(SSE.parseNode(":s"), SSE.parseNode(":q"), Node.ANY).next().getObject().getBlankNodeLabel());
+        assertEquals(2, graph.find(bnode, Node.ANY, Node.ANY).toList().size());
+        graph.close();
+    }
+
+    @Test public void compact_random() {
+        Random random = new Random(1234);
+        Graph graph = GraphFactory.createDefaultGraph();
+        for ( int i = 0 ; i < 5000 ; i++ )
+            graph.add(Triple.create(NodeFactory.createURI("http://example/s" + random.nextInt(200)),
+                                    NodeFactory.createURI("http://example/p" + random.nextInt(10)),
+                                    NodeFactory.createLiteralString("o" + random.nextInt(300))));
+        Graph graph2 = roundTrip(graph);
+        assertEquals(graph.size(), graph2.size());
+        for ( int i = 0 ; i < 100 ; i++ ) {
+            Node s = NodeFactory.createURI("http://example/s" + random.nextInt(200));
+            Node p = NodeFactory.createURI("http://example/p" + random.nextInt(10));
+            Node o = NodeFactory.createLiteralString("o" + random.nextInt(300));
+            assertEquals(set(graph, s, Node.ANY, Node.ANY), set(graph2, s, Node.ANY, Node.ANY));
+            assertEquals(set(graph, s, p, Node.ANY), set(graph2, s, p, Node.ANY));
+            assertEquals(set(graph, Node.ANY, p, o), set(graph2, Node.ANY, p, o));
+            assertEquals(set(graph, s, Node.ANY, o), set(graph2, s, Node.ANY, o));
+        }
+        graph2.close();
+    }
+
+    @Test public void compact_readonly() {
+        Graph graph = roundTrip(data);
+        Triple t = SSE.parseTriple("(:a :b :c)");
+        assertThrows(AddDeniedException.class, ()->graph.add(t));
+        assertThrows(DeleteDeniedException.class, ()->graph.delete(data.find().next()));
+        assertThrows(DeleteDeniedException.class, ()->graph.clear());
+        graph.close();
+    }
+
+    @Test public void compact_bad_file() throws IOException {
+        Files.writeString(file, "Not a compact graph file, but long enough to have a header. ......");
+        assertThrows(RiotException.class, ()->CompactGraph.open(file));
+    }
+
+    private static Set<Triple> set(Graph graph, Node s, Node p, Node o) {
+        return graph.find(s, p, o).toList().stream().collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.dict;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.jena.atlas.lib.StrUtils;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetFormatter;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.WebContent;
+import org.apache.jena.riot.resultset.ResultSetLang;
+import org.apache.jena.riot.resultset.ResultSetReaderRegistry;
+import org.apache.jena.sparql.exec.RowSet;
+import org.apache.jena.sparql.resultset.ResultSetCompare;
+import org.apache.jena.sparql.sse.Item;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.sparql.sse.builders.BuilderRowSet;
+import org.junit.Test;
+
+public class TestDictResultSet {
+    static ResultSetRewindable rs0 = make
+        ("(resultset (?x ?y)"
+         , "   (row (?x _:a) (?y 3))"
+         , "   (row (?x 1) (?y 'a'))"
+         , "   (row (?y 'y'))"
+         , "   (row (?x _:a))"
+         , "   (row)"
+         , "   (row (?x 2) (?y 10))"
+         , "   (row (?x 2) (?y <<_:a :p :o>>))"
+         , "   (row (?x 2) (?y 'abc'@en))"
+         , ")"
+         );
+
+    static ResultSetRewindable rsEmpty = make("(resultset (?x ?y))");
+
+    static ResultSetRewindable rsNoVars = make("(resultset () (row) (row))");
+
+    @Test public void resultSet_01() {
+        test(rs0);
+    }
+
+    @Test public void resultSet_02() {
+        test(rsEmpty);
+    }
+
+    @Test public void resultSet_03() {
+        test(rsNoVars);
+    }
+
+    @Test public void resultSet_buffer() {
+        rs0.reset();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DictRDF.writeRowSet(out, RowSet.adapt(rs0), true);
+        rs0.reset();
+        RowSet rowSet = DictRDF.readRowSet(ByteBuffer.wrap(out.toByteArray()));
+        ResultSetRewindable resultSet2 = ResultSetFactory.makeRewindable(rowSet);
+        assertTrue(ResultSetCompare.equalsExact(rs0, resultSet2));
+        rs0.reset();
+    }
+
+    @Test public void resultSet_registered() {
+        assertEquals(ResultSetLang.RS_Dict, RDFLanguages.contentTypeToLang(WebContent.contentTypeResultsDict));
+        assertTrue(ResultSetReaderRegistry.isRegistered(ResultSetLang.RS_Dict));
+    }
+
+    private static void test(ResultSetRewindable resultSet) {
+        resultSet.reset();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ResultSetFormatter.output(out, resultSet, ResultSetLang.RS_Dict);
+        resultSet.reset();
+
+        RowSet rowSet = DictRDF.readRowSet(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(resultSet.getResultVars(), rowSet.getResultVars().stream().map(v -> v.getVarName()).toList());
+        ResultSetRewindable resultSet2 = ResultSetFactory.makeRewindable(rowSet);
+        // Includes blank node labels.
+        assertTrue(ResultSetCompare.equalsExact(resultSet, resultSet2));
+        resultSet.reset();
+    }
+
+    private static ResultSetRewindable make(String ... strings) {
+        String s = StrUtils.strjoinNL(strings);
+        Item item = SSE.parse(s);
+        return ResultSetFactory.makeRewindable(BuilderRowSet.build(item));
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.dict;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.jena.atlas.lib.StrUtils;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RDFWriter;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.riot.system.StreamRDFOps;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.sse.SSE;
+import org.junit.Test;
+
+public class TestDictStreamRDF {
+
+    static String gs = StrUtils.strjoinNL(
+        "(graph",
+        "  (_:a :p 123) ",
+        "  (_:a :p 'foo'@en) ",
+        "  (_:b :p '456') ",
+        "  (_:b :p '456.5') ",
+        "  (_:b :p '456.5e6') ",
+        "  (_:b :q 'café 漢字') ",
+        "  (_:b :q '') ",
+        "  (:s :q <<_:a :p 'foo'@en>>) ",
+        "  (:s :p :o) ",
+        ")");
+
+    static Graph graph = SSE.parseGraph(gs);
+    static {
+        Node s = SSE.parseNode(":s");
+        Node q = SSE.parseNode(":q");
+        graph.add(s, q, NodeFactory.createLiteralDirLang("bar", "ar", "rtl"));
+        Node inner = NodeFactory.createTripleNode(SSE.parseTriple("(_:b :p 123)"));
+        graph.add(s, q, NodeFactory.createTripleNode(s, q, inner));
+    }
+
+    static String dgs = StrUtils.strjoinNL(
+        "(dataset",
+        "  (graph (:s1 :p _:a) (:s2 :p _:a))" ,
+        "  (graph :g  (:s1 :p _:a))" ,
+        "  (graph _:a (:s2 :p _:a))" ,
+        ")" );
+
+    static DatasetGraph datasetGraph = SSE.parseDatasetGraph(dgs);
+
+    @Test public void graph_01() {
+        byte[] bytes = write(graph, false);
+        sameTerms(graph, read(bytes));
+    }
+
+    @Test public void graph_02() {
+        byte[] bytes = write(graph, true);
+        sameTerms(graph, read(bytes));
+    }
+
+    @Test public void graph_empty() {
+        byte[] bytes = write(GraphFactory.createGraphMem(), false);
+        // Header and end of stream.
+        assertEquals(7, bytes.length);
+        assertEquals(0, read(bytes).size());
+    }
+
+    @Test public void graph_buffer_heap() {
+        byte[] bytes = write(graph, false);
+        // Not at the start of the backing array.
+        byte[] padded = new byte[bytes.length + 10];
+        System.arraycopy(bytes, 0, padded, 5, bytes.length);
+        ByteBuffer bb = ByteBuffer.wrap(padded, 5, bytes.length).slice();
+        Graph g2 = GraphFactory.createGraphMem();
+        DictRDF.bufferToStreamRDF(bb, StreamRDFLib.graph(g2));
+        sameTerms(graph, g2);
+        assertEquals(0, bb.position());
+    }
+
+    @Test public void graph_buffer_direct() {
+        testBufferDirect(false);
+    }
+
+    @Test public void graph_buffer_direct_compressed() {
+        testBufferDirect(true);
+    }
+
+    private static void testBufferDirect(boolean compress) {
+        byte[] bytes = write(graph, compress);
+        ByteBuffer bb = ByteBuffer.allocateDirect(bytes.length);
+        bb.put(bytes).flip();
+        Graph g2 = GraphFactory.createGraphMem();
+        DictRDF.bufferToStreamRDF(bb, StreamRDFLib.graph(g2));
+        sameTerms(graph, g2);
+    }
+
+    @Test public void terms_once() {
+        Triple t = SSE.parseTriple("(:s :p 'long literal long literal long literal')");
+        ByteArrayOutputStream out1 = new ByteArrayOutputStream();
+        StreamRDF stream1 = DictRDF.streamToOutputStream(out1);
+        stream1.triple(t);
+        stream1.finish();
+
+        ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+        StreamRDF stream2 = DictRDF.streamToOutputStream(out2);
+        stream2.triple(t);
+        stream2.triple(t);
+        stream2.finish();
+        // Second triple: a tag and three one byte ids.
+        assertEquals(out1.size() + 4, out2.size());
+    }
+
+    @Test public void dictionary_reset() {
+        // Small blocks and a small dictionary.
+        Graph g1 = GraphFactory.createGraphMem();
+        for ( int i = 0 ; i < 500 ; i++ )
+            g1.add(NodeFactory.createURI("http://example/s" + (i % 37)), NodeFactory.createURI("http://example/p"),
+                   NodeFactory.createLiteralString("value " + i));
+        for ( boolean compress : new boolean[] {false, true} ) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            DictEncoder encoder = new DictEncoder(out, compress, 100, 20);
+            g1.find().forEachRemaining(encoder::triple);
+            encoder.finish();
+            Graph g2 = read(out.toByteArray());
+            sameTerms(g1, g2);
+        }
+    }
+
+    @Test public void dataset_01() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamRDF stream = DictRDF.streamToOutputStream(out);
+        StreamRDFOps.datasetToStream(datasetGraph, stream);
+
+        DatasetGraph dsg2 = DatasetGraphFactory.create();
+        DictRDF.inputStreamToStreamRDF(new ByteArrayInputStream(out.toByteArray()), StreamRDFLib.dataset(dsg2));
+        datasetGraph.find().forEachRemaining(q -> assertTrue(dsg2.contains(q)));
+        assertEquals(datasetGraph.stream().count(), dsg2.stream().count());
+    }
+
+    @Test public void dataset_02() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamRDFWriter.write(out, datasetGraph, Lang.RDFDICT);
+        DatasetGraph dsg2 = DatasetGraphFactory.create();
+        RDFDataMgr.read(dsg2, new ByteArrayInputStream(out.toByteArray()), Lang.RDFDICT);
+        datasetGraph.find().forEachRemaining(q -> assertTrue(dsg2.contains(q)));
+        assertEquals(datasetGraph.stream().count(), dsg2.stream().count());
+    }
+
+    @Test public void writer_prefixes() {
+        Graph g1 = GraphFactory.createGraphMem();
+        g1.getPrefixMapping().setNsPrefix("ex", "http://example/");
+        g1.add(SSE.parseTriple("(<http://example/s> <http://example/p> 'o')"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RDFWriter.source(g1).format(RDFFormat.RDF_DICT_COMPRESSED).output(out);
+        Graph g2 = GraphFactory.createGraphMem();
+        RDFParser.source(new ByteArrayInputStream(out.toByteArray())).lang(Lang.RDFDICT).parse(g2);
+        sameTerms(g1, g2);
+        assertEquals("http://example/", g2.getPrefixMapping().getNsPrefixURI("ex"));
+    }
+
+    @Test public void lang_registered() {
+        assertEquals(Lang.RDFDICT, RDFLanguages.filenameToLang("data.rdict"));
+        assertEquals(Lang.RDFDICT, RDFLanguages.contentTypeToLang("application/rdf+dict"));
+    }
+
+    @Test public void bad_header() {
+        byte[] bytes = "RDFX\u0001\u0000\u0000".getBytes();
+        assertThrows(RiotDictException.class, () -> read(bytes));
+    }
+
+    @Test public void truncated() {
+        byte[] bytes = write(graph, false);
+        byte[] bytes2 = Arrays.copyOf(bytes, bytes.length - 10);
+        assertThrows(RiotDictException.class, () -> read(bytes2));
+        ByteBuffer bb = ByteBuffer.wrap(bytes2);
+        assertThrows(RiotDictException.class, () -> DictRDF.bufferToStreamRDF(bb, StreamRDFLib.sinkNull()));
+    }
+
+    @Test public void truncated_in_block() {
+        // A block whose messages run past its end: a string and then an integer.
+        truncatedBlock(DictConst.DEF_IRI, 100, 'a', 'b', 'c');
+        truncatedBlock(DictConst.DEF_IRI, 0x80);
+    }
+
+    private static void truncatedBlock(int... content) {
+        byte[] header = Arrays.copyOf(write(graph, false), DictConst.MAGIC.length + 2);
+        byte[] bytes = Arrays.copyOf(header, header.length + content.length + 2);
+        bytes[header.length] = (byte)content.length;
+        for ( int i = 0 ; i < content.length ; i++ )
+            bytes[header.length + 1 + i] = (byte)content[i];
+        RiotDictException ex = assertThrows(RiotDictException.class, () -> read(bytes));
+        assertEquals("Truncated block", ex.getMessage());
+        ex = assertThrows(RiotDictException.class, () -> DictRDF.bufferToStreamRDF(ByteBuffer.wrap(bytes), StreamRDFLib.sinkNull()));
+        assertEquals("Truncated block", ex.getMessage());
+    }
+
+    @Test public void not_rdf() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamRDF stream = DictRDF.streamToOutputStream(out);
+        Node v = NodeFactory.createVariable("x");
+        assertThrows(RiotDictException.class, () -> stream.triple(Triple.create(v, v, v)));
+    }
+
+    private static byte[] write(Graph graph, boolean compress) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamRDF stream = DictRDF.streamToOutputStream(out, compress);
+        stream.start();
+        StreamRDFOps.graphToStream(graph, stream);
+        stream.finish();
+        return out.toByteArray();
+    }
+
+    private static Graph read(byte[] bytes) {
+        Graph g2 = GraphFactory.createGraphMem();
+        DictRDF.inputStreamToStreamRDF(new ByteArrayInputStream(bytes), StreamRDFLib.graph(g2));
+        return g2;
+    }
+
+    // Same terms, including blank node labels.
+    private static void sameTerms(Graph g1, Graph g2) {
+        assertEquals(g1.size(), g2.size());
+        g1.find().forEachRemaining(t -> assertTrue("Missing: " + t, g2.contains(t)));
+    }
+}
@@ -39,6 +39,7 @@ import org.junit.runners.Suite ;
     , TestLangTurtle.class
     , TestLangTrig.class
     , TestLangRdfJson.class
+    , TestLangJSONLD11Streaming.class
     , TestRDFXML_ReaderProperties.class
     , TestTriXReader.class
     , TestTriXBad.class
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.lang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.atlas.lib.StrUtils;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RDFParserBuilder;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.ErrorHandlerFactory;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.util.Context;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.junit.Test;
+
+public class TestLangJSONLD11Streaming {
+
+    private static final String CONTEXT = """
+            "@context": {
+                "ex": "http://example/",
+                "name": "ex:name",
+                "knows": { "@id": "ex:knows", "@type": "@id" },
+                "list": { "@id": "ex:list", "@container": "@list" },
+                "age": { "@id": "ex:age", "@type": "http://www.w3.org/2001/XMLSchema#integer" }
+            }
+            """;
+
+    @Test public void graph_01() {
+        String json = StrUtils.strjoinNL("{", CONTEXT, ",",
+            "  \"@graph\": [",
+            "    { \"@id\": \"ex:a\", \"name\": \"Alice\", \"age\": \"30\", \"knows\": \"_:x\" },",
+            "    { \"@id\": \"_:x\", \"name\": { \"@value\": \"Bob\", \"@language\": \"en\" }, \"ex:p\": true },",
+            "    { \"name\": \"anon\", \"list\": [ 1, 2.5, \"three\" ], \"knows\": \"_:x\" },",
+            "    { \"@type\": \"ex:T\", \"ex:q\": { \"name\": \"nested\" } }",
+            "  ]",
+            "}");
+        testSame(json);
+    }
+
+    @Test public void graph_single_object() {
+        String json = StrUtils.strjoinNL("{", CONTEXT, ",",
+            "  \"@graph\": { \"@id\": \"ex:a\", \"name\": \"Alice\" }",
+            "}");
+        testSame(json);
+    }
+
+    @Test public void graph_named() {
+        String json = StrUtils.strjoinNL("{", CONTEXT, ",",
+            "  \"@graph\": [",
+            "    { \"@id\": \"ex:g\", \"@graph\": [ { \"@id\": \"ex:s\", \"name\": \"in g\", \"knows\": \"_:x\" } ] },",
+            "    { \"@id\": \"ex:s\", \"knows\": \"_:x\" }",
+            "  ]",
+            "}");
+        testSame(json);
+    }
+
+    @Test public void array_01() {
+        String json = StrUtils.strjoinNL("[",
+            "  {", CONTEXT, ", \"@id\": \"ex:a\", \"name\": \"A\", \"knows\": \"_:b\" },",
+            "  { \"@id\": \"_:b\", \"http://example/name\": \"B\" }",
+            "]");
+        testSame(json);
+    }
+
+    @Test public void fallback_node_object() {
+        String json = StrUtils.strjoinNL("{", CONTEXT, ",",
+            "  \"@id\": \"ex:a\", \"name\": \"Alice\", \"knows\": { \"name\": \"Bob\" }",
+            "}");
+        testSame(json);
+    }
+
+    @Test public void fallback_graph_first() {
+        String json = StrUtils.strjoinNL("{",
+            "  \"@graph\": [ { \"@id\": \"ex:a\", \"name\": \"Alice\" } ],",
+            CONTEXT,
+            "}");
+        testSame(json);
+    }
+
+    @Test public void fallback_other_member() {
+        String json = StrUtils.strjoinNL("{", CONTEXT, ",",
+            "  \"@id\": \"ex:g\",",
+            "  \"@graph\": [ { \"@id\": \"ex:a\", \"name\": \"Alice\" } ]",
+            "}");
+        testSame(json);
+    }
+
+    @Test public void prefixes() {
+        String json = StrUtils.strjoinNL("{", CONTEXT, ",",
+            "  \"@graph\": [ { \"@id\": \"ex:a\", \"name\": \"Alice\" } ]",
+            "}");
+        DatasetGraph dsg = DatasetGraphFactory.create();
+        parser(json, true).parse(dsg);
+        assertEquals("http://example/", dsg.prefixes().get("ex"));
+    }
+
+    @Test public void member_after_graph() {
+        String json = StrUtils.strjoinNL("{", CONTEXT, ",",
+            "  \"@graph\": [ { \"@id\": \"ex:a\", \"name\": \"Alice\" } ],",
+            "  \"@id\": \"ex:g\"",
+            "}");
+        assertThrows(RiotException.class, () -> parser(json, true).parse(StreamRDFLib.sinkNull()));
+    }
+
+    @Test public void incremental() {
+        // Bad JSON at the end: the elements before it have been sent to the output.
+        String json = StrUtils.strjoinNL("{", CONTEXT, ",",
+            "  \"@graph\": [",
+            "    { \"@id\": \"ex:a\", \"name\": \"A\" },",
+            "    { \"@id\": \"ex:b\", \"name\": \"B\" },",
+            "    { \"@id\": ");
+        List<Triple> triples = new ArrayList<>();
+        StreamRDFBase collect = new StreamRDFBase() {
+            @Override public void triple(Triple triple) { triples.add(triple); }
+        };
+        Context context = new Context();
+        context.set(LangJSONLD11.JSONLD_STREAMING, true);
+        // java.io.Reader
+        RDFParser parser = RDFParser.fromString(json, Lang.JSONLD11)
+                .context(context)
+                .errorHandler(ErrorHandlerFactory.errorHandlerNoLogging)
+                .build();
+        assertThrows(RiotException.class, () -> parser.parse(collect));
+        assertEquals(2, triples.size());
+    }
+
+    private static void testSame(String json) {
+        DatasetGraph expected = DatasetGraphFactory.create();
+        parser(json, false).parse(expected);
+        DatasetGraph actual = DatasetGraphFactory.create();
+        parser(json, true).parse(actual);
+        assertTrue("Not isomorphic", IsoMatcher.isomorphic(expected, actual));
+        assertEquals(expected.stream().count(), actual.stream().count());
+    }
+
+    private static RDFParserBuilder parser(String json, boolean streaming) {
+        Context context = new Context();
+        context.set(LangJSONLD11.JSONLD_STREAMING, streaming);
+        return RDFParser.source(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))
+                .lang(Lang.JSONLD11)
+                .context(context)
+                .errorHandler(ErrorHandlerFactory.errorHandlerNoLogging);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.rdfc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.junit.Test;
+
+public class TestRDFC10 {
+
+    // Examples from the RDFC-1.0 specification.
+    private static String unique = """
+        <http://example.com/#p> <http://example.com/#q> _:e0 .
+        <http://example.com/#p> <http://example.com/#r> _:e1 .
+        _:e0 <http://example.com/#s> <http://example.com/#u> .
+        _:e1 <http://example.com/#t> <http://example.com/#u> .
+        """;
+
+    private static String shared = """
+        <http://example.com/#p> <http://example.com/#q> _:e0 .
+        <http://example.com/#p> <http://example.com/#q> _:e1 .
+        _:e0 <http://example.com/#p> _:e2 .
+        _:e1 <http://example.com/#p> _:e3 .
+        _:e2 <http://example.com/#r> _:e3 .
+        """;
+
+    private static DatasetGraph parse(String string) {
+        DatasetGraph dsg = DatasetGraphFactory.createTxnMem();
+        RDFParser.fromString(string, Lang.NQUADS).parse(dsg);
+        return dsg;
+    }
+
+    @Test public void rdfc_unique_hashes() {
+        List<String> x = RDFC10.canonicalNQuads(parse(unique));
+        List<String> expected = List.of(
+            "<http://example.com/#p> <http://example.com/#q> _:c14n0 .\n",
+            "<http://example.com/#p> <http://example.com/#r> _:c14n1 .\n",
+            "_:c14n0 <http://example.com/#s> <http://example.com/#u> .\n",
+            "_:c14n1 <http://example.com/#t> <http://example.com/#u> .\n");
+        assertEquals(expected, x);
+    }
+
+    @Test public void rdfc_shared_hashes() {
+        List<String> x = RDFC10.canonicalNQuads(parse(shared));
+        List<String> expected = List.of(
+            "<http://example.com/#p> <http://example.com/#q> _:c14n2 .\n",
+            "<http://example.com/#p> <http://example.com/#q> _:c14n3 .\n",
+            "_:c14n0 <http://example.com/#r> _:c14n1 .\n",
+            "_:c14n2 <http://example.com/#p> _:c14n1 .\n",
+            "_:c14n3 <http://example.com/#p> _:c14n0 .\n");
+        assertEquals(expected, x);
+    }
+
+    @Test public void rdfc_digest_isomorphic() {
+        String relabelled = shared.replace("_:e", "_:x").replace("_:x0", "_:y").replace("_:x3", "_:x0").replace("_:y", "_:x3");
+        assertEquals(RDFC10.digestHex(parse(shared)), RDFC10.digestHex(parse(relabelled)));
+        assertNotEquals(RDFC10.digestHex(parse(shared)), RDFC10.digestHex(parse(unique)));
+    }
+
+    @Test public void rdfc_digest_ground() throws Exception {
+        DatasetGraph dsg = parse("""
+            <http://example/s> <http://example/p> "b" <http://example/g> .
+            <http://example/s> <http://example/p> "a" .
+            """);
+        String doc = "<http://example/s> <http://example/p> \"a\" .\n"
+                   + "<http://example/s> <http://example/p> \"b\" <http://example/g> .\n";
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest(doc.getBytes(StandardCharsets.UTF_8));
+        assertEquals(List.of(doc.split("(?<=\n)")), RDFC10.canonicalNQuads(dsg));
+        assertEquals(new String(expected, StandardCharsets.ISO_8859_1), new String(RDFC10.digest(dsg), StandardCharsets.ISO_8859_1));
+    }
+
+    @Test public void rdfc_empty() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                     RDFC10.digestHex(DatasetGraphFactory.createTxnMem()));
+    }
+
+    @Test public void rdfc_literals() {
+        DatasetGraph dsg = parse("""
+            _:b <http://example/p> "x\\t\\u0001\\"\\\\y"^^<http://www.w3.org/2001/XMLSchema#string> .
+            _:b <http://example/p> "chat"@fr .
+            """);
+        List<String> x = RDFC10.canonicalNQuads(dsg);
+        List<String> expected = List.of(
+            "_:c14n0 <http://example/p> \"chat\"@fr .\n",
+            "_:c14n0 <http://example/p> \"x\\t\\u0001\\\"\\\\y\" .\n");
+        assertEquals(expected, x);
+    }
+
+    @Test public void rdfc_self_reference() {
+        // The first degree hash of _:a uses its quad once, and is after that of _:b.
+        // Using the quad twice would put it first.
+        DatasetGraph dsg = parse("""
+            _:a <http://example/p> _:a .
+            _:b <http://example/q> "y" .
+            """);
+        List<String> x = RDFC10.canonicalNQuads(dsg);
+        List<String> expected = List.of(
+            "_:c14n0 <http://example/q> \"y\" .\n",
+            "_:c14n1 <http://example/p> _:c14n1 .\n");
+        assertEquals(expected, x);
+    }
+
+    @Test public void rdfc_spill() {
+        // Sort through spill files: same output as the in-memory list.
+        DatasetGraph dsg = parse(shared);
+        String expected = String.join("", RDFC10.canonicalNQuads(dsg));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RDFC10.create(dsg).spillThreshold(2).write(out);
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+        assertEquals(RDFC10.digestHex(dsg), RDFC10.hex(RDFC10.create(dsg).spillThreshold(1).digest()));
+    }
+
+    @Test public void rdfc_limit() {
+        RDFC10 rdfc = RDFC10.create(parse(shared)).maxWork(1);
+        assertThrows(RiotException.class, rdfc::canonicalLabels);
+    }
+}
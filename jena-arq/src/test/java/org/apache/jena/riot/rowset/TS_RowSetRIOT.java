@@ -18,15 +18,21 @@
 
 package org.apache.jena.riot.rowset;
 
+import org.apache.jena.riot.rowset.rw.TestIndentedUTF8Writer;
+import org.apache.jena.riot.rowset.rw.TestRowSetReaderLazy;
 import org.apache.jena.riot.rowset.rw.TestRowSetWriterCSV;
 import org.apache.jena.riot.rowset.rw.TestRowSetWriterTSV;
+import org.apache.jena.riot.rowset.rw.rs_json.TestRowSetJSONStreaming;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses( {
     TestRowSetWriterCSV.class,
-    TestRowSetWriterTSV.class
+    TestRowSetWriterTSV.class,
+    TestRowSetReaderLazy.class,
+    TestRowSetJSONStreaming.class,
+    TestIndentedUTF8Writer.class
 })
 
 public class TS_RowSetRIOT { }
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.rowset.rw;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.jena.atlas.io.AWriter;
+import org.apache.jena.atlas.io.IndentedWriter;
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.atlas.json.io.JSWriter;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.resultset.ResultSetLang;
+import org.apache.jena.riot.rowset.RowSetReaderRegistry;
+import org.apache.jena.riot.rowset.RowSetWriterRegistry;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.exec.RowSet;
+import org.apache.jena.sparql.exec.RowSetStream;
+import org.junit.Test;
+
+public class TestIndentedUTF8Writer {
+
+    private static final String[] strings = {
+        "", "abc", "a\"b\\c", "line1\nline2\r\t\b\f", "</script>", "a/b",
+        "\u0001\u001F\u007F\u0085", "  ", "café", "中文", "😀", "& <x> ]]>"
+    };
+
+    private static String write(int chunkSize, Consumer<IndentedUTF8Writer> action) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        IndentedUTF8Writer out = new IndentedUTF8Writer(bytes, chunkSize);
+        action.accept(out);
+        out.flush();
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test public void layout_as_indentedwriter() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        IndentedWriter w1 = new IndentedWriter(bytes);
+        w1.setUnitIndent(2);
+        layout(w1, w1::incIndent, w1::decIndent);
+        w1.flush();
+        String expected = bytes.toString(StandardCharsets.UTF_8);
+        String actual = write(64, out -> layout(out, out::incIndent, out::decIndent));
+        assertEquals(expected, actual);
+    }
+
+    private static void layout(AWriter out, Runnable incIndent, Runnable decIndent) {
+        out.print("{");
+        incIndent.run();
+        out.println();
+        for ( String s : strings ) {
+            out.print("\"key\": ");
+            incIndent.run();
+            out.println();
+            out.print(s.replace('\n', ' ').replace('\r', ' '));
+            out.print(' ');
+            decIndent.run();
+            out.println();
+        }
+        decIndent.run();
+        out.println("}");
+    }
+
+    @Test public void json_escape() {
+        for ( String s : strings ) {
+            String expected = JSWriter.outputQuotedString(s);
+            assertEquals(expected, write(64, out -> out.writeJsonString(s)));
+        }
+    }
+
+    @Test public void xml_escape() {
+        assertEquals("a&amp;b&lt;c&gt;d", write(64, out -> out.writeXmlText("a&b<c>d")));
+        assertEquals("&#x0001;\"'", write(64, out -> out.writeXmlText("\u0001\"'")));
+        assertEquals("café 😀", write(64, out -> out.writeXmlText("café 😀")));
+    }
+
+    @Test public void surrogates() {
+        String s = "a😀b";
+        // Char by char, as NodeFormatter output does.
+        assertEquals(s, write(64, out -> { for ( char ch : s.toCharArray() ) out.write(ch); }));
+        assertEquals(s, write(64, out -> out.write(s)));
+        // Unpaired
+        assertEquals("a?b", write(64, out -> out.write("a\uD83Db")));
+        assertEquals("a?b", write(64, out -> { out.write('a'); out.write('\uD83D'); out.write('b'); }));
+        assertEquals("a?", write(64, out -> { out.write('a'); out.write('\uD83D'); }));
+    }
+
+    @Test public void small_chunks() {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0 ; i < 100 ; i++ )
+            sb.append(strings[i % strings.length]);
+        String s = sb.toString();
+        assertEquals(s, write(64, out -> out.write(s)));
+        assertEquals(JSWriter.outputQuotedString(s), write(64, out -> out.writeJsonString(s)));
+    }
+
+    @Test public void capture() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        IndentedUTF8Writer out = new IndentedUTF8Writer(bytes, 64);
+        byte[] captured = out.capture(16, () -> out.write("<café>"));
+        assertNotNull(captured);
+        assertArrayEquals("<café>".getBytes(StandardCharsets.UTF_8), captured);
+        out.writeBytes(captured, 6);
+        // Does not fit in one buffer.
+        String big = "x".repeat(100);
+        assertNull(out.capture(16, () -> out.write(big)));
+        out.flush();
+        assertEquals("<café><café>" + big, bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    // Legal in XML 1.0
+    private static final String[] values = {
+        "", "abc", "a\"b\\c", "line1\nline2\r\t", "</script>", "café", "中文", "😀", "& <x> ]]>"
+    };
+
+    // Written then read back, with enough rows to need several buffers.
+
+    @Test public void roundtrip_json() { roundtrip(ResultSetLang.RS_JSON); }
+
+    @Test public void roundtrip_xml() { roundtrip(ResultSetLang.RS_XML); }
+
+    @Test public void roundtrip_tsv() { roundtrip(ResultSetLang.RS_TSV); }
+
+    private static void roundtrip(Lang lang) {
+        Var x = Var.alloc("x");
+        Var y = Var.alloc("y");
+        List<Binding> rows = new ArrayList<>();
+        for ( int i = 0 ; i < 5000 ; i++ ) {
+            String s = values[i % values.length];
+            Node iri = NodeFactory.createURI("http://example/" + (i % 10) + (i % 3 == 0 ? "é" : ""));
+            Node lit = ( i % 2 == 0 ) ? NodeFactory.createLiteralString(s) : NodeFactory.createLiteralLang(s, "en");
+            rows.add(BindingFactory.binding(x, iri, y, lit));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RowSetWriterRegistry.getFactory(lang).create(lang)
+                .write(out, RowSetStream.create(List.of(x, y), rows.iterator()), null);
+        RowSet rowSet = RowSetReaderRegistry.getFactory(lang).create(lang)
+                .read(new ByteArrayInputStream(out.toByteArray()), null);
+        assertEquals(rows, Iter.toList(rowSet));
+    }
+}
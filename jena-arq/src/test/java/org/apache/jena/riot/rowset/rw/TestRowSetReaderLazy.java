@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.rowset.rw;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.resultset.ResultSetLang;
+import org.apache.jena.riot.rowset.RowSetReaderRegistry;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.exec.RowSet;
+import org.apache.jena.sparql.sse.SSE;
+import org.junit.Test;
+
+public class TestRowSetReaderLazy {
+
+    private static final Var x = Var.alloc("x");
+    private static final Var y = Var.alloc("y");
+    private static final Var z = Var.alloc("z");
+
+    @Test public void lazy_binding() {
+        Binding b = BindingLazy.builder()
+                .addIRI(x, "http://example/x")
+                .addLiteral(y, "1", null, "http://www.w3.org/2001/XMLSchema#integer")
+                .addLiteral(z, "abc", "en", null)
+                .build();
+        assertEquals(3, b.size());
+        assertTrue(b.contains(y));
+        assertEquals(SSE.parseNode("<http://example/x>"), b.get(x));
+        assertEquals(SSE.parseNode("1"), b.get(y));
+        assertEquals(SSE.parseNode("'abc'@en"), b.get(z));
+        assertNull(b.get(Var.alloc("other")));
+        Binding b2 = BindingFactory.builder()
+                .add(x, SSE.parseNode("<http://example/x>"))
+                .add(y, SSE.parseNode("1"))
+                .add(z, SSE.parseNode("'abc'@en"))
+                .build();
+        assertEquals(b2, b);
+        assertEquals(b2.hashCode(), b.hashCode());
+    }
+
+    @Test public void lazy_binding_repeat() {
+        Binding b = BindingLazy.builder()
+                .addIRI(x, "http://example/x")
+                .addIRI(x, "http://example/x")
+                .build();
+        assertEquals(1, b.size());
+    }
+
+    @Test public void lazy_binding_builder_reuse() {
+        BindingLazy.Builder builder = BindingLazy.builder();
+        Binding b1 = builder.addIRI(x, "http://example/1").build();
+        Binding b2 = builder.addIRI(y, "http://example/2").build();
+        assertFalse(b2.contains(x));
+        assertEquals(NodeFactory.createURI("http://example/1"), b1.get(x));
+        assertEquals(NodeFactory.createURI("http://example/2"), b2.get(y));
+    }
+
+    private static final String JSON = """
+        { "head": { "vars": [ "x", "y", "z" ] },
+          "results": { "bindings": [
+            { "x": { "type": "uri", "value": "http://example/x" },
+              "y": { "value": "1", "datatype": "http://www.w3.org/2001/XMLSchema#integer", "type": "literal" },
+              "z": { "type": "bnode", "value": "b0" } },
+            { "x": { "type": "literal", "xml:lang": "en", "value": "abc" },
+              "z": { "type": "bnode", "value": "b0" } },
+            { "x": { "type": "triple",
+                     "value": { "subject":   { "type": "uri", "value": "http://example/s" },
+                                "predicate": { "type": "uri", "value": "http://example/p" },
+                                "object":    { "type": "literal", "value": "o" } } } }
+          ] }
+        }
+        """;
+
+    private static final String XML = """
+        <?xml version="1.0"?>
+        <sparql xmlns="http://www.w3.org/2005/sparql-results#">
+          <head> <variable name="x"/> <variable name="y"/> <variable name="z"/> </head>
+          <results>
+            <result>
+              <binding name="x"><uri>http://example/x</uri></binding>
+              <binding name="y"><literal datatype="http://www.w3.org/2001/XMLSchema#integer">1</literal></binding>
+              <binding name="z"><bnode>b0</bnode></binding>
+            </result>
+            <result>
+              <binding name="x"><literal xml:lang="en">abc</literal></binding>
+              <binding name="z"><bnode>b0</bnode></binding>
+            </result>
+            <result>
+              <binding name="x"><triple>
+                <subject><uri>http://example/s</uri></subject>
+                <predicate><uri>http://example/p</uri></predicate>
+                <object><literal>o</literal></object>
+              </triple></binding>
+            </result>
+          </results>
+        </sparql>
+        """;
+
+    @Test public void read_json() { read(JSON, ResultSetLang.RS_JSON); }
+
+    @Test public void read_xml() { read(XML, ResultSetLang.RS_XML); }
+
+    private static void read(String data, Lang lang) {
+        ByteArrayInputStream in = new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+        RowSet rowSet = RowSetReaderRegistry.getFactory(lang).create(lang).read(in, null);
+        List<Binding> rows = Iter.toList(rowSet);
+        assertEquals(List.of(x, y, z), rowSet.getResultVars());
+        assertEquals(3, rows.size());
+        Binding b1 = rows.get(0);
+        Binding b2 = rows.get(1);
+        Binding b3 = rows.get(2);
+        assertEquals(SSE.parseNode("<http://example/x>"), b1.get(x));
+        assertEquals(SSE.parseNode("1"), b1.get(y));
+        assertTrue(b1.get(z).isBlank());
+        assertEquals(b1.get(z), b2.get(z));
+        assertEquals(SSE.parseNode("'abc'@en"), b2.get(x));
+        assertFalse(b2.contains(y));
+        Node t = b3.get(x);
+        assertTrue(t.isNodeTriple());
+        assertEquals(SSE.parseNode("'o'"), t.getTriple().getObject());
+    }
+}
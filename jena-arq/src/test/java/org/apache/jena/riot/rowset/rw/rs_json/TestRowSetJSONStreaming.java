@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.rowset.rw.rs_json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.function.Function;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.rowset.rw.BindingLazy;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.resultset.ResultSetException;
+import org.apache.jena.sparql.sse.SSE;
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+
+public class TestRowSetJSONStreaming {
+
+    private static final Var x = Var.alloc("x");
+
+    /** Handler for the custom term type "num": the literal is "value" with datatype "dt". */
+    private static final Function<JsonObject, Node> numHandler = json ->
+        "num".equals(json.get("type").getAsString())
+            ? NodeFactory.createLiteral(json.get("value").getAsString(),
+                                          NodeFactory.getType(json.get("dt").getAsString()))
+            : null;
+
+    private static Binding parse(String json, Function<JsonObject, Node> handler) throws IOException {
+        JsonReader reader = new JsonReader(new StringReader(json.replace('\'', '"')));
+        return RowSetJSONStreaming.parseBinding(reader, LabelToNode.createScopeByDocumentHash(), new HashMap<>(),
+                                                BindingLazy.builder(), new RowSetJSONStreaming.TermParts(), handler);
+    }
+
+    @Test public void term_custom_members() throws IOException {
+        // The handler sees members other than type, value, xml:lang and datatype.
+        Binding b = parse("{ 'x': { 'type': 'num', 'value': '1', 'dt': 'http://www.w3.org/2001/XMLSchema#integer' } }", numHandler);
+        assertEquals(SSE.parseNode("1"), b.get(x));
+    }
+
+    @Test public void term_custom_in_triple() throws IOException {
+        String json = """
+            { 'x': { 'type': 'triple', 'value': {
+                       'subject':   { 'type': 'uri', 'value': 'http://example/s' },
+                       'predicate': { 'type': 'uri', 'value': 'http://example/p' },
+                       'object':    { 'type': 'num', 'value': '1', 'dt': 'http://www.w3.org/2001/XMLSchema#integer' } } } }
+            """;
+        Binding b = parse(json, numHandler);
+        assertEquals(SSE.parseNode("<< <http://example/s> <http://example/p> 1 >>"), b.get(x));
+    }
+
+    @Test public void term_custom_object_value() throws IOException {
+        // An object value is only a triple term for the triple types.
+        Function<JsonObject, Node> handler = json -> NodeFactory.createLiteralString(json.get("value").getAsJsonObject().get("a").getAsString());
+        Binding b = parse("{ 'x': { 'type': 'other', 'value': { 'a': 'abc' } } }", handler);
+        assertEquals(SSE.parseNode("'abc'"), b.get(x));
+    }
+
+    @Test public void term_custom_no_handler() {
+        assertThrows(ResultSetException.class, () -> parse("{ 'x': { 'type': 'num', 'value': '1' } }", null));
+    }
+
+    @Test public void term_bad_value() {
+        assertThrows(ResultSetException.class, () -> parse("{ 'x': { 'type': 'uri', 'value': { 'a': 'abc' } } }", null));
+    }
+}
@@ -48,6 +48,9 @@ import org.junit.runners.Suite.SuiteClasses;
     , TestIRIxRIOT.class
     , TestRiotLib.class
     , TestAsyncParser.class
+    , TestParallelParserNTuples.class
+    , TestParallelParserTurtle.class
+    , TestParallelParserRDFXML.class
 })
 
 public class TS_RiotSystem
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.system;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.RiotParseException;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.junit.Test;
+
+public class TestParallelParserNTuples {
+
+    private static String ntriples(int lines) {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0 ; i < lines ; i++ ) {
+            sb.append("<http://example/s").append(i).append("> <http://example/p> ");
+            switch ( i % 4 ) {
+                case 0: sb.append("_:b").append(i % 7); break;
+                case 1: sb.append("\"literal ").append(i).append("\"@en"); break;
+                case 2: sb.append("\"").append("x".repeat(i % 50)).append("\""); break;
+                default: sb.append("<http://example/o").append(i).append(">");
+            }
+            sb.append(" .\n");
+            if ( i % 10 == 0 )
+                sb.append("_:b").append(i % 7).append(" <http://example/q> \"").append(i).append("\" .\n");
+        }
+        return sb.toString();
+    }
+
+    private static InputStream stream(String string) {
+        return new ByteArrayInputStream(string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Graph parse(String data, int chunkSize, boolean ordered, List<Triple> acc) {
+        Graph graph = GraphFactory.createDefaultGraph();
+        StreamRDF dest = new StreamRDFBase() {
+            @Override public void triple(Triple triple) { graph.add(triple); acc.add(triple); }
+        };
+        ParallelParserNTuples.create().source(stream(data)).threads(4).chunkSize(chunkSize).ordered(ordered).parse(dest);
+        return graph;
+    }
+
+    @Test public void parallel_nt_empty() {
+        Graph graph = parse("", 100, true, new ArrayList<>());
+        assertTrue(graph.isEmpty());
+    }
+
+    @Test public void parallel_nt_ordered() {
+        String data = ntriples(1000);
+        Graph expected = RDFParser.fromString(data, Lang.NTRIPLES).toGraph();
+        List<Triple> acc = new ArrayList<>();
+        // Small chunks, smaller than some lines.
+        Graph graph = parse(data, 64, true, acc);
+        assertTrue(IsoMatcher.isomorphic(expected, graph));
+        // Input order is preserved.
+        List<Node> subjects = acc.stream().map(Triple::getSubject).filter(Node::isURI).toList();
+        for ( int i = 0 ; i < subjects.size() ; i++ )
+            assertEquals("http://example/s" + i, subjects.get(i).getURI());
+    }
+
+    @Test public void parallel_nt_unordered() {
+        String data = ntriples(2000);
+        Graph expected = RDFParser.fromString(data, Lang.NTRIPLES).toGraph();
+        Graph graph = parse(data, 1000, false, new ArrayList<>());
+        assertTrue(IsoMatcher.isomorphic(expected, graph));
+    }
+
+    @Test public void parallel_nt_bnodes_across_chunks() {
+        String data = "_:a <http://example/p> \"1\" .\n" + "<http://example/s> <http://example/p> \"2\" .\n" + "_:a <http://example/p> \"3\" .\n";
+        Graph graph = parse(data, 10, true, new ArrayList<>());
+        assertEquals(3, graph.size());
+        List<Node> bnodes = graph.find().filterKeep(t -> t.getSubject().isBlank()).mapWith(Triple::getSubject).toList();
+        assertEquals(2, bnodes.size());
+        assertEquals(bnodes.get(0), bnodes.get(1));
+    }
+
+    @Test public void parallel_nq_file() throws IOException {
+        String data = """
+            <http://example/s> <http://example/p> "1" .
+            <http://example/s> <http://example/p> "2" <http://example/g> .
+            _:b <http://example/p> _:b <http://example/g> .
+            """;
+        Path path = Files.createTempFile("parallel", ".nq");
+        try {
+            Files.writeString(path, data);
+            DatasetGraph dsg = DatasetGraphFactory.create();
+            ParallelParserNTuples.create().source(path).lang(Lang.NQUADS).chunkSize(20).parse(StreamRDFLib.dataset(dsg));
+            DatasetGraph expected = RDFParser.fromString(data, Lang.NQUADS).toDatasetGraph();
+            assertTrue(IsoMatcher.isomorphic(expected, dsg));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test public void parallel_nt_error_line() {
+        String data = ntriples(100) + "<http://example/s> <http://example/p> .\n" + ntriples(100);
+        long expectedLine = ntriples(100).lines().count() + 1;
+        ErrorHandler errorHandler = new ErrorHandler() {
+            @Override public void warning(String message, long line, long col) {}
+            @Override public void error(String message, long line, long col)   { throw new RiotParseException(message, line, col); }
+            @Override public void fatal(String message, long line, long col)   { throw new RiotParseException(message, line, col); }
+        };
+        RiotParseException ex = assertThrows(RiotParseException.class, () ->
+            ParallelParserNTuples.create().source(stream(data)).threads(4).chunkSize(200).errorHandler(errorHandler).parse(StreamRDFLib.sinkNull()));
+        assertEquals(expectedLine, ex.getLine());
+    }
+
+    @Test public void parallel_bad_lang() {
+        assertThrows(RiotException.class, () -> ParallelParserNTuples.create().lang(Lang.TURTLE));
+    }
+}
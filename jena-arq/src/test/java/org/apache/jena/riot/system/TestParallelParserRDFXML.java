@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.system;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.lang.rdfxml.RRX;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.junit.Test;
+
+public class TestParallelParserRDFXML {
+
+    private static String rdfxml(int i) {
+        return """
+            <rdf:RDF xmlns:rdf="http://www.w3.org/1999/02/22-rdf-syntax-ns#"
+                     xmlns:ex="http://example/">
+              <rdf:Description rdf:about="http://example/s%d">
+                <ex:p xml:lang="en">literal %d</ex:p>
+                <ex:q rdf:nodeID="b"/>
+                <ex:r rdf:resource="#frag"/>
+              </rdf:Description>
+              <rdf:Description rdf:nodeID="b">
+                <ex:p rdf:datatype="http://www.w3.org/2001/XMLSchema#integer">%d</ex:p>
+              </rdf:Description>
+            </rdf:RDF>
+            """.formatted(i, i, i);
+    }
+
+    private static String base(int i) {
+        return "http://example/doc" + i;
+    }
+
+    private static ParallelParserRDFXML parser(int documents) {
+        ParallelParserRDFXML parser = ParallelParserRDFXML.create().threads(4);
+        for ( int i = 0 ; i < documents ; i++ )
+            parser.source(base(i), source(rdfxml(i)));
+        return parser;
+    }
+
+    private static Supplier<InputStream> source(String data) {
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        return ()->new ByteArrayInputStream(bytes);
+    }
+
+    /** Parse one at a time. */
+    private static Graph expected(int documents) {
+        Graph graph = GraphFactory.createDefaultGraph();
+        for ( int i = 0 ; i < documents ; i++ )
+            RDFParser.fromString(rdfxml(i), Lang.RDFXML).base(base(i)).parse(graph);
+        return graph;
+    }
+
+    @Test public void parallel_rdfxml_empty() {
+        Graph graph = GraphFactory.createDefaultGraph();
+        ParallelParserRDFXML.create().parse(StreamRDFLib.graph(graph));
+        assertTrue(graph.isEmpty());
+    }
+
+    @Test public void parallel_rdfxml_ordered() {
+        List<Triple> acc = new ArrayList<>();
+        Graph graph = GraphFactory.createDefaultGraph();
+        StreamRDF dest = new StreamRDFBase() {
+            @Override public void triple(Triple triple) { graph.add(triple); acc.add(triple); }
+        };
+        parser(200).parse(dest);
+        assertTrue(IsoMatcher.isomorphic(expected(200), graph));
+        // Document order is preserved.
+        List<Node> subjects = acc.stream().map(Triple::getSubject).filter(Node::isURI).distinct().toList();
+        for ( int i = 0 ; i < subjects.size() ; i++ )
+            assertEquals("http://example/s" + i, subjects.get(i).getURI());
+    }
+
+    @Test public void parallel_rdfxml_unordered() {
+        Graph graph = GraphFactory.createDefaultGraph();
+        parser(50).ordered(false).parse(StreamRDFLib.graph(graph));
+        assertTrue(IsoMatcher.isomorphic(expected(50), graph));
+    }
+
+    @Test public void parallel_rdfxml_bnodes_per_document() {
+        Graph graph = GraphFactory.createDefaultGraph();
+        parser(50).parse(StreamRDFLib.graph(graph));
+        // The same label in different documents is a different blank node.
+        long bnodes = graph.find().mapWith(Triple::getSubject).filterKeep(Node::isBlank).toSet().size();
+        assertEquals(50, bnodes);
+    }
+
+    @Test public void parallel_rdfxml_parsers() {
+        Graph expected = expected(50);
+        for ( Lang lang : List.of(Lang.RDFXML, RRX.RDFXML_SAX, RRX.RDFXML_StAX_sr, RRX.RDFXML_StAX_ev) ) {
+            Graph graph = GraphFactory.createDefaultGraph();
+            parser(50).lang(lang).parse(StreamRDFLib.graph(graph));
+            assertTrue(lang.getName(), IsoMatcher.isomorphic(expected, graph));
+        }
+    }
+
+    @Test public void parallel_rdfxml_named_graphs() {
+        DatasetGraph dsg = DatasetGraphFactory.create();
+        parser(20).namedGraphs(true).parse(dsg);
+        assertTrue(dsg.getDefaultGraph().isEmpty());
+        for ( int i = 0 ; i < 20 ; i++ ) {
+            Graph graph = dsg.getGraph(NodeFactory.createURI(base(i)));
+            Graph expected = RDFParser.fromString(rdfxml(i), Lang.RDFXML).base(base(i)).toGraph();
+            assertTrue(IsoMatcher.isomorphic(expected, graph));
+        }
+    }
+
+    @Test public void parallel_rdfxml_files() throws IOException {
+        Path path1 = Files.createTempFile("parallel", ".rdf");
+        Path path2 = Files.createTempFile("parallel", ".rdf");
+        try {
+            Files.writeString(path1, rdfxml(1));
+            Files.writeString(path2, rdfxml(2));
+            DatasetGraph dsg = DatasetGraphFactory.create();
+            ParallelParserRDFXML.create().sources(List.of(path1, path2)).parse(dsg);
+            assertEquals(8, dsg.getDefaultGraph().size());
+        } finally {
+            Files.delete(path1);
+            Files.delete(path2);
+        }
+    }
+
+    private static final String badDocument = "<rdf:RDF xmlns:rdf='http://www.w3.org/1999/02/22-rdf-syntax-ns#'><unclosed></rdf:RDF>";
+
+    private static final ErrorHandler silent = new ErrorHandler() {
+        @Override public void warning(String message, long line, long col) {}
+        @Override public void error(String message, long line, long col)   { throw new RiotException(message); }
+        @Override public void fatal(String message, long line, long col)   { throw new RiotException(message); }
+    };
+
+    @Test public void parallel_rdfxml_error() {
+        ParallelParserRDFXML parser = parser(20).source("http://example/bad", source(badDocument)).errorHandler(silent);
+        RiotException ex = assertThrows(RiotException.class, ()->parser.parse(StreamRDFLib.sinkNull()));
+        assertTrue(ex.getMessage(), ex.getMessage().startsWith("http://example/bad: "));
+    }
+
+    @Test public void parallel_rdfxml_skip_bad() {
+        ParallelParserRDFXML parser = ParallelParserRDFXML.create().errorHandler(silent).skipBadDocuments(true);
+        for ( int i = 0 ; i < 20 ; i++ ) {
+            parser.source(base(i), source(rdfxml(i)));
+            parser.source("http://example/bad" + i, source(badDocument));
+        }
+        Graph graph = GraphFactory.createDefaultGraph();
+        parser.parse(StreamRDFLib.graph(graph));
+        assertTrue(IsoMatcher.isomorphic(expected(20), graph));
+    }
+
+    @Test public void parallel_bad_lang() {
+        assertThrows(RiotException.class, () -> ParallelParserRDFXML.create().lang(Lang.TURTLE));
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.system;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.RiotParseException;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.junit.Test;
+
+public class TestParallelParserTurtle {
+
+    private static final String PREFIXES = """
+        @prefix : <http://example/> .
+        PREFIX ex: <http://example/ns#>
+        """;
+
+    private static String turtle(int statements) {
+        StringBuilder sb = new StringBuilder(PREFIXES);
+        for ( int i = 0 ; i < statements ; i++ ) {
+            switch ( i % 6 ) {
+                case 0 -> sb.append(":s").append(i).append(" :p \"a. b\" ; :q 1.5, 2 .\n");
+                case 1 -> sb.append("_:b").append(i % 5).append(" ex:p [ :q \"\"\"long\n. string\"\"\" ; :n ").append(i).append(" ] .  # comment .\n");
+                case 2 -> sb.append(":s").append(i).append(" :p ( :a.b <http://example/x.y> ) .\n");
+                case 3 -> sb.append("<s").append(i).append("> :p 'x'@en.\n");
+                case 4 -> sb.append("@prefix p").append(i).append(": <http://example/p").append(i).append("/> .\n")
+                            .append("p").append(i).append(":s :p :o .\n");
+                default -> sb.append("BASE <http://example/base").append(i).append("/>\n")
+                             .append("<s> :p <o>, _:b").append(i % 5).append(" .\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Graph parse(String data, int chunkSize, boolean ordered) {
+        Graph graph = GraphFactory.createDefaultGraph();
+        ParallelParserTurtle.create()
+                .source(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)))
+                .base("http://example/base/")
+                .threads(4)
+                .chunkSize(chunkSize)
+                .ordered(ordered)
+                .parse(StreamRDFLib.graph(graph));
+        return graph;
+    }
+
+    private static Graph expected(String data) {
+        return RDFParser.fromString(data, Lang.TURTLE).base("http://example/base/").toGraph();
+    }
+
+    @Test public void parallel_ttl_empty() {
+        assertTrue(parse("", 100, true).isEmpty());
+        assertTrue(parse(PREFIXES, 100, true).isEmpty());
+    }
+
+    @Test public void parallel_ttl_small_chunks() {
+        String data = turtle(300);
+        Graph graph = parse(data, 64, true);
+        Graph expected = expected(data);
+        assertEquals(expected.size(), graph.size());
+        assertTrue(IsoMatcher.isomorphic(expected, graph));
+        // Prefixes are sent to the output.
+        assertEquals(expected.getPrefixMapping().getNsPrefixMap(), graph.getPrefixMapping().getNsPrefixMap());
+    }
+
+    @Test public void parallel_ttl_unordered() {
+        String data = turtle(1000);
+        Graph graph = parse(data, 1000, false);
+        assertTrue(IsoMatcher.isomorphic(expected(data), graph));
+    }
+
+    @Test public void parallel_ttl_one_chunk() {
+        String data = turtle(100);
+        Graph graph = parse(data, 1024 * 1024, true);
+        assertTrue(IsoMatcher.isomorphic(expected(data), graph));
+    }
+
+    @Test public void parallel_ttl_bnodes_across_chunks() {
+        String data = "_:a <http://example/p> 1 .\n" + "<http://example/s> <http://example/p> 2 .\n" + "_:a <http://example/p> 3 .\n";
+        Graph graph = parse(data, 10, true);
+        List<Node> bnodes = graph.find().filterKeep(t -> t.getSubject().isBlank()).mapWith(Triple::getSubject).toList();
+        assertEquals(2, bnodes.size());
+        assertEquals(bnodes.get(0), bnodes.get(1));
+    }
+
+    @Test public void parallel_trig() {
+        String data = """
+            PREFIX : <http://example/>
+            :s :p :o .
+            :g1 { :s :p "a. b" . :s :q [ :r 1 ] . }
+            GRAPH :g2 { :s :p :o . }
+            { :s :p :o2 . }
+            :g3 { :s :p :o {| :source :x |} . }
+            """;
+        DatasetGraph dsg = DatasetGraphFactory.create();
+        ParallelParserTurtle.create()
+                .source(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)))
+                .lang(Lang.TRIG)
+                .threads(3)
+                .chunkSize(16)
+                .parse(StreamRDFLib.dataset(dsg));
+        DatasetGraph expected = RDFParser.fromString(data, Lang.TRIG).toDatasetGraph();
+        assertTrue(IsoMatcher.isomorphic(expected, dsg));
+    }
+
+    @Test public void parallel_ttl_error_line() {
+        String data = turtle(100);
+        long expectedLine = data.lines().count() + 1;
+        String bad = data + ":s :p :o :x .\n" + turtle(20);
+        ErrorHandler errorHandler = new ErrorHandler() {
+            @Override public void warning(String message, long line, long col) {}
+            @Override public void error(String message, long line, long col)   { throw new RiotParseException(message, line, col); }
+            @Override public void fatal(String message, long line, long col)   { throw new RiotParseException(message, line, col); }
+        };
+        RiotParseException ex = assertThrows(RiotParseException.class, () ->
+            ParallelParserTurtle.create()
+                    .source(new ByteArrayInputStream(bad.getBytes(StandardCharsets.UTF_8)))
+                    .chunkSize(200)
+                    .errorHandler(errorHandler)
+                    .parse(StreamRDFLib.sinkNull()));
+        assertEquals(expectedLine, ex.getLine());
+    }
+
+    @Test public void parallel_bad_lang() {
+        assertThrows(RiotException.class, () -> ParallelParserTurtle.create().lang(Lang.RDFXML));
+    }
+
+    @Test public void parallel_rdfparser() {
+        String data = turtle(200);
+        Graph graph = RDFParser.fromString(data, Lang.TURTLE).base("http://example/base/").parallel(4).toGraph();
+        assertTrue(IsoMatcher.isomorphic(expected(data), graph));
+
+        String nt = "<http://example/s> <http://example/p> _:b .\n_:b <http://example/p> \"x\" .\n";
+        Graph graph2 = RDFParser.fromString(nt, Lang.NTRIPLES).parallel(2).toGraph();
+        assertTrue(IsoMatcher.isomorphic(RDFParser.fromString(nt, Lang.NTRIPLES).toGraph(), graph2));
+    }
+
+    // ---- Statement scanner
+
+    private static int scan(String string, boolean trig, List<int[]> directives) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        return ParallelParserTurtle.scan(bytes, bytes.length, false, trig, directives);
+    }
+
+    private static void testScan(String string, String expectedChunk) {
+        int end = scan(string, false, new ArrayList<>());
+        assertEquals(expectedChunk, string.substring(0, end));
+    }
+
+    @Test public void scan_01() { testScan(":s :p :o . :s :p", ":s :p :o ."); }
+    @Test public void scan_02() { testScan(":s :p \"a . b\" . :s", ":s :p \"a . b\" ."); }
+    @Test public void scan_03() { testScan(":s :p \"\"\"a .\n\" . \"\"\" . :s", ":s :p \"\"\"a .\n\" . \"\"\" ."); }
+    @Test public void scan_04() { testScan(":s :p <http://example/ . x> . :s", ":s :p <http://example/ . x> ."); }
+    @Test public void scan_05() { testScan(":s :p :o # comment . \n. :s", ":s :p :o # comment . \n."); }
+    @Test public void scan_06() { testScan(":s :p [ :q :o . ] . :s", ":s :p [ :q :o . ] ."); }
+    @Test public void scan_07() { testScan(":s :p 1.5 . :s :p :a.b", ":s :p 1.5 ."); }
+    @Test public void scan_08() { testScan(":s :p 'it''s' .\n:s :p :o", ":s :p 'it''s' ."); }
+    @Test public void scan_09() { testScan(":s :p \"a\\\". \" . :s", ":s :p \"a\\\". \" ."); }
+    @Test public void scan_10() { testScan(":s :p \"\"\"a\"\"\"\" . :s", ":s :p \"\"\"a\"\"\"\" ."); }
+    @Test public void scan_11() { testScan(":s :p \"unfinished . ", ""); }
+
+    @Test public void scan_directives() {
+        String string = "@prefix a: <http://example/a#> .\nPREFIX b: <http://example/b#>\nbase <http://example/>\n:s :p :o .\n@base <x> .\n:s";
+        List<int[]> directives = new ArrayList<>();
+        int end = scan(string, false, directives);
+        assertEquals(string.length() - 3, end);
+        assertEquals(4, directives.size());
+        assertEquals("@prefix a: <http://example/a#> .", string.substring(directives.get(0)[0], directives.get(0)[1]));
+        assertEquals("PREFIX b: <http://example/b#>", string.substring(directives.get(1)[0], directives.get(1)[1]));
+        assertEquals("base <http://example/>", string.substring(directives.get(2)[0], directives.get(2)[1]));
+        assertEquals("@base <x> .", string.substring(directives.get(3)[0], directives.get(3)[1]));
+    }
+
+    @Test public void scan_trig() {
+        String string = ":g { :s :p :o . } :g2 { :s :p :o";
+        int end = scan(string, true, new ArrayList<>());
+        assertEquals(":g { :s :p :o . }", string.substring(0, end));
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.tokens;
+
+import static org.apache.jena.riot.system.ErrorHandlerFactory.errorHandlerExceptions;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RiotParseException;
+import org.apache.jena.riot.lang.LangNTriples;
+import org.apache.jena.riot.system.RiotLib;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.junit.Test;
+
+public class TestTokenizerBytes {
+
+    private static Tokenizer tokenizerBytes(String string) {
+        return TokenizerText.create()
+                .source(new ByteArrayInputStream(string.getBytes(StandardCharsets.UTF_8)))
+                .byteMode(true)
+                .errorHandler(errorHandlerExceptions())
+                .build();
+    }
+
+    private static Tokenizer tokenizerText(String string) {
+        return TokenizerText.create()
+                .source(new ByteArrayInputStream(string.getBytes(StandardCharsets.UTF_8)))
+                .errorHandler(errorHandlerExceptions())
+                .build();
+    }
+
+    private static List<Token> tokens(Tokenizer tokenizer) {
+        List<Token> tokens = new ArrayList<>();
+        tokenizer.forEachRemaining(tokens::add);
+        return tokens;
+    }
+
+    /** Same tokens, including subtokens, lines and columns, as TokenizerText */
+    private static void sameAsText(String string) {
+        sameAsText(string, true);
+    }
+
+    private static void sameAsText(String string, boolean checkColumns) {
+        List<Token> expected = tokens(tokenizerText(string));
+        List<Token> actual = tokens(tokenizerBytes(string));
+        assertEquals(expected.size(), actual.size());
+        for ( int i = 0 ; i < expected.size() ; i++ )
+            sameToken(expected.get(i), actual.get(i), checkColumns);
+    }
+
+    private static void sameToken(Token expected, Token actual, boolean checkColumns) {
+        if ( expected == null ) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected, actual);
+        assertEquals(expected.getStringType(), actual.getStringType());
+        assertEquals(expected.getLine(), actual.getLine());
+        if ( checkColumns )
+            assertEquals(expected.getColumn(), actual.getColumn());
+        sameToken(expected.getSubToken1(), actual.getSubToken1(), checkColumns);
+        sameToken(expected.getSubToken2(), actual.getSubToken2(), checkColumns);
+    }
+
+    private static void bad(String string) {
+        assertThrows(RiotParseException.class, () -> tokens(tokenizerBytes(string)));
+    }
+
+    @Test public void tokenizer_bytes_01() { sameAsText(""); }
+    @Test public void tokenizer_bytes_02() { sameAsText("<http://example/s> <http://example/p> <http://example/o> ."); }
+    @Test public void tokenizer_bytes_03() { sameAsText("_:a <http://example/p> _:b.c <http://example/g> .\n"); }
+    // TokenizerText does not restore the column when it pushes back a trailing dot.
+    @Test public void tokenizer_bytes_04() { sameAsText("_:a.  _:a..b.", false); }
+    @Test public void tokenizer_bytes_05() { sameAsText("\"abc\" \"\" 'xyz' \"a\\tb\\u0041\\U0001F600\\\"\""); }
+    @Test public void tokenizer_bytes_06() { sameAsText("\"abc\"@en \"abc\"@en-GB-x1 \"abc\"^^<http://example/dt>"); }
+    @Test public void tokenizer_bytes_07() { sameAsText("\"abc\" ^^ <http://example/dt> ."); }
+    @Test public void tokenizer_bytes_08() { sameAsText("# Comment\n  \r\n\t<http://example/s> # Comment\n<http://example/p> ."); }
+    @Test public void tokenizer_bytes_09() { sameAsText("<< <http://example/s> <http://example/p> \"o\" >> <http://example/q> \"1\" ."); }
+    @Test public void tokenizer_bytes_10() { sameAsText("<http://example/é中> \"é中😀\" _:é中"); }
+    @Test public void tokenizer_bytes_11() { sameAsText("<http://example/\\u0041\\U00000042>"); }
+    // TokenizerText counts a byte order mark as a column.
+    @Test public void tokenizer_bytes_12() { sameAsText("\uFEFF<http://example/s>", false); }
+    @Test public void tokenizer_bytes_13() { sameAsText("_ _:x"); }
+
+    @Test public void tokenizer_bytes_bad_01() { bad("<http://example/s"); }
+    @Test public void tokenizer_bytes_bad_02() { bad("<http://example/s\n>"); }
+    @Test public void tokenizer_bytes_bad_03() { bad("\"abc"); }
+    @Test public void tokenizer_bytes_bad_04() { bad("\"abc\ndef\""); }
+    @Test public void tokenizer_bytes_bad_05() { bad("\"abc\"@"); }
+    @Test public void tokenizer_bytes_bad_06() { bad("\"abc\\q\""); }
+    @Test public void tokenizer_bytes_bad_07() { bad("\"\"\"abc\"\"\""); }
+    @Test public void tokenizer_bytes_bad_08() { bad("<http://example/\\n>"); }
+    @Test public void tokenizer_bytes_bad_09() { bad("<http://example/<>"); }
+    @Test public void tokenizer_bytes_bad_10() { bad("ex:local"); }
+    @Test public void tokenizer_bytes_bad_11() { bad("<http://example/s> <http://example/p> 123 ."); }
+
+    @Test public void tokenizer_bytes_bad_encoding() {
+        // Truncated two byte sequence, and an overlong encoding of '/'.
+        for ( byte[] bytes : new byte[][] { {'"', (byte)0xC3, '"'}, {'<', (byte)0xC0, (byte)0xAF, '>'} } ) {
+            Tokenizer tokenizer = TokenizerText.create().source(new ByteArrayInputStream(bytes)).byteMode(true)
+                    .errorHandler(errorHandlerExceptions()).build();
+            assertThrows(RiotParseException.class, () -> tokens(tokenizer));
+        }
+    }
+
+    @Test public void tokenizer_bytes_error_location() {
+        RiotParseException ex = assertThrows(RiotParseException.class,
+                                             () -> tokens(tokenizerBytes("<http://example/s> .\n  \"abc\\z\"")));
+        assertEquals(2, ex.getLine());
+    }
+
+    @Test public void tokenizer_bytes_iri_cache() {
+        List<Token> tokens = tokens(tokenizerBytes("<http://example/s> <http://example/p> <http://example/s> ."));
+        assertEquals(4, tokens.size());
+        // Same string object.
+        assertSame(tokens.get(0).getImage(), tokens.get(2).getImage());
+    }
+
+    @Test public void tokenizer_bytes_long_lines() {
+        // Longer than the initial buffer; many lines crossing buffer refills.
+        StringBuilder sb = new StringBuilder();
+        sb.append("<http://example/").append("x".repeat(300_000)).append("> \"").append("y".repeat(300_000)).append("\" .\n");
+        for ( int i = 0 ; i < 10_000 ; i++ )
+            sb.append("<http://example/s").append(i).append("> <http://example/p> \"").append(i).append("\"@en .\n");
+        sameAsText(sb.toString());
+    }
+
+    @Test public void tokenizer_bytes_parse() {
+        String data = """
+            <http://example/s> <http://example/p> "abc"@en .
+            <http://example/s> <http://example/p> "1"^^<http://www.w3.org/2001/XMLSchema#integer> .
+            _:b <http://example/p> <http://example/s> . # Comment
+            _:b <http://example/p> "\\u00E9\\n" .
+            """;
+        Graph graph = GraphFactory.createDefaultGraph();
+        new LangNTriples(tokenizerBytes(data), RiotLib.dftProfile(), StreamRDFLib.graph(graph)).parse();
+        Graph expected = RDFParser.fromString(data, Lang.NTRIPLES).toGraph();
+        assertEquals(4, graph.size());
+        assertTrue(IsoMatcher.isomorphic(expected, graph));
+    }
+}
@@ -30,7 +30,9 @@ import org.junit.runners.Suite.SuiteClasses ;
     , TestRiotWriterDataset.class
     , TestRDFJSON.class
     , TestTurtleWriter.class
+    , TestTurtleWriterChunked.class
     , TestTriXWriter.class
+    , TestJsonLD11WriterStreaming.class
     , TestRDFXML_WriterProperties.class
 })
 
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.TextDirection;
+import org.apache.jena.riot.*;
+import org.apache.jena.riot.system.PrefixMap;
+import org.apache.jena.riot.system.PrefixMapFactory;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.util.Context;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.junit.Test;
+
+public class TestJsonLD11WriterStreaming {
+
+    private static final String PREFIXES = "PREFIX : <http://example/>\nPREFIX ex: <http://example/ns#>\nPREFIX xsd: <http://www.w3.org/2001/XMLSchema#>\n";
+
+    private static final String DATA = PREFIXES + """
+        :s a ex:T ; :p 1, "abc", "abc"@en ; :q [ :r :o ] .
+        :s ex:date "2026-01-01"^^xsd:date .
+        _:b :p _:b .
+        """;
+
+    private static String roundTrip(String data, RDFFormat format) {
+        Graph graph = RDFParser.fromString(data, Lang.TURTLE).toGraph();
+        String output = RDFWriter.source(graph).format(format).asString();
+        Graph graph2 = RDFParser.fromString(output, Lang.JSONLD11).toGraph();
+        assertTrue(output, IsoMatcher.isomorphic(graph, graph2));
+        return output;
+    }
+
+    private static String roundTripDataset(String data, RDFFormat format) {
+        DatasetGraph dsg = RDFParser.fromString(data, Lang.TRIG).toDatasetGraph();
+        String output = RDFWriter.source(dsg).format(format).asString();
+        DatasetGraph dsg2 = RDFParser.fromString(output, Lang.JSONLD11).toDatasetGraph();
+        assertTrue(output, IsoMatcher.isomorphic(dsg, dsg2));
+        return output;
+    }
+
+    @Test public void streaming_graph() {
+        String output = roundTrip(DATA, RDFFormat.JSONLD11_STREAMING);
+        assertTrue(output, output.contains("\"@context\""));
+        assertTrue(output, output.contains("\"@type\": \"ex:T\""));
+        assertTrue(output, output.contains("\"@vocab\": \"http://example/\""));
+        assertTrue(output, output.contains("\"q\""));
+    }
+
+    @Test public void streaming_direction() {
+        Graph graph = GraphFactory.createDefaultGraph();
+        graph.add(NodeFactory.createURI("http://example/s"), NodeFactory.createURI("http://example/p"),
+                  NodeFactory.createLiteralDirLang("abc", "ar", TextDirection.RTL));
+        String output = RDFWriter.source(graph).format(RDFFormat.JSONLD11_STREAMING).asString();
+        // The JSON-LD reader does not produce RDF for @direction, so check the output only.
+        assertTrue(output, output.contains("\"@direction\": \"rtl\""));
+    }
+
+    @Test public void streaming_graph_flat() {
+        String output = roundTrip(DATA, RDFFormat.JSONLD11_STREAMING_FLAT);
+        assertFalse(output, output.contains("\"@context\""));
+        assertFalse(output, output.contains("\n"));
+        assertTrue(output, output.contains("\"http://example/p\""));
+    }
+
+    @Test public void streaming_empty() {
+        roundTrip("", RDFFormat.JSONLD11_STREAMING);
+        roundTrip("", RDFFormat.JSONLD11_STREAMING_FLAT);
+    }
+
+    @Test public void streaming_subject_grouped() {
+        String output = roundTrip(PREFIXES + ":s :p 1 . :x :p 2 . :s :q 3 . :x :q 4 .", RDFFormat.JSONLD11_STREAMING_FLAT);
+        assertEquals(output, 2, output.split("\"@id\":\"http://example/s\"", -1).length);
+    }
+
+    @Test public void streaming_dataset() {
+        String data = PREFIXES + """
+            :s :p 1 .
+            :g1 { :s :p [ :q 1 ] . _:b :p "x"@en . }
+            _:g2 { :s :p :o . }
+            """;
+        String output = roundTripDataset(data, RDFFormat.JSONLD11_STREAMING);
+        assertTrue(output, output.contains("\"@id\": \"http://example/g1\""));
+        roundTripDataset(data, RDFFormat.JSONLD11_STREAMING_FLAT);
+    }
+
+    @Test public void streaming_iri_not_compacted() {
+        // Local part starting "//" would be read as an absolute IRI.
+        roundTrip("PREFIX x: <http:> <http://example/s> <http://example/p> <http://example/o> .", RDFFormat.JSONLD11_STREAMING);
+        // Prefix without a gen-delim ending is not in the context.
+        String output = roundTrip("PREFIX e: <http://example/e> e:s e:p e:o .", RDFFormat.JSONLD11_STREAMING);
+        assertFalse(output, output.contains("\"e\""));
+    }
+
+    @Test public void streaming_supplied_context() {
+        Graph graph = RDFParser.fromString(DATA, Lang.TURTLE).toGraph();
+        PrefixMap pmap = PrefixMapFactory.create();
+        pmap.add("z", "http://example/ns#");
+        Context cxt = RIOT.getContext().copy().set(JsonLD11WriterStreaming.JSONLD_CONTEXT, pmap);
+        String output = RDFWriter.source(graph).format(RDFFormat.JSONLD11_STREAMING).context(cxt).asString();
+        assertTrue(output, output.contains("\"z\": \"http://example/ns#\""));
+        assertFalse(output, output.contains("\"@vocab\""));
+        Graph graph2 = RDFParser.fromString(output, Lang.JSONLD11).toGraph();
+        assertTrue(output, IsoMatcher.isomorphic(graph, graph2));
+    }
+
+    @Test public void streaming_stream_writer() {
+        Graph graph = RDFParser.fromString(DATA, Lang.TURTLE).toGraph();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamRDF stream = StreamRDFWriter.getWriterStream(out, Lang.JSONLD11);
+        stream.start();
+        stream.prefix("", "http://example/");
+        graph.find().forEachRemaining(stream::triple);
+        stream.finish();
+        String output = out.toString(StandardCharsets.UTF_8);
+        Graph graph2 = RDFParser.fromString(output, Lang.JSONLD11).toGraph();
+        assertTrue(output, IsoMatcher.isomorphic(graph, graph2));
+    }
+}
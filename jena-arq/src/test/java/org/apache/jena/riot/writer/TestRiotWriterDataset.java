@@ -46,9 +46,12 @@ public class TestRiotWriterDataset extends AbstractWriterTest
             , { RDFFormat.TRIG_PRETTY }
             , { RDFFormat.TRIG_BLOCKS }
             , { RDFFormat.TRIG_FLAT }
+            , { RDFFormat.TRIG_CHUNKED }
             , { RDFFormat.JSONLD }
             , { RDFFormat.JSONLD_PRETTY }
             , { RDFFormat.JSONLD_FLAT }
+            , { RDFFormat.JSONLD11_STREAMING }
+            , { RDFFormat.JSONLD11_STREAMING_FLAT }
             , { RDFFormat.NQUADS}
             , { RDFFormat.NQUADS_UTF8}
             , { RDFFormat.NQUADS_ASCII}
@@ -52,6 +52,7 @@ public class TestRiotWriterGraph extends AbstractWriterTest
             , { RDFFormat.TURTLE_BLOCKS }
             , { RDFFormat.TURTLE_FLAT }
             , { RDFFormat.TURTLE_LONG }
+            , { RDFFormat.TURTLE_CHUNKED }
             , { RDFFormat.RDFXML }
             , { RDFFormat.RDFXML_PRETTY }
             , { RDFFormat.RDFXML_PLAIN }
@@ -63,6 +64,8 @@ public class TestRiotWriterGraph extends AbstractWriterTest
             , { RDFFormat.JSONLD11 }
             , { RDFFormat.JSONLD11_PRETTY }
             , { RDFFormat.JSONLD11_FLAT }
+            , { RDFFormat.JSONLD11_STREAMING }
+            , { RDFFormat.JSONLD11_STREAMING_FLAT }
 
             , { RDFFormat.RDFJSON }
 
@@ -71,6 +74,7 @@ public class TestRiotWriterGraph extends AbstractWriterTest
             , { RDFFormat.TRIG_BLOCKS }
             , { RDFFormat.TRIG_FLAT }
             , { RDFFormat.TRIG_LONG }
+            , { RDFFormat.TRIG_CHUNKED }
             , { RDFFormat.NQUADS_UTF8}
             , { RDFFormat.NQUADS_ASCII}
             , { RDFFormat.NQUADS}
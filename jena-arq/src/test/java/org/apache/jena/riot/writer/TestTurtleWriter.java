@@ -89,6 +89,9 @@ public class TestTurtleWriter {
     @Test
     public void bnode_cycle1_15() { blankNodeLang(cycle1, RDFFormat.TURTLE_LONG) ; }
 
+    @Test
+    public void bnode_cycle1_16() { blankNodeLang(cycle1, RDFFormat.TURTLE_CHUNKED) ; }
+
 
     @Test
     public void bnode_cycles2_1() { blankNodeLang(cycle2, RDFFormat.TURTLE) ; }
@@ -105,6 +108,9 @@ public class TestTurtleWriter {
     @Test
     public void bnode_cycle2_5() { blankNodeLang(cycle2, RDFFormat.TURTLE_LONG) ; }
 
+    @Test
+    public void bnode_cycle2_6() { blankNodeLang(cycle2, RDFFormat.TURTLE_CHUNKED) ; }
+
     @Test
     public void bnode_cycles() {
         Model m = RDFDataMgr.loadModel("testing/DAWG-Final/construct/data-ident.ttl");
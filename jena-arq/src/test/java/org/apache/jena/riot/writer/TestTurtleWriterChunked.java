@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.WrappedGraph;
+import org.apache.jena.riot.*;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.util.Context;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.apache.jena.sparql.util.NodeCmp;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
+import org.junit.Test;
+
+public class TestTurtleWriterChunked {
+
+    private static final String PREFIXES = "PREFIX : <http://example/>\n";
+
+    private static Context context(int chunkSize, int threads) {
+        return RIOT.getContext().copy()
+                .set(RIOT.symTurtleChunkSize, chunkSize)
+                .set(RIOT.symTurtleWriterThreads, threads);
+    }
+
+    private static String write(Graph graph, Context context) {
+        return RDFWriter.source(graph).format(RDFFormat.TURTLE_CHUNKED).context(context).asString();
+    }
+
+    private static String roundTrip(String data, int chunkSize, int threads) {
+        Graph graph = RDFParser.fromString(PREFIXES + data, Lang.TURTLE).toGraph();
+        String output = write(graph, context(chunkSize, threads));
+        Graph graph2 = RDFParser.fromString(output, Lang.TURTLE).toGraph();
+        assertEquals(graph.size(), graph2.size());
+        assertTrue(output, IsoMatcher.isomorphic(graph, graph2));
+        return output;
+    }
+
+    @Test public void chunked_empty() {
+        String output = roundTrip("", 10, 1);
+        assertEquals("PREFIX : <http://example/>\n", output);
+    }
+
+    @Test public void chunked_nested() {
+        String output = roundTrip(":s :p [ :q 1 ; :r [ :q 2 ] ] .", 10, 1);
+        assertTrue(output, output.contains("[ :q"));
+        assertFalse(output, output.contains("_:"));
+    }
+
+    @Test public void chunked_list() {
+        String output = roundTrip(":s :p ( 1 [ :q 2 ] ( 3 ) ) .", 10, 1);
+        assertTrue(output, output.contains("( 1 [ :q"));
+        assertTrue(output, output.contains("( 3 ) )"));
+    }
+
+    @Test public void chunked_shared_bnode() {
+        // Used twice: written with a label.
+        String output = roundTrip(":s1 :p _:b . :s2 :p _:b . _:b :q 1 .", 1, 2);
+        assertTrue(output, output.contains("_:"));
+    }
+
+    @Test public void chunked_anon_subject() {
+        String output = roundTrip("[] :p 1 ; :q [ :r 2 ] .", 10, 1);
+        assertTrue(output, output.startsWith(PREFIXES + "\n[]"));
+    }
+
+    @Test public void chunked_cycle() {
+        roundTrip("_:a :p _:b . _:b :p _:a .", 1, 2);
+        roundTrip("_:a :p _:b . _:b :p _:c . _:c :p _:a . _:c :q [ :r 1 ] .", 1, 2);
+    }
+
+    @Test public void chunked_triple_terms() {
+        roundTrip(":s :p << :a :q _:b >> . :s :p2 _:b . :x :p [ :q << :a :b :c >> ] .", 1, 2);
+    }
+
+    @Test public void chunked_many_subjects() {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0 ; i < 500 ; i++ ) {
+            sb.append(":s").append(i).append(" a :T ; :p ").append(i).append(", \"x\" ; :q [ :r :s").append(i + 1).append(" ] .\n");
+            if ( i % 7 == 0 )
+                sb.append(":s").append(i).append(" :list ( :a _:shared :b ) .\n");
+        }
+        sb.append("_:shared :p 1 .\n");
+        roundTrip(sb.toString(), 16, 4);
+    }
+
+    @Test public void chunked_subjects_not_grouped() {
+        // find() returns the triples of a subject apart: each subject is still written once.
+        Graph base = RDFParser.fromString(PREFIXES + ":a :p 1 . :b :p 2 . :a :p 3 . :b :p 4 .", Lang.TURTLE).toGraph();
+        Graph graph = new WrappedGraph(base) {
+            @Override
+            public ExtendedIterator<Triple> find() {
+                List<Triple> triples = base.find().toList();
+                triples.sort((t1, t2) -> NodeCmp.compareRDFTerms(t1.getObject(), t2.getObject()));
+                return WrappedIterator.create(triples.iterator());
+            }
+        };
+        String output = write(graph, context(1, 2));
+        assertEquals(output, 1, output.split("\n:a ", -1).length - 1);
+        assertEquals(output, 1, output.split("\n:b ", -1).length - 1);
+        Graph graph2 = RDFParser.fromString(output, Lang.TURTLE).toGraph();
+        assertTrue(output, IsoMatcher.isomorphic(base, graph2));
+    }
+
+    @Test public void chunked_sorted_in_chunk() {
+        String output = roundTrip(":c :p 1 . :a :p 1 . :b :p 1 .", 10, 1);
+        int a = output.indexOf(":a ");
+        int b = output.indexOf(":b ");
+        int c = output.indexOf(":c ");
+        assertTrue(output, a < b && b < c);
+    }
+
+    @Test public void chunked_trig() {
+        String data = PREFIXES + """
+            :s :p [ :q 1 ] .
+            :g1 { :s :p [ :q 1 ] . :s :p ( 1 2 ) . _:b :p 1 . }
+            :g2 { :s :p _:b . :s :q [] . }
+            """;
+        DatasetGraph dsg = RDFParser.fromString(data, Lang.TRIG).toDatasetGraph();
+        String output = RDFWriter.source(dsg).format(RDFFormat.TRIG_CHUNKED).context(context(1, 2)).asString();
+        DatasetGraph dsg2 = RDFParser.fromString(output, Lang.TRIG).toDatasetGraph();
+        assertTrue(output, IsoMatcher.isomorphic(dsg, dsg2));
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.apache.jena.sparql.core;
 
+import org.apache.jena.sparql.core.roaring.TestRoaringQuadStore;
 import org.junit.runner.RunWith ;
 import org.junit.runners.Suite ;
 
@@ -31,6 +32,8 @@ import org.junit.runners.Suite ;
     , TestDatasetGraphsRegular.class
     , TestDatasetGraphLink.class
     , TestDatasetGraphMap.class
+    , TestDatasetGraphRoaring.class
+    , TestRoaringQuadStore.class
     , TestDatasetGraphCopyAdd.class
     , TestDatasetGraphViewGraphs.class
     , TestGraphView.class
@@ -39,6 +42,8 @@ import org.junit.runners.Suite ;
     , TestDatasetGraphBaseFind_Mem.class
     , TestDatasetGraphBaseFindPattern_General.class
     , TestDatasetGraphBaseFindPattern_Mem.class
+    , TestDatasetGraphBaseFind_Roaring.class
+    , TestDatasetGraphBaseFindPattern_Roaring.class
     , TestSpecialGraphNames.class
 
     , TestDatasetGraphFilteredView.class
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.sparql.core.roaring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.sse.SSE;
+import org.junit.Test;
+
+public class TestRoaringQuadStore {
+
+    private static Quad q1 = SSE.parseQuad("(:g1 :s :p :o1)");
+    private static Quad q2 = SSE.parseQuad("(:g2 :s :p :o2)");
+    private static Quad q3 = SSE.parseQuad("(:g2 :s :q :o1)");
+    private static Quad qDft = Quad.create(Quad.defaultGraphIRI, SSE.parseTriple("(:s :p :o1)"));
+
+    private static RoaringQuadStore store() {
+        RoaringQuadStore store = new RoaringQuadStore();
+        store.add(q1);
+        store.add(q2);
+        store.add(q3);
+        store.add(qDft);
+        return store;
+    }
+
+    @Test public void quadStore_add_remove() {
+        RoaringQuadStore store = new RoaringQuadStore();
+        assertTrue(store.add(q1));
+        assertFalse(store.add(q1));
+        assertEquals(1, store.countQuads());
+        assertTrue(store.remove(q1));
+        assertFalse(store.remove(q1));
+        assertTrue(store.isEmpty());
+        assertFalse(store.containsGraph(q1.getGraph()));
+    }
+
+    @Test public void quadStore_graphs() {
+        RoaringQuadStore store = store();
+        assertEquals(3, store.countGraphs());
+        assertEquals(2, store.countQuads(q2.getGraph()));
+        List<Node> named = Iter.toList(store.listGraphNodes(Quad.defaultGraphIRI));
+        assertEquals(2, named.size());
+        assertFalse(named.contains(Quad.defaultGraphIRI));
+    }
+
+    @Test public void quadStore_find_gsp() {
+        RoaringQuadStore store = store();
+        List<Quad> x = Iter.toList(store.find(q2.getGraph(), q2.getSubject(), q2.getPredicate(), Node.ANY));
+        assertEquals(List.of(q2), x);
+        assertTrue(store.contains(Node.ANY, Node.ANY, q3.getPredicate(), q3.getObject()));
+        assertFalse(store.contains(q1.getGraph(), Node.ANY, q3.getPredicate(), Node.ANY));
+    }
+
+    @Test public void quadStore_find_excluding() {
+        RoaringQuadStore store = store();
+        assertEquals(3, Iter.count(store.findExcludingGraph(Quad.defaultGraphIRI, Node.ANY, Node.ANY, Node.ANY)));
+        List<Quad> x = Iter.toList(store.findExcludingGraph(Quad.defaultGraphIRI, q1.getSubject(), q1.getPredicate(), q1.getObject()));
+        assertEquals(List.of(q1), x);
+        assertEquals(4, Iter.count(store.findExcludingGraph(SSE.parseNode(":gx"), Node.ANY, Node.ANY, Node.ANY)));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.lang.rdfxml;
+
+import org.apache.jena.mem2.helper.JMHDefaultOptions;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.lang.StreamRDFCounting;
+import org.apache.jena.riot.system.ParallelParserRDFXML;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sys.JenaSystem;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parsing many small RDF/XML documents: one {@link RDFParser} per document,
+ * compared with {@link ParallelParserRDFXML} on one thread and on several threads.
+ * Run with the GC profiler for the allocation per operation.
+ */
+@State(Scope.Benchmark)
+public class TestParserRDFXMLBatch {
+
+    @Param({
+            "SAX",
+            "StAX-SR",
+            "StAX-EV",
+    })
+    public String param0_Parser;
+
+    @Param({
+            "RDFParser",
+            "ParallelParserRDFXML-1",
+            "ParallelParserRDFXML-4",
+    })
+    public String param1_Method;
+
+    @Param({
+            "10000",
+    })
+    public int param2_Documents;
+
+    private Lang lang;
+    private byte[][] documents;
+
+    @Benchmark
+    public long parse() {
+        StreamRDFCounting counter = StreamRDFLib.count();
+        switch (param1_Method) {
+            case "RDFParser":
+                for ( int i = 0 ; i < documents.length ; i++ )
+                    RDFParser.source(new ByteArrayInputStream(documents[i])).base(base(i)).lang(lang).parse(counter);
+                break;
+            case "ParallelParserRDFXML-1":
+                batch(1).parse(counter);
+                break;
+            case "ParallelParserRDFXML-4":
+                batch(4).parse(counter);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown method: " + param1_Method);
+        }
+        return counter.countTriples();
+    }
+
+    private ParallelParserRDFXML batch(int threads) {
+        ParallelParserRDFXML parser = ParallelParserRDFXML.create().lang(lang).threads(threads);
+        for ( int i = 0 ; i < documents.length ; i++ ) {
+            byte[] bytes = documents[i];
+            parser.source(base(i), () -> new ByteArrayInputStream(bytes));
+        }
+        return parser;
+    }
+
+    private static String base(int i) {
+        return "http://example/doc/" + i;
+    }
+
+    /** Documents of about 20 triples, with a mix of resources, literals and blank nodes. */
+    private static String document(int i) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<rdf:RDF xmlns:rdf='http://www.w3.org/1999/02/22-rdf-syntax-ns#'\n")
+          .append("         xmlns:ex='http://example/vocab#'>\n");
+        for ( int j = 0 ; j < 4 ; j++ ) {
+            sb.append("  <ex:Thing rdf:about='#item").append(j).append("'>\n")
+              .append("    <ex:label xml:lang='en'>Item ").append(i).append('-').append(j).append("</ex:label>\n")
+              .append("    <ex:count rdf:datatype='http://www.w3.org/2001/XMLSchema#integer'>").append(j).append("</ex:count>\n")
+              .append("    <ex:related rdf:resource='http://example/doc/").append((i + j) % 100).append("#item0'/>\n")
+              .append("    <ex:part rdf:parseType='Resource'><ex:name>part ").append(j).append("</ex:name></ex:part>\n")
+              .append("  </ex:Thing>\n");
+        }
+        sb.append("</rdf:RDF>\n");
+        return sb.toString();
+    }
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        JenaSystem.init();
+        switch (param0_Parser) {
+            case "SAX":     lang = RRX.RDFXML_SAX;     break;
+            case "StAX-SR": lang = RRX.RDFXML_StAX_sr; break;
+            case "StAX-EV": lang = RRX.RDFXML_StAX_ev; break;
+            default:
+                throw new IllegalArgumentException("Unknown parser: " + param0_Parser);
+        }
+        documents = new byte[param2_Documents][];
+        for ( int i = 0 ; i < documents.length ; i++ )
+            documents[i] = document(i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void benchmark() throws Exception {
+        var opt = JMHDefaultOptions.getDefaults(this.getClass())
+                .addProfiler(GCProfiler.class)
+                .build();
+        var results = new Runner(opt).run();
+        Assert.assertNotNull(results);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.rowset.rw;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.mem2.helper.JMHDefaultOptions;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.resultset.ResultSetLang;
+import org.apache.jena.riot.rowset.RowSetWriter;
+import org.apache.jena.riot.rowset.RowSetWriterFactory;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.exec.RowSet;
+import org.apache.jena.sparql.exec.RowSetStream;
+import org.apache.jena.sparql.util.Context;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compare the result set writers, which encode directly to UTF-8 bytes,
+ * with the writers of Jena 4.8.0, which go through character writers.
+ */
+@State(Scope.Benchmark)
+public class TestRowSetWriters {
+
+    @Param({
+            "JSON",
+            "XML",
+            "CSV",
+            "TSV",
+    })
+    public String param0_Format;
+
+    @Param({
+            "current",
+            "Jena 4.8.0",
+    })
+    public String param1_Writer;
+
+    @Param({
+            "100000",
+    })
+    public int param2_Rows;
+
+    private static final Var varS = Var.alloc("s");
+    private static final Var varP = Var.alloc("p");
+    private static final Var varO = Var.alloc("o");
+    private static final List<Var> vars = List.of(varS, varP, varO);
+
+    private static final org.apache.shadedJena480.sparql.core.Var varS480 = org.apache.shadedJena480.sparql.core.Var.alloc("s");
+    private static final org.apache.shadedJena480.sparql.core.Var varP480 = org.apache.shadedJena480.sparql.core.Var.alloc("p");
+    private static final org.apache.shadedJena480.sparql.core.Var varO480 = org.apache.shadedJena480.sparql.core.Var.alloc("o");
+    private static final List<org.apache.shadedJena480.sparql.core.Var> vars480 = List.of(varS480, varP480, varO480);
+
+    private Supplier<Integer> write;
+    private List<Binding> rowsCurrent;
+    private RowSetWriter writerCurrent;
+    private List<org.apache.shadedJena480.sparql.engine.binding.Binding> rows480;
+    private org.apache.shadedJena480.riot.rowset.RowSetWriter writer480;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024 * 1024);
+
+    @Benchmark
+    public int write() {
+        return write.get();
+    }
+
+    private int writeCurrent() {
+        out.reset();
+        RowSet rowSet = RowSetStream.create(vars, rowsCurrent.iterator());
+        writerCurrent.write(out, rowSet, Context.emptyContext());
+        return out.size();
+    }
+
+    private int write480() {
+        out.reset();
+        var rowSet = org.apache.shadedJena480.sparql.exec.RowSetStream.create(vars480, rows480.iterator());
+        writer480.write(out, rowSet, org.apache.shadedJena480.sparql.util.Context.emptyContext());
+        return out.size();
+    }
+
+    private RowSetWriter writerCurrent() {
+        RowSetWriterFactory factory;
+        Lang lang;
+        switch (param0_Format) {
+            case "JSON": factory = RowSetWriterJSON.factory; lang = ResultSetLang.RS_JSON; break;
+            case "XML":  factory = RowSetWriterXML.factory;  lang = ResultSetLang.RS_XML;  break;
+            case "CSV":  factory = RowSetWriterCSV.factory;  lang = ResultSetLang.RS_CSV;  break;
+            case "TSV":  factory = RowSetWriterTSV.factory;  lang = ResultSetLang.RS_TSV;  break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + param0_Format);
+        }
+        return factory.create(lang);
+    }
+
+    private org.apache.shadedJena480.riot.rowset.RowSetWriter writer480() {
+        org.apache.shadedJena480.riot.rowset.RowSetWriterFactory factory;
+        org.apache.shadedJena480.riot.Lang lang;
+        switch (param0_Format) {
+            case "JSON":
+                factory = org.apache.shadedJena480.riot.rowset.rw.RowSetWriterJSON.factory;
+                lang = org.apache.shadedJena480.riot.resultset.ResultSetLang.RS_JSON;
+                break;
+            case "XML":
+                factory = org.apache.shadedJena480.riot.rowset.rw.RowSetWriterXML.factory;
+                lang = org.apache.shadedJena480.riot.resultset.ResultSetLang.RS_XML;
+                break;
+            case "CSV":
+                factory = org.apache.shadedJena480.riot.rowset.rw.RowSetWriterCSV.factory;
+                lang = org.apache.shadedJena480.riot.resultset.ResultSetLang.RS_CSV;
+                break;
+            case "TSV":
+                factory = org.apache.shadedJena480.riot.rowset.rw.RowSetWriterTSV.factory;
+                lang = org.apache.shadedJena480.riot.resultset.ResultSetLang.RS_TSV;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + param0_Format);
+        }
+        return factory.create(lang);
+    }
+
+    /**
+     * Rows shaped like a typical query result: a few thousand subjects,
+     * a small set of predicates, and objects that are a mix of IRIs,
+     * plain, language-tagged and typed literals.
+     */
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        switch (param1_Writer) {
+            case "current": {
+                this.writerCurrent = writerCurrent();
+                this.write = this::writeCurrent;
+                Node[] predicates = new Node[20];
+                for ( int i = 0 ; i < predicates.length ; i++ )
+                    predicates[i] = NodeFactory.createURI(predicate(i));
+                rowsCurrent = new ArrayList<>(param2_Rows);
+                for ( int i = 0 ; i < param2_Rows ; i++ ) {
+                    Node s = NodeFactory.createURI(subject(i));
+                    Node p = predicates[i % predicates.length];
+                    Node o;
+                    switch (i % 4) {
+                        case 0: o = NodeFactory.createURI(objectIRI(i)); break;
+                        case 1: o = NodeFactory.createLiteralString(objectString(i)); break;
+                        case 2: o = NodeFactory.createLiteralLang(objectLangString(i), "fr"); break;
+                        default: o = NodeFactory.createLiteral(Integer.toString(i), XSDDatatype.XSDinteger);
+                    }
+                    rowsCurrent.add(BindingFactory.binding(varS, s, varP, p, varO, o));
+                }
+            }
+            break;
+            case "Jena 4.8.0": {
+                this.writer480 = writer480();
+                this.write = this::write480;
+                var predicates = new org.apache.shadedJena480.graph.Node[20];
+                for ( int i = 0 ; i < predicates.length ; i++ )
+                    predicates[i] = org.apache.shadedJena480.graph.NodeFactory.createURI(predicate(i));
+                rows480 = new ArrayList<>(param2_Rows);
+                for ( int i = 0 ; i < param2_Rows ; i++ ) {
+                    var s = org.apache.shadedJena480.graph.NodeFactory.createURI(subject(i));
+                    var p = predicates[i % predicates.length];
+                    org.apache.shadedJena480.graph.Node o;
+                    switch (i % 4) {
+                        case 0: o = org.apache.shadedJena480.graph.NodeFactory.createURI(objectIRI(i)); break;
+                        case 1: o = org.apache.shadedJena480.graph.NodeFactory.createLiteral(objectString(i)); break;
+                        case 2: o = org.apache.shadedJena480.graph.NodeFactory.createLiteral(objectLangString(i), "fr"); break;
+                        default: o = org.apache.shadedJena480.graph.NodeFactory.createLiteral(Integer.toString(i),
+                                        org.apache.shadedJena480.datatypes.xsd.XSDDatatype.XSDinteger);
+                    }
+                    rows480.add(org.apache.shadedJena480.sparql.engine.binding.BindingFactory.binding(varS480, s, varP480, p, varO480, o));
+                }
+            }
+            break;
+            default:
+                throw new IllegalArgumentException("Unknown writer: " + param1_Writer);
+        }
+    }
+
+    private static String predicate(int i) {
+        return "http://example.org/vocab#property" + i;
+    }
+
+    private static String subject(int i) {
+        return "http://example.org/data/resource/" + (i / 10);
+    }
+
+    private static String objectIRI(int i) {
+        return "http://example.org/data/resource/" + (i % 5000);
+    }
+
+    private static String objectString(int i) {
+        return "Label for item number " + i;
+    }
+
+    private static String objectLangString(int i) {
+        return "Libellé numéro " + i;
+    }
+
+    @Test
+    public void benchmark() throws Exception {
+        var opt = JMHDefaultOptions.getDefaults(this.getClass())
+                .build();
+        var results = new Runner(opt).run();
+        Assert.assertNotNull(results);
+    }
+}
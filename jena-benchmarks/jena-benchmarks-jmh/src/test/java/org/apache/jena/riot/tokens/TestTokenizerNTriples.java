@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.riot.tokens;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.mem2.helper.JMHDefaultOptions;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.lang.LangNTriples;
+import org.apache.jena.riot.lang.StreamRDFCounting;
+import org.apache.jena.riot.system.*;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+
+@State(Scope.Benchmark)
+public class TestTokenizerNTriples {
+
+    @Param({
+            "../testing/cheeses-0.1.ttl",
+            "../testing/pizza.owl.rdf",
+            "../testing/BSBM/bsbm-1m.nt.gz",
+    })
+    public String param0_GraphUri;
+
+    @Param({
+            "TokenizerText",
+            "TokenizerBytes",
+    })
+    public String param1_Tokenizer;
+
+    // The data, as N-Triples.
+    private byte[] bytes;
+
+    private Tokenizer tokenizer() {
+        TokenizeTextBuilder builder = TokenizerText.create()
+                .source(new ByteArrayInputStream(bytes))
+                .errorHandler(ErrorHandlerFactory.errorHandlerStd);
+        switch (param1_Tokenizer) {
+            case "TokenizerText":
+                return builder.build();
+            case "TokenizerBytes":
+                return builder.byteMode(true).build();
+            default:
+                throw new IllegalArgumentException("Unknown tokenizer: " + param1_Tokenizer);
+        }
+    }
+
+    @Benchmark
+    public long tokenize() {
+        Tokenizer tokenizer = tokenizer();
+        long count = 0;
+        while (tokenizer.hasNext()) {
+            tokenizer.next();
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long parse() {
+        StreamRDFCounting counter = StreamRDFLib.count();
+        ParserProfile profile = RiotLib.dftProfile();
+        new LangNTriples(tokenizer(), profile, counter).parse();
+        return counter.countTriples();
+    }
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception {
+        Graph graph = GraphFactory.createDefaultGraph();
+        RDFDataMgr.read(graph, param0_GraphUri);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RDFDataMgr.write(out, graph, Lang.NTRIPLES);
+        bytes = out.toByteArray();
+    }
+
+    @Test
+    public void benchmark() throws Exception {
+        var opt = JMHDefaultOptions.getDefaults(this.getClass())
+                .build();
+        var results = new Runner(opt).run();
+        Assert.assertNotNull(results);
+    }
+
+}
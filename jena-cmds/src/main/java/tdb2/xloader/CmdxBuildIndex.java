@@ -18,6 +18,9 @@
 
 package tdb2.xloader;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.apache.jena.atlas.lib.FileOps;
 import org.apache.jena.cmd.CmdException;
 import org.apache.jena.tdb2.xloader.ProcBuildIndexX;
@@ -36,7 +39,7 @@ public class CmdxBuildIndex extends AbstractCmdxLoad {
     protected void setCmdArgs() {
         super.add(argLocation,      "--loc=", "Database location");
         super.add(argTmpdir,        "--tmpdir=", "Temporary directory (defaults to --loc)");
-        super.add(argIndex,         "--index=", "Index name");
+        super.add(argIndex,         "--index=", "Index name, or a comma separated list of index names to build together");
         super.add(argSortThreads,   "--threads=", "Number of threads; passed as an argument to sort(1)");
         //super.add(argSortIndexArgs, "--sortIndexArgs=", "Specialised argument for the sort for the indexes");
     }
@@ -77,6 +80,10 @@ public class CmdxBuildIndex extends AbstractCmdxLoad {
 
         if ( tmpdir == null )
             tmpdir = location;
-        ProcBuildIndexX.exec(location, indexName, sortThreads, sortIndexArgs, loaderFiles);
+        List<String> indexNames = Arrays.asList(indexName.split(","));
+        if ( indexNames.size() == 1 )
+            ProcBuildIndexX.exec(location, indexName, sortThreads, sortIndexArgs, loaderFiles);
+        else
+            ProcBuildIndexX.exec(location, indexNames, sortThreads, loaderFiles);
     }
 }
@@ -18,6 +18,7 @@
 
 package org.apache.jena.graph;
 
+import java.util.Collection;
 import java.util.Objects;
 import java.util.stream.Stream;
 
@@ -121,6 +122,30 @@ public interface Graph {
         delete(Triple.create(s, p, o));
     }
 
+    /**
+     * Add all the triples in the collection to this graph.
+     * <p>
+     * Implementations may do this more efficiently than adding one triple at a time,
+     * for example, by sizing their storage once and sending a single event
+     * for the whole collection.
+     *
+     * @throws AddDeniedException if the triples cannot be added
+     */
+    default void addAll(Collection<Triple> triples) throws AddDeniedException {
+        triples.forEach(this::add);
+    }
+
+    /**
+     * Delete all the triples in the collection from this graph.
+     * <p>
+     * Implementations may do this more efficiently than deleting one triple at a time.
+     *
+     * @throws DeleteDeniedException if the triples cannot be removed
+     */
+    default void deleteAll(Collection<Triple> triples) throws DeleteDeniedException {
+        triples.forEach(this::delete);
+    }
+
 	/**
         Returns an iterator over all the Triples that match the triple pattern.
 
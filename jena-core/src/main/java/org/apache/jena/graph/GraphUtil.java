@@ -19,6 +19,7 @@
 package org.apache.jena.graph;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -105,8 +106,7 @@ public class GraphUtil
     public static void add(Graph graph, Triple[] triples) {
         if ( OldStyle && graph instanceof GraphWithPerform ) {
             GraphWithPerform g = (GraphWithPerform)graph ;
-            for (Triple t : triples )
-                g.performAdd(t) ;
+            g.performAddAll(Arrays.asList(triples)) ;
             graph.getEventManager().notifyAddArray(graph, triples) ;
         } else {
             for (Triple t : triples )
@@ -115,7 +115,7 @@ public class GraphUtil
     }
 
     public static void add(Graph graph, List<Triple> triples) {
-        addIteratorWorkerDirect(graph, triples.iterator()) ;
+        addListWorker(graph, triples) ;
         if ( OldStyle && graph instanceof GraphWithPerform )
             graph.getEventManager().notifyAddList(graph, triples) ;
     }
@@ -124,7 +124,7 @@ public class GraphUtil
         if ( OldStyle && graph instanceof GraphWithPerform ) {
             // Materialize for the notify.
             List<Triple> s = IteratorCollection.iteratorToList(it) ;
-            addIteratorWorkerDirect(graph, s.iterator());
+            addListWorker(graph, s);
             graph.getEventManager().notifyAddIterator(graph, s) ;
         }
         else
@@ -142,15 +142,16 @@ public class GraphUtil
     
     private static void addIteratorWorker( Graph graph, Iterator<Triple> it ) { 
         List<Triple> s = IteratorCollection.iteratorToList( it );
-        addIteratorWorkerDirect(graph, s.iterator());
+        addListWorker(graph, s);
     }
-    
-    private static void addIteratorWorkerDirect( Graph graph, Iterator<Triple> it ) {
+
+    /** Add the triples as one batch, so the graph can use any bulk add it has. */
+    private static void addListWorker( Graph graph, List<Triple> triples ) {
         if ( OldStyle && graph instanceof GraphWithPerform ) {
             GraphWithPerform g = (GraphWithPerform)graph;
-            it.forEachRemaining(g::performAdd);
+            g.performAddAll(triples);
         } else {
-            it.forEachRemaining(graph::add);
+            graph.addAll(triples);
         }
     }
 
@@ -161,8 +162,7 @@ public class GraphUtil
     public static void delete(Graph graph, Triple[] triples) {
         if ( OldStyle && graph instanceof GraphWithPerform ) {
             GraphWithPerform g = (GraphWithPerform)graph ;
-            for ( Triple t : triples )
-                g.performDelete(t) ;
+            g.performDeleteAll(Arrays.asList(triples)) ;
             graph.getEventManager().notifyDeleteArray(graph, triples) ;
         } else {
             for ( Triple t : triples )
@@ -171,7 +171,7 @@ public class GraphUtil
     }
 
     public static void delete(Graph graph, List<Triple> triples) {
-        deleteIteratorWorkerDirect(graph, triples.iterator());
+        deleteListWorker(graph, triples);
         if ( OldStyle && graph instanceof GraphWithPerform )
             graph.getEventManager().notifyDeleteList(graph, triples) ;
     }
@@ -180,7 +180,7 @@ public class GraphUtil
         if ( OldStyle && graph instanceof GraphWithPerform ) {
             // Materialize for the notify.
             List<Triple> s = IteratorCollection.iteratorToList(it) ;
-            deleteIteratorWorkerDirect(graph, s.iterator());
+            deleteListWorker(graph, s);
             graph.getEventManager().notifyDeleteIterator(graph, s) ;
         } else
             deleteIteratorWorker(graph, it);
@@ -255,7 +255,7 @@ public class GraphUtil
            if ( srcGraph.contains(t) )
                toBeDeleted.add(t);
         }
-        deleteIteratorWorkerDirect(dstGraph, toBeDeleted.iterator());
+        deleteListWorker(dstGraph, toBeDeleted);
         dstGraph.getEventManager().notifyDeleteGraph(dstGraph, srcGraph) ;
     }
 
@@ -265,20 +265,19 @@ public class GraphUtil
      */
     private static void deleteIteratorWorker(Graph graph, Iterator<Triple> it) {
         List<Triple> s = IteratorCollection.iteratorToList(it) ;
-        deleteIteratorWorkerDirect(graph, s.iterator());
+        deleteListWorker(graph, s);
     }
 
     /**
-     * Delete the triples supplied by an iterator. This function is not "concurrent
-     * modification" safe; it assumes it can use the iterator while deleting from the
-     * graph.
+     * Delete the triples as one batch, so the graph can use any bulk delete it has.
+     * The list must not be backed by the graph.
      */
-    private static void deleteIteratorWorkerDirect(Graph graph, Iterator<Triple> it) {
+    private static void deleteListWorker(Graph graph, List<Triple> triples) {
         if ( OldStyle && graph instanceof GraphWithPerform ) {
             GraphWithPerform g = (GraphWithPerform)graph ;
-            it.forEachRemaining(g::performDelete);
+            g.performDeleteAll(triples);
         } else {
-            it.forEachRemaining(graph::delete);
+            graph.deleteAll(triples);
         }
     }
 
@@ -18,6 +18,10 @@
 
 package org.apache.jena.graph.impl;
 
+import java.util.ArrayList ;
+import java.util.Collection ;
+import java.util.List ;
+
 import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.graph.* ;
 import org.apache.jena.shared.AddDeniedException ;
@@ -159,6 +163,35 @@ public abstract class GraphBase implements GraphWithPerform
         notifyAdd( t );
         }
 
+    /**
+       Add all the triples, and notify the event manager once for the whole
+       collection. The triples are added using performAddAll.
+    */
+    @Override
+    public void addAll( Collection<Triple> triples )
+        {
+        checkOpen();
+        performAddAll( triples );
+        if ( getEventManager().listening() )
+            getEventManager().notifyAddList( this, asList( triples ) );
+        }
+
+    /**
+       Delete all the triples, and notify the event manager once for the whole
+       collection. The triples are removed using performDeleteAll.
+    */
+    @Override
+    public void deleteAll( Collection<Triple> triples )
+        {
+        checkOpen();
+        performDeleteAll( triples );
+        if ( getEventManager().listening() )
+            getEventManager().notifyDeleteList( this, asList( triples ) );
+        }
+
+    private static List<Triple> asList( Collection<Triple> triples )
+        { return ( triples instanceof List<Triple> list ) ? list : new ArrayList<>( triples ); }
+
     /**
          Add a triple to the triple store. The default implementation throws an
          AddDeniedException; subclasses must override if they want to be able to
@@ -315,12 +348,12 @@ public abstract class GraphBase implements GraphWithPerform
 
     /**
          Answer true iff this graph is isomorphic to <code>g</code> according to
-         the algorithm (indeed, method) in <code>GraphMatcher</code>.
+         the algorithm (indeed, method) in <code>GraphIsomorphism</code>.
     */
 	@Override
     public boolean isIsomorphicWith( Graph g )
         { checkOpen();
-		return g != null && GraphMatcher.equals( this, g ); }
+		return g != null && GraphIsomorphism.isIsomorphic( this, g ); }
 
 	/**
 	     Answer a human-consumable representation of this graph. Not advised for
@@ -0,0 +1,800 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.graph.impl;
+
+import java.util.*;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+// Purely syntactic: Uses .equals, not .sameValueAs, like GraphMatcher.
+
+/**
+ * Graph isomorphism and canonical blank node labelling by iterative colour refinement
+ * (Weisfeiler-Lehman hashing of blank nodes).
+ * <p>
+ * Each blank node gets a 64 bit colour. In each round, the colour of a blank node
+ * is rehashed with the multiset of its triples, where the other blank nodes in a
+ * triple contribute their current colour and all other terms contribute their hash.
+ * Rounds continue until the number of distinct colours stops increasing.
+ * Two graphs are compared round by round and the comparison stops as soon as
+ * the multisets of colours differ.
+ * <p>
+ * If refinement does not distinguish all blank nodes, both graphs are labelled
+ * canonically (below) and blank nodes are paired by canonical colour.
+ * Colours and canonical labels depend only on the structure of a graph, so for isomorphic
+ * graphs the pairing is an isomorphism. The pairing is checked against the graph,
+ * so hash collisions cannot make {@link #isIsomorphic} wrong.
+ * <p>
+ * Canonical labelling searches the individualization tree for the least certificate.
+ * Leaves with equal certificates give automorphisms, which prune branches that
+ * can only lead to equivalent leaves, so repeated blank node structures do not
+ * make the search factorial. At each point of the search, blank nodes with a colour
+ * of their own are fixed by every automorphism that respects the path; if they split
+ * the other blank nodes into several connected components, each component is labelled
+ * separately, treating fixed blank nodes as ground terms, and the components are then
+ * ordered by certificate.
+ * <p>
+ * Bookkeeping is held in primitive arrays; there are no per-round collections.
+ * Graphs with triple terms that contain blank nodes are passed to {@link GraphMatcher}.
+ *
+ * @see GraphMatcher
+ */
+public class GraphIsomorphism {
+
+    /**
+     * Are the two graphs isomorphic?
+     * The isomorphism is a bijection between the blank nodes
+     * such that the triples are identical.
+     */
+    public static boolean isIsomorphic(Graph g1, Graph g2) {
+        if ( g1 == g2 )
+            return true;
+        return match(g1, g2) != null;
+    }
+
+    /**
+     * Return an isomorphism between the two graphs
+     * as a mapping from the blank nodes of {@code g1} to the blank nodes of {@code g2},
+     * or null if the graphs are not isomorphic.
+     */
+    public static Map<Node, Node> match(Graph g1, Graph g2) {
+        // Triples are counted from find(), not size(), which may not include inferred triples.
+        Side side1 = Side.create(g1);
+        Side side2 = Side.create(g2);
+        if ( side1.nestedBlankNodes || side2.nestedBlankNodes )
+            return matchByGraphMatcher(g1, g2);
+        if ( side1.numBlankNodes != side2.numBlankNodes )
+            return null;
+        if ( side1.numTriples != side2.numTriples || side1.numGroundTriples != side2.numGroundTriples )
+            return null;
+        if ( !groundTriplesContained(g1, g2) )
+            return null;
+        if ( side1.numBlankNodes == 0 )
+            return Map.of();
+        int[] mapping = search(side1, side2);
+        if ( mapping == null )
+            return null;
+        Map<Node, Node> result = new HashMap<>(2 * side1.numBlankNodes);
+        for ( int i = 0 ; i < side1.numBlankNodes ; i++ )
+            result.put(side1.blankNodes[i], side2.blankNodes[mapping[i]]);
+        return result;
+    }
+
+    /**
+     * Return a canonical labelling of the blank nodes of a graph.
+     * Isomorphic graphs get the same labels for corresponding blank nodes,
+     * so replacing each blank node by its label gives the same set of triples.
+     * Labels are of the form {@code c14n0}, {@code c14n1}, ...
+     * <p>
+     * This does not implement RDFC-1.0; labels are only comparable with
+     * other labels produced by this class.
+     */
+    public static Map<Node, Node> canonicalLabelling(Graph graph) {
+        Side side = Side.create(graph);
+        if ( side.nestedBlankNodes )
+            throw new IllegalArgumentException("Canonical labelling is not supported for triple terms with blank nodes");
+        if ( side.numBlankNodes == 0 )
+            return Map.of();
+        Canonical canonical = new Canonical(side);
+        canonical.search();
+        long[] colours = canonical.bestColours;
+        // Label in order of final colour.
+        long[] sorted = colours.clone();
+        Arrays.sort(sorted);
+        Map<Node, Node> result = new HashMap<>(2 * side.numBlankNodes);
+        for ( int i = 0 ; i < side.numBlankNodes ; i++ ) {
+            int rank = Arrays.binarySearch(sorted, colours[i]);
+            result.put(side.blankNodes[i], NodeFactory.createBlankNode("c14n" + rank));
+        }
+        return result;
+    }
+
+    private static Map<Node, Node> matchByGraphMatcher(Graph g1, Graph g2) {
+        Node[][] pairs = GraphMatcher.match(g1, g2);
+        if ( pairs == null )
+            return null;
+        Map<Node, Node> result = new HashMap<>(2 * pairs.length);
+        for ( Node[] pair : pairs )
+            result.put(pair[0], pair[1]);
+        return result;
+    }
+
+    /** Check the triples without blank nodes of {@code g1} are in {@code g2}. */
+    private static boolean groundTriplesContained(Graph g1, Graph g2) {
+        ExtendedIterator<Triple> iter = g1.find();
+        try {
+            while ( iter.hasNext() ) {
+                Triple t = iter.next();
+                if ( hasBlankNode(t) )
+                    continue;
+                if ( !containsSameTerm(g2, t) )
+                    return false;
+            }
+            return true;
+        } finally { iter.close(); }
+    }
+
+    private static boolean containsSameTerm(Graph graph, Triple triple) {
+        if ( !graph.contains(triple) )
+            return false;
+        Node o = triple.getObject();
+        if ( !o.isLiteral() )
+            return true;
+        // Check the object literal is the same term, not only the same value.
+        ExtendedIterator<Triple> iter = graph.find(triple);
+        try {
+            while ( iter.hasNext() ) {
+                if ( iter.next().getObject().equals(o) )
+                    return true;
+            }
+            return false;
+        } finally { iter.close(); }
+    }
+
+    private static boolean hasBlankNode(Triple t) {
+        return t.getSubject().isBlank() || t.getPredicate().isBlank() || t.getObject().isBlank();
+    }
+
+    private static boolean containsBlankNode(Node node) {
+        if ( node.isBlank() )
+            return true;
+        if ( node.isNodeTriple() ) {
+            Triple t = node.getTriple();
+            return containsBlankNode(t.getSubject()) || containsBlankNode(t.getPredicate()) || containsBlankNode(t.getObject());
+        }
+        return false;
+    }
+
+    // ---- Search for an isomorphism
+
+    /**
+     * Refine both sides in step. If that does not distinguish all blank nodes,
+     * label each side canonically and pair blank nodes by canonical colour.
+     * Returns the mapping of blank node indexes or null.
+     */
+    private static int[] search(Side side1, Side side2) {
+        if ( !refine(side1, side2) )
+            return null;
+        if ( side1.targetCell() < 0 )
+            return verify(side1, side2);
+        Canonical canonical1 = new Canonical(side1);
+        canonical1.search();
+        Canonical canonical2 = new Canonical(side2);
+        canonical2.search();
+        if ( !Arrays.equals(canonical1.bestCertificate, canonical2.bestCertificate) )
+            return null;
+        System.arraycopy(canonical1.bestColours, 0, side1.colour, 0, side1.numBlankNodes);
+        System.arraycopy(canonical2.bestColours, 0, side2.colour, 0, side2.numBlankNodes);
+        side1.countColours();
+        side2.countColours();
+        return verify(side1, side2);
+    }
+
+    /**
+     * Run refinement rounds on both sides until the partition is stable.
+     * Returns false if the colour multisets differ at any round.
+     */
+    private static boolean refine(Side side1, Side side2) {
+        int count1 = side1.countColours();
+        int count2 = side2.countColours();
+        while ( true ) {
+            if ( count1 != count2 || !Arrays.equals(side1.sorted, side2.sorted) )
+                return false;
+            int next1 = side1.round();
+            int next2 = side2.round();
+            if ( next1 == count1 && next2 == count2 )
+                return Arrays.equals(side1.sorted, side2.sorted);
+            count1 = next1;
+            count2 = next2;
+        }
+    }
+
+    /**
+     * All blank nodes have distinct colours. Pair by colour and check
+     * every triple with blank nodes maps to a triple of the other graph.
+     */
+    private static int[] verify(Side side1, Side side2) {
+        int n = side1.numBlankNodes;
+        // side2.sorted is the sorted colours of side2.
+        int[] byRank = new int[n];
+        for ( int v = 0 ; v < n ; v++ )
+            byRank[Arrays.binarySearch(side2.sorted, side2.colour[v])] = v;
+        int[] mapping = new int[n];
+        for ( int v = 0 ; v < n ; v++ ) {
+            int rank = Arrays.binarySearch(side2.sorted, side1.colour[v]);
+            if ( rank < 0 )
+                return null;
+            mapping[v] = byRank[rank];
+        }
+        for ( int t = 0 ; t < side1.numTriples ; t++ ) {
+            Triple triple = side1.triples[t];
+            Node s = side1.mapNode(3 * t, triple.getSubject(), mapping, side2);
+            Node p = side1.mapNode(3 * t + 1, triple.getPredicate(), mapping, side2);
+            Node o = side1.mapNode(3 * t + 2, triple.getObject(), mapping, side2);
+            if ( !containsSameTerm(side2.graph, Triple.create(s, p, o)) )
+                return null;
+        }
+        return mapping;
+    }
+
+    // ---- Canonical labelling
+
+    /**
+     * Search for the leaf of the individualization tree with the least certificate.
+     * <p>
+     * Two leaves with the same certificate give an automorphism of the graph.
+     * Automorphisms are recorded and used to prune the tree: a member of a colour class
+     * is skipped if an automorphism that fixes the blank nodes individualized so far
+     * maps an explored member to it. A leaf equivalent to the first leaf found means
+     * the subtree where the path left the first path is equivalent to the one already
+     * searched, so the search returns to that point.
+     */
+    private static class Canonical {
+        private final Side side;
+        long[] bestCertificate = null;
+        long[] bestColours = null;
+
+        // Blank nodes individualized at each branching level of the current path.
+        private final int[] path;
+        private long[] firstCertificate = null;
+        private long[] firstColours = null;
+        private int[] firstPath = null;
+        // Automorphisms found, as mappings of blank node indexes.
+        private final List<int[]> automorphisms = new ArrayList<>();
+
+        Canonical(Side side) {
+            this.side = side;
+            this.path = new int[side.numBlankNodes];
+        }
+
+        void search() {
+            search(0);
+        }
+
+        /**
+         * Search below the current partition, at branching level {@code depth}.
+         * Returns the level to continue the search at; callers at deeper levels return at once.
+         */
+        private int search(int depth) {
+            side.refine();
+            int target = side.targetCell();
+            if ( target < 0 )
+                return leaf(depth);
+            // Blank nodes with a colour of their own are fixed by every automorphism
+            // that respects the path. If they separate the others, label each part alone.
+            Map<Node, Long> fixed = side.fixedColours();
+            List<Side> components = side.components(fixed);
+            if ( components.size() > 1 )
+                return decompose(depth, components);
+            long cellColour = side.colour[target];
+            long[] saved = side.colour.clone();
+            Orbits orbits = null;
+            for ( int v = 0 ; v < side.numBlankNodes ; v++ ) {
+                if ( saved[v] != cellColour )
+                    continue;
+                if ( orbits != null ) {
+                    orbits.update(depth);
+                    if ( orbits.isExplored(v) )
+                        continue;
+                } else {
+                    orbits = new Orbits();
+                }
+                path[depth] = v;
+                side.individualize(v, 0);
+                int level = search(depth + 1);
+                System.arraycopy(saved, 0, side.colour, 0, saved.length);
+                if ( level < depth )
+                    return level;
+                orbits.update(depth);
+                orbits.explored(v);
+            }
+            return depth;
+        }
+
+        /**
+         * Label each component separately, with the fixed blank nodes as ground terms,
+         * and combine the labellings, in order of component certificate, into a leaf.
+         */
+        private int decompose(int depth, List<Side> components) {
+            List<Canonical> parts = new ArrayList<>(components.size());
+            for ( Side component : components ) {
+                Canonical canonical = new Canonical(component);
+                canonical.search();
+                parts.add(canonical);
+            }
+            parts.sort((c1, c2) -> Arrays.compare(c1.bestCertificate, c2.bestCertificate));
+            long[] saved = side.colour.clone();
+            int offset = 0;
+            for ( Canonical part : parts ) {
+                long[] colours = part.bestColours;
+                long[] sorted = colours.clone();
+                Arrays.sort(sorted);
+                for ( int i = 0 ; i < part.side.numBlankNodes ; i++ ) {
+                    int rank = Arrays.binarySearch(sorted, colours[i]);
+                    int v = side.indexOf(part.side.blankNodes[i]);
+                    side.colour[v] = mix(COMPONENT + offset + rank);
+                }
+                offset += part.side.numBlankNodes;
+            }
+            side.countColours();
+            int level = leaf(depth);
+            System.arraycopy(saved, 0, side.colour, 0, saved.length);
+            return level;
+        }
+
+        private int leaf(int depth) {
+            long[] certificate = side.certificate();
+            if ( firstCertificate == null ) {
+                firstCertificate = certificate;
+                firstColours = side.colour.clone();
+                firstPath = Arrays.copyOf(path, depth);
+                bestCertificate = certificate;
+                bestColours = firstColours;
+                return depth;
+            }
+            if ( Arrays.equals(certificate, firstCertificate) && automorphism(firstColours) ) {
+                // Return to where this path left the first path.
+                int level = 0;
+                while ( level < depth && level < firstPath.length && path[level] == firstPath[level] )
+                    level++;
+                return level;
+            }
+            int cmp = Arrays.compare(certificate, bestCertificate);
+            if ( cmp == 0 && bestColours != firstColours )
+                automorphism(bestColours);
+            else if ( cmp < 0 ) {
+                bestCertificate = certificate;
+                bestColours = side.colour.clone();
+            }
+            return depth;
+        }
+
+        /**
+         * Record the mapping from the leaf with colours {@code other} to the current leaf,
+         * if it is an automorphism. Equal certificates could be a hash collision, so
+         * the mapping is checked against the graph.
+         */
+        private boolean automorphism(long[] other) {
+            int n = side.numBlankNodes;
+            long[] sorted = other.clone();
+            Arrays.sort(sorted);
+            // Current leaf: side.sorted holds its sorted colours.
+            if ( !Arrays.equals(sorted, side.sorted) )
+                return false;
+            int[] byRank = new int[n];
+            for ( int v = 0 ; v < n ; v++ )
+                byRank[Arrays.binarySearch(sorted, other[v])] = v;
+            int[] mapping = new int[n];
+            for ( int v = 0 ; v < n ; v++ ) {
+                int rank = Arrays.binarySearch(side.sorted, side.colour[v]);
+                if ( rank < 0 )
+                    return false;
+                mapping[byRank[rank]] = v;
+            }
+            for ( int t = 0 ; t < side.numTriples ; t++ ) {
+                Triple triple = side.triples[t];
+                Node s = side.mapNode(3 * t, triple.getSubject(), mapping, side);
+                Node p = side.mapNode(3 * t + 1, triple.getPredicate(), mapping, side);
+                Node o = side.mapNode(3 * t + 2, triple.getObject(), mapping, side);
+                if ( !containsSameTerm(side.graph, Triple.create(s, p, o)) )
+                    return false;
+            }
+            automorphisms.add(mapping);
+            return true;
+        }
+
+        /**
+         * Orbits of the blank nodes under the recorded automorphisms that fix the
+         * path to a tree node, with the orbits of the explored members marked.
+         */
+        private class Orbits {
+            private final int[] parent;
+            private final boolean[] explored;
+            private int used = 0;
+
+            Orbits() {
+                parent = new int[side.numBlankNodes];
+                explored = new boolean[side.numBlankNodes];
+                for ( int v = 0 ; v < parent.length ; v++ )
+                    parent[v] = v;
+            }
+
+            /** Add the automorphisms found since the last update that fix the path to this level. */
+            void update(int depth) {
+                for ( ; used < automorphisms.size() ; used++ ) {
+                    int[] mapping = automorphisms.get(used);
+                    if ( fixes(mapping, depth) ) {
+                        for ( int v = 0 ; v < mapping.length ; v++ )
+                            union(v, mapping[v]);
+                    }
+                }
+            }
+
+            private boolean fixes(int[] mapping, int depth) {
+                for ( int i = 0 ; i < depth ; i++ ) {
+                    if ( mapping[path[i]] != path[i] )
+                        return false;
+                }
+                return true;
+            }
+
+            void explored(int v) {
+                explored[find(v)] = true;
+            }
+
+            boolean isExplored(int v) {
+                return explored[find(v)];
+            }
+
+            private int find(int v) {
+                while ( parent[v] != v ) {
+                    parent[v] = parent[parent[v]];
+                    v = parent[v];
+                }
+                return v;
+            }
+
+            private void union(int v, int w) {
+                int a = find(v);
+                int b = find(w);
+                if ( a == b )
+                    return;
+                parent[b] = a;
+                explored[a] |= explored[b];
+            }
+        }
+    }
+
+    // ---- Per-graph state
+
+    private static final long SEED       = 0x9E3779B97F4A7C15L;
+    private static final long PRIME      = 0x100000001B3L;
+    private static final long SELF       = 0x5DEECE66DL;
+    private static final long INDIVIDUAL = 0x2545F4914F6CDD1DL;
+    private static final long COMPONENT  = 0x7F4A7C159E3779B9L;
+
+    /** 64 bit finalizer (splitmix64). */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Side {
+        final Graph graph;
+        boolean nestedBlankNodes = false;
+
+        int numBlankNodes;
+        Node[] blankNodes;
+        Map<Node, Integer> index;
+
+        int numGroundTriples;
+        // Triples with at least one blank node.
+        int numTriples;
+        Triple[] triples;
+        // Three slots per triple: the blank node index, or -1.
+        int[] slots;
+        // Hash of the terms that are not blank nodes, per triple.
+        long[] ground;
+
+        // Incidence lists in compressed form: entries adjStart[v] to adjStart[v+1]-1
+        // of adj are (3 * triple index + slot) for blank node v.
+        int[] adjStart;
+        int[] adj;
+
+        long[] colour;
+        long[] scratch;
+        long[] sorted;
+
+        private Side(Graph graph) {
+            this.graph = graph;
+        }
+
+        static Side create(Graph graph) {
+            Side side = new Side(graph);
+            side.build();
+            return side;
+        }
+
+        /**
+         * Side for some of the triples with blank nodes of a graph.
+         * The blank nodes in {@code fixed} are treated as ground terms with the given hash.
+         */
+        private static Side create(Graph graph, List<Triple> bnodeTriples, Map<Node, Long> fixed) {
+            Side side = new Side(graph);
+            side.build(bnodeTriples, fixed);
+            return side;
+        }
+
+        private void build() {
+            List<Triple> bnodeTriples = new ArrayList<>();
+            ExtendedIterator<Triple> iter = graph.find();
+            try {
+                while ( iter.hasNext() ) {
+                    Triple t = iter.next();
+                    if ( !nestedBlankNodes && (isNestedBlank(t.getSubject()) || isNestedBlank(t.getObject())) )
+                        nestedBlankNodes = true;
+                    if ( !hasBlankNode(t) ) {
+                        numGroundTriples++;
+                        continue;
+                    }
+                    bnodeTriples.add(t);
+                }
+            } finally { iter.close(); }
+            build(bnodeTriples, Map.of());
+        }
+
+        private void build(List<Triple> bnodeTriples, Map<Node, Long> fixed) {
+            index = new HashMap<>();
+            for ( Triple t : bnodeTriples ) {
+                register(index, fixed, t.getSubject());
+                register(index, fixed, t.getPredicate());
+                register(index, fixed, t.getObject());
+            }
+            numBlankNodes = index.size();
+            blankNodes = new Node[numBlankNodes];
+            index.forEach((n, i) -> blankNodes[i] = n);
+
+            numTriples = bnodeTriples.size();
+            triples = bnodeTriples.toArray(new Triple[numTriples]);
+            slots = new int[3 * numTriples];
+            ground = new long[numTriples];
+            int[] degree = new int[numBlankNodes + 1];
+            for ( int t = 0 ; t < numTriples ; t++ ) {
+                Triple triple = triples[t];
+                long h = SEED;
+                h = slot(index, fixed, t, 0, triple.getSubject(), h, degree);
+                h = slot(index, fixed, t, 1, triple.getPredicate(), h, degree);
+                h = slot(index, fixed, t, 2, triple.getObject(), h, degree);
+                ground[t] = h;
+            }
+            adjStart = new int[numBlankNodes + 1];
+            for ( int v = 0 ; v < numBlankNodes ; v++ )
+                adjStart[v + 1] = adjStart[v] + degree[v];
+            adj = new int[adjStart[numBlankNodes]];
+            int[] fill = Arrays.copyOf(adjStart, numBlankNodes);
+            for ( int i = 0 ; i < slots.length ; i++ ) {
+                int v = slots[i];
+                if ( v >= 0 )
+                    adj[fill[v]++] = i;
+            }
+            colour = new long[numBlankNodes];
+            scratch = new long[numBlankNodes];
+            sorted = new long[numBlankNodes];
+        }
+
+        private static boolean isNestedBlank(Node node) {
+            return node.isNodeTriple() && containsBlankNode(node);
+        }
+
+        private static void register(Map<Node, Integer> index, Map<Node, Long> fixed, Node node) {
+            if ( node.isBlank() && !fixed.containsKey(node) )
+                index.putIfAbsent(node, index.size());
+        }
+
+        private long slot(Map<Node, Integer> index, Map<Node, Long> fixed, int t, int position, Node node, long h, int[] degree) {
+            Long hash = fixed.get(node);
+            if ( hash != null ) {
+                slots[3 * t + position] = -1;
+                return mix(h * PRIME + hash + ((long)position << 32));
+            }
+            if ( node.isBlank() ) {
+                int v = index.get(node);
+                slots[3 * t + position] = v;
+                degree[v]++;
+                return mix(h * PRIME + position);
+            }
+            slots[3 * t + position] = -1;
+            return mix(h * PRIME + node.hashCode() + ((long)position << 32));
+        }
+
+        int indexOf(Node blankNode) {
+            return index.get(blankNode);
+        }
+
+        /** The blank nodes with a colour no other blank node has, and their colours. */
+        Map<Node, Long> fixedColours() {
+            countColours();
+            Map<Node, Long> fixed = new HashMap<>();
+            for ( int v = 0 ; v < numBlankNodes ; v++ ) {
+                int i = Arrays.binarySearch(sorted, colour[v]);
+                boolean unique = ( i == 0 || sorted[i - 1] != colour[v] ) && ( i == numBlankNodes - 1 || sorted[i + 1] != colour[v] );
+                if ( unique )
+                    fixed.put(blankNodes[v], colour[v]);
+            }
+            return fixed;
+        }
+
+        /**
+         * Split the blank nodes that are not fixed into connected components, where two
+         * blank nodes are connected if they share a triple. Fixed blank nodes are treated
+         * as ground terms.
+         */
+        List<Side> components(Map<Node, Long> fixed) {
+            int[] parent = new int[numBlankNodes];
+            for ( int v = 0 ; v < numBlankNodes ; v++ )
+                parent[v] = v;
+            for ( int t = 0 ; t < numTriples ; t++ ) {
+                int first = -1;
+                for ( int i = 0 ; i < 3 ; i++ ) {
+                    int w = slots[3 * t + i];
+                    if ( w < 0 || fixed.containsKey(blankNodes[w]) )
+                        continue;
+                    if ( first < 0 )
+                        first = w;
+                    else
+                        parent[root(parent, w)] = root(parent, first);
+                }
+            }
+            // Triples with blank nodes that are not fixed, by component.
+            Map<Integer, List<Triple>> byRoot = new LinkedHashMap<>();
+            for ( int t = 0 ; t < numTriples ; t++ ) {
+                for ( int i = 0 ; i < 3 ; i++ ) {
+                    int w = slots[3 * t + i];
+                    if ( w >= 0 && !fixed.containsKey(blankNodes[w]) ) {
+                        byRoot.computeIfAbsent(root(parent, w), k -> new ArrayList<>()).add(triples[t]);
+                        break;
+                    }
+                }
+            }
+            List<Side> components = new ArrayList<>(byRoot.size());
+            byRoot.values().forEach(componentTriples -> components.add(create(graph, componentTriples, fixed)));
+            return components;
+        }
+
+        private static int root(int[] parent, int v) {
+            while ( parent[v] != v ) {
+                parent[v] = parent[parent[v]];
+                v = parent[v];
+            }
+            return v;
+        }
+
+        /** Map a term of a triple under a blank node mapping. */
+        Node mapNode(int slot, Node node, int[] mapping, Side other) {
+            int v = slots[slot];
+            return v < 0 ? node : other.blankNodes[mapping[v]];
+        }
+
+        /** One refinement round. Returns the number of distinct colours. */
+        int round() {
+            for ( int v = 0 ; v < numBlankNodes ; v++ ) {
+                long h = 0;
+                for ( int k = adjStart[v] ; k < adjStart[v + 1] ; k++ ) {
+                    int entry = adj[k];
+                    int base = entry - entry % 3;
+                    long sig = ground[base / 3] + (entry - base) * SEED;
+                    for ( int i = 0 ; i < 3 ; i++ ) {
+                        int w = slots[base + i];
+                        if ( w < 0 )
+                            continue;
+                        long term = ( w == v ) ? SELF + i : colour[w] + i * SEED;
+                        sig = mix(sig * PRIME + term);
+                    }
+                    // Sum is independent of the order of the triples.
+                    h += mix(sig);
+                }
+                scratch[v] = mix(colour[v] * PRIME + h);
+            }
+            long[] x = colour;
+            colour = scratch;
+            scratch = x;
+            return countColours();
+        }
+
+        /** Refine this side alone until stable. */
+        void refine() {
+            int count = countColours();
+            while ( true ) {
+                int next = round();
+                if ( next == count )
+                    return;
+                count = next;
+            }
+        }
+
+        /** Number of distinct colours; leaves the sorted colours in {@code sorted}. */
+        int countColours() {
+            System.arraycopy(colour, 0, sorted, 0, numBlankNodes);
+            Arrays.sort(sorted);
+            int count = numBlankNodes == 0 ? 0 : 1;
+            for ( int i = 1 ; i < numBlankNodes ; i++ ) {
+                if ( sorted[i] != sorted[i - 1] )
+                    count++;
+            }
+            return count;
+        }
+
+        /**
+         * Choose a blank node from the smallest colour class with more than one member,
+         * preferring the least colour on ties. Returns -1 if all colours are distinct.
+         * Depends on {@code sorted} being up to date.
+         */
+        int targetCell() {
+            long best = 0;
+            int bestSize = Integer.MAX_VALUE;
+            int i = 0;
+            while ( i < numBlankNodes ) {
+                int j = i + 1;
+                while ( j < numBlankNodes && sorted[j] == sorted[i] )
+                    j++;
+                int size = j - i;
+                if ( size > 1 && size < bestSize ) {
+                    bestSize = size;
+                    best = sorted[i];
+                }
+                i = j;
+            }
+            if ( bestSize == Integer.MAX_VALUE )
+                return -1;
+            for ( int v = 0 ; v < numBlankNodes ; v++ ) {
+                if ( colour[v] == best )
+                    return v;
+            }
+            return -1;
+        }
+
+        void individualize(int v, int k) {
+            colour[v] = mix(colour[v] + INDIVIDUAL + k);
+        }
+
+        /**
+         * The sorted hashes of the triples with each blank node replaced by its colour.
+         * With distinct colours, this determines the graph up to blank node labels.
+         */
+        long[] certificate() {
+            long[] certificate = new long[numTriples];
+            for ( int t = 0 ; t < numTriples ; t++ ) {
+                long h = ground[t];
+                for ( int i = 0 ; i < 3 ; i++ ) {
+                    int w = slots[3 * t + i];
+                    if ( w >= 0 )
+                        h = mix(h * PRIME + colour[w] + i);
+                }
+                certificate[t] = h;
+            }
+            Arrays.sort(certificate);
+            return certificate;
+        }
+    }
+}
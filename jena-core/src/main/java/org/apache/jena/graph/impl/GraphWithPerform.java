@@ -18,6 +18,8 @@
 
 package org.apache.jena.graph.impl;
 
+import java.util.Collection ;
+
 import org.apache.jena.graph.* ;
 
 /**
@@ -37,4 +39,19 @@ public interface GraphWithPerform extends Graph
     	remove <code>t</code> from this graph, but do not generate any event 
     */
     public void performDelete( Triple t );
+
+    /**
+        add all the triples of <code>triples</code> to this graph, but do not generate
+        any event. Implementations may override this to add a batch more efficiently
+        than one triple at a time.
+    */
+    public default void performAddAll( Collection<Triple> triples )
+        { triples.forEach( this::performAdd ); }
+
+    /**
+        remove all the triples of <code>triples</code> from this graph, but do not
+        generate any event.
+    */
+    public default void performDeleteAll( Collection<Triple> triples )
+        { triples.forEach( this::performDelete ); }
     }
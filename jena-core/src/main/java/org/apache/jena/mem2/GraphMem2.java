@@ -27,6 +27,7 @@ import org.apache.jena.mem.GraphMemBase;
 import org.apache.jena.mem2.store.TripleStore;
 import org.apache.jena.util.iterator.ExtendedIterator;
 
+import java.util.Collection;
 import java.util.stream.Stream;
 
 /**
@@ -87,6 +88,17 @@ public class GraphMem2 extends GraphMemBase implements GraphWithPerform {
         tripleStore.remove(t);
     }
 
+    /**
+     * Add triples to the graph without notifying.
+     * The triple store may add a batch more efficiently than one triple at a time.
+     *
+     * @param triples triples to add
+     */
+    @Override
+    public void performAddAll(final Collection<Triple> triples) {
+        tripleStore.addAll(triples);
+    }
+
     /**
      * Returns a {@link Stream} of all triples in the graph.
      * Note: {@link Stream#parallel()} is supported.
@@ -137,6 +137,35 @@ public abstract class FastHashBase<K> implements JenaMapSetCommon<K> {
         }
     }
 
+    /**
+     * Grows the arrays, if needed, so that the given number of keys can be added without
+     * growing again. Use this before adding many keys at once.
+     *
+     * @param count the number of keys that are about to be added
+     */
+    public final void ensureCapacityFor(final int count) {
+        final long required = (long) keysPos + count;
+        if (required > keys.length) {
+            growKeysAndHashCodeArrays((int) Math.min(required, Integer.MAX_VALUE));
+        }
+        var newPositionsSize = positions.length;
+        while (required << 1 > newPositionsSize && newPositionsSize > 0) {
+            newPositionsSize <<= 1;
+        }
+        if (newPositionsSize <= 0) {
+            newPositionsSize = Integer.MAX_VALUE;
+        }
+        if (newPositionsSize != positions.length) {
+            final var oldPositions = this.positions;
+            this.positions = new int[newPositionsSize];
+            for (int oldPosition : oldPositions) {
+                if (0 != oldPosition) {
+                    this.positions[findEmptySlotWithoutEqualityCheck(hashCodesOrDeletedIndices[~oldPosition])] = oldPosition;
+                }
+            }
+        }
+    }
+
     /**
      * Grow the positions array if needed.
      *
@@ -193,12 +222,23 @@ public abstract class FastHashBase<K> implements JenaMapSetCommon<K> {
 
     /**
      * Grow the keys and hashCodes arrays.
+     * This calls {@link #growKeysAndHashCodeArrays(int)}, which is also used by
+     * {@link #ensureCapacityFor}; subclasses with other arrays to grow should override that.
      */
     protected void growKeysAndHashCodeArrays() {
         var newSize = (keys.length >> 1) + keys.length;
         if (newSize < 0) {
             newSize = Integer.MAX_VALUE;
         }
+        growKeysAndHashCodeArrays(newSize);
+    }
+
+    /**
+     * Grow the keys and hashCodes arrays to the given size.
+     *
+     * @param newSize the new size, larger than the current size
+     */
+    protected void growKeysAndHashCodeArrays(final int newSize) {
         final var oldKeys = this.keys;
         this.keys = newKeysArray(newSize);
         System.arraycopy(oldKeys, 0, keys, 0, oldKeys.length);
@@ -53,8 +53,8 @@ public abstract class FastHashMap<K, V> extends FastHashBase<K> implements JenaM
     protected abstract V[] newValuesArray(int size);
 
     @Override
-    protected void growKeysAndHashCodeArrays() {
-        super.growKeysAndHashCodeArrays();
+    protected void growKeysAndHashCodeArrays(final int newSize) {
+        super.growKeysAndHashCodeArrays(newSize);
         final var oldValues = values;
         values = newValuesArray(keys.length);
         System.arraycopy(oldValues, 0, values, 0, oldValues.length);
@@ -21,6 +21,7 @@ package org.apache.jena.mem2.store;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.util.iterator.ExtendedIterator;
 
+import java.util.Collection;
 import java.util.stream.Stream;
 
 /**
@@ -36,6 +37,16 @@ public interface TripleStore {
      */
     void add(final Triple triple);
 
+    /**
+     * Add all the triples to the map.
+     * Implementations may override this to add a batch more efficiently than one triple at a time.
+     *
+     * @param triples to add
+     */
+    default void addAll(final Collection<Triple> triples) {
+        triples.forEach(this::add);
+    }
+
     /**
      * Remove a triple from the map.
      *
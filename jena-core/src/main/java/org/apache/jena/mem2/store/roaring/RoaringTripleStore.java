@@ -32,6 +32,7 @@ import org.roaringbitmap.FastAggregation;
 import org.roaringbitmap.ImmutableBitmapDataProvider;
 import org.roaringbitmap.RoaringBitmap;
 
+import java.util.Collection;
 import java.util.stream.Stream;
 
 /**
@@ -85,6 +86,15 @@ public class RoaringTripleStore implements TripleStore {
         addIndex(this.objectBitmaps, triple.getObject(), index);
     }
 
+    /**
+     * Sizes the set of triples once for the whole batch before adding the triples.
+     */
+    @Override
+    public void addAll(final Collection<Triple> triples) {
+        this.triples.ensureCapacityFor(triples.size());
+        triples.forEach(this::add);
+    }
+
     @Override
     public void remove(final Triple triple) {
         final var index = triples.removeAndGetIndex(triple);
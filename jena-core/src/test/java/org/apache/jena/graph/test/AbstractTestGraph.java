@@ -459,6 +459,19 @@ public abstract class AbstractTestGraph extends GraphTestBase
         L.assertHas( new Object[] {"add", g, SPO} );
     }
 
+    public void testAddAllDeleteAll()
+    {
+        Graph g = getGraph();
+        List<Triple> triples = Arrays.asList( tripleArray( "a P b; c Q d; e R f" ) );
+        g.addAll( triples );
+        for ( Triple t : triples )
+            assertTrue( g.contains( t ) );
+        g.deleteAll( triples.subList( 0, 2 ) );
+        assertFalse( g.contains( triples.get( 0 ) ) );
+        assertFalse( g.contains( triples.get( 1 ) ) );
+        assertTrue( g.contains( triples.get( 2 ) ) );
+    }
+
     public void testDeleteTriple()
     {
         Graph g = getAndRegister( L );
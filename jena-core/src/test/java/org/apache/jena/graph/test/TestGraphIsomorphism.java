@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.graph.test;
+
+import static org.apache.jena.graph.test.GraphTestBase.graphWith;
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import org.apache.jena.graph.*;
+import org.apache.jena.graph.impl.GraphIsomorphism;
+import org.junit.Test;
+
+/** Tests for {@link GraphIsomorphism} */
+public class TestGraphIsomorphism {
+
+    @Test public void iso_ground() {
+        Graph g1 = graphWith("x p y; y q 'z'");
+        Graph g2 = graphWith("y q 'z'; x p y");
+        assertTrue(GraphIsomorphism.isIsomorphic(g1, g2));
+        assertEquals(Map.of(), GraphIsomorphism.match(g1, g2));
+    }
+
+    @Test public void iso_ground_different() {
+        Graph g1 = graphWith("x p y; y q 'z'");
+        Graph g2 = graphWith("x p y; y q 'zz'");
+        assertFalse(GraphIsomorphism.isIsomorphic(g1, g2));
+    }
+
+    @Test public void iso_bnodes_1() {
+        Graph g1 = graphWith("_a p _b; _b p 'x'; _b q _a");
+        Graph g2 = graphWith("_y p 'x'; _z p _y; _y q _z");
+        Map<Node, Node> mapping = GraphIsomorphism.match(g1, g2);
+        assertNotNull(mapping);
+        assertEquals(NodeCreateUtils.create("_z"), mapping.get(NodeCreateUtils.create("_a")));
+        assertEquals(NodeCreateUtils.create("_y"), mapping.get(NodeCreateUtils.create("_b")));
+    }
+
+    @Test public void iso_bnodes_2() {
+        Graph g1 = graphWith("_a p _b; _b p 'x'");
+        Graph g2 = graphWith("_a p _b; _b p 'y'");
+        assertFalse(GraphIsomorphism.isIsomorphic(g1, g2));
+    }
+
+    @Test public void iso_literal_term() {
+        // Same value, different terms.
+        Graph g1 = graphWith("_a p '1'xsd:integer");
+        Graph g2 = graphWith("_a p '01'xsd:integer");
+        assertFalse(GraphIsomorphism.isIsomorphic(g1, g2));
+    }
+
+    @Test public void iso_cycles() {
+        // Refinement alone does not separate these.
+        Graph g1 = graphWith("_a p _b; _b p _c; _c p _a; _d p _e; _e p _f; _f p _d");
+        Graph g2 = graphWith("_a p _b; _b p _c; _c p _d; _d p _e; _e p _f; _f p _a");
+        Graph g3 = graphWith("_x p _y; _y p _z; _z p _x; _u p _v; _v p _w; _w p _u");
+        assertFalse(GraphIsomorphism.isIsomorphic(g1, g2));
+        assertTrue(GraphIsomorphism.isIsomorphic(g1, g3));
+    }
+
+    @Test public void iso_twins() {
+        Graph g1 = graphWith("_a p 'x'; _b p 'x'; _c p 'x'; _c q 'y'");
+        Graph g2 = graphWith("_z p 'x'; _z q 'y'; _y p 'x'; _x p 'x'");
+        assertTrue(GraphIsomorphism.isIsomorphic(g1, g2));
+    }
+
+    @Test public void iso_graph_method() {
+        Graph g1 = graphWith("_a p _b; _b q 'v'");
+        Graph g2 = graphWith("_x p _y; _y q 'v'");
+        assertTrue(g1.isIsomorphicWith(g2));
+    }
+
+    @Test public void canonical_1() {
+        Graph g1 = graphWith("_a p _b; _b p _c; _c p _a; _d p _e; _e p _f; _f p _d; _a q 'x'");
+        Graph g2 = graphWith("_u p _v; _v p _w; _w p _u; _x p _y; _y p _z; _z p _x; _y q 'x'");
+        assertEquals(relabel(g1, GraphIsomorphism.canonicalLabelling(g1)),
+                     relabel(g2, GraphIsomorphism.canonicalLabelling(g2)));
+    }
+
+    @Test public void canonical_2() {
+        Graph g1 = graphWith("_a p 'x'; _b p 'x'; _b q _c; _c r 'z'");
+        Graph g2 = graphWith("_c r 'z'; _y p 'x'; _z p 'x'; _y q _c");
+        Map<Node, Node> labels1 = GraphIsomorphism.canonicalLabelling(g1);
+        assertEquals(3, labels1.size());
+        assertEquals(relabel(g1, labels1), relabel(g2, GraphIsomorphism.canonicalLabelling(g2)));
+    }
+
+    @Test public void canonical_different() {
+        Graph g1 = graphWith("_a p _b; _b p 'x'");
+        Graph g2 = graphWith("_a p _b; _a p 'x'");
+        assertNotEquals(relabel(g1, GraphIsomorphism.canonicalLabelling(g1)),
+                        relabel(g2, GraphIsomorphism.canonicalLabelling(g2)));
+    }
+
+    @Test(timeout = 10000) public void canonical_repeated() {
+        // Many copies of  :s :p [ :q [ :r "1" ] ]
+        StringBuilder sb1 = new StringBuilder();
+        StringBuilder sb2 = new StringBuilder();
+        int N = 40;
+        for ( int i = 0 ; i < N ; i++ ) {
+            sb1.append("s p _a"+i+"; _a"+i+" q _b"+i+"; _b"+i+" r '1'; ");
+            int j = N - 1 - i;
+            sb2.append("_y"+j+" r '1'; _x"+j+" q _y"+j+"; s p _x"+j+"; ");
+        }
+        Graph g1 = graphWith(sb1.substring(0, sb1.length() - 2));
+        Graph g2 = graphWith(sb2.substring(0, sb2.length() - 2));
+        Map<Node, Node> labels1 = GraphIsomorphism.canonicalLabelling(g1);
+        assertEquals(2 * N, labels1.size());
+        assertEquals(relabel(g1, labels1), relabel(g2, GraphIsomorphism.canonicalLabelling(g2)));
+    }
+
+    @Test(timeout = 10000) public void canonical_cycles() {
+        // Disjoint blank node 3-cycles: refinement does not separate any blank node.
+        StringBuilder sb1 = new StringBuilder();
+        StringBuilder sb2 = new StringBuilder();
+        int N = 12;
+        for ( int i = 0 ; i < N ; i++ ) {
+            sb1.append("_a"+i+" p _b"+i+"; _b"+i+" p _c"+i+"; _c"+i+" p _a"+i+"; ");
+            sb2.append("_z"+i+" p _x"+i+"; _y"+i+" p _z"+i+"; _x"+i+" p _y"+i+"; ");
+        }
+        Graph g1 = graphWith(sb1.substring(0, sb1.length() - 2));
+        Graph g2 = graphWith(sb2.substring(0, sb2.length() - 2));
+        assertEquals(relabel(g1, GraphIsomorphism.canonicalLabelling(g1)),
+                     relabel(g2, GraphIsomorphism.canonicalLabelling(g2)));
+    }
+
+    @Test(timeout = 10000) public void canonical_repeated_connected() {
+        // Two blank node hubs, each with many copies of  _:hub :q [ :q [ :r "1" ] ]
+        StringBuilder sb1 = new StringBuilder("_h1 p _h2; _h2 p _h1; ");
+        StringBuilder sb2 = new StringBuilder("_k2 p _k1; _k1 p _k2; ");
+        int N = 100;
+        for ( int i = 0 ; i < N ; i++ ) {
+            for ( String h : new String[] {"1", "2"} ) {
+                sb1.append("_h"+h+" q _a"+h+"x"+i+"; _a"+h+"x"+i+" q _b"+h+"x"+i+"; _b"+h+"x"+i+" r '1'; ");
+                sb2.append("_y"+h+"x"+i+" r '1'; _x"+h+"x"+i+" q _y"+h+"x"+i+"; _k"+h+" q _x"+h+"x"+i+"; ");
+            }
+        }
+        Graph g1 = graphWith(sb1.substring(0, sb1.length() - 2));
+        Graph g2 = graphWith(sb2.substring(0, sb2.length() - 2));
+        Map<Node, Node> labels1 = GraphIsomorphism.canonicalLabelling(g1);
+        assertEquals(2 + 4 * N, labels1.size());
+        assertEquals(relabel(g1, labels1), relabel(g2, GraphIsomorphism.canonicalLabelling(g2)));
+    }
+
+    @Test(timeout = 10000) public void iso_interchangeable_large() {
+        // Many blank nodes that refinement cannot tell apart.
+        StringBuilder sb1 = new StringBuilder();
+        StringBuilder sb2 = new StringBuilder();
+        StringBuilder sb3 = new StringBuilder("_c p y; ");
+        int N = 20000;
+        for ( int i = 0 ; i < N ; i++ ) {
+            sb1.append("_a"+i+" p o; ");
+            sb2.append("_b"+(N - 1 - i)+" p o; ");
+            if ( i > 0 )
+                sb3.append("_c"+i+" p o; ");
+        }
+        Graph g1 = graphWith(sb1.substring(0, sb1.length() - 2));
+        Graph g2 = graphWith(sb2.substring(0, sb2.length() - 2));
+        Graph g3 = graphWith(sb3.substring(0, sb3.length() - 2));
+        Map<Node, Node> mapping = GraphIsomorphism.match(g1, g2);
+        assertNotNull(mapping);
+        assertEquals(N, mapping.size());
+        assertFalse(GraphIsomorphism.isIsomorphic(g1, g3));
+    }
+
+    private static java.util.Set<Triple> relabel(Graph graph, Map<Node, Node> labels) {
+        return graph.find().mapWith(t -> Triple.create(labels.getOrDefault(t.getSubject(), t.getSubject()),
+                                                       t.getPredicate(),
+                                                       labels.getOrDefault(t.getObject(), t.getObject())))
+                    .toSet();
+    }
+}
@@ -22,11 +22,13 @@ import org.apache.jena.datatypes.xsd.impl.XSDDouble;
 import org.apache.jena.graph.Graph;
 import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.test.RecordingListener;
 import org.hamcrest.collection.IsEmptyCollection;
 import org.hamcrest.collection.IsIterableContainingInAnyOrder;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.apache.jena.testing_framework.GraphHelper.node;
@@ -55,6 +57,26 @@ public abstract class AbstractGraphMem2Test {
     }
 
 
+    @Test
+    public void testAddAllAndDeleteAll() {
+        var triples = List.of(triple("x R y"), triple("x R z"), triple("a S b"));
+        sut.addAll(triples);
+        assertEquals(3, sut.size());
+        assertTrue(sut.contains(triple("x R z")));
+        sut.deleteAll(List.of(triple("x R y"), triple("a S b")));
+        assertEquals(1, sut.size());
+        assertTrue(sut.contains(triple("x R z")));
+    }
+
+    @Test
+    public void testAddAllSingleEvent() {
+        var listener = new RecordingListener();
+        sut.getEventManager().register(listener);
+        var triples = List.of(triple("x R y"), triple("x R z"));
+        sut.addAll(triples);
+        listener.assertHas(new Object[]{"addList", sut, triples});
+    }
+
     @Test
     public void testDelete() {
         sut.add(triple("x R y"));
@@ -45,6 +45,19 @@ public class FastHashSetTest2 {
         assertEquals(~2, sut.addAndGetIndex("c"));
     }
 
+    @Test
+    public void testEnsureCapacityFor() {
+        sut.addAndGetIndex("a");
+        sut.ensureCapacityFor(1000);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i + 1, sut.addAndGetIndex("x" + i));
+        }
+        assertEquals(1001, sut.size());
+        assertTrue(sut.containsKey("a"));
+        assertTrue(sut.containsKey("x999"));
+        assertEquals(~0, sut.addAndGetIndex("a"));
+    }
+
     @Test
     public void testAddAndGetIndexWithSameHashCode() {
         assertEquals(0, sut.addAndGetIndex("a", 0));
@@ -26,6 +26,7 @@ import org.hamcrest.collection.IsIterableContainingInAnyOrder;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.apache.jena.testing_framework.GraphHelper.node;
@@ -54,6 +55,16 @@ public abstract class AbstractTripleStoreTest {
     }
 
 
+    @Test
+    public void testAddAll() {
+        sut.add(triple("x R y"));
+        sut.addAll(List.of(triple("x R y"), triple("x R z"), triple("a S b"), triple("x R z")));
+        assertEquals(3, sut.countTriples());
+        assertTrue(sut.contains(triple("x R z")));
+        assertTrue(sut.contains(triple("a S b")));
+        assertEquals(2, sut.find(triple("x ANY ANY")).toList().size());
+    }
+
     @Test
     public void testDelete() {
         sut.add(triple("x R y"));
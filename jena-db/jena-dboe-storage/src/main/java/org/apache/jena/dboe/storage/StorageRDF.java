@@ -81,6 +81,19 @@ public interface StorageRDF {
     public default void delete(Quad quad)
     { delete(quad.getGraph(), quad.getSubject(), quad.getPredicate(), quad.getObject()); }
 
+    /** Add quads. Quads for the default graph are added as triples of the default graph.
+     * Implementations may add a batch more efficiently than one quad at a time.
+     * <p>Concrete operation.
+     */
+    public default void addAll(Iterator<Quad> quads) {
+        quads.forEachRemaining(quad -> {
+            if ( Quad.isDefaultGraph(quad.getGraph()) )
+                add(quad.getSubject(), quad.getPredicate(), quad.getObject());
+            else
+                add(quad);
+        });
+    }
+
     /** Add a triple to the default graph.
      * <p>Concrete operation.
      */
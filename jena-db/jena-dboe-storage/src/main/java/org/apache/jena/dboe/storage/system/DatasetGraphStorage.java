@@ -165,6 +165,15 @@ public class DatasetGraphStorage extends DatasetGraphBaseFind implements Databas
             storage.add(quad);
     }
 
+    @Override
+    public void addAll(Iterator<Quad> quads) {
+        storage.addAll(Iter.map(quads, quad -> {
+            if ( Quad.isUnionGraph(quad.getGraph()) )
+                throw new AddDeniedException("Can't add to the union graph");
+            return quad;
+        }));
+    }
+
     @Override
     public void delete(Quad quad) {
         if ( Quad.isDefaultGraph(quad.getGraph()) )
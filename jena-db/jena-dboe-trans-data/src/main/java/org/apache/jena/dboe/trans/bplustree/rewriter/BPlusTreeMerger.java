@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.dboe.trans.bplustree.rewriter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.jena.atlas.iterator.PeekIterator;
+import org.apache.jena.atlas.lib.Pair;
+import org.apache.jena.dboe.base.buffer.PtrBuffer;
+import org.apache.jena.dboe.base.buffer.RecordBuffer;
+import org.apache.jena.dboe.base.record.Record;
+import org.apache.jena.dboe.base.record.RecordFactory;
+import org.apache.jena.dboe.base.recordbuffer.RecordBufferPage;
+import org.apache.jena.dboe.base.recordbuffer.RecordBufferPageMgr;
+import org.apache.jena.dboe.trans.bplustree.BPTreeNode;
+import org.apache.jena.dboe.trans.bplustree.BPTreeNodeMgr;
+import org.apache.jena.dboe.trans.bplustree.BPlusTree;
+import org.apache.jena.dboe.trans.bplustree.BPlusTreeParams;
+
+/**
+ * Merge a sorted stream of records into a transactional B+Tree, writing new blocks only
+ * where the new records go.
+ * <p>
+ * The existing tree is walked from the root. A subtree with no new records in its key
+ * range is used as it is, by block id. A leaf with new records is merged with them and
+ * written as new, full, leaves. The new tree is built bottom up from the sequence of
+ * reused subtrees and new leaves: there is one level of pending (block id, max key)
+ * entries for each height, and a level is written as a new node when it is full.
+ * <p>
+ * Before a reused subtree is added at some height, the levels below it are written out.
+ * A level with too few entries to make a node takes the reused subtree apart instead,
+ * adding its children, so the first subtree after new leaves is rewritten along its
+ * left edge. At the end, a level with too few entries takes in the right edge of the
+ * entry before it. So the blocks written are the new leaves, the nodes above them, and
+ * the nodes on the edges of the reused subtrees next to them.
+ * <p>
+ * Existing blocks are not changed; the tree as it was at the start of the transaction
+ * can still be read.
+ */
+class BPlusTreeMerger {
+    private final BPlusTree bpt;
+    private final BPTreeNodeMgr nodeMgr;
+    private final RecordBufferPageMgr pageMgr;
+    private final RecordFactory recordFactory;
+    private final PeekIterator<Record> input;
+
+    private int maxRecords;
+    private int minRecords;
+    private final int maxPtrs;
+    private final int minPtrs;
+
+    // Records for new leaves.
+    private final List<Record> pendingRecords = new ArrayList<>();
+    // Entries of height h, which become the children of a new node of height h+1.
+    // Height 0 is a leaf (records page).
+    private final List<List<Pair<Integer, Record>>> pending = new ArrayList<>();
+    private Record lastRecord = null;
+
+    BPlusTreeMerger(BPlusTree bpt, Iterator<Record> records) {
+        this.bpt = bpt;
+        this.nodeMgr = bpt.getNodeManager();
+        this.pageMgr = bpt.getRecordsMgr().getRecordBufferPageMgr();
+        this.recordFactory = bpt.getRecordFactory();
+        this.input = PeekIterator.create(records);
+        BPlusTreeParams params = bpt.getParams();
+        this.maxPtrs = params.getMaxPtr();
+        this.minPtrs = params.getMinPtr();
+    }
+
+    /** Merge the records and set the root of the new tree. */
+    void merge() {
+        int rootId = bpt.getRootId();
+        int height = 1;
+        BPTreeNode node = nodeMgr.getRead(rootId, BPlusTreeParams.RootParent);
+        while ( !node.isLeaf() ) {
+            int child = node.getPtrBuffer().get(0);
+            nodeMgr.release(node);
+            node = nodeMgr.getRead(child);
+            height++;
+        }
+        RecordBufferPage page = pageMgr.getRead(node.getPtrBuffer().get(0));
+        maxRecords = page.getMaxSize();
+        minRecords = maxRecords / 2;
+        pageMgr.release(page);
+        nodeMgr.release(node);
+        walk(rootId, height, bpt.maxKey(), true);
+        finish();
+    }
+
+    /** Descend into a subtree that has new records, reusing the children that do not. */
+    private void walk(int id, int height, Record max, boolean rightmost) {
+        if ( height == 0 ) {
+            mergeLeaf(id, max, rightmost);
+            return;
+        }
+        BPTreeNode node = nodeMgr.getRead(id);
+        int count = node.getCount();
+        int[] children = new int[count + 1];
+        Record[] maxKeys = new Record[count + 1];
+        for ( int i = 0 ; i <= count ; i++ ) {
+            children[i] = node.getPtrBuffer().get(i);
+            maxKeys[i] = ( i < count ) ? recordFactory.createKeyOnly(node.getRecordBuffer().get(i)) : max;
+        }
+        nodeMgr.release(node);
+        for ( int i = 0 ; i <= count ; i++ ) {
+            boolean last = rightmost && i == count;
+            if ( hasInput(maxKeys[i], last) )
+                walk(children[i], height - 1, maxKeys[i], last);
+            else
+                addSubtree(children[i], height - 1, maxKeys[i]);
+        }
+    }
+
+    /** Is there a new record in the key range that ends at {@code max}? */
+    private boolean hasInput(Record max, boolean rightmost) {
+        if ( !input.hasNext() )
+            return false;
+        return rightmost || Record.keyLE(input.peek(), max);
+    }
+
+    private void mergeLeaf(int id, Record max, boolean rightmost) {
+        RecordBufferPage page = pageMgr.getRead(id);
+        RecordBuffer rb = page.getRecordBuffer();
+        List<Record> existing = new ArrayList<>(rb.size());
+        for ( int i = 0 ; i < rb.size() ; i++ )
+            existing.add(rb.get(i));
+        pageMgr.release(page);
+        for ( Record r : existing ) {
+            while ( input.hasNext() && Record.keyLT(input.peek(), r) )
+                addRecord(input.next());
+            if ( input.hasNext() && Record.keyEQ(input.peek(), r) )
+                input.next();
+            addRecord(r);
+        }
+        while ( hasInput(max, rightmost) )
+            addRecord(input.next());
+    }
+
+    private void addRecord(Record record) {
+        // Duplicates in the input.
+        if ( lastRecord != null && Record.keyEQ(lastRecord, record) )
+            return;
+        lastRecord = record;
+        pendingRecords.add(record);
+        // Keep enough back that the records left can make a leaf.
+        if ( pendingRecords.size() >= maxRecords + minRecords ) {
+            List<Record> full = pendingRecords.subList(0, maxRecords);
+            addEntry(0, writeLeaf(full));
+            full.clear();
+        }
+    }
+
+    /** Add an existing subtree of the given height (0 for a leaf) to the new tree. */
+    private void addSubtree(int id, int height, Record max) {
+        // The levels below must be written first.
+        if ( !pendingRecords.isEmpty() ) {
+            if ( pendingRecords.size() < minRecords ) {
+                openSubtree(id, height, max);
+                return;
+            }
+            closeRecords();
+        }
+        for ( int h = 0 ; h < height ; h++ ) {
+            List<Pair<Integer, Record>> level = level(h);
+            if ( level.isEmpty() )
+                continue;
+            if ( level.size() < minPtrs ) {
+                openSubtree(id, height, max);
+                return;
+            }
+            closeLevel(h);
+        }
+        addEntry(height, new Pair<>(id, max));
+    }
+
+    /** Add the contents of an existing subtree instead of the subtree itself. */
+    private void openSubtree(int id, int height, Record max) {
+        if ( height == 0 ) {
+            RecordBufferPage page = pageMgr.getRead(id);
+            RecordBuffer rb = page.getRecordBuffer();
+            for ( int i = 0 ; i < rb.size() ; i++ )
+                addRecord(rb.get(i));
+            pageMgr.release(page);
+            return;
+        }
+        for ( Pair<Integer, Record> child : children(id, max) )
+            addSubtree(child.car(), height - 1, child.cdr());
+    }
+
+    private void addEntry(int height, Pair<Integer, Record> entry) {
+        List<Pair<Integer, Record>> level = level(height);
+        level.add(entry);
+        if ( level.size() >= maxPtrs + minPtrs ) {
+            List<Pair<Integer, Record>> full = level.subList(0, maxPtrs);
+            addEntry(height + 1, writeNode(full, height == 0));
+            full.clear();
+        }
+    }
+
+    /** Write the pending records as one leaf, or two if they do not fit in one. */
+    private void closeRecords() {
+        int n = pendingRecords.size();
+        if ( n > maxRecords ) {
+            List<Record> first = pendingRecords.subList(0, n / 2);
+            addEntry(0, writeLeaf(first));
+            first.clear();
+        }
+        addEntry(0, writeLeaf(pendingRecords));
+        pendingRecords.clear();
+    }
+
+    /** Write the pending entries of a level as one node, or two if they do not fit in one. */
+    private void closeLevel(int height) {
+        List<Pair<Integer, Record>> level = level(height);
+        int n = level.size();
+        if ( n > maxPtrs ) {
+            List<Pair<Integer, Record>> first = level.subList(0, n / 2);
+            addEntry(height + 1, writeNode(first, height == 0));
+            first.clear();
+        }
+        addEntry(height + 1, writeNode(level, height == 0));
+        level.clear();
+    }
+
+    /**
+     * Write out all levels, bottom up, and make the single entry left the root. A level
+     * with too few entries, other than the top level, first takes in the right edge of
+     * the entry before it.
+     */
+    private void finish() {
+        if ( !pendingRecords.isEmpty() ) {
+            if ( pendingRecords.size() < minRecords && !topLevel(-1) )
+                takeLeftNeighbour(-1);
+            closeRecords();
+        }
+        for ( int h = 0 ; ; h++ ) {
+            List<Pair<Integer, Record>> level = level(h);
+            boolean top = topLevel(h);
+            if ( top && h > 0 && level.size() == 1 ) {
+                BPTreeNode root = nodeMgr.getRead(level.get(0).car(), BPlusTreeParams.RootParent);
+                bpt.newRoot(root);
+                nodeMgr.release(root);
+                return;
+            }
+            if ( level.isEmpty() )
+                continue;
+            if ( !top && level.size() < minPtrs )
+                takeLeftNeighbour(h);
+            closeLevel(h);
+        }
+    }
+
+    private boolean topLevel(int height) {
+        for ( int h = height + 1 ; h < pending.size() ; h++ ) {
+            if ( !pending.get(h).isEmpty() )
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Move the entries of height {@code height} (-1 for records) on the right edge of the
+     * last entry at a higher level to the front of that level.
+     */
+    private void takeLeftNeighbour(int height) {
+        int g = height + 1;
+        while ( level(g).isEmpty() )
+            g++;
+        // Open the right edge of the neighbour down to the level above this one.
+        for ( ; g > height + 1 ; g-- ) {
+            List<Pair<Integer, Record>> level = level(g);
+            Pair<Integer, Record> entry = level.remove(level.size() - 1);
+            level(g - 1).addAll(children(entry.car(), entry.cdr()));
+        }
+        List<Pair<Integer, Record>> above = level(g);
+        Pair<Integer, Record> entry = above.remove(above.size() - 1);
+        if ( height < 0 ) {
+            RecordBufferPage page = pageMgr.getRead(entry.car());
+            RecordBuffer rb = page.getRecordBuffer();
+            List<Record> records = new ArrayList<>(rb.size() + pendingRecords.size());
+            for ( int i = 0 ; i < rb.size() ; i++ )
+                records.add(rb.get(i));
+            pageMgr.release(page);
+            pendingRecords.addAll(0, records);
+        } else {
+            level(height).addAll(0, children(entry.car(), entry.cdr()));
+        }
+    }
+
+    /** The children of a node as (block id, max key) entries. */
+    private List<Pair<Integer, Record>> children(int id, Record max) {
+        BPTreeNode node = nodeMgr.getRead(id);
+        int count = node.getCount();
+        List<Pair<Integer, Record>> children = new ArrayList<>(count + 1);
+        for ( int i = 0 ; i <= count ; i++ ) {
+            Record key = ( i < count ) ? recordFactory.createKeyOnly(node.getRecordBuffer().get(i)) : max;
+            children.add(new Pair<>(node.getPtrBuffer().get(i), key));
+        }
+        nodeMgr.release(node);
+        return children;
+    }
+
+    private List<Pair<Integer, Record>> level(int height) {
+        while ( pending.size() <= height )
+            pending.add(new ArrayList<>());
+        return pending.get(height);
+    }
+
+    private Pair<Integer, Record> writeLeaf(List<Record> records) {
+        RecordBufferPage page = pageMgr.create();
+        RecordBuffer rb = page.getRecordBuffer();
+        for ( Record r : records )
+            rb.add(r);
+        Record max = recordFactory.createKeyOnly(rb.getHigh());
+        int id = page.getId();
+        pageMgr.put(page);
+        return new Pair<>(id, max);
+    }
+
+    private Pair<Integer, Record> writeNode(List<Pair<Integer, Record>> entries, boolean leafLayer) {
+        BPTreeNode node = nodeMgr.createNode(-1);
+        node.setIsLeaf(leafLayer);
+        RecordBuffer recBuff = node.getRecordBuffer();
+        PtrBuffer ptrBuff = node.getPtrBuffer();
+        recBuff.setSize(0);
+        ptrBuff.setSize(0);
+        int n = entries.size();
+        for ( int i = 0 ; i < n ; i++ ) {
+            Pair<Integer, Record> entry = entries.get(i);
+            ptrBuff.add(entry.car());
+            // The max key of the last child is the max key of this node.
+            if ( i < n - 1 )
+                recBuff.add(recordFactory.create(entry.cdr().getKey()));
+        }
+        node.setCount(n - 1);
+        Record max = entries.get(n - 1).cdr();
+        int id = node.getId();
+        nodeMgr.put(node);
+        return new Pair<>(id, max);
+    }
+}
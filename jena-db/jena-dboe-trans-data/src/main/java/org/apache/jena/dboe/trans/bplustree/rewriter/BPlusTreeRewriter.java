@@ -129,6 +129,24 @@ public class BPlusTreeRewriter {
         return bpt2;
     }
 
+    /**
+     * Merge records into a transactional B+Tree, inside a write transaction. The
+     * records must be in sorted order; records already in the tree are skipped.
+     * <p>
+     * Subtrees with no new records in their key range are reused; new blocks are
+     * written for the leaves that receive records and the nodes above them, so the
+     * cost depends on how many parts of the tree the records fall in, not on the
+     * size of the tree. Existing blocks are not changed. Commit makes the new tree
+     * visible; abort discards it.
+     * <p>
+     * If there are no records, the tree is not changed.
+     */
+    public static void mergeBPlusTree(Iterator<Record> iterRecords, BPlusTree bpt) {
+        if ( !iterRecords.hasNext() )
+            return;
+        new BPlusTreeMerger(bpt, iterRecords).merge();
+    }
+
     // **** data block phase
 
     /** Pack record blocks into linked RecordBufferPages */
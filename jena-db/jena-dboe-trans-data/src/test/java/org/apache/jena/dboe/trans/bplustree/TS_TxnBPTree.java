@@ -19,6 +19,7 @@
 package org.apache.jena.dboe.trans.bplustree;
 
 import org.apache.jena.dboe.trans.bplustree.rewriter.TestBPlusTreeRewriterNonTxn;
+import org.apache.jena.dboe.trans.bplustree.rewriter.TestBPlusTreeRewriterTxn;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -35,7 +36,8 @@ import org.junit.runners.Suite;
     TestBPlusTreeTxn.class,
 
     // Rewriter
-    TestBPlusTreeRewriterNonTxn.class
+    TestBPlusTreeRewriterNonTxn.class,
+    TestBPlusTreeRewriterTxn.class
 } )
 
 public class TS_TxnBPTree
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.dboe.trans.bplustree.rewriter;
+
+import static org.apache.jena.dboe.test.RecordLib.intToRecord;
+import static org.apache.jena.dboe.test.RecordLib.toIntList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.apache.jena.dboe.base.file.Location;
+import org.apache.jena.dboe.base.record.Record;
+import org.apache.jena.dboe.index.testlib.IndexTestLib;
+import org.apache.jena.dboe.test.RecordLib;
+import org.apache.jena.dboe.trans.bplustree.BPlusTree;
+import org.apache.jena.dboe.trans.bplustree.BPlusTreeFactory;
+import org.apache.jena.dboe.transaction.Transactional;
+import org.apache.jena.dboe.transaction.TransactionalFactory;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.system.Txn;
+import org.junit.Test;
+
+/** Merging into a transactional B+Tree with {@link BPlusTreeRewriter#mergeBPlusTree} */
+public class TestBPlusTreeRewriterTxn {
+
+    private static BPlusTree createBPTree(int order) {
+        return BPlusTreeFactory.makeMem(order, order, RecordLib.TestRecordLength, 0);
+    }
+
+    @Test public void bpt_rewrite_txn_empty() {
+        BPlusTree bpt = createBPTree(3);
+        Transactional thing = TransactionalFactory.createTransactional(Location.mem(), bpt);
+        Txn.executeWrite(thing, ()->merge(bpt, 2, 4, 6));
+        Txn.executeRead(thing, ()->IndexTestLib.testIndexContents(bpt, 2, 4, 6));
+    }
+
+    @Test public void bpt_rewrite_txn_no_records() {
+        BPlusTree bpt = createBPTree(3);
+        Transactional thing = TransactionalFactory.createTransactional(Location.mem(), bpt);
+        Txn.executeWrite(thing, ()->IndexTestLib.add(bpt, 1, 2, 3));
+        Txn.executeWrite(thing, ()->merge(bpt));
+        Txn.executeRead(thing, ()->IndexTestLib.testIndexContents(bpt, 1, 2, 3));
+    }
+
+    @Test public void bpt_rewrite_txn_merge_1() {
+        testMerge(2, range(0, 100, 2), range(1, 100, 2));
+    }
+
+    @Test public void bpt_rewrite_txn_merge_2() {
+        // Overlapping
+        testMerge(3, range(0, 200, 1), range(100, 300, 3));
+    }
+
+    @Test public void bpt_rewrite_txn_merge_3() {
+        // One new record.
+        testMerge(5, range(0, 1000, 1), new int[] {500});
+    }
+
+    @Test public void bpt_rewrite_txn_merge_4() {
+        testMerge(5, new int[] {500}, range(0, 1000, 1));
+    }
+
+    @Test public void bpt_rewrite_txn_merge_5() {
+        // At the start and the end.
+        testMerge(2, range(100, 1000, 1), IntStream.concat(IntStream.range(0, 10), IntStream.range(2000, 2500)).toArray());
+    }
+
+    @Test public void bpt_rewrite_txn_merge_6() {
+        // Small clusters spread over the tree.
+        testMerge(2, range(0, 10000, 10), range(5, 10000, 990));
+        testMerge(3, range(0, 10000, 10), IntStream.range(0, 10000).filter(i->i%1000 < 3).toArray());
+    }
+
+    @Test public void bpt_rewrite_txn_merge_7() {
+        for ( int seed = 0 ; seed < 20 ; seed++ ) {
+            Random random = new Random(seed);
+            int[] initial = random.ints(2000, 0, 20000).toArray();
+            int[] added = random.ints(random.nextInt(1, 300), 0, 20000).toArray();
+            testMerge(2 + seed % 3, initial, added);
+        }
+    }
+
+    @Test public void bpt_rewrite_txn_reuse() {
+        // One new record: the existing leaves, other than the one it goes in, are kept.
+        BPlusTree bpt = createBPTree(3);
+        Transactional thing = TransactionalFactory.createTransactional(Location.mem(), bpt);
+        Txn.executeWrite(thing, ()->IndexTestLib.add(bpt, range(0, 20000, 2)));
+        long leaves = bpt.getRecordsMgr().allocLimit();
+        long nodes = bpt.getNodeManager().allocLimit();
+        Txn.executeWrite(thing, ()->merge(bpt, 10001));
+        assertTrue(bpt.getRecordsMgr().allocLimit() - leaves <= 3);
+        assertTrue(bpt.getNodeManager().allocLimit() - nodes <= 20);
+        Txn.executeRead(thing, ()->{
+            bpt.check();
+            IndexTestLib.testIndexContents(bpt, IntStream.concat(IntStream.of(range(0, 20000, 2)), IntStream.of(10001)).sorted().toArray());
+        });
+    }
+
+    @Test public void bpt_rewrite_txn_abort() {
+        BPlusTree bpt = createBPTree(3);
+        Transactional thing = TransactionalFactory.createTransactional(Location.mem(), bpt);
+        Txn.executeWrite(thing, ()->IndexTestLib.add(bpt, range(0, 50, 2)));
+        int rootId = bpt.getRootId();
+        thing.begin(ReadWrite.WRITE);
+        merge(bpt, range(1, 50, 2));
+        thing.abort();
+        thing.end();
+        assertEquals(rootId, bpt.getRootId());
+        Txn.executeRead(thing, ()->IndexTestLib.testIndexContents(bpt, range(0, 50, 2)));
+        // And the tree can be updated after the abort.
+        Txn.executeWrite(thing, ()->IndexTestLib.add(bpt, 99));
+        Txn.executeRead(thing, ()->IndexTestLib.testIndexContents(bpt, IntStream.concat(IntStream.of(range(0, 50, 2)), IntStream.of(99)).toArray()));
+    }
+
+    private static void testMerge(int order, int[] initial, int[] added) {
+        BPlusTree bpt = createBPTree(order);
+        Transactional thing = TransactionalFactory.createTransactional(Location.mem(), bpt);
+        Txn.executeWrite(thing, ()->IndexTestLib.add(bpt, initial));
+        Txn.executeWrite(thing, ()->merge(bpt, added));
+        int[] expected = IntStream.concat(IntStream.of(initial), IntStream.of(added)).distinct().sorted().toArray();
+        Txn.executeRead(thing, ()->{
+            bpt.check();
+            IndexTestLib.testIndexContents(bpt, expected);
+        });
+        // Further updates by insert and delete.
+        int last = expected[expected.length - 1] + 1;
+        Txn.executeWrite(thing, ()->{
+            IndexTestLib.add(bpt, last);
+            IndexTestLib.delete(bpt, expected[0]);
+        });
+        Txn.executeRead(thing, ()->{
+            bpt.check();
+            List<Integer> x = toIntList(bpt.iterator());
+            assertEquals(expected.length, x.size());
+            assertEquals(Integer.valueOf(last), x.get(x.size() - 1));
+        });
+    }
+
+    /** Merge the records into the tree. */
+    private static void merge(BPlusTree bpt, int... values) {
+        Iterator<Record> added = IntStream.of(values).sorted().distinct().mapToObj(v->intToRecord(v)).iterator();
+        BPlusTreeRewriter.mergeBPlusTree(added, bpt);
+    }
+
+    private static int[] range(int start, int end, int step) {
+        return IntStream.iterate(start, i->i<end, i->i+step).toArray();
+    }
+}
@@ -42,6 +42,7 @@ public class DEF
                                                                           contentTypeJSONLD,
                                                                           contentTypeRDFJSON,
                                                                           contentTypeRDFThrift,
+                                                                          contentTypeRDFDict,
 
                                                                           contentTypeTriG,
                                                                           contentTypeTriGAlt1,
@@ -58,7 +59,8 @@ public class DEF
                                                                           contentTypeTriXxml,
                                                                           contentTypeJSONLD,
                                                                           contentTypeRDFJSON,
-                                                                          contentTypeRDFThrift
+                                                                          contentTypeRDFThrift,
+                                                                          contentTypeRDFDict
                                                                           );
 
     public static final AcceptList quadsOffer         = AcceptList.create(contentTypeTriG,
@@ -79,11 +81,12 @@ public class DEF
                                                                           contentTypeResultsXML,
                                                                           contentTypeXML,
                                                                           contentTypeResultsThrift,
+                                                                          contentTypeResultsDict,
                                                                           contentTypeTextPlain
                                                                           );
 
     // Offer for ASK
-    // This includes application/xml and application/json and excludes application/sparql-results+thrift
+    // This includes application/xml and application/json and excludes the binary forms
     public static final AcceptList rsOfferBoolean      = AcceptList.create(contentTypeResultsJSON,
                                                                            contentTypeJSON,
                                                                            contentTypeTextCSV,
@@ -63,6 +63,7 @@ public class ResponseResultSet
     private static final String contentOutputCSV           = "csv";
     private static final String contentOutputTSV           = "tsv";
     private static final String contentOutputThrift        = "thrift";
+    private static final String contentOutputDict          = "dict";
 
     public static Map<String,String> shortNamesResultSet = new HashMap<>();
     static {
@@ -74,6 +75,7 @@ public class ResponseResultSet
         ResponseOps.put(shortNamesResultSet, contentOutputCSV,    contentTypeTextCSV);
         ResponseOps.put(shortNamesResultSet, contentOutputTSV,    contentTypeTextTSV);
         ResponseOps.put(shortNamesResultSet, contentOutputThrift, contentTypeResultsThrift);
+        ResponseOps.put(shortNamesResultSet, contentOutputDict,   contentTypeResultsDict);
     }
 
     interface OutputContent { void output(OutputStream out) throws IOException; }
@@ -140,7 +142,7 @@ public class ResponseResultSet
         // (1) charset is a feature of XML, not the response
         // (2) ?stylesheet=
         //
-        // Thrift is special because
+        // Thrift, Protobuf and RDF-DICT are special because
         // (1) charset is meaningless
         // (2) there is no boolean result form.
 
@@ -177,6 +179,11 @@ public class ResponseResultSet
                 ServletOps.errorBadRequest("Can't write a boolean result in protobuf");
             charset = null;
         }
+        if (Objects.equals(serializationType, WebContent.contentTypeResultsDict) ) {
+            if ( booleanResult != null )
+                ServletOps.errorBadRequest("Can't write a boolean result in RDF-DICT");
+            charset = null;
+        }
 
 
         // Finally, the general case
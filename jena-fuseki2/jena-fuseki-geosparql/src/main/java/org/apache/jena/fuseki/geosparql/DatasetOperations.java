@@ -91,6 +91,8 @@ public class DatasetOperations {
             List<Integer> indexSizes = argsConfig.getIndexSizes();
             List<Long> indexExpiries = argsConfig.getIndexExpiries();
             GeoSPARQLConfig.setupMemoryIndex(indexSizes.get(0), indexSizes.get(1), indexSizes.get(2), indexExpiries.get(0), indexExpiries.get(1), indexExpiries.get(2), argsConfig.isQueryRewrite());
+            List<Integer> indexMemory = argsConfig.getIndexMemory();
+            GeoSPARQLConfig.setIndexMaxMemory(megabytes(indexMemory.get(0)), megabytes(indexMemory.get(1)), megabytes(indexMemory.get(2)));
         } else {
             GeoSPARQLConfig.setupNoIndex(argsConfig.isQueryRewrite());
         }
@@ -240,4 +242,8 @@ public class DatasetOperations {
         }
     }
 
+    private static long megabytes(int megabytes) {
+        return megabytes < 0 ? -1 : megabytes * 1024L * 1024L;
+    }
+
 }
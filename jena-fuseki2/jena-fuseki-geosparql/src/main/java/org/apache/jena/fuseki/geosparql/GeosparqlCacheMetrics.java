@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.jena.fuseki.geosparql;
+
+import java.util.List;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.jena.geosparql.implementation.index.GeometryLiteralIndex;
+import org.apache.jena.geosparql.implementation.index.GeometryTransformIndex;
+import org.apache.jena.geosparql.implementation.index.IndexCache;
+import org.apache.jena.geosparql.implementation.index.QueryRewriteIndex;
+import org.apache.jena.query.Dataset;
+
+/**
+ * Metrics of the GeoSPARQL geometry literal, geometry transform and query rewrite
+ * caches: hits, misses, evictions, number of items and estimated memory in bytes.
+ */
+public class GeosparqlCacheMetrics implements MeterBinder {
+
+    private final Dataset dataset;
+
+    public GeosparqlCacheMetrics(Dataset dataset) {
+        this.dataset = dataset;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        List<IndexCache<?, ?>> caches = List.of(
+                GeometryLiteralIndex.getPrimaryIndex(),
+                GeometryLiteralIndex.getSecondaryIndex(),
+                GeometryTransformIndex.getIndex(),
+                QueryRewriteIndex.retrieve(dataset).getIndex());
+
+        for (IndexCache<?, ?> cache : caches) {
+            String[] tags = new String[]{"cache", cache.getLabel()};
+            FunctionCounter.builder("geosparql_cache_hits", cache, c -> c.getStats().hitCount())
+                    .tags(tags)
+                    .register(registry);
+            FunctionCounter.builder("geosparql_cache_misses", cache, c -> c.getStats().missCount())
+                    .tags(tags)
+                    .register(registry);
+            FunctionCounter.builder("geosparql_cache_evictions", cache, c -> c.getStats().evictionCount())
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("geosparql_cache_size", cache, IndexCache::size)
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("geosparql_cache_memory", cache, IndexCache::getMemory)
+                    .tags(tags)
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+}
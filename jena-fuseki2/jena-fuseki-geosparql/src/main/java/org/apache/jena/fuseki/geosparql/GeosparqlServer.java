@@ -21,6 +21,7 @@ import java.lang.invoke.MethodHandles;
 
 import org.apache.jena.fuseki.main.FusekiServer;
 import org.apache.jena.fuseki.main.FusekiServer.Builder;
+import org.apache.jena.fuseki.metrics.MetricsProviderRegistry;
 import org.apache.jena.fuseki.system.FusekiLogging;
 import org.apache.jena.query.Dataset;
 import org.slf4j.Logger;
@@ -40,6 +41,19 @@ public class GeosparqlServer {
     private Thread shutdownThread = null;
 
     public GeosparqlServer(int port, String datasetName, boolean loopbackOnly, Dataset dataset, boolean allowUpdate) {
+        this(port, datasetName, loopbackOnly, dataset, allowUpdate, false);
+    }
+
+    /**
+     *
+     * @param port
+     * @param datasetName
+     * @param loopbackOnly
+     * @param dataset
+     * @param allowUpdate
+     * @param withMetrics Provide the server and GeoSPARQL cache metrics at /$/metrics.
+     */
+    public GeosparqlServer(int port, String datasetName, boolean loopbackOnly, Dataset dataset, boolean allowUpdate, boolean withMetrics) {
         this.port = port;
         this.datasetName = checkDatasetName(datasetName);
         this.localServiceURL = "http://localhost:" + port + "/" + datasetName;
@@ -48,9 +62,13 @@ public class GeosparqlServer {
 
         Builder builder = FusekiServer.create()
                 .port(port)
-                .loopback(loopbackOnly);
+                .loopback(loopbackOnly)
+                .enableMetrics(withMetrics);
         builder.add(datasetName, dataset, allowUpdate);
         this.server = builder.build();
+        if (withMetrics) {
+            new GeosparqlCacheMetrics(dataset).bindTo(MetricsProviderRegistry.get().getMeterRegistry());
+        }
     }
 
     private String checkDatasetName(String datasetName) {
@@ -66,7 +66,7 @@ public class Main {
             Dataset dataset = DatasetOperations.setup(argsConfig);
 
             //Configure server
-            GeosparqlServer server = new GeosparqlServer(argsConfig.getPort(), argsConfig.getDatsetName(), argsConfig.isLoopbackOnly(), dataset, argsConfig.isUpdateAllowed());
+            GeosparqlServer server = new GeosparqlServer(argsConfig.getPort(), argsConfig.getDatsetName(), argsConfig.isLoopbackOnly(), dataset, argsConfig.isUpdateAllowed(), argsConfig.isMetrics());
             server.start();
         } catch (SrsException | DatasetException | SpatialIndexException ex) {
             LOGGER.error("GeoSPARQL Server:  Exiting - {}: {}", ex.getMessage(), argsConfig.getDatsetName());
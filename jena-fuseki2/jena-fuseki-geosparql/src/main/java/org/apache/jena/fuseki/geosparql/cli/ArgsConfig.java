@@ -107,8 +107,16 @@ public class ArgsConfig {
     @Parameter(names = {"--transform_geometry", "-tg"}, description = "Option to disable transformation of mismatching Geometry SRS. Default: true", arity = 1, order = 18)
     private boolean transformGeometry = true;
 
-    //20) Help
-    @Parameter(names = {"--help", "-h"}, description = "Application help. @path/to/file can be used to submit parameters in a file.", help = true, order = 18)
+    //20) Index memory
+    @Parameter(names = {"--index_memory", "-xm"}, description = "List of Index memory limits in megabytes, used when the item size is unlimited: [Geometry Literal, Geometry Transform, Query Rewrite]. Unlimited: -1", listConverter = IntegerListConverter.class, order = 19)
+    private List<Integer> indexMemory = Arrays.asList(64, 64, 16);
+
+    //21) Metrics
+    @Parameter(names = {"--metrics", "-me"}, description = "Provide server and GeoSPARQL index cache metrics at /$/metrics. Default: false", order = 20)
+    private boolean metrics = false;
+
+    //22) Help
+    @Parameter(names = {"--help", "-h"}, description = "Application help. @path/to/file can be used to submit parameters in a file.", help = true, order = 21)
     private boolean help = false;
 
     public int getPort() {
@@ -151,6 +159,14 @@ public class ArgsConfig {
         return indexExpiries;
     }
 
+    public List<Integer> getIndexMemory() {
+        return indexMemory;
+    }
+
+    public boolean isMetrics() {
+        return metrics;
+    }
+
     public List<FileGraphFormat> getFileGraphFormats() {
         return fileGraphFormats;
     }
@@ -208,7 +224,7 @@ public class ArgsConfig {
     }
 
     public String getSummary() {
-        return "port=" + port + ", datsetName=" + datsetName + ", loopbackOnly=" + loopbackOnly + ", updateAllowed=" + updateAllowed + ", inference=" + inference + ", applyDefaultGeometry=" + applyDefaultGeometry + ", validateGeometryLiteral=" + validateGeometryLiteral + ", convertGeoPredicates=" + convertGeoPredicates + ", removeGeoPredicates=" + removeGeoPredicates + ", queryRewrite=" + queryRewrite + ", tdbFile=" + tdbFile + ", fileGraphFormats=" + fileGraphFormats + ", fileGraphDelimiters=" + fileGraphDelimiters + ", indexEnabled=" + indexEnabled + ", indexSizes=" + indexSizes + ", indexExpiries=" + indexExpiries + ", spatialIndexFile=" + spatialIndexFile + ", tdb2=" + tdb2 + ", transformGeometry=" + transformGeometry + ", help=" + help;
+        return "port=" + port + ", datsetName=" + datsetName + ", loopbackOnly=" + loopbackOnly + ", updateAllowed=" + updateAllowed + ", inference=" + inference + ", applyDefaultGeometry=" + applyDefaultGeometry + ", validateGeometryLiteral=" + validateGeometryLiteral + ", convertGeoPredicates=" + convertGeoPredicates + ", removeGeoPredicates=" + removeGeoPredicates + ", queryRewrite=" + queryRewrite + ", tdbFile=" + tdbFile + ", fileGraphFormats=" + fileGraphFormats + ", fileGraphDelimiters=" + fileGraphDelimiters + ", indexEnabled=" + indexEnabled + ", indexSizes=" + indexSizes + ", indexExpiries=" + indexExpiries + ", indexMemory=" + indexMemory + ", spatialIndexFile=" + spatialIndexFile + ", tdb2=" + tdb2 + ", transformGeometry=" + transformGeometry + ", metrics=" + metrics + ", help=" + help;
     }
 
     @Override
@@ -69,6 +69,7 @@ public class JettyLib {
         mimeTypes.addMimeMapping("rj",      WebContent.contentTypeRDFJSON);
         mimeTypes.addMimeMapping("rt",      WebContent.contentTypeRDFThrift);
         mimeTypes.addMimeMapping("trdf",    WebContent.contentTypeRDFThrift);
+        mimeTypes.addMimeMapping("rdict",   WebContent.contentTypeRDFDict);
 
         // SPARQL syntax
         mimeTypes.addMimeMapping("rq",      WebContent.contentTypeSPARQLQuery);
@@ -79,6 +80,7 @@ public class JettyLib {
         mimeTypes.addMimeMapping("rsx",     WebContent.contentTypeResultsXML);
         mimeTypes.addMimeMapping("srt",     WebContent.contentTypeResultsThrift);
         mimeTypes.addMimeMapping("srt",     WebContent.contentTypeResultsProtobuf);
+        mimeTypes.addMimeMapping("srd",     WebContent.contentTypeResultsDict);
 
         // Other
         mimeTypes.addMimeMapping("txt",     WebContent.contentTypeTextPlain);
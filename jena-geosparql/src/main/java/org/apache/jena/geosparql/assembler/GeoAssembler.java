@@ -21,6 +21,7 @@ package org.apache.jena.geosparql.assembler;
 import static org.apache.jena.geosparql.assembler.VocabGeoSPARQL.*;
 import static org.apache.jena.sparql.util.graph.GraphUtils.getBooleanValue;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -109,7 +110,13 @@ public class GeoAssembler extends DatasetAssembler {
         List<Integer> indexExpiries = Arrays.asList(5000, 5000, 5000);
         // "List of Index item expiry in milliseconds: [Geometry Literal, Geometry Transform, Query Rewrite]. Off: 0, Minimum: 1001"
         if (root.hasProperty(pIndexExpiries) )
-            indexExpiries = getListInteger(root, pIndexSizes, 3);
+            indexExpiries = getListInteger(root, pIndexExpiries, 3);
+
+        //Index memory. names = {"--index_memory", "-xm"}
+        List<Integer> indexMemory = Arrays.asList(64, 64, 16);
+        // "List of Index memory budgets in megabytes: [Geometry Literal, Geometry Transform, Query Rewrite]. Unlimited: -1"
+        if (root.hasProperty(pIndexMemory) )
+            indexMemory = getListInteger(root, pIndexMemory, 3);
 
         // Spatial Index file. CLI: names = {"--spatial_index", "-si"}
         String spatialIndexFilename = null;
@@ -117,6 +124,16 @@ public class GeoAssembler extends DatasetAssembler {
         if (root.hasProperty(pSpatialIndexFile) )
             spatialIndexFilename = GraphUtils.getStringValue(root, pSpatialIndexFile);
 
+        // Update the spatial index with changes to the data.
+        boolean spatialIndexUpdates = false;
+        if (root.hasProperty(pSpatialIndexUpdates) )
+            spatialIndexUpdates = getBooleanValue(root, pSpatialIndexUpdates);
+
+        // Spatial index for each graph.
+        boolean spatialIndexPerGraph = false;
+        if (root.hasProperty(pSpatialIndexPerGraph) )
+            spatialIndexPerGraph = getBooleanValue(root, pSpatialIndexPerGraph);
+
         // ---- Build
 
         Dataset dataset = DatasetFactory.wrap(base);
@@ -144,14 +161,35 @@ public class GeoAssembler extends DatasetAssembler {
             GeoSPARQLConfig.setupMemoryIndex(indexSizes.get(0), indexSizes.get(1), indexSizes.get(2),
                                              (long)indexExpiries.get(0), (long)indexExpiries.get(1), (long)indexExpiries.get(2),
                                              queryRewrite);
+            GeoSPARQLConfig.setIndexMaxMemory(megabytes(indexMemory.get(0)), megabytes(indexMemory.get(1)), megabytes(indexMemory.get(2)));
         } else {
             GeoSPARQLConfig.setupNoIndex(queryRewrite);
         }
 
+        if ( spatialIndexUpdates || spatialIndexPerGraph ) {
+            Dataset updatable = prepareUpdatableSpatialExtension(dataset, spatialIndexFilename, spatialIndexPerGraph);
+            return spatialIndexUpdates ? updatable.asDatasetGraph() : base;
+        }
         prepareSpatialExtension(dataset, spatialIndexFilename);
         return base;
     }
 
+    private static long megabytes(int megabytes) {
+        return megabytes < 0 ? -1 : megabytes * 1024L * 1024L;
+    }
+
+    private static Dataset prepareUpdatableSpatialExtension(Dataset dataset, String spatialIndex, boolean perGraph) {
+        try {
+            File spatialIndexFile = ( spatialIndex == null ) ? null : Path.of(spatialIndex).toFile();
+            return GeoSPARQLConfig.setupUpdatableSpatialIndex(dataset, spatialIndexFile, perGraph);
+        }
+        catch (SpatialIndexException ex) {
+            String msg = "Failed to create spatial index: "+ex.getMessage();
+            LOG.error(msg);
+            throw new JenaException(msg, ex);
+        }
+    }
+
     private static List<Integer> getListInteger(Resource r, Property p, int len) {
         String integers = GraphUtils.getStringValue(r, p);
         String[] values = integers.split(",");
@@ -69,10 +69,20 @@ public class VocabGeoSPARQL {
     // "List of Index item expiry in milliseconds: [Geometry Literal, Geometry Transform, Query Rewrite]. Off: 0, Minimum: 1001"
     public static final Property pIndexExpiries = property("indexExpiries");
 
+    // CLI: names = {"--index_memory", "-xm"}
+    // "List of Index memory budgets in megabytes: [Geometry Literal, Geometry Transform, Query Rewrite]. Unlimited: -1"
+    public static final Property pIndexMemory = property("indexMemory");
+
     // CLI: names = {"--spatial_index", "-si"}
     // "File to load or store the spatial index. Default to " + SPATIAL_INDEX_FILE + " in TDB folder if using TDB and not set. Otherwise spatial index is not stored.
     public static final Property pSpatialIndexFile = property("spatialIndexFile");
 
+    // "Update the spatial index with changes to the data, and append the changes to the spatial index file."
+    public static final Property pSpatialIndexUpdates = property("spatialIndexUpdates");
+
+    // "Index each graph separately so spatial queries on a graph only find features in that graph."
+    public static final Property pSpatialIndexPerGraph = property("spatialIndexPerGraph");
+
     // Dataset
     public static final Property pDataset = property("dataset");
 }
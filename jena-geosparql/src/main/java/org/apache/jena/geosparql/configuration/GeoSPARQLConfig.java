@@ -27,9 +27,12 @@ import org.apache.jena.geosparql.implementation.index.IndexConfiguration.IndexOp
 import org.apache.jena.geosparql.implementation.index.QueryRewriteIndex;
 import org.apache.jena.geosparql.implementation.registry.SRSRegistry;
 import org.apache.jena.geosparql.implementation.vocabulary.Geo;
+import org.apache.jena.geosparql.implementation.vocabulary.SRS_URI;
+import org.apache.jena.geosparql.spatial.DatasetGraphSpatialIndex;
 import org.apache.jena.geosparql.spatial.SpatialIndex;
 import org.apache.jena.geosparql.spatial.SpatialIndexException;
 import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.sparql.function.FunctionRegistry;
 import org.apache.jena.sparql.pfunction.PropertyFunctionRegistry;
 import org.apache.jena.sys.JenaSystem;
@@ -112,7 +115,8 @@ public class GeoSPARQLConfig {
      * Initialise all GeoSPARQL property and filter functions with memory
      * indexing.
      * <br>Use this for in-memory indexing GeoSPARQL setup and to control the
-     * index expiry rate (milliseconds). Size is defaulted to unlimited.
+     * index expiry rate (milliseconds). Size is defaulted to unlimited, bounded
+     * by memory.
      * <br>This does not affect the use of Spatial Indexes for Datasets.
      *
      * @param geometryLiteralIndex
@@ -128,7 +132,7 @@ public class GeoSPARQLConfig {
      * Initialise all GeoSPARQL property and filter functions with memory
      * indexing.
      * <br>Use this for in-memory indexing GeoSPARQL setup and to control the
-     * index sizes (default: unlimited) and expiry rate (default: 5,000
+     * index sizes (default: unlimited, bounded by memory) and expiry rate (default: 5,000
      * milliseconds).
      * <br>This does not affect the use of Spatial Indexes for Datasets.
      *
@@ -146,6 +150,20 @@ public class GeoSPARQLConfig {
         IndexConfiguration.setIndexExpiry(geometryLiteralIndexExpiry, geometryTransformIndexExpiry, queryRewriteIndexExpiry);
     }
 
+    /**
+     * Set the memory budget in bytes of the indexes (defaults: 64MB, 64MB and
+     * 16MB for each Query Rewrite Index). The budget applies when the size of an
+     * index is unlimited (-1). Use -1 for unlimited memory.
+     * <br>This does not affect the use of Spatial Indexes for Datasets.
+     *
+     * @param geometryLiteralIndex
+     * @param geometryTransformIndex
+     * @param queryRewriteIndex
+     */
+    public static final void setIndexMaxMemory(Long geometryLiteralIndex, Long geometryTransformIndex, Long queryRewriteIndex) {
+        IndexConfiguration.setIndexMaxMemory(geometryLiteralIndex, geometryTransformIndex, queryRewriteIndex);
+    }
+
     /**
      * Initialise all GeoSPARQL property and filter functions with no indexing.
      * <br>Use this for no indexing GeoSPARQL setup.
@@ -319,6 +337,35 @@ public class GeoSPARQLConfig {
         SpatialIndex.buildSpatialIndex(dataset, srsURI, spatialIndexFile);
     }
 
+    /**
+     * Setup a Spatial Index that is kept up to date with changes to the data.<br>
+     * The Spatial Index is loaded from the file if it exists, otherwise it is built
+     * from the Dataset, with the most frequent SRS URI in the Dataset or the default
+     * SRS if there are no geometries, and written to the file.<br>
+     * Changes must be made through the returned Dataset to update the Spatial Index.
+     *
+     * @param dataset
+     * @param spatialIndexFile File for the Spatial Index, or null for none.
+     * @param perGraph Whether to index each graph separately.
+     * @return Dataset that updates the Spatial Index.
+     * @throws SpatialIndexException
+     */
+    public static final Dataset setupUpdatableSpatialIndex(Dataset dataset, File spatialIndexFile, boolean perGraph) throws SpatialIndexException {
+        SpatialIndex spatialIndex = SpatialIndex.load(spatialIndexFile);
+        if (spatialIndex.isEmpty()) {
+            String srsURI;
+            try {
+                srsURI = GeoSPARQLOperations.findModeSRS(dataset);
+            } catch (SrsException ex) {
+                srsURI = SRS_URI.DEFAULT_WKT_CRS84;
+            }
+            spatialIndex = SpatialIndex.buildSpatialIndex(dataset, srsURI, perGraph);
+            SpatialIndex.save(spatialIndexFile, spatialIndex);
+        }
+        SpatialIndex.setSpatialIndex(dataset, spatialIndex);
+        return DatasetFactory.wrap(new DatasetGraphSpatialIndex(dataset.asDatasetGraph(), spatialIndexFile));
+    }
+
     /**
      * Set the number of decimal places precision used in calculations and
      * coordinate transformations. Inaccuracies exist in these calculations and
@@ -236,7 +236,7 @@ public abstract class GenericPropertyFunction extends PFuncSimple {
             GeometryWrapper geom = GeometryWrapper.extract(geometryLiteral);
             GeometryWrapper transformedGeom = geom.transform(spatialIndex.getSrsInfo());
             Envelope searchEnvelope = transformedGeom.getEnvelope();
-            HashSet<Resource> features = spatialIndex.query(searchEnvelope);
+            HashSet<Resource> features = spatialIndex.query(searchEnvelope, execCxt);
 
             //Check each of the Features that match the search.
             for (Resource feature : features) {
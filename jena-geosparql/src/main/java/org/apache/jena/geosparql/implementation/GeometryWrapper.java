@@ -38,6 +38,7 @@ import org.apache.jena.geosparql.implementation.registry.UnitsRegistry;
 import org.apache.jena.geosparql.implementation.vocabulary.SRS_URI;
 import org.apache.jena.geosparql.implementation.vocabulary.Unit_URI;
 import org.apache.jena.graph.Node;
+import org.apache.jena.graph.impl.LiteralLabel;
 import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.sparql.expr.NodeValue;
@@ -1088,6 +1089,15 @@ public class GeometryWrapper implements Serializable {
             throw new DatatypeFormatException("Not a Literal: " + geometryLiteral);
         }
 
+        //A literal of a registered GeometryDatatype holds the GeometryWrapper as its value: no need to parse it again.
+        LiteralLabel literalLabel = geometryLiteral.getLiteral();
+        if (literalLabel.getDatatype() instanceof GeometryDatatype && literalLabel.isWellFormed()) {
+            Object value = literalLabel.getValue();
+            if (value instanceof GeometryWrapper) {
+                return (GeometryWrapper) value;
+            }
+        }
+
         String datatypeURI = geometryLiteral.getLiteralDatatypeURI();
         String lexicalForm = geometryLiteral.getLiteralLexicalForm();
         return extract(lexicalForm, datatypeURI, targetIndex);
@@ -1122,7 +1132,7 @@ public class GeometryWrapper implements Serializable {
      * @return Geometry Wrapper of the Geometry Literal.
      */
     public static final GeometryWrapper extract(Literal geometryLiteral, GeometryIndex targetIndex) {
-        return extract(geometryLiteral.getLexicalForm(), geometryLiteral.getDatatypeURI(), targetIndex);
+        return extract(geometryLiteral.asNode(), targetIndex);
     }
 
     /**
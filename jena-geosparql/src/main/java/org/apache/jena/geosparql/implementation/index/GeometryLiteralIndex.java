@@ -20,10 +20,7 @@ package org.apache.jena.geosparql.implementation.index;
 import static org.apache.jena.ext.io.github.galbiston.expiring_map.MapDefaultValues.MAP_EXPIRY_INTERVAL;
 import static org.apache.jena.ext.io.github.galbiston.expiring_map.MapDefaultValues.UNLIMITED_MAP;
 
-import java.util.Map;
-
-import org.apache.jena.ext.io.github.galbiston.expiring_map.ExpiringMap;
-import org.apache.jena.ext.io.github.galbiston.expiring_map.ExpiringMaps;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.apache.jena.geosparql.implementation.GeometryWrapper;
 import org.apache.jena.geosparql.implementation.datatype.GeometryDatatype;
 
@@ -36,8 +33,12 @@ public class GeometryLiteralIndex {
     private static boolean INDEX_ACTIVE = false;
     private static final String PRIMARY_INDEX_LABEL = "Primary Geometry Literal Index";
     private static final String SECONDARY_INDEX_LABEL = "Secondary Geometry Literal Index";
-    private static ExpiringMap<String, GeometryWrapper> PRIMARY_INDEX = ExpiringMaps.newExpiringMap(PRIMARY_INDEX_LABEL, UNLIMITED_MAP, MAP_EXPIRY_INTERVAL);
-    private static ExpiringMap<String, GeometryWrapper> SECONDARY_INDEX = ExpiringMaps.newExpiringMap(SECONDARY_INDEX_LABEL, UNLIMITED_MAP, MAP_EXPIRY_INTERVAL);
+    /**
+     * Default memory budget of each of the primary and secondary indexes: 64MB.
+     */
+    public static final long DEFAULT_MAX_MEMORY = 64L * 1024 * 1024;
+    private static final IndexCache<String, GeometryWrapper> PRIMARY_INDEX = new IndexCache<>(PRIMARY_INDEX_LABEL, UNLIMITED_MAP, DEFAULT_MAX_MEMORY, MAP_EXPIRY_INTERVAL, GeometryLiteralIndex::weigh);
+    private static final IndexCache<String, GeometryWrapper> SECONDARY_INDEX = new IndexCache<>(SECONDARY_INDEX_LABEL, UNLIMITED_MAP, DEFAULT_MAX_MEMORY, MAP_EXPIRY_INTERVAL, GeometryLiteralIndex::weigh);
 
     public enum GeometryIndex {
         PRIMARY, SECONDARY
@@ -57,28 +58,33 @@ public class GeometryLiteralIndex {
         return geometryWrapper;
     }
 
-    private static GeometryWrapper retrieveMemoryIndex(String geometryLiteral, GeometryDatatype geometryDatatype, Map<String, GeometryWrapper> index, Map<String, GeometryWrapper> otherIndex) {
-
-        GeometryWrapper geometryWrapper;
+    private static GeometryWrapper retrieveMemoryIndex(String geometryLiteral, GeometryDatatype geometryDatatype, IndexCache<String, GeometryWrapper> index, IndexCache<String, GeometryWrapper> otherIndex) {
 
         if (INDEX_ACTIVE) {
-
-            geometryWrapper = index.get(geometryLiteral);
-            if (geometryWrapper == null) {
-                geometryWrapper = otherIndex.get(geometryLiteral);
-                if (geometryWrapper == null) {
-                    geometryWrapper = geometryDatatype.read(geometryLiteral);
-                }
-                index.put(geometryLiteral, geometryWrapper);
-            }
-
-            return geometryWrapper;
+            return index.get(geometryLiteral, key -> {
+                GeometryWrapper geometryWrapper = otherIndex.getIfPresent(key);
+                return geometryWrapper != null ? geometryWrapper : geometryDatatype.read(key);
+            });
         }
 
         return geometryDatatype.read(geometryLiteral);
 
     }
 
+    /**
+     * Estimated size in bytes of an index entry: the geometry literal and the
+     * coordinates of the geometry.
+     *
+     * @param geometryLiteral
+     * @param geometryWrapper
+     * @return Estimated size in bytes.
+     */
+    static int weigh(String geometryLiteral, GeometryWrapper geometryWrapper) {
+        // Parsing and XY geometries: about 48 bytes for each coordinate.
+        long size = 256 + 2L * geometryLiteral.length() + 2L * 48 * geometryWrapper.getXYGeometry().getNumPoints();
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
     /**
      * Empty the Geometry Literal Index.
      */
@@ -90,13 +96,24 @@ public class GeometryLiteralIndex {
     /**
      * Sets the maximum size of Geometry Literal Index.
      *
-     * @param maxSize : use -1 for unlimited size
+     * @param maxSize : use -1 for unlimited size, bounded by the memory budget
      */
     public static final void setMaxSize(int maxSize) {
         PRIMARY_INDEX.setMaxSize(maxSize);
         SECONDARY_INDEX.setMaxSize(maxSize);
     }
 
+    /**
+     * Sets the memory budget of each of the primary and secondary Geometry Literal
+     * Indexes. This applies when the maximum size is unlimited.
+     *
+     * @param maxMemory : bytes, use -1 for unlimited memory
+     */
+    public static final void setMaxMemory(long maxMemory) {
+        PRIMARY_INDEX.setMaxMemory(maxMemory);
+        SECONDARY_INDEX.setMaxMemory(maxMemory);
+    }
+
     /**
      * Sets the expiry time in milliseconds of the Geometry Literal Indexes, if
      * active.
@@ -113,7 +130,7 @@ public class GeometryLiteralIndex {
      * @return Number of items in the primary index.
      */
     public static final long getPrimaryIndexSize() {
-        return PRIMARY_INDEX.mappingCount();
+        return PRIMARY_INDEX.size();
     }
 
     /**
@@ -121,7 +138,31 @@ public class GeometryLiteralIndex {
      * @return Number of items in the secondary index.
      */
     public static final long getSecondaryIndexSize() {
-        return SECONDARY_INDEX.mappingCount();
+        return SECONDARY_INDEX.size();
+    }
+
+    /**
+     *
+     * @return Hits, misses and evictions of the primary and secondary indexes.
+     */
+    public static final CacheStats getStats() {
+        return PRIMARY_INDEX.getStats().plus(SECONDARY_INDEX.getStats());
+    }
+
+    /**
+     *
+     * @return The primary index.
+     */
+    public static final IndexCache<String, GeometryWrapper> getPrimaryIndex() {
+        return PRIMARY_INDEX;
+    }
+
+    /**
+     *
+     * @return The secondary index.
+     */
+    public static final IndexCache<String, GeometryWrapper> getSecondaryIndex() {
+        return SECONDARY_INDEX;
     }
 
     /**
@@ -139,13 +180,6 @@ public class GeometryLiteralIndex {
      */
     public static void setIndexActive(boolean indexActive) {
         INDEX_ACTIVE = indexActive;
-        if (INDEX_ACTIVE) {
-            PRIMARY_INDEX.startExpiry();
-            SECONDARY_INDEX.startExpiry();
-        } else {
-            PRIMARY_INDEX.stopExpiry();
-            SECONDARY_INDEX.stopExpiry();
-        }
     }
 
     /**
@@ -156,8 +190,8 @@ public class GeometryLiteralIndex {
      * @param expiryInterval
      */
     public static void reset(int maxSize, long expiryInterval) {
-        PRIMARY_INDEX = ExpiringMaps.newExpiringMap(PRIMARY_INDEX_LABEL, maxSize, expiryInterval);
-        SECONDARY_INDEX = ExpiringMaps.newExpiringMap(SECONDARY_INDEX_LABEL, maxSize, expiryInterval);
+        PRIMARY_INDEX.reset(maxSize, expiryInterval);
+        SECONDARY_INDEX.reset(maxSize, expiryInterval);
     }
 
 }
@@ -22,8 +22,7 @@ import static org.apache.jena.ext.io.github.galbiston.expiring_map.MapDefaultVal
 
 import java.util.Objects;
 
-import org.apache.jena.ext.io.github.galbiston.expiring_map.ExpiringMap;
-import org.apache.jena.ext.io.github.galbiston.expiring_map.ExpiringMaps;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.apache.jena.geosparql.implementation.DimensionInfo;
 import org.apache.jena.geosparql.implementation.GeometryWrapper;
 import org.apache.jena.geosparql.implementation.jts.GeometryTransformation;
@@ -44,7 +43,12 @@ public class GeometryTransformIndex {
 
     private static boolean INDEX_ACTIVE = false;
     private static final String GEOMETRY_TRANSFORM_LABEL = "Geometry Transform";
-    private static ExpiringMap<IndexKey, GeometryWrapper> GEOMETRY_TRANSFORM_INDEX = ExpiringMaps.newExpiringMap(GEOMETRY_TRANSFORM_LABEL, UNLIMITED_MAP, MAP_EXPIRY_INTERVAL);
+    /**
+     * Default memory budget of the index: 64MB.
+     */
+    public static final long DEFAULT_MAX_MEMORY = 64L * 1024 * 1024;
+    private static final IndexCache<IndexKey, GeometryWrapper> GEOMETRY_TRANSFORM_INDEX = new IndexCache<>(GEOMETRY_TRANSFORM_LABEL, UNLIMITED_MAP, DEFAULT_MAX_MEMORY, MAP_EXPIRY_INTERVAL,
+            (key, geometryWrapper) -> GeometryLiteralIndex.weigh(key.sourceGeometryLiteral, geometryWrapper));
 
     /**
      *
@@ -62,7 +66,7 @@ public class GeometryTransformIndex {
 
         if (INDEX_ACTIVE && storeSRSTransform) {
 
-            transformedGeometryWrapper = GEOMETRY_TRANSFORM_INDEX.get(key);
+            transformedGeometryWrapper = GEOMETRY_TRANSFORM_INDEX.getIfPresent(key);
             if (transformedGeometryWrapper == null) {
                 transformedGeometryWrapper = transform(sourceGeometryWrapper, srsURI);
                 GEOMETRY_TRANSFORM_INDEX.put(key, transformedGeometryWrapper);
@@ -100,12 +104,22 @@ public class GeometryTransformIndex {
     /**
      * Sets whether the maximum size of the Geometry Transform Index.
      *
-     * @param maxSize : use -1 for unlimited size
+     * @param maxSize : use -1 for unlimited size, bounded by the memory budget
      */
     public static final void setMaxSize(int maxSize) {
         GEOMETRY_TRANSFORM_INDEX.setMaxSize(maxSize);
     }
 
+    /**
+     * Sets the memory budget of the Geometry Transform Index. This applies when the
+     * maximum size is unlimited.
+     *
+     * @param maxMemory : bytes, use -1 for unlimited memory
+     */
+    public static final void setMaxMemory(long maxMemory) {
+        GEOMETRY_TRANSFORM_INDEX.setMaxMemory(maxMemory);
+    }
+
     /**
      * Sets the expiry time in milliseconds of the Geometry Transform Index, if
      * active.
@@ -121,7 +135,23 @@ public class GeometryTransformIndex {
      * @return Number of items in the index.
      */
     public static final long getGeometryTransformIndexSize() {
-        return GEOMETRY_TRANSFORM_INDEX.mappingCount();
+        return GEOMETRY_TRANSFORM_INDEX.size();
+    }
+
+    /**
+     *
+     * @return Hits, misses and evictions of the index.
+     */
+    public static final CacheStats getStats() {
+        return GEOMETRY_TRANSFORM_INDEX.getStats();
+    }
+
+    /**
+     *
+     * @return The index.
+     */
+    public static final IndexCache<?, GeometryWrapper> getIndex() {
+        return GEOMETRY_TRANSFORM_INDEX;
     }
 
     /**
@@ -139,11 +169,6 @@ public class GeometryTransformIndex {
      */
     public static void setIndexActive(boolean indexActive) {
         INDEX_ACTIVE = indexActive;
-        if (INDEX_ACTIVE) {
-            GEOMETRY_TRANSFORM_INDEX.startExpiry();
-        } else {
-            GEOMETRY_TRANSFORM_INDEX.stopExpiry();
-        }
     }
 
     /**
@@ -154,7 +179,7 @@ public class GeometryTransformIndex {
      * @param expiryInterval
      */
     public static void reset(int maxSize, long expiryInterval) {
-        GEOMETRY_TRANSFORM_INDEX = ExpiringMaps.newExpiringMap(GEOMETRY_TRANSFORM_LABEL, maxSize, expiryInterval);
+        GEOMETRY_TRANSFORM_INDEX.reset(maxSize, expiryInterval);
     }
 
     private static class IndexKey {
@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.jena.geosparql.implementation.index;
+
+import static org.apache.jena.ext.io.github.galbiston.expiring_map.MapDefaultValues.NO_MAP;
+import static org.apache.jena.ext.io.github.galbiston.expiring_map.MapDefaultValues.UNLIMITED_EXPIRY;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Cache for the GeoSPARQL indexes.<br>
+ * The cache is bounded by a maximum number of items or, if there is no maximum number,
+ * by a memory budget using an estimate of the size of each item in bytes. Items
+ * are evicted, least recently used first, when the bound is reached and, if there
+ * is an expiry interval, when they have not been used for that time.<br>
+ * Hits, misses and evictions are recorded and accumulate over changes to the settings.
+ *
+ * @param <K> Key entry object.
+ * @param <V> Value entry object.
+ */
+public class IndexCache<K, V> {
+
+    public static final long UNLIMITED_MEMORY = -1;
+
+    private final String label;
+    private final Weigher<K, V> weigher;
+    private long maxSize;
+    private long maxMemory;
+    private long expiryInterval;
+    private Cache<K, V> cache;
+    // Statistics of the caches replaced by changes to the settings.
+    private CacheStats previousStats = CacheStats.empty();
+
+    /**
+     *
+     * @param label Name of the cache.
+     * @param maxSize Maximum number of items, unlimited (-1) or no storage (0).
+     * @param maxMemory Memory budget in bytes when the number of items is unlimited,
+     * or unlimited (-1).
+     * @param expiryInterval Milliseconds that unused items remain in the cache, or
+     * no expiry (0).
+     * @param weigher Estimated size in bytes of an item.
+     */
+    public IndexCache(String label, long maxSize, long maxMemory, long expiryInterval, Weigher<K, V> weigher) {
+        this.label = label;
+        this.weigher = weigher;
+        this.maxSize = maxSize;
+        this.maxMemory = maxMemory;
+        this.expiryInterval = expiryInterval;
+        this.cache = build();
+    }
+
+    private Cache<K, V> build() {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                // Eviction using the caller thread.
+                .executor(Runnable::run)
+                .recordStats();
+        if (maxSize > NO_MAP) {
+            builder.maximumSize(maxSize);
+        } else if (maxSize == NO_MAP) {
+            builder.maximumSize(0);
+        } else if (maxMemory > UNLIMITED_MEMORY) {
+            builder.maximumWeight(maxMemory).weigher(weigher);
+        }
+        if (expiryInterval > UNLIMITED_EXPIRY) {
+            builder.expireAfterAccess(Duration.ofMillis(expiryInterval));
+        }
+        return builder.build();
+    }
+
+    // Replace the cache, keeping the items that are within the new settings.
+    private synchronized void rebuild() {
+        Cache<K, V> oldCache = cache;
+        Cache<K, V> newCache = build();
+        if (maxSize != NO_MAP) {
+            newCache.putAll(oldCache.asMap());
+        }
+        previousStats = previousStats.plus(oldCache.stats());
+        cache = newCache;
+    }
+
+    /**
+     *
+     * @param key
+     * @return Value in the cache or null.
+     */
+    public V getIfPresent(K key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Value in the cache, or computed and then stored in the cache.
+     *
+     * @param key
+     * @param mappingFunction
+     * @return Value
+     */
+    public V get(K key, Function<K, V> mappingFunction) {
+        return cache.get(key, mappingFunction);
+    }
+
+    /**
+     *
+     * @param key
+     * @param value
+     */
+    public void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    /**
+     * Empty the cache.
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     *
+     * @return Approximate number of items in the cache.
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     *
+     * @return Estimated size of the items in bytes, if bounded by memory, otherwise
+     * -1.
+     */
+    public long getMemory() {
+        return cache.policy().eviction().filter(eviction -> eviction.isWeighted())
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(-1L);
+    }
+
+    /**
+     *
+     * @return Hits, misses and evictions of the cache.
+     */
+    public CacheStats getStats() {
+        return previousStats.plus(cache.stats());
+    }
+
+    /**
+     *
+     * @return Contents of the cache.
+     */
+    public Map<K, V> asMap() {
+        return cache.asMap();
+    }
+
+    /**
+     *
+     * @return Name of the cache.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     *
+     * @return Maximum number of items, unlimited (-1) or no storage (0).
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Maximum number of items in the cache.
+     *
+     * @param maxSize : use -1 for unlimited number, bounded by the memory budget, and 0
+     * for no storage
+     */
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+        rebuild();
+    }
+
+    /**
+     *
+     * @return Memory budget in bytes, or unlimited (-1).
+     */
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * Memory budget of the cache, which applies if the maximum number of items is
+     * unlimited.
+     *
+     * @param maxMemory : bytes, use -1 for unlimited
+     */
+    public void setMaxMemory(long maxMemory) {
+        this.maxMemory = maxMemory;
+        rebuild();
+    }
+
+    /**
+     *
+     * @return Milliseconds that unused items remain in the cache, or no expiry (0).
+     */
+    public long getExpiryInterval() {
+        return expiryInterval;
+    }
+
+    /**
+     * Duration that unused items remain in the cache.
+     *
+     * @param expiryInterval : milliseconds, use 0 or negative for no expiry
+     */
+    public void setExpiryInterval(long expiryInterval) {
+        this.expiryInterval = expiryInterval;
+        rebuild();
+    }
+
+    /**
+     * Reset the cache to the provided max size and expiry interval.<br>
+     * All contents will be lost.
+     *
+     * @param maxSize
+     * @param expiryInterval
+     */
+    public synchronized void reset(long maxSize, long expiryInterval) {
+        this.maxSize = maxSize;
+        this.expiryInterval = expiryInterval;
+        previousStats = previousStats.plus(cache.stats());
+        cache = build();
+    }
+
+    @Override
+    public String toString() {
+        return "IndexCache{" + "label=" + label + ", maxSize=" + maxSize + ", maxMemory=" + maxMemory + ", expiryInterval=" + expiryInterval + ", size=" + size() + ", stats=" + getStats() + '}';
+    }
+}
@@ -63,7 +63,8 @@ public class IndexConfiguration {
     }
 
     /**
-     * Indexes are set to unlimited storage and started.
+     * Indexes are set to unlimited number of items, bounded by their memory
+     * budgets, and started.
      */
     private static void setupMemoryIndex() {
         GeometryLiteralIndex.setMaxSize(UNLIMITED_MAP);
@@ -104,6 +105,21 @@ public class IndexConfiguration {
         QueryRewriteIndex.setMaxSize(queryRewriteIndex);
     }
 
+    /**
+     * Set the memory budget in bytes of the indexes, which applies when the maximum
+     * size of an index is unlimited.<br>
+     * -1 for unlimited memory.
+     *
+     * @param geometryLiteralIndex
+     * @param geometryTransformIndex
+     * @param queryRewriteIndex
+     */
+    public static final void setIndexMaxMemory(long geometryLiteralIndex, long geometryTransformIndex, long queryRewriteIndex) {
+        GeometryLiteralIndex.setMaxMemory(geometryLiteralIndex);
+        GeometryTransformIndex.setMaxMemory(geometryTransformIndex);
+        QueryRewriteIndex.setMaxMemory(queryRewriteIndex);
+    }
+
     /**
      * Set the index expiry interval in milliseconds.
      *
@@ -20,8 +20,7 @@ package org.apache.jena.geosparql.implementation.index;
 import static org.apache.jena.ext.io.github.galbiston.expiring_map.MapDefaultValues.MAP_EXPIRY_INTERVAL;
 import static org.apache.jena.ext.io.github.galbiston.expiring_map.MapDefaultValues.UNLIMITED_MAP;
 
-import org.apache.jena.ext.io.github.galbiston.expiring_map.ExpiringMap;
-import org.apache.jena.ext.io.github.galbiston.expiring_map.ExpiringMaps;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.apache.jena.geosparql.configuration.GeoSPARQLConfig;
 import org.apache.jena.geosparql.geo.topological.GenericPropertyFunction;
 import org.apache.jena.graph.Graph;
@@ -43,9 +42,10 @@ public class QueryRewriteIndex {
 
     private boolean indexActive;
     private final String queryRewriteLabel;
-    private ExpiringMap<Triple, Boolean> index;
+    private final IndexCache<Triple, Boolean> index;
     private static String LABEL_DEFAULT = "Query Rewrite";
     private static int MAP_SIZE_DEFAULT = UNLIMITED_MAP;
+    private static long MAP_MEMORY_DEFAULT = 16L * 1024 * 1024;
     private static long MAP_EXPIRY_INTERVAL_DEFAULT = MAP_EXPIRY_INTERVAL;
 
     public static final Symbol QUERY_REWRITE_INDEX_SYMBOL = Symbol.create("http://jena.apache.org/spatial#query-index");
@@ -53,17 +53,25 @@ public class QueryRewriteIndex {
     public QueryRewriteIndex() {
         this.queryRewriteLabel = LABEL_DEFAULT;
         this.indexActive = GeoSPARQLConfig.isQueryRewriteEnabled();
-        this.index = ExpiringMaps.newExpiringMap(queryRewriteLabel, MAP_SIZE_DEFAULT, MAP_EXPIRY_INTERVAL_DEFAULT);
-        if (indexActive) {
-            index.startExpiry();
-        }
+        this.index = new IndexCache<>(queryRewriteLabel, MAP_SIZE_DEFAULT, MAP_MEMORY_DEFAULT, MAP_EXPIRY_INTERVAL_DEFAULT, QueryRewriteIndex::weigh);
     }
 
     public QueryRewriteIndex(String queryRewriteLabel, int maxSize, long expiryInterval) {
         this.queryRewriteLabel = queryRewriteLabel;
         this.indexActive = true;
-        this.index = ExpiringMaps.newExpiringMap(queryRewriteLabel, maxSize, expiryInterval);
-        this.index.startExpiry();
+        this.index = new IndexCache<>(queryRewriteLabel, maxSize, MAP_MEMORY_DEFAULT, expiryInterval, QueryRewriteIndex::weigh);
+    }
+
+    // Estimated size in bytes of an index entry.
+    private static int weigh(Triple key, Boolean value) {
+        long size = 128;
+        if (key.getSubject().isLiteral()) {
+            size += 2L * key.getSubject().getLiteralLexicalForm().length();
+        }
+        if (key.getObject().isLiteral()) {
+            size += 2L * key.getObject().getLiteralLexicalForm().length();
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
     }
 
     /**
@@ -82,10 +90,9 @@ public class QueryRewriteIndex {
 
         if (indexActive) {
             Triple key = Triple.create(subjectGeometryLiteral, predicate, objectGeometryLiteral);
-            try {
-                return index.computeIfAbsent(key, k -> propertyFunction.testFilterFunction(subjectGeometryLiteral, objectGeometryLiteral));
-            } catch (NullPointerException ex) {
-                //Catch NullPointerException and fall through to default action.
+            Boolean result = index.get(key, k -> propertyFunction.testFilterFunction(subjectGeometryLiteral, objectGeometryLiteral));
+            if (result != null) {
+                return result;
             }
         }
 
@@ -100,15 +107,24 @@ public class QueryRewriteIndex {
     }
 
     /**
-     * Sets whether the Query Rewrite Index is active.
-     * <br> The index will be empty after this process.
+     * Sets the maximum size of the Query Rewrite Index.
      *
-     * @param maxSize : use -1 for unlimited size
+     * @param maxSize : use -1 for unlimited size, bounded by the memory budget
      */
     public final void setMapSize(int maxSize) {
         index.setMaxSize(maxSize);
     }
 
+    /**
+     * Sets the memory budget of the Query Rewrite Index. This applies when the
+     * maximum size is unlimited.
+     *
+     * @param maxMemory : bytes, use -1 for unlimited memory
+     */
+    public final void setMapMemory(long maxMemory) {
+        index.setMaxMemory(maxMemory);
+    }
+
     /**
      * Sets the expiry time in milliseconds of the Query Rewrite Index, if
      * active.
@@ -134,7 +150,7 @@ public class QueryRewriteIndex {
      */
     public Model toModel() {
         Graph graph = GraphFactory.createDefaultGraph();
-        index.forEach((key, value) -> {
+        index.asMap().forEach((key, value) -> {
             if (value) {
                 graph.add(key);
             }
@@ -149,12 +165,6 @@ public class QueryRewriteIndex {
      */
     public final void setActive(boolean indexActive) {
         this.indexActive = indexActive;
-
-        if (indexActive) {
-            index.startExpiry();
-        } else {
-            index.stopExpiry();
-        }
     }
 
     /**
@@ -162,7 +172,23 @@ public class QueryRewriteIndex {
      * @return Number of items in the index.
      */
     public final long getIndexSize() {
-        return index.mappingCount();
+        return index.size();
+    }
+
+    /**
+     *
+     * @return Hits, misses and evictions of the index.
+     */
+    public final CacheStats getStats() {
+        return index.getStats();
+    }
+
+    /**
+     *
+     * @return The index.
+     */
+    public final IndexCache<Triple, Boolean> getIndex() {
+        return index;
     }
 
     /**
@@ -173,7 +199,7 @@ public class QueryRewriteIndex {
      * @param expiryInterval
      */
     public void reset(int maxSize, long expiryInterval) {
-        index = ExpiringMaps.newExpiringMap(queryRewriteLabel, maxSize, expiryInterval);
+        index.reset(maxSize, expiryInterval);
     }
 
     /**
@@ -186,6 +212,16 @@ public class QueryRewriteIndex {
         QueryRewriteIndex.MAP_SIZE_DEFAULT = mapSizeDefault;
     }
 
+    /**
+     * Set the default memory budget in bytes of QueryRewriteIndexes, which applies
+     * when the maximum size is unlimited. -1 for no limit.
+     *
+     * @param mapMemoryDefault
+     */
+    public static final void setMaxMemory(long mapMemoryDefault) {
+        QueryRewriteIndex.MAP_MEMORY_DEFAULT = mapMemoryDefault;
+    }
+
     /**
      * Set the maximum default expiry interval in millisecond of
      * QueryRewriteIndexes. 0 for no expiry.
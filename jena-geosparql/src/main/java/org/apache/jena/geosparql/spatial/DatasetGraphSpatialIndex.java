@@ -0,0 +1,360 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.jena.geosparql.spatial;
+
+import java.io.File;
+import java.lang.invoke.MethodHandles;
+import java.util.*;
+
+import org.apache.jena.datatypes.DatatypeFormatException;
+import org.apache.jena.geosparql.implementation.GeometryWrapper;
+import org.apache.jena.geosparql.implementation.vocabulary.Geo;
+import org.apache.jena.geosparql.implementation.vocabulary.SpatialExtension;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.impl.ResourceImpl;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphWrapper;
+import org.apache.jena.sparql.core.GraphView;
+import org.apache.jena.sparql.core.Quad;
+import org.locationtech.jts.geom.Envelope;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.util.FactoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A DatasetGraph that keeps the {@link SpatialIndex} in its Context up to date with
+ * changes to the data, so the index does not need to be rebuilt.<br>
+ * Changes to geometry literals, {@code geo:hasGeometry} and lat/lon predicates update
+ * the index when the transaction commits, and are discarded if it aborts. Outside a
+ * transaction, changes update the index immediately.<br>
+ * If there is a spatial index file, the changes are appended to it: on commit for a
+ * transaction, and otherwise in batches and on {@link #sync()} and {@link #close()}, so
+ * changes made outside a transaction since the last of these are not in the file.
+ * <p>
+ * A feature with several serializations of a geometry may be in the index more than
+ * once; queries return each feature once.
+ */
+public class DatasetGraphSpatialIndex extends DatasetGraphWrapper {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final Node GEO_LAT_NODE = SpatialExtension.GEO_LAT_PROP.asNode();
+    private static final Node GEO_LON_NODE = SpatialExtension.GEO_LON_PROP.asNode();
+    private static final List<Node> SERIALIZATION_NODES = List.of(Geo.HAS_SERIALIZATION_NODE, Geo.AS_WKT_NODE, Geo.AS_GML_NODE);
+    private static final int DELETE_BUFFER_SIZE = 10000;
+    private static final int SAVE_BUFFER_SIZE = 10000;
+
+    private final File spatialIndexFile;
+    // Changes in the current transaction of this thread: item to the number of additions less removals.
+    // Transactions are per thread, so a reader ending its transaction does not discard the writer's changes.
+    private final ThreadLocal<Map<SpatialIndexItem, Integer>> pending = ThreadLocal.withInitial(LinkedHashMap::new);
+    // Changes applied to the index but not yet appended to the file, as for pending. Guarded by this.
+    private final Map<SpatialIndexItem, Integer> unsaved = new LinkedHashMap<>();
+
+    /**
+     *
+     * @param dsg
+     * @param spatialIndexFile File to append changes to, or null.
+     */
+    public DatasetGraphSpatialIndex(DatasetGraph dsg, File spatialIndexFile) {
+        super(dsg);
+        this.spatialIndexFile = spatialIndexFile;
+    }
+
+    /**
+     *
+     * @return File the changes are appended to, or null.
+     */
+    public File getSpatialIndexFile() {
+        return spatialIndexFile;
+    }
+
+    private SpatialIndex spatialIndex() {
+        Object obj = getContext().get(SpatialIndex.SPATIAL_INDEX_SYMBOL);
+        return (obj instanceof SpatialIndex) ? (SpatialIndex) obj : null;
+    }
+
+    @Override
+    public Graph getDefaultGraph() {
+        return GraphView.createDefaultGraph(this);
+    }
+
+    @Override
+    public Graph getUnionGraph() {
+        return GraphView.createUnionGraph(this);
+    }
+
+    @Override
+    public Graph getGraph(Node graphNode) {
+        return GraphView.createNamedGraph(this, graphNode);
+    }
+
+    @Override
+    public void addGraph(Node graphName, Graph graph) {
+        removeGraph(graphName);
+        graph.find().forEachRemaining(t -> add(graphName, t.getSubject(), t.getPredicate(), t.getObject()));
+    }
+
+    @Override
+    public void removeGraph(Node graphName) {
+        deleteAny(graphName, Node.ANY, Node.ANY, Node.ANY);
+        super.removeGraph(graphName);
+    }
+
+    @Override
+    public void clear() {
+        SpatialIndex spatialIndex = spatialIndex();
+        super.clear();
+        if (spatialIndex != null) {
+            spatialIndex.getItems().forEach(item -> change(item, -1));
+        }
+        if (!isInTransaction()) {
+            apply(false);
+        }
+    }
+
+    @Override
+    public void add(Quad quad) {
+        add(quad.getGraph(), quad.getSubject(), quad.getPredicate(), quad.getObject());
+    }
+
+    @Override
+    public void delete(Quad quad) {
+        delete(quad.getGraph(), quad.getSubject(), quad.getPredicate(), quad.getObject());
+    }
+
+    @Override
+    public void add(Node g, Node s, Node p, Node o) {
+        if (!isSpatial(p)) {
+            super.add(g, s, p, o);
+            return;
+        }
+        if (super.contains(g, s, p, o)) {
+            return;
+        }
+        super.add(g, s, p, o);
+        changes(g, s, p, o, 1);
+    }
+
+    @Override
+    public void delete(Node g, Node s, Node p, Node o) {
+        if (!isSpatial(p)) {
+            super.delete(g, s, p, o);
+            return;
+        }
+        if (!super.contains(g, s, p, o)) {
+            return;
+        }
+        super.delete(g, s, p, o);
+        changes(g, s, p, o, -1);
+    }
+
+    @Override
+    public void deleteAny(Node g, Node s, Node p, Node o) {
+        Quad[] buffer = new Quad[DELETE_BUFFER_SIZE];
+        while (true) {
+            Iterator<Quad> iter = find(g, s, p, o);
+            int len = 0;
+            for (; len < DELETE_BUFFER_SIZE && iter.hasNext(); len++) {
+                buffer[len] = iter.next();
+            }
+            for (int i = 0; i < len; i++) {
+                delete(buffer[i]);
+                buffer[i] = null;
+            }
+            if (len < DELETE_BUFFER_SIZE) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void commit() {
+        super.commit();
+        apply(true);
+    }
+
+    @Override
+    public void abort() {
+        pending.remove();
+        super.abort();
+    }
+
+    @Override
+    public void end() {
+        pending.remove();
+        super.end();
+    }
+
+    @Override
+    public void sync() {
+        super.sync();
+        save();
+    }
+
+    @Override
+    public void close() {
+        save();
+        super.close();
+    }
+
+    private static boolean isSpatial(Node p) {
+        return Geo.HAS_GEOMETRY_NODE.equals(p) || SERIALIZATION_NODES.contains(p) || GEO_LAT_NODE.equals(p) || GEO_LON_NODE.equals(p);
+    }
+
+    /** The index items affected by a change of a quad that has taken place. */
+    private void changes(Node g, Node s, Node p, Node o, int delta) {
+        SpatialIndex spatialIndex = spatialIndex();
+        if (spatialIndex == null) {
+            return;
+        }
+        String srsURI = spatialIndex.getSrsInfo().getSrsURI();
+        String graph = Quad.isDefaultGraph(g) ? null : g.getURI();
+
+        if (Geo.HAS_GEOMETRY_NODE.equals(p)) {
+            for (Node serialization : SERIALIZATION_NODES) {
+                find(g, o, serialization, Node.ANY).forEachRemaining(quad -> {
+                    Envelope envelope = envelope(quad.getObject(), srsURI);
+                    if (envelope != null) {
+                        change(new SpatialIndexItem(envelope, feature(s), graph), delta);
+                    }
+                });
+            }
+        } else if (SERIALIZATION_NODES.contains(p)) {
+            Envelope envelope = envelope(o, srsURI);
+            if (envelope != null) {
+                find(g, Node.ANY, Geo.HAS_GEOMETRY_NODE, s).forEachRemaining(quad -> {
+                    change(new SpatialIndexItem(envelope, feature(quad.getSubject()), graph), delta);
+                });
+            }
+        } else {
+            boolean isLat = GEO_LAT_NODE.equals(p);
+            find(g, s, isLat ? GEO_LON_NODE : GEO_LAT_NODE, Node.ANY).forEachRemaining(quad -> {
+                Envelope envelope = isLat ? latLonEnvelope(o, quad.getObject(), srsURI) : latLonEnvelope(quad.getObject(), o, srsURI);
+                if (envelope != null) {
+                    change(new SpatialIndexItem(envelope, feature(s), graph), delta);
+                }
+            });
+        }
+        if (!isInTransaction()) {
+            apply(false);
+        }
+    }
+
+    private void change(SpatialIndexItem item, int delta) {
+        merge(pending.get(), item, delta);
+    }
+
+    private static void merge(Map<SpatialIndexItem, Integer> changes, SpatialIndexItem item, int delta) {
+        changes.merge(item, delta, (x, y) -> (x + y == 0) ? null : x + y);
+    }
+
+    /**
+     * Apply the pending changes to the SpatialIndex, and append them to the spatial
+     * index file if {@code save} is true or enough changes are waiting to be appended.
+     * Appending forces the file to disk, so it is not done for each change made outside
+     * a transaction.
+     */
+    private void apply(boolean save) {
+        Map<SpatialIndexItem, Integer> changes = pending.get();
+        pending.remove();
+        if (changes.isEmpty()) {
+            return;
+        }
+        SpatialIndex spatialIndex = spatialIndex();
+        if (spatialIndex == null) {
+            return;
+        }
+        List<SpatialIndexItem> added = new ArrayList<>();
+        List<SpatialIndexItem> removed = new ArrayList<>();
+        split(changes, added, removed);
+        // Changes made outside a transaction can be applied from several threads at once.
+        synchronized (this) {
+            try {
+                for (SpatialIndexItem item : removed) {
+                    spatialIndex.removeItem(item);
+                }
+                spatialIndex.insertItems(added);
+            } catch (SpatialIndexException ex) {
+                LOGGER.error("Spatial index update: {}", ex.getMessage(), ex);
+            }
+            if (spatialIndexFile != null) {
+                changes.forEach((item, count) -> merge(unsaved, item, count));
+                if (save || unsaved.size() >= SAVE_BUFFER_SIZE) {
+                    save();
+                }
+            }
+        }
+    }
+
+    /** Append the changes applied to the SpatialIndex to the spatial index file. */
+    private synchronized void save() {
+        SpatialIndex spatialIndex = spatialIndex();
+        if (unsaved.isEmpty() || spatialIndex == null) {
+            return;
+        }
+        List<SpatialIndexItem> added = new ArrayList<>();
+        List<SpatialIndexItem> removed = new ArrayList<>();
+        split(unsaved, added, removed);
+        unsaved.clear();
+        try {
+            SpatialIndexFile.append(spatialIndexFile.toPath(), spatialIndex, added, removed);
+        } catch (SpatialIndexException ex) {
+            LOGGER.error("Spatial index update: {}", ex.getMessage(), ex);
+        }
+    }
+
+    private static void split(Map<SpatialIndexItem, Integer> changes, List<SpatialIndexItem> added, List<SpatialIndexItem> removed) {
+        changes.forEach((item, count) -> {
+            for (int i = 0; i < Math.abs(count); i++) {
+                (count > 0 ? added : removed).add(item);
+            }
+        });
+    }
+
+    private static Resource feature(Node node) {
+        return new ResourceImpl(node, null);
+    }
+
+    private static Envelope envelope(Node geometryLiteral, String srsURI) {
+        if (!geometryLiteral.isLiteral()) {
+            return null;
+        }
+        try {
+            GeometryWrapper geometryWrapper = GeometryWrapper.extract(geometryLiteral);
+            return geometryWrapper.convertSRS(srsURI).getEnvelope();
+        } catch (DatatypeFormatException | FactoryException | MismatchedDimensionException | TransformException ex) {
+            LOGGER.warn("Geometry literal not added to spatial index: {}. {}", geometryLiteral, ex.getMessage());
+            return null;
+        }
+    }
+
+    private static Envelope latLonEnvelope(Node lat, Node lon, String srsURI) {
+        // As SpatialIndex.getSpatialIndexItems.
+        if (!lat.isLiteral() || !lon.isLiteral() || !(lat.getLiteralValue() instanceof Number) || !(lon.getLiteralValue() instanceof Number)) {
+            return null;
+        }
+        float latitude = ((Number) lat.getLiteralValue()).floatValue();
+        float longitude = ((Number) lon.getLiteralValue()).floatValue();
+        return envelope(ConvertLatLon.toLiteral(latitude, longitude).asNode(), srsURI);
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.jena.geosparql.implementation.UnitsOfMeasure;
 import org.apache.jena.geosparql.implementation.great_circle.GreatCirclePointDistance;
 import org.apache.jena.geosparql.implementation.great_circle.LatLonPoint;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.engine.ExecutionContext;
 import org.apache.jena.sparql.expr.ExprEvalException;
 import org.locationtech.jts.geom.Envelope;
 import org.opengis.geometry.MismatchedDimensionException;
@@ -117,6 +118,24 @@ public class SearchEnvelope {
         return features;
     }
 
+    /**
+     * Features in the spatial index that are within the search envelope, limited to
+     * the active graph if the spatial index is per graph.
+     *
+     * @param spatialIndex
+     * @param execCxt
+     * @return Features found.
+     */
+    public HashSet<Resource> check(SpatialIndex spatialIndex, ExecutionContext execCxt) {
+        HashSet<Resource> features = spatialIndex.query(mainEnvelope, execCxt);
+
+        if (wrapEnvelope != null) {
+            HashSet<Resource> wrapFeatures = spatialIndex.query(wrapEnvelope, execCxt);
+            features.addAll(wrapFeatures);
+        }
+        return features;
+    }
+
     public boolean check(Envelope envelope) {
         boolean result = mainEnvelope.intersects(envelope);
 
@@ -19,28 +19,40 @@ package org.apache.jena.geosparql.spatial;
 
 import java.io.*;
 import java.lang.invoke.MethodHandles;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
-
-import org.apache.jena.atlas.RuntimeIOException;
-import org.apache.jena.atlas.io.IOX;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.jena.datatypes.DatatypeFormatException;
 import org.apache.jena.geosparql.configuration.GeoSPARQLOperations;
 import org.apache.jena.geosparql.implementation.GeometryWrapper;
 import org.apache.jena.geosparql.implementation.SRSInfo;
+import org.apache.jena.geosparql.implementation.datatype.GeometryDatatype;
 import org.apache.jena.geosparql.implementation.registry.SRSRegistry;
 import org.apache.jena.geosparql.implementation.vocabulary.Geo;
 import org.apache.jena.geosparql.implementation.vocabulary.SRS_URI;
 import org.apache.jena.geosparql.implementation.vocabulary.SpatialExtension;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.query.ReadWrite;
 import org.apache.jena.rdf.model.*;
+import org.apache.jena.sparql.core.NamedGraph;
+import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.sparql.engine.ExecutionContext;
 import org.apache.jena.sparql.util.Context;
 import org.apache.jena.sparql.util.Symbol;
 import org.apache.jena.util.iterator.ExtendedIterator;
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.quadtree.Quadtree;
 import org.locationtech.jts.index.strtree.STRtree;
 import org.opengis.geometry.MismatchedDimensionException;
 import org.opengis.referencing.operation.TransformException;
@@ -55,7 +67,13 @@ import org.slf4j.LoggerFactory;
  * The SpatialIndex is added to the Dataset Context when it is built.<br>
  * QueryRewriteIndex is also stored in the SpatialIndex as its content is
  * Dataset specific.
- *
+ * <p>
+ * The items present when the index is built are packed in an {@link STRtree}. Items
+ * can be inserted and removed after the index is built: inserted items are kept in a
+ * {@link Quadtree} alongside the STRtree. {@link DatasetGraphSpatialIndex} uses this
+ * to keep the index up to date with changes to a dataset.<br>
+ * Optionally, there is a separate index for each graph of the dataset, so queries
+ * can be limited to one graph.
  */
 public class SpatialIndex {
 
@@ -65,13 +83,20 @@ public class SpatialIndex {
 
     private transient final SRSInfo srsInfo;
     private boolean isBuilt;
-    private final STRtree strTree;
+    private final int capacity;
+    private final boolean perGraph;
+    // Keyed by graph name, null for the default graph. Only the null key if not per graph.
+    private final Map<String, Tree> trees = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
     private static final int MINIMUM_CAPACITY = 2;
+    private static int BUILD_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int BUILD_BATCH_SIZE = 10000;
+    private static final long BUILD_PROGRESS_TICK = 100000;
 
     private SpatialIndex() {
-        this.strTree = new STRtree(MINIMUM_CAPACITY);
+        this.capacity = MINIMUM_CAPACITY;
+        this.perGraph = false;
         this.isBuilt = true;
-        this.strTree.build();
         this.srsInfo = SRSRegistry.getSRSInfo(SRS_URI.DEFAULT_WKT_CRS84);
     }
 
@@ -82,8 +107,19 @@ public class SpatialIndex {
      * @param srsURI
      */
     public SpatialIndex(int capacity, String srsURI) {
-        int indexCapacity = capacity < MINIMUM_CAPACITY ? MINIMUM_CAPACITY : capacity;
-        this.strTree = new STRtree(indexCapacity);
+        this(capacity, srsURI, false);
+    }
+
+    /**
+     * Unbuilt Spatial Index with provided capacity.
+     *
+     * @param capacity
+     * @param srsURI
+     * @param perGraph Whether to index each graph separately.
+     */
+    public SpatialIndex(int capacity, String srsURI, boolean perGraph) {
+        this.capacity = capacity < MINIMUM_CAPACITY ? MINIMUM_CAPACITY : capacity;
+        this.perGraph = perGraph;
         this.isBuilt = false;
         this.srsInfo = SRSRegistry.getSRSInfo(srsURI);
     }
@@ -96,12 +132,21 @@ public class SpatialIndex {
      * @throws SpatialIndexException
      */
     public SpatialIndex(Collection<SpatialIndexItem> spatialIndexItems, String srsURI) throws SpatialIndexException {
-        int indexCapacity = spatialIndexItems.size() < MINIMUM_CAPACITY ? MINIMUM_CAPACITY : spatialIndexItems.size();
-        this.strTree = new STRtree(indexCapacity);
+        this(spatialIndexItems, srsURI, false);
+    }
+
+    /**
+     * Built Spatial Index with provided capacity.
+     *
+     * @param spatialIndexItems
+     * @param srsURI
+     * @param perGraph Whether to index each graph separately.
+     * @throws SpatialIndexException
+     */
+    public SpatialIndex(Collection<SpatialIndexItem> spatialIndexItems, String srsURI, boolean perGraph) throws SpatialIndexException {
+        this(spatialIndexItems.size(), srsURI, perGraph);
         insertItems(spatialIndexItems);
-        this.strTree.build();
-        this.isBuilt = true;
-        this.srsInfo = SRSRegistry.getSRSInfo(srsURI);
+        build();
     }
 
     /**
@@ -117,7 +162,24 @@ public class SpatialIndex {
      * @return True if the SpatialIndex is empty.
      */
     public boolean isEmpty() {
-        return strTree.isEmpty();
+        return size() == 0;
+    }
+
+    /**
+     *
+     * @return Number of items in the SpatialIndex.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int size = 0;
+            for (Tree tree : trees.values()) {
+                size += tree.size;
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -129,17 +191,32 @@ public class SpatialIndex {
     }
 
     /**
-     * Build the Spatial Index. No more items can be added.
+     *
+     * @return True if each graph is indexed separately.
+     */
+    public boolean isPerGraph() {
+        return perGraph;
+    }
+
+    /**
+     * Build the Spatial Index. Items added after this are not packed with the
+     * items already in the index.<br>
+     * Graphs of a per graph Spatial Index are packed in parallel.
      */
     public void build() {
-        if (!isBuilt) {
-            strTree.build();
-            isBuilt = true;
+        lock.writeLock().lock();
+        try {
+            if (!isBuilt) {
+                trees.values().parallelStream().forEach(Tree::build);
+                isBuilt = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
     /**
-     * Items to add to an unbuilt Spatial Index.
+     * Items to add to the Spatial Index.
      *
      * @param indexItems
      * @throws SpatialIndexException
@@ -147,37 +224,272 @@ public class SpatialIndex {
     public final void insertItems(Collection<SpatialIndexItem> indexItems) throws SpatialIndexException {
 
         for (SpatialIndexItem indexItem : indexItems) {
-            insertItem(indexItem.getEnvelope(), indexItem.getItem());
+            insertItem(indexItem);
         }
     }
 
     /**
-     * Item to add to an unbuilt Spatial Index.
+     * Item to add to the Spatial Index.
      *
      * @param envelope
      * @param item
      * @throws SpatialIndexException
      */
     public final void insertItem(Envelope envelope, Resource item) throws SpatialIndexException {
-        if (!isBuilt) {
-            strTree.insert(envelope, item);
-        } else {
-            throw new SpatialIndexException("SpatialIndex has been built and cannot have additional items.");
+        insertItem(new SpatialIndexItem(envelope, item));
+    }
+
+    /**
+     * Item to add to the Spatial Index.
+     *
+     * @param indexItem
+     * @throws SpatialIndexException
+     */
+    public final void insertItem(SpatialIndexItem indexItem) throws SpatialIndexException {
+        lock.writeLock().lock();
+        try {
+            String key = perGraph ? indexItem.getGraph() : null;
+            trees.computeIfAbsent(key, k -> new Tree(capacity, isBuilt)).insert(indexItem);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an item from the Spatial Index.
+     *
+     * @param indexItem
+     * @return True if the item was in the Spatial Index.
+     */
+    public final boolean removeItem(SpatialIndexItem indexItem) {
+        lock.writeLock().lock();
+        try {
+            Tree tree = trees.get(perGraph ? indexItem.getGraph() : null);
+            return tree != null && tree.remove(indexItem.getEnvelope(), indexItem.getItem());
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Features with an envelope that intersects the search envelope, in all graphs.
+     *
+     * @param searchEnvelope
+     * @return Features found.
+     */
     public HashSet<Resource> query(Envelope searchEnvelope) {
-        if (!strTree.isEmpty()) {
-            return new HashSet<>(strTree.query(searchEnvelope));
-        } else {
-            return new HashSet<>();
+        lock.readLock().lock();
+        try {
+            HashSet<Resource> features = new HashSet<>();
+            for (Tree tree : trees.values()) {
+                tree.query(searchEnvelope, features);
+            }
+            return features;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Features with an envelope that intersects the search envelope, in one graph if
+     * the SpatialIndex is per graph, otherwise in all graphs.
+     *
+     * @param searchEnvelope
+     * @param graph Name of the graph, or null for the default graph.
+     * @return Features found.
+     */
+    public HashSet<Resource> query(Envelope searchEnvelope, String graph) {
+        if (!perGraph) {
+            return query(searchEnvelope);
+        }
+        lock.readLock().lock();
+        try {
+            HashSet<Resource> features = new HashSet<>();
+            Tree tree = trees.get(graph);
+            if (tree != null) {
+                tree.query(searchEnvelope, features);
+            }
+            return features;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Features with an envelope that intersects the search envelope, in the active
+     * graph of the execution if the SpatialIndex is per graph, otherwise in all graphs.
+     *
+     * @param searchEnvelope
+     * @param execCxt
+     * @return Features found.
+     */
+    public HashSet<Resource> query(Envelope searchEnvelope, ExecutionContext execCxt) {
+        if (!perGraph) {
+            return query(searchEnvelope);
+        }
+        Graph activeGraph = execCxt.getActiveGraph();
+        if (activeGraph instanceof NamedGraph) {
+            Node graphName = ((NamedGraph) activeGraph).getGraphName();
+            if (Quad.isUnionGraph(graphName)) {
+                return query(searchEnvelope);
+            }
+            return query(searchEnvelope, Quad.isDefaultGraph(graphName) ? null : graphName.getURI());
+        }
+        return query(searchEnvelope, (String) null);
+    }
+
+    /**
+     *
+     * @return All the items in the SpatialIndex.
+     */
+    public List<SpatialIndexItem> getItems() {
+        lock.readLock().lock();
+        try {
+            List<SpatialIndexItem> items = new ArrayList<>(size());
+            for (Tree tree : trees.values()) {
+                tree.items(items);
+            }
+            return items;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The items for one key of the SpatialIndex: packed in an STRtree when the
+     * SpatialIndex is built, and in a Quadtree when added after that.
+     */
+    private static class Tree {
+        private final STRtree strTree;
+        private final Quadtree updates = new Quadtree();
+        // Items inserted before the build, null once built.
+        private List<SpatialIndexItem> unbuilt;
+        private int size = 0;
+
+        Tree(int capacity, boolean isBuilt) {
+            this.strTree = new STRtree(capacity);
+            if (isBuilt) {
+                strTree.build();
+            } else {
+                unbuilt = new ArrayList<>();
+            }
+        }
+
+        void build() {
+            if (unbuilt == null) {
+                return;
+            }
+            // Packing starts by sorting on the centre X of the envelopes, on one thread.
+            // Sorting in parallel beforehand leaves the STRtree an ordered list.
+            SpatialIndexItem[] items = unbuilt.toArray(new SpatialIndexItem[0]);
+            Arrays.parallelSort(items, Comparator.comparingDouble(Tree::centreX));
+            for (SpatialIndexItem indexItem : items) {
+                strTree.insert(indexItem.getEnvelope(), indexItem);
+            }
+            strTree.build();
+            unbuilt = null;
+        }
+
+        private static double centreX(SpatialIndexItem indexItem) {
+            Envelope envelope = indexItem.getEnvelope();
+            return (envelope.getMinX() + envelope.getMaxX()) / 2d;
+        }
+
+        void insert(SpatialIndexItem indexItem) {
+            if (unbuilt != null) {
+                unbuilt.add(indexItem);
+            } else {
+                updates.insert(indexItem.getEnvelope(), indexItem);
+            }
+            size++;
+        }
+
+        boolean remove(Envelope envelope, Resource item) {
+            if (unbuilt != null) {
+                SpatialIndexItem indexItem = find(unbuilt, envelope, item);
+                if (indexItem != null) {
+                    unbuilt.remove(indexItem);
+                    size--;
+                    return true;
+                }
+                return false;
+            }
+            // Removal is by identity so find the stored item first.
+            SpatialIndexItem indexItem = find(updates.query(envelope), envelope, item);
+            if (indexItem != null) {
+                updates.remove(envelope, indexItem);
+                size--;
+                return true;
+            }
+            if (!strTree.isEmpty()) {
+                indexItem = find(strTree.query(envelope), envelope, item);
+                if (indexItem != null) {
+                    strTree.remove(envelope, indexItem);
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static SpatialIndexItem find(List<?> candidates, Envelope envelope, Resource item) {
+            for (Object obj : candidates) {
+                SpatialIndexItem indexItem = (SpatialIndexItem) obj;
+                if (indexItem.getEnvelope().equals(envelope) && indexItem.getItem().equals(item)) {
+                    return indexItem;
+                }
+            }
+            return null;
+        }
+
+        void query(Envelope searchEnvelope, Set<Resource> features) {
+            if (unbuilt != null) {
+                for (SpatialIndexItem indexItem : unbuilt) {
+                    if (indexItem.getEnvelope().intersects(searchEnvelope)) {
+                        features.add(indexItem.getItem());
+                    }
+                }
+                return;
+            }
+            if (!strTree.isEmpty()) {
+                strTree.query(searchEnvelope, obj -> features.add(((SpatialIndexItem) obj).getItem()));
+            }
+            // Quadtree results are candidates: check the envelope.
+            updates.query(searchEnvelope, obj -> {
+                SpatialIndexItem indexItem = (SpatialIndexItem) obj;
+                if (indexItem.getEnvelope().intersects(searchEnvelope)) {
+                    features.add(indexItem.getItem());
+                }
+            });
+        }
+
+        void items(List<SpatialIndexItem> items) {
+            if (unbuilt != null) {
+                items.addAll(unbuilt);
+                return;
+            }
+            if (!strTree.isEmpty()) {
+                flatten(strTree.itemsTree(), items);
+            }
+            for (Object obj : updates.queryAll()) {
+                items.add((SpatialIndexItem) obj);
+            }
+        }
+
+        private static void flatten(List<?> itemsTree, List<SpatialIndexItem> items) {
+            for (Object obj : itemsTree) {
+                if (obj instanceof List) {
+                    flatten((List<?>) obj, items);
+                } else {
+                    items.add((SpatialIndexItem) obj);
+                }
+            }
         }
     }
 
     @Override
     public String toString() {
-        return "SpatialIndex{" + "srsInfo=" + srsInfo + ", isBuilt=" + isBuilt + ", strTree=" + strTree + '}';
+        return "SpatialIndex{" + "srsInfo=" + srsInfo + ", isBuilt=" + isBuilt + ", perGraph=" + perGraph + ", size=" + size() + '}';
     }
 
     /**
@@ -233,14 +545,29 @@ public class SpatialIndex {
      * @throws SpatialIndexException
      */
     public static SpatialIndex buildSpatialIndex(Dataset dataset, String srsURI, File spatialIndexFile) throws SpatialIndexException {
+        return buildSpatialIndex(dataset, srsURI, spatialIndexFile, false);
+    }
+
+    /**
+     * Build Spatial Index from all graphs in Dataset.<br>
+     * Dataset contains SpatialIndex in Context.<br>
+     * Spatial Index written to file.
+     *
+     * @param dataset
+     * @param srsURI
+     * @param spatialIndexFile
+     * @param perGraph Whether to index each graph separately.
+     * @return SpatialIndex constructed.
+     * @throws SpatialIndexException
+     */
+    public static SpatialIndex buildSpatialIndex(Dataset dataset, String srsURI, File spatialIndexFile, boolean perGraph) throws SpatialIndexException {
 
         SpatialIndex spatialIndex = load(spatialIndexFile);
 
         if (spatialIndex.isEmpty()) {
             Collection<SpatialIndexItem> spatialIndexItems = findSpatialIndexItems(dataset, srsURI);
-            save(spatialIndexFile, spatialIndexItems, srsURI);
-            spatialIndex = new SpatialIndex(spatialIndexItems, srsURI);
-            spatialIndex.build();
+            spatialIndex = new SpatialIndex(spatialIndexItems, srsURI, perGraph);
+            save(spatialIndexFile, spatialIndex);
         }
 
         setSpatialIndex(dataset, spatialIndex);
@@ -274,11 +601,24 @@ public class SpatialIndex {
      * @throws SpatialIndexException
      */
     public static SpatialIndex buildSpatialIndex(Dataset dataset, String srsURI) throws SpatialIndexException {
+        return buildSpatialIndex(dataset, srsURI, false);
+    }
+
+    /**
+     * Build Spatial Index from all graphs in Dataset.<br>
+     * Dataset contains SpatialIndex in Context.
+     *
+     * @param dataset
+     * @param srsURI
+     * @param perGraph Whether to index each graph separately.
+     * @return SpatialIndex constructed.
+     * @throws SpatialIndexException
+     */
+    public static SpatialIndex buildSpatialIndex(Dataset dataset, String srsURI, boolean perGraph) throws SpatialIndexException {
         LOGGER.info("Building Spatial Index - Started");
 
         Collection<SpatialIndexItem> items = findSpatialIndexItems(dataset, srsURI);
-        SpatialIndex spatialIndex = new SpatialIndex(items, srsURI);
-        spatialIndex.build();
+        SpatialIndex spatialIndex = new SpatialIndex(items, srsURI, perGraph);
         setSpatialIndex(dataset, spatialIndex);
         LOGGER.info("Building Spatial Index - Completed");
         return spatialIndex;
@@ -286,6 +626,7 @@ public class SpatialIndex {
 
     /**
      * Find Spatial Index Items from all graphs in Dataset.<br>
+     * Items record the name of their graph.
      *
      * @param dataset
      * @param srsURI
@@ -293,23 +634,24 @@ public class SpatialIndex {
      * @throws SpatialIndexException
      */
     public static Collection<SpatialIndexItem> findSpatialIndexItems(Dataset dataset, String srsURI) throws SpatialIndexException {
-        //Default Model
         dataset.begin(ReadWrite.READ);
-        Model defaultModel = dataset.getDefaultModel();
-        Collection<SpatialIndexItem> items = getSpatialIndexItems(defaultModel, srsURI);
+        try (ItemFinder finder = new ItemFinder(srsURI)) {
+            //Default Model
+            Model defaultModel = dataset.getDefaultModel();
+            findItems(defaultModel, null, finder);
+
+            //Named Models
+            Iterator<String> graphNames = dataset.listNames();
+            while (graphNames.hasNext()) {
+                String graphName = graphNames.next();
+                Model namedModel = dataset.getNamedModel(graphName);
+                findItems(namedModel, graphName, finder);
+            }
 
-        //Named Models
-        Iterator<String> graphNames = dataset.listNames();
-        while (graphNames.hasNext()) {
-            String graphName = graphNames.next();
-            Model namedModel = dataset.getNamedModel(graphName);
-            Collection<SpatialIndexItem> graphItems = getSpatialIndexItems(namedModel, srsURI);
-            items.addAll(graphItems);
+            return finder.finish();
+        } finally {
+            dataset.end();
         }
-
-        dataset.end();
-
-        return items;
     }
 
     /**
@@ -369,8 +711,28 @@ public class SpatialIndex {
      * @throws SpatialIndexException
      */
     public static final Collection<SpatialIndexItem> getSpatialIndexItems(Model model, String srsURI) throws SpatialIndexException {
+        return getSpatialIndexItems(model, srsURI, null);
+    }
+
+    /**
+     * Find items from the Model transformed to the SRS URI.
+     *
+     * @param model
+     * @param srsURI
+     * @param graph Name of the graph of the Model, or null for the default graph.
+     * @return Items found in the Model in the SRS URI.
+     * @throws SpatialIndexException
+     */
+    public static final Collection<SpatialIndexItem> getSpatialIndexItems(Model model, String srsURI, String graph) throws SpatialIndexException {
+        try (ItemFinder finder = new ItemFinder(srsURI)) {
+            findItems(model, graph, finder);
+            return finder.finish();
+        }
+    }
 
-        List<SpatialIndexItem> items = new ArrayList<>();
+    private static void findItems(Model model, String graph, ItemFinder finder) throws SpatialIndexException {
+
+        finder.graph(graph);
 
         //Only add one set of statements as a converted dataset will duplicate the same info.
         if (model.contains(null, Geo.HAS_GEOMETRY_PROP, (Resource) null)) {
@@ -378,26 +740,20 @@ public class SpatialIndex {
             if (model.contains(null, SpatialExtension.GEO_LAT_PROP, (Literal) null)) {
                 LOGGER.warn("Lat/Lon Geo predicates also found but will not be added to index.");
             }
-            Collection<SpatialIndexItem> geometryLiteralItems = getGeometryLiteralIndexItems(model, srsURI);
-            items.addAll(geometryLiteralItems);
+            getGeometryLiteralIndexItems(model, finder);
         } else if (model.contains(null, SpatialExtension.GEO_LAT_PROP, (Literal) null)) {
             LOGGER.info("Geo predicate statements found.");
-            Collection<SpatialIndexItem> geoPredicateItems = getGeoPredicateIndexItems(model, srsURI);
-            items.addAll(geoPredicateItems);
+            getGeoPredicateIndexItems(model, finder);
         }
-
-        return items;
     }
 
     /**
      *
      * @param model
-     * @param srsURI
-     * @return GeometryLiteral items prepared for adding to SpatialIndex.
+     * @param finder Receives the GeometryLiteral items for adding to SpatialIndex.
      * @throws SpatialIndexException
      */
-    private static Collection<SpatialIndexItem> getGeometryLiteralIndexItems(Model model, String srsURI) throws SpatialIndexException {
-        List<SpatialIndexItem> items = new ArrayList<>();
+    private static void getGeometryLiteralIndexItems(Model model, ItemFinder finder) throws SpatialIndexException {
         StmtIterator stmtIt = model.listStatements(null, Geo.HAS_GEOMETRY_PROP, (Resource) null);
         while (stmtIt.hasNext()) {
             Statement stmt = stmtIt.nextStatement();
@@ -414,32 +770,18 @@ public class SpatialIndex {
 
             while (nodeIter.hasNext()) {
                 Literal geometryLiteral = nodeIter.next().asLiteral();
-                GeometryWrapper geometryWrapper = GeometryWrapper.extract(geometryLiteral);
-
-                try {
-                    //Ensure all entries in the target SRS URI.
-                    GeometryWrapper transformedGeometryWrapper = geometryWrapper.convertSRS(srsURI);
-
-                    Envelope envelope = transformedGeometryWrapper.getEnvelope();
-                    SpatialIndexItem item = new SpatialIndexItem(envelope, feature);
-                    items.add(item);
-                } catch (FactoryException | MismatchedDimensionException | TransformException ex) {
-                    throw new SpatialIndexException("Transformation Exception: " + geometryLiteral + ". " + ex.getMessage());
-                }
-
+                finder.add(feature, geometryLiteral);
             }
         }
-        return items;
     }
 
     /**
      *
      * @param model
-     * @param srsURI
-     * @return Geo predicate objects prepared for adding to SpatialIndex.
+     * @param finder Receives the Geo predicate objects for adding to SpatialIndex.
+     * @throws SpatialIndexException
      */
-    private static Collection<SpatialIndexItem> getGeoPredicateIndexItems(Model model, String srsURI) throws SpatialIndexException {
-        List<SpatialIndexItem> items = new ArrayList<>();
+    private static void getGeoPredicateIndexItems(Model model, ItemFinder finder) throws SpatialIndexException {
         ResIterator resIt = model.listResourcesWithProperty(SpatialExtension.GEO_LAT_PROP);
 
         while (resIt.hasNext()) {
@@ -453,25 +795,169 @@ public class SpatialIndex {
             }
 
             Literal latLonPoint = ConvertLatLon.toLiteral(lat.getFloat(), lon.getFloat());
-            GeometryWrapper geometryWrapper = GeometryWrapper.extract(latLonPoint);
+            finder.add(feature, latLonPoint);
+        }
+    }
+
+    /**
+     *
+     * @return Number of threads used to parse geometry literals when building a SpatialIndex.
+     */
+    public static int getBuildThreads() {
+        return BUILD_THREADS;
+    }
 
+    /**
+     * Sets the number of threads used to parse geometry literals when building a
+     * SpatialIndex. Default is the number of processors.
+     *
+     * @param buildThreads : use 1 to parse on the calling thread
+     */
+    public static void setBuildThreads(int buildThreads) {
+        BUILD_THREADS = buildThreads < 1 ? 1 : buildThreads;
+    }
+
+    /**
+     * Collects the items for a SpatialIndex. The statements are read on the calling
+     * thread, which holds the transaction, and the geometry literals are parsed and
+     * transformed to the SRS URI in batches on other threads. Items are in the order
+     * the literals were found.
+     */
+    private static class ItemFinder implements AutoCloseable {
+
+        private final String srsURI;
+        private final ExecutorService executor;
+        private final int maxPending;
+        private final Deque<Future<List<SpatialIndexItem>>> pending = new ArrayDeque<>();
+        private final List<SpatialIndexItem> items = new ArrayList<>();
+        private final AtomicLong count = new AtomicLong();
+        private final long startTime = System.currentTimeMillis();
+        private String graph = null;
+        private List<Resource> features = new ArrayList<>();
+        private List<Literal> geometryLiterals = new ArrayList<>();
+
+        ItemFinder(String srsURI) {
+            this.srsURI = srsURI;
+            int threads = BUILD_THREADS;
+            if (threads > 1) {
+                AtomicInteger threadCount = new AtomicInteger();
+                this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+                    Thread thread = new Thread(runnable, "SpatialIndexBuild-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            } else {
+                this.executor = null;
+            }
+            // Bounds the literals held in memory ahead of parsing.
+            this.maxPending = 2 * threads;
+            GeometryDatatype.registerDatatypes();
+        }
+
+        void graph(String graph) throws SpatialIndexException {
+            submit();
+            this.graph = graph;
+        }
+
+        void add(Resource feature, Literal geometryLiteral) throws SpatialIndexException {
+            features.add(feature);
+            geometryLiterals.add(geometryLiteral);
+            if (features.size() >= BUILD_BATCH_SIZE) {
+                submit();
+            }
+        }
+
+        List<SpatialIndexItem> finish() throws SpatialIndexException {
+            submit();
+            while (!pending.isEmpty()) {
+                collect();
+            }
+            if (count.get() >= BUILD_PROGRESS_TICK) {
+                LOGGER.info("Building Spatial Index - Items: {}, Time: {} ms", count.get(), System.currentTimeMillis() - startTime);
+            }
+            return items;
+        }
+
+        private void submit() throws SpatialIndexException {
+            if (features.isEmpty()) {
+                return;
+            }
+            List<Resource> batchFeatures = features;
+            List<Literal> batchLiterals = geometryLiterals;
+            String batchGraph = graph;
+            features = new ArrayList<>();
+            geometryLiterals = new ArrayList<>();
+            if (executor == null) {
+                items.addAll(parse(batchFeatures, batchLiterals, batchGraph));
+                return;
+            }
+            pending.add(executor.submit(() -> parse(batchFeatures, batchLiterals, batchGraph)));
+            while (pending.size() > maxPending) {
+                collect();
+            }
+        }
+
+        private void collect() throws SpatialIndexException {
             try {
-                //Ensure all entries in the target SRS URI.
-                GeometryWrapper transformedGeometryWrapper = geometryWrapper.convertSRS(srsURI);
+                items.addAll(pending.remove().get());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SpatialIndexException("Interrupted: " + ex.getMessage());
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof SpatialIndexException) {
+                    throw (SpatialIndexException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new SpatialIndexException(cause.getMessage(), cause);
+            }
+        }
+
+        private List<SpatialIndexItem> parse(List<Resource> batchFeatures, List<Literal> batchLiterals, String batchGraph) throws SpatialIndexException {
+            List<SpatialIndexItem> batchItems = new ArrayList<>(batchFeatures.size());
+            for (int i = 0; i < batchFeatures.size(); i++) {
+                Literal geometryLiteral = batchLiterals.get(i);
+                // Read directly: the literals of a build are not worth keeping in the GeometryLiteralIndex.
+                GeometryWrapper geometryWrapper;
+                try {
+                    geometryWrapper = GeometryDatatype.get(geometryLiteral.getDatatypeURI()).read(geometryLiteral.getLexicalForm());
+                } catch (IllegalArgumentException ex) {
+                    throw new DatatypeFormatException(ex.getMessage() + " - Illegal Geometry Literal: " + geometryLiteral.getLexicalForm());
+                }
+
+                try {
+                    //Ensure all entries in the target SRS URI.
+                    GeometryWrapper transformedGeometryWrapper = geometryWrapper.convertSRS(srsURI);
 
-                Envelope envelope = transformedGeometryWrapper.getEnvelope();
-                SpatialIndexItem item = new SpatialIndexItem(envelope, feature);
-                items.add(item);
-            } catch (FactoryException | MismatchedDimensionException | TransformException ex) {
-                throw new SpatialIndexException("Transformation Exception: " + geometryWrapper.getLexicalForm() + ". " + ex.getMessage());
+                    Envelope envelope = transformedGeometryWrapper.getEnvelope();
+                    batchItems.add(new SpatialIndexItem(envelope, batchFeatures.get(i), batchGraph));
+                } catch (FactoryException | MismatchedDimensionException | TransformException ex) {
+                    throw new SpatialIndexException("Transformation Exception: " + geometryLiteral + ". " + ex.getMessage());
+                }
+            }
+            long total = count.addAndGet(batchItems.size());
+            if (total / BUILD_PROGRESS_TICK > (total - batchItems.size()) / BUILD_PROGRESS_TICK) {
+                long elapsed = System.currentTimeMillis() - startTime;
+                LOGGER.info("Building Spatial Index - Items: {}, Rate: {} per second", total, elapsed == 0 ? total : total * 1000 / elapsed);
+            }
+            return batchItems;
+        }
+
+        @Override
+        public void close() {
+            if (executor != null) {
+                executor.shutdownNow();
             }
         }
-        return items;
     }
 
     /**
      * Load a SpatialIndex from file.<br>
-     * Index will be built and empty if file does not exist or is null.
+     * Index will be built and empty if file does not exist or is null.<br>
+     * Files written by {@link #save} and, for compatibility, files of serialized
+     * {@link SpatialIndexStorage} can be loaded.
      *
      * @param spatialIndexFile
      * @return Built Spatial Index.
@@ -481,6 +967,12 @@ public class SpatialIndex {
 
         if (spatialIndexFile != null && spatialIndexFile.exists()) {
             LOGGER.info("Loading Spatial Index - Started: {}", spatialIndexFile.getAbsolutePath());
+            Path file = spatialIndexFile.toPath();
+            if (SpatialIndexFile.isSpatialIndexFile(file)) {
+                SpatialIndex spatialIndex = SpatialIndexFile.read(file);
+                LOGGER.info("Loading Spatial Index - Completed: {}", spatialIndexFile.getAbsolutePath());
+                return spatialIndex;
+            }
             //Cannot directly store the SpatialIndex due to Resources not being serializable, use SpatialIndexStorage class.
             try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(spatialIndexFile))) {
                 SpatialIndexStorage storage = (SpatialIndexStorage) in.readObject();
@@ -517,27 +1009,28 @@ public class SpatialIndex {
      * @throws SpatialIndexException
      */
     public static final void save(File spatialIndexFile, Collection<SpatialIndexItem> spatialIndexItems, String srsURI) throws SpatialIndexException {
-
-        //Cannot directly store the SpatialIndex due to Resources not being serializable, use SpatialIndexStorage class.
         if (spatialIndexFile != null) {
             LOGGER.info("Saving Spatial Index - Started: {}", spatialIndexFile.getAbsolutePath());
-            SpatialIndexStorage storage = new SpatialIndexStorage(spatialIndexItems, srsURI);
-            String filename = spatialIndexFile.getAbsolutePath();
-            Path file = Path.of(filename);
-            Path tmpFile = IOX.uniqueDerivedPath(file, null);
             try {
-                Files.deleteIfExists(file);
-            } catch (IOException ex) {
-                throw new SpatialIndexException("Failed to delete file: " + ex.getMessage());
+                SpatialIndexFile.write(spatialIndexFile.toPath(), spatialIndexItems, srsURI, false);
+            } finally {
+                LOGGER.info("Saving Spatial Index - Completed: {}", spatialIndexFile.getAbsolutePath());
             }
+        }
+    }
+
+    /**
+     * Save SpatialIndex to file.
+     *
+     * @param spatialIndexFile
+     * @param spatialIndex
+     * @throws SpatialIndexException
+     */
+    public static final void save(File spatialIndexFile, SpatialIndex spatialIndex) throws SpatialIndexException {
+        if (spatialIndexFile != null) {
+            LOGGER.info("Saving Spatial Index - Started: {}", spatialIndexFile.getAbsolutePath());
             try {
-                IOX.safeWriteOrCopy(file, tmpFile,
-                                    out->{
-                                        ObjectOutputStream oos = new ObjectOutputStream(out);
-                                        oos.writeObject(storage);
-                                    });
-            } catch (RuntimeIOException ex) {
-                throw new SpatialIndexException("Save Exception: " + ex.getMessage());
+                SpatialIndexFile.write(spatialIndexFile.toPath(), spatialIndex);
             } finally {
                 LOGGER.info("Saving Spatial Index - Completed: {}", spatialIndexFile.getAbsolutePath());
             }
@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.jena.geosparql.spatial;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Predicate;
+
+import org.apache.jena.atlas.RuntimeIOException;
+import org.apache.jena.atlas.io.IOX;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Binary file format for a {@link SpatialIndex}.
+ * <p>
+ * A file is a header followed by records. Each record adds an item to the index or
+ * removes one, so the changes to an index can be appended to the file. The file is
+ * read by memory mapping it and replaying the records; a file with removals is
+ * rewritten without them when it is read. An incomplete last record, left by a crash
+ * while appending, is ignored and removed when the file is rewritten.
+ * <ul>
+ * <li>Header: magic number (int), format version (int), per graph (byte), SRS URI
+ * (string).</li>
+ * <li>Record: add or remove (byte), envelope min X, max X, min Y, max Y (doubles),
+ * graph name (string), feature URI (string).</li>
+ * </ul>
+ * Strings are a length (int, -1 for null) and UTF-8 bytes. Numbers are big-endian.
+ * Features that are blank nodes are not written.
+ */
+public class SpatialIndexFile {
+
+    private static final int MAGIC = 0x4A535049; // "JSPI"
+    private static final int VERSION = 1;
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    // Size of the part of the file mapped at a time.
+    private static final int WINDOW = 64 * 1024 * 1024;
+
+    private SpatialIndexFile() {}
+
+    /**
+     *
+     * @param file
+     * @return True if the file is in this format.
+     */
+    public static boolean isSpatialIndexFile(Path file) {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Write all the items of the SpatialIndex, replacing the file.
+     *
+     * @param file
+     * @param spatialIndex
+     * @throws SpatialIndexException
+     */
+    public static void write(Path file, SpatialIndex spatialIndex) throws SpatialIndexException {
+        write(file, spatialIndex.getItems(), spatialIndex.getSrsInfo().getSrsURI(), spatialIndex.isPerGraph());
+    }
+
+    /**
+     * Write the items, replacing the file.
+     *
+     * @param file
+     * @param items
+     * @param srsURI
+     * @param perGraph
+     * @throws SpatialIndexException
+     */
+    public static void write(Path file, Collection<SpatialIndexItem> items, String srsURI, boolean perGraph) throws SpatialIndexException {
+        Path tmpFile = IOX.uniqueDerivedPath(file, null);
+        try {
+            IOX.safeWrite(file, tmpFile, out -> {
+                DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+                writeHeader(data, srsURI, perGraph);
+                for (SpatialIndexItem item : items) {
+                    writeRecord(data, ADD, item);
+                }
+                data.flush();
+            });
+        } catch (RuntimeIOException ex) {
+            throw new SpatialIndexException("Save Exception: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Append changes to the file. The file is created if it does not exist.
+     *
+     * @param file
+     * @param spatialIndex The index the changes are for.
+     * @param added
+     * @param removed
+     * @throws SpatialIndexException
+     */
+    public static void append(Path file, SpatialIndex spatialIndex, Collection<SpatialIndexItem> added, Collection<SpatialIndexItem> removed) throws SpatialIndexException {
+        boolean exists = Files.exists(file);
+        try (FileOutputStream fileOut = new FileOutputStream(file.toFile(), true)) {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(fileOut));
+            if (!exists) {
+                writeHeader(data, spatialIndex.getSrsInfo().getSrsURI(), spatialIndex.isPerGraph());
+            }
+            for (SpatialIndexItem item : removed) {
+                writeRecord(data, REMOVE, item);
+            }
+            for (SpatialIndexItem item : added) {
+                writeRecord(data, ADD, item);
+            }
+            data.flush();
+            fileOut.getFD().sync();
+        } catch (IOException ex) {
+            throw new SpatialIndexException("Save Exception: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Read a SpatialIndex. The index is built.
+     *
+     * @param file
+     * @return SpatialIndex
+     * @throws SpatialIndexException
+     */
+    public static SpatialIndex read(Path file) throws SpatialIndexException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedReader reader = new MappedReader(channel);
+            if (reader.readInt() != MAGIC) {
+                throw new SpatialIndexException("Not a spatial index file: " + file);
+            }
+            int version = reader.readInt();
+            if (version != VERSION) {
+                throw new SpatialIndexException("Unsupported spatial index file version: " + version);
+            }
+            boolean perGraph = reader.readByte() != 0;
+            String srsURI = reader.readString();
+
+            // Items by feature URI, for removals.
+            Map<String, List<SpatialIndexItem>> items = new LinkedHashMap<>();
+            int count = 0;
+            boolean removals = false;
+            boolean truncated = false;
+            while (reader.hasMore()) {
+                byte op;
+                Envelope envelope;
+                String graph;
+                String uri;
+                try {
+                    op = reader.readByte();
+                    envelope = new Envelope(reader.readDouble(), reader.readDouble(), reader.readDouble(), reader.readDouble());
+                    graph = reader.readString();
+                    uri = reader.readString();
+                } catch (EOFException ex) {
+                    // The end of the file is part of a record, from a crash while appending.
+                    truncated = true;
+                    break;
+                }
+                if (op == ADD) {
+                    Resource feature = ResourceFactory.createResource(uri);
+                    items.computeIfAbsent(uri, k -> new ArrayList<>(1)).add(new SpatialIndexItem(envelope, feature, graph));
+                    count++;
+                } else if (op == REMOVE) {
+                    removals = true;
+                    List<SpatialIndexItem> list = items.get(uri);
+                    if (list != null && list.removeIf(new Once(envelope, graph))) {
+                        count--;
+                    }
+                } else {
+                    throw new SpatialIndexException("Bad record in spatial index file: " + file);
+                }
+            }
+
+            List<SpatialIndexItem> indexItems = new ArrayList<>(count);
+            items.values().forEach(indexItems::addAll);
+            SpatialIndex spatialIndex = new SpatialIndex(indexItems, srsURI, perGraph);
+            if (removals || truncated) {
+                write(file, indexItems, srsURI, perGraph);
+            }
+            return spatialIndex;
+        } catch (IOException | BufferUnderflowException ex) {
+            throw new SpatialIndexException("Loading Exception: " + ex.getMessage(), ex);
+        }
+    }
+
+    /** Match the first item with the envelope and graph. */
+    private static class Once implements Predicate<SpatialIndexItem> {
+        private final Envelope envelope;
+        private final String graph;
+        private boolean found = false;
+
+        Once(Envelope envelope, String graph) {
+            this.envelope = envelope;
+            this.graph = graph;
+        }
+
+        @Override
+        public boolean test(SpatialIndexItem item) {
+            if (found || !item.getEnvelope().equals(envelope) || !Objects.equals(item.getGraph(), graph)) {
+                return false;
+            }
+            found = true;
+            return true;
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, String srsURI, boolean perGraph) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeByte(perGraph ? 1 : 0);
+        writeString(out, srsURI);
+    }
+
+    private static void writeRecord(DataOutputStream out, byte op, SpatialIndexItem item) throws IOException {
+        if (!item.getItem().isURIResource()) {
+            return;
+        }
+        Envelope envelope = item.getEnvelope();
+        out.writeByte(op);
+        out.writeDouble(envelope.getMinX());
+        out.writeDouble(envelope.getMaxX());
+        out.writeDouble(envelope.getMinY());
+        out.writeDouble(envelope.getMaxY());
+        writeString(out, item.getGraph());
+        writeString(out, item.getItem().getURI());
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        if (string == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /** Read a file by mapping it, a window at a time. */
+    private static class MappedReader {
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart = 0;
+        private MappedByteBuffer buffer;
+
+        MappedReader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            map(0, 0);
+        }
+
+        private void map(long position, int needed) throws IOException {
+            long length = Math.min(size - position, Math.max(WINDOW, needed));
+            if (length < needed) {
+                throw new EOFException("Spatial index file is truncated");
+            }
+            windowStart = position;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        }
+
+        private ByteBuffer need(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                map(windowStart + buffer.position(), bytes);
+            }
+            return buffer;
+        }
+
+        boolean hasMore() {
+            return windowStart + buffer.position() < size;
+        }
+
+        byte readByte() throws IOException {
+            return need(Byte.BYTES).get();
+        }
+
+        int readInt() throws IOException {
+            return need(Integer.BYTES).getInt();
+        }
+
+        double readDouble() throws IOException {
+            return need(Double.BYTES).getDouble();
+        }
+
+        String readString() throws IOException {
+            int length = readInt();
+            if (length < 0) {
+                return null;
+            }
+            ByteBuffer bb = need(length);
+            byte[] bytes = new byte[length];
+            bb.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
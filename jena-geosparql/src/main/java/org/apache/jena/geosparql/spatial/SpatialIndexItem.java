@@ -17,6 +17,8 @@
  */
 package org.apache.jena.geosparql.spatial;
 
+import java.util.Objects;
+
 import org.apache.jena.rdf.model.Resource;
 import org.locationtech.jts.geom.Envelope;
 
@@ -28,10 +30,22 @@ public class SpatialIndexItem {
 
     private final Envelope envelope;
     private final Resource item;
+    private final String graph;
 
     public SpatialIndexItem(Envelope envelope, Resource item) {
+        this(envelope, item, null);
+    }
+
+    /**
+     *
+     * @param envelope
+     * @param item
+     * @param graph Name of the graph of the item, or null for the default graph.
+     */
+    public SpatialIndexItem(Envelope envelope, Resource item, String graph) {
         this.envelope = envelope;
         this.item = item;
+        this.graph = graph;
     }
 
     public Envelope getEnvelope() {
@@ -42,9 +56,34 @@ public class SpatialIndexItem {
         return item;
     }
 
+    /**
+     *
+     * @return Name of the graph of the item, or null for the default graph.
+     */
+    public String getGraph() {
+        return graph;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(envelope, item, graph);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SpatialIndexItem)) {
+            return false;
+        }
+        SpatialIndexItem other = (SpatialIndexItem) obj;
+        return Objects.equals(envelope, other.envelope) && Objects.equals(item, other.item) && Objects.equals(graph, other.graph);
+    }
+
     @Override
     public String toString() {
-        return "SpatialIndexItem{" + "envelope=" + envelope + ", item=" + item + '}';
+        return "SpatialIndexItem{" + "envelope=" + envelope + ", item=" + item + ", graph=" + graph + '}';
     }
 
 }
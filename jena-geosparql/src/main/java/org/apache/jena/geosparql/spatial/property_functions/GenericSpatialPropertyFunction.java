@@ -184,7 +184,7 @@ public abstract class GenericSpatialPropertyFunction extends PFuncSimpleAndList
 
         //Find all Features in the spatial index which are within the rough search envelope.
         SearchEnvelope searchEnvelope = spatialArguments.searchEnvelope;
-        HashSet<Resource> features = searchEnvelope.check(spatialIndex);
+        HashSet<Resource> features = searchEnvelope.check(spatialIndex, execCxt);
 
         Var subjectVar = Var.alloc(subject.getName());
 
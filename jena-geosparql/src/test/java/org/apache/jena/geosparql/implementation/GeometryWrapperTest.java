@@ -29,6 +29,7 @@ import org.apache.sis.referencing.CRS;
 import org.junit.After;
 import org.junit.AfterClass;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -523,5 +524,16 @@ public class GeometryWrapperTest {
         String result = instance.getUTMZoneURI();
         assertEquals(expResult, result);
     }
-    
+
+    /**
+     * Test of extract method, of class GeometryWrapper, for a literal that holds
+     * its GeometryWrapper.
+     */
+    @Test
+    public void testExtractLiteralValue() {
+        Literal geometryLiteral = ResourceFactory.createTypedLiteral("<http://www.opengis.net/def/crs/EPSG/0/4326> POINT(10.0 0.0)", WKTDatatype.INSTANCE);
+
+        GeometryWrapper result = GeometryWrapper.extract(geometryLiteral);
+        assertSame(geometryLiteral.getValue(), result);
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.jena.geosparql.implementation.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ *
+ *
+ */
+public class IndexCacheTest {
+
+    private static IndexCache<Integer, String> create(long maxSize, long maxMemory) {
+        return new IndexCache<>("Test", maxSize, maxMemory, 0, (key, value) -> 100);
+    }
+
+    @Test
+    public void testMaxMemory() {
+        IndexCache<Integer, String> cache = create(-1, 1000);
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, "value" + i);
+        }
+        assertTrue(cache.size() <= 10);
+        assertTrue(cache.getMemory() <= 1000);
+        assertTrue(cache.getStats().evictionCount() >= 40);
+    }
+
+    @Test
+    public void testMaxSize() {
+        // Maximum size takes precedence over the memory budget.
+        IndexCache<Integer, String> cache = create(20, 1000);
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, "value" + i);
+        }
+        assertTrue(cache.size() > 10);
+        assertTrue(cache.size() <= 20);
+    }
+
+    @Test
+    public void testNoStorage() {
+        IndexCache<Integer, String> cache = create(0, -1);
+        assertEquals("value", cache.get(1, key -> "value"));
+        assertNull(cache.getIfPresent(1));
+    }
+
+    @Test
+    public void testStats() {
+        IndexCache<Integer, String> cache = create(-1, -1);
+        cache.get(1, key -> "value");
+        cache.get(1, key -> "other");
+        assertEquals(1, cache.getStats().hitCount());
+        assertEquals(1, cache.getStats().missCount());
+
+        // Changing the settings keeps the items and the statistics.
+        cache.setMaxMemory(1000);
+        assertEquals("value", cache.get(1, key -> "other"));
+        assertEquals(2, cache.getStats().hitCount());
+        assertEquals(1, cache.getStats().missCount());
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.jena.geosparql.spatial;
+
+import static org.apache.jena.geosparql.spatial.SpatialIndexTestData.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.apache.jena.geosparql.configuration.GeoSPARQLConfig;
+import org.apache.jena.geosparql.implementation.GeometryWrapper;
+import org.apache.jena.geosparql.implementation.vocabulary.Geo;
+import org.apache.jena.geosparql.implementation.vocabulary.SpatialExtension;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.TxnType;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.sparql.SystemARQ;
+import org.apache.jena.system.Txn;
+import org.apache.jena.update.UpdateExecution;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ *
+ *
+ */
+public class DatasetGraphSpatialIndexTest {
+
+    private static final Envelope WORLD = new Envelope(-180, 180, -180, 180);
+    private static final String GRAPH = "http://example.org/graph";
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("spatial", ".index").toFile();
+        file.delete();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    private static void addFeature(Model model, Resource feature, Resource geometry, GeometryWrapper geometryWrapper) {
+        model.add(feature, Geo.HAS_GEOMETRY_PROP, geometry);
+        model.add(geometry, Geo.AS_WKT_PROP, geometryWrapper.asLiteral());
+    }
+
+    private Dataset create(boolean perGraph) throws SpatialIndexException {
+        Dataset base = DatasetFactory.createTxnMem();
+        Txn.executeWrite(base, () -> {
+            addFeature(base.getDefaultModel(), LONDON_FEATURE, LONDON_GEOMETRY, LONDON_GEOMETRY_WRAPPER);
+            addFeature(base.getDefaultModel(), NEW_YORK_FEATURE, NEW_YORK_GEOMETRY, NEW_YORK_GEOMETRY_WRAPPER);
+        });
+        return GeoSPARQLConfig.setupUpdatableSpatialIndex(base, file, perGraph);
+    }
+
+    private static SpatialIndex spatialIndex(Dataset dataset) {
+        return (SpatialIndex) dataset.getContext().get(SpatialIndex.SPATIAL_INDEX_SYMBOL);
+    }
+
+    @Test
+    public void testAdd() throws SpatialIndexException {
+        Dataset dataset = create(false);
+        SpatialIndex spatialIndex = spatialIndex(dataset);
+        assertEquals(2, spatialIndex.size());
+
+        dataset.begin();
+        // Geometry before the feature link.
+        dataset.getDefaultModel().add(PERTH_GEOMETRY, Geo.AS_WKT_PROP, PERTH_GEOMETRY_WRAPPER.asLiteral());
+        dataset.getDefaultModel().add(PERTH_FEATURE, Geo.HAS_GEOMETRY_PROP, PERTH_GEOMETRY);
+        // Not visible until commit.
+        assertEquals(2, spatialIndex.size());
+        dataset.commit();
+        dataset.end();
+
+        assertEquals(3, spatialIndex.size());
+        assertEquals(Collections.singleton(PERTH_FEATURE), spatialIndex.query(PERTH_GEOMETRY_WRAPPER.getEnvelope()));
+    }
+
+    @Test
+    public void testAbort() throws SpatialIndexException {
+        Dataset dataset = create(false);
+        dataset.begin();
+        addFeature(dataset.getDefaultModel(), PERTH_FEATURE, PERTH_GEOMETRY, PERTH_GEOMETRY_WRAPPER);
+        dataset.abort();
+        dataset.end();
+        assertEquals(2, spatialIndex(dataset).size());
+    }
+
+    @Test
+    public void testReaderEnd() throws Exception {
+        Dataset dataset = create(false);
+        dataset.begin(TxnType.WRITE);
+        addFeature(dataset.getDefaultModel(), PERTH_FEATURE, PERTH_GEOMETRY, PERTH_GEOMETRY_WRAPPER);
+        // A reader on another thread ends its transaction while the write is in progress.
+        Thread reader = new Thread(() -> {
+            dataset.begin(TxnType.READ);
+            dataset.getDefaultModel().size();
+            dataset.end();
+        });
+        reader.start();
+        reader.join();
+        dataset.commit();
+        dataset.end();
+        assertEquals(3, spatialIndex(dataset).size());
+    }
+
+    @Test
+    public void testDelete() throws SpatialIndexException {
+        Dataset dataset = create(false);
+        SpatialIndex spatialIndex = spatialIndex(dataset);
+        Txn.executeWrite(dataset, () -> dataset.getDefaultModel().remove(LONDON_FEATURE, Geo.HAS_GEOMETRY_PROP, LONDON_GEOMETRY));
+        assertEquals(Collections.singleton(NEW_YORK_FEATURE), spatialIndex.query(WORLD));
+        Txn.executeWrite(dataset, () -> dataset.getDefaultModel().removeAll(NEW_YORK_GEOMETRY, null, null));
+        assertTrue(spatialIndex.isEmpty());
+    }
+
+    @Test
+    public void testLatLon() throws SpatialIndexException {
+        Dataset dataset = create(false);
+        SpatialIndex spatialIndex = spatialIndex(dataset);
+        Resource feature = ResourceFactory.createResource("http://example.org/Feature#Paris");
+        Txn.executeWrite(dataset, () -> {
+            dataset.getDefaultModel().addLiteral(feature, SpatialExtension.GEO_LAT_PROP, 48.85341f);
+            dataset.getDefaultModel().addLiteral(feature, SpatialExtension.GEO_LON_PROP, 2.34880f);
+        });
+        assertEquals(Collections.singleton(feature), spatialIndex.query(new Envelope(2, 3, 48, 49)));
+        Txn.executeWrite(dataset, () -> dataset.getDefaultModel().removeAll(feature, SpatialExtension.GEO_LON_PROP, null));
+        assertEquals(2, spatialIndex.size());
+    }
+
+    @Test
+    public void testUpdate() throws SpatialIndexException {
+        Dataset dataset = create(false);
+        String update = String.join("\n",
+            "PREFIX geo: <http://www.opengis.net/ont/geosparql#>",
+            "INSERT DATA {",
+            "  <" + PERTH_FEATURE.getURI() + "> geo:hasGeometry <" + PERTH_GEOMETRY.getURI() + "> .",
+            "  <" + PERTH_GEOMETRY.getURI() + "> geo:asWKT \"" + PERTH_GEOMETRY_WRAPPER.getLexicalForm() + "\"^^geo:wktLiteral .",
+            "}");
+        UpdateExecution.dataset(dataset).update(update).execute();
+        assertEquals(3, spatialIndex(dataset).size());
+    }
+
+    @Test
+    public void testFile() throws SpatialIndexException {
+        Dataset dataset = create(false);
+        Txn.executeWrite(dataset, () -> {
+            addFeature(dataset.getDefaultModel(), PERTH_FEATURE, PERTH_GEOMETRY, PERTH_GEOMETRY_WRAPPER);
+            dataset.getDefaultModel().remove(LONDON_FEATURE, Geo.HAS_GEOMETRY_PROP, LONDON_GEOMETRY);
+        });
+        SpatialIndex spatialIndex = spatialIndex(dataset);
+        SpatialIndex loaded = SpatialIndex.load(file);
+        assertEquals(new HashSet<>(spatialIndex.getItems()), new HashSet<>(loaded.getItems()));
+        assertEquals(new HashSet<>(Arrays.asList(NEW_YORK_FEATURE, PERTH_FEATURE)), loaded.query(WORLD));
+    }
+
+    @Test
+    public void testFileNoTransaction() throws SpatialIndexException {
+        Dataset dataset = create(false);
+        addFeature(dataset.getDefaultModel(), PERTH_FEATURE, PERTH_GEOMETRY, PERTH_GEOMETRY_WRAPPER);
+        assertEquals(3, spatialIndex(dataset).size());
+        // Changes outside a transaction are appended to the file on sync.
+        assertEquals(2, SpatialIndex.load(file).size());
+        SystemARQ.sync(dataset.asDatasetGraph());
+        assertEquals(new HashSet<>(spatialIndex(dataset).getItems()), new HashSet<>(SpatialIndex.load(file).getItems()));
+    }
+
+    @Test
+    public void testPerGraph() throws SpatialIndexException {
+        Dataset dataset = create(true);
+        SpatialIndex spatialIndex = spatialIndex(dataset);
+        Txn.executeWrite(dataset, () -> addFeature(dataset.getNamedModel(GRAPH), PERTH_FEATURE, PERTH_GEOMETRY, PERTH_GEOMETRY_WRAPPER));
+        assertEquals(Collections.singleton(PERTH_FEATURE), spatialIndex.query(WORLD, GRAPH));
+        assertEquals(new HashSet<>(Arrays.asList(LONDON_FEATURE, NEW_YORK_FEATURE)), spatialIndex.query(WORLD, (String) null));
+        Txn.executeWrite(dataset, () -> dataset.asDatasetGraph().removeGraph(ResourceFactory.createResource(GRAPH).asNode()));
+        assertEquals(Collections.emptySet(), spatialIndex.query(WORLD, GRAPH));
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.jena.geosparql.spatial;
+
+import static org.apache.jena.geosparql.spatial.SpatialIndexTestData.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.apache.jena.geosparql.implementation.datatype.WKTDatatype;
+import org.apache.jena.geosparql.implementation.vocabulary.Geo;
+import org.apache.jena.geosparql.implementation.vocabulary.SRS_URI;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.system.Txn;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ *
+ *
+ */
+public class SpatialIndexTest {
+
+    private static final Envelope WORLD = new Envelope(-180, 180, -180, 180);
+
+    private static SpatialIndex createIndex(boolean perGraph) throws SpatialIndexException {
+        SpatialIndex spatialIndex = new SpatialIndex(10, SRS_URI.WGS84_CRS, perGraph);
+        spatialIndex.insertItem(new SpatialIndexItem(LONDON_GEOMETRY_WRAPPER.getEnvelope(), LONDON_FEATURE, null));
+        spatialIndex.insertItem(new SpatialIndexItem(NEW_YORK_GEOMETRY_WRAPPER.getEnvelope(), NEW_YORK_FEATURE, "http://example.org/g1"));
+        spatialIndex.insertItem(new SpatialIndexItem(PERTH_GEOMETRY_WRAPPER.getEnvelope(), PERTH_FEATURE, "http://example.org/g2"));
+        spatialIndex.build();
+        return spatialIndex;
+    }
+
+    @Test
+    public void testInsertAfterBuild() throws SpatialIndexException {
+        SpatialIndex spatialIndex = createIndex(false);
+        spatialIndex.insertItem(AUCKLAND_GEOMETRY_WRAPPER.getEnvelope(), AUCKLAND_FEATURE);
+
+        assertEquals(4, spatialIndex.size());
+        HashSet<Resource> expResult = new HashSet<>(Arrays.asList(LONDON_FEATURE, NEW_YORK_FEATURE, PERTH_FEATURE, AUCKLAND_FEATURE));
+        assertEquals(expResult, spatialIndex.query(WORLD));
+        assertEquals(Collections.singleton(AUCKLAND_FEATURE), spatialIndex.query(AUCKLAND_GEOMETRY_WRAPPER.getEnvelope()));
+        // Not found: an envelope that is not near an item.
+        assertEquals(Collections.emptySet(), spatialIndex.query(HONOLULU_GEOMETRY_WRAPPER.getEnvelope()));
+    }
+
+    @Test
+    public void testRemove() throws SpatialIndexException {
+        SpatialIndex spatialIndex = createIndex(false);
+        spatialIndex.insertItem(AUCKLAND_GEOMETRY_WRAPPER.getEnvelope(), AUCKLAND_FEATURE);
+
+        // Built item.
+        assertTrue(spatialIndex.removeItem(new SpatialIndexItem(LONDON_GEOMETRY_WRAPPER.getEnvelope(), LONDON_FEATURE)));
+        // Inserted item.
+        assertTrue(spatialIndex.removeItem(new SpatialIndexItem(AUCKLAND_GEOMETRY_WRAPPER.getEnvelope(), AUCKLAND_FEATURE)));
+        // Not present.
+        assertFalse(spatialIndex.removeItem(new SpatialIndexItem(HONOLULU_GEOMETRY_WRAPPER.getEnvelope(), HONOLULU_FEATURE)));
+        assertFalse(spatialIndex.removeItem(new SpatialIndexItem(LONDON_GEOMETRY_WRAPPER.getEnvelope(), LONDON_FEATURE)));
+
+        assertEquals(2, spatialIndex.size());
+        HashSet<Resource> expResult = new HashSet<>(Arrays.asList(NEW_YORK_FEATURE, PERTH_FEATURE));
+        assertEquals(expResult, spatialIndex.query(WORLD));
+    }
+
+    @Test
+    public void testPerGraph() throws SpatialIndexException {
+        SpatialIndex spatialIndex = createIndex(true);
+        assertTrue(spatialIndex.isPerGraph());
+        assertEquals(3, spatialIndex.query(WORLD).size());
+        assertEquals(Collections.singleton(LONDON_FEATURE), spatialIndex.query(WORLD, (String) null));
+        assertEquals(Collections.singleton(NEW_YORK_FEATURE), spatialIndex.query(WORLD, "http://example.org/g1"));
+        assertEquals(Collections.emptySet(), spatialIndex.query(WORLD, "http://example.org/g3"));
+
+        // Not per graph: all graphs.
+        assertEquals(3, createIndex(false).query(WORLD, "http://example.org/g1").size());
+    }
+
+    @Test
+    public void testSaveLoad() throws SpatialIndexException, IOException {
+        File file = Files.createTempFile("spatial", ".index").toFile();
+        try {
+            SpatialIndex spatialIndex = createIndex(true);
+            SpatialIndex.save(file, spatialIndex);
+            assertTrue(SpatialIndexFile.isSpatialIndexFile(file.toPath()));
+
+            // Changes appended to the file.
+            SpatialIndexItem added = new SpatialIndexItem(AUCKLAND_GEOMETRY_WRAPPER.getEnvelope(), AUCKLAND_FEATURE, "http://example.org/g2");
+            SpatialIndexItem removed = new SpatialIndexItem(PERTH_GEOMETRY_WRAPPER.getEnvelope(), PERTH_FEATURE, "http://example.org/g2");
+            SpatialIndexFile.append(file.toPath(), spatialIndex, Collections.singletonList(added), Collections.singletonList(removed));
+            long size = file.length();
+
+            SpatialIndex loaded = SpatialIndex.load(file);
+            assertTrue(loaded.isBuilt());
+            assertTrue(loaded.isPerGraph());
+            assertEquals(SRS_URI.WGS84_CRS, loaded.getSrsInfo().getSrsURI());
+            assertEquals(3, loaded.size());
+            assertEquals(Collections.singleton(AUCKLAND_FEATURE), loaded.query(WORLD, "http://example.org/g2"));
+            assertEquals(new HashSet<>(loaded.getItems()), new HashSet<>(Arrays.asList(
+                    new SpatialIndexItem(LONDON_GEOMETRY_WRAPPER.getEnvelope(), LONDON_FEATURE, null),
+                    new SpatialIndexItem(NEW_YORK_GEOMETRY_WRAPPER.getEnvelope(), NEW_YORK_FEATURE, "http://example.org/g1"),
+                    added)));
+            // Removals are compacted when loaded.
+            assertTrue(file.length() < size);
+            assertEquals(3, SpatialIndex.load(file).size());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testLoadTornRecord() throws SpatialIndexException, IOException {
+        File file = Files.createTempFile("spatial", ".index").toFile();
+        try {
+            SpatialIndex spatialIndex = createIndex(true);
+            SpatialIndex.save(file, spatialIndex);
+            long size = file.length();
+            SpatialIndexItem added = new SpatialIndexItem(AUCKLAND_GEOMETRY_WRAPPER.getEnvelope(), AUCKLAND_FEATURE, "http://example.org/g2");
+            SpatialIndexFile.append(file.toPath(), spatialIndex, Collections.singletonList(added), Collections.emptyList());
+            // A crash while appending leaves part of the last record.
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(file.length() - 3);
+            }
+
+            SpatialIndex loaded = SpatialIndex.load(file);
+            assertEquals(new HashSet<>(spatialIndex.getItems()), new HashSet<>(loaded.getItems()));
+            // The incomplete record is removed when loaded.
+            assertEquals(size, file.length());
+            SpatialIndexFile.append(file.toPath(), loaded, Collections.singletonList(added), Collections.emptyList());
+            assertEquals(spatialIndex.size() + 1, SpatialIndex.load(file).size());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testParallelBuild() throws SpatialIndexException {
+        // More literals than one batch, in two graphs.
+        Dataset dataset = DatasetFactory.createTxnMem();
+        Txn.executeWrite(dataset, () -> {
+            for (int i = 0; i < 12000; i++) {
+                Model model = (i % 2 == 0) ? dataset.getDefaultModel() : dataset.getNamedModel("http://example.org/g1");
+                Resource feature = ResourceFactory.createResource("http://example.org/Feature#" + i);
+                Resource geometry = ResourceFactory.createResource("http://example.org/Geometry#" + i);
+                String wkt = "<" + SRS_URI.WGS84_CRS + "> POINT(" + (i % 180 - 90) + " " + (i % 360 - 180) + ")";
+                model.add(feature, Geo.HAS_GEOMETRY_PROP, geometry);
+                model.add(geometry, Geo.AS_WKT_PROP, ResourceFactory.createTypedLiteral(wkt, WKTDatatype.INSTANCE));
+            }
+        });
+
+        int buildThreads = SpatialIndex.getBuildThreads();
+        try {
+            SpatialIndex.setBuildThreads(1);
+            Collection<SpatialIndexItem> expResult = SpatialIndex.findSpatialIndexItems(dataset, SRS_URI.WGS84_CRS);
+            SpatialIndex.setBuildThreads(4);
+            Collection<SpatialIndexItem> result = SpatialIndex.findSpatialIndexItems(dataset, SRS_URI.WGS84_CRS);
+            assertEquals(12000, result.size());
+            assertEquals(new ArrayList<>(expResult), new ArrayList<>(result));
+
+            SpatialIndex spatialIndex = new SpatialIndex(result, SRS_URI.WGS84_CRS, true);
+            assertEquals(12000, spatialIndex.size());
+            assertEquals(6000, spatialIndex.query(WORLD, "http://example.org/g1").size());
+            // Latitude 80, longitude -10: Features 170, 530, ...
+            Envelope envelope = new Envelope(-10.5, -9.5, 79.5, 80.5);
+            assertEquals(33, spatialIndex.query(envelope, (String) null).size());
+            assertTrue(spatialIndex.query(envelope, (String) null).contains(ResourceFactory.createResource("http://example.org/Feature#170")));
+        } finally {
+            SpatialIndex.setBuildThreads(buildThreads);
+        }
+    }
+}
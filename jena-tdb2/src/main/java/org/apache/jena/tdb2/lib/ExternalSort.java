@@ -0,0 +1,604 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.tdb2.lib;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.jena.atlas.RuntimeIOException;
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.atlas.lib.Bytes;
+import org.apache.jena.atlas.lib.FileOps;
+import org.apache.jena.tdb2.TDBException;
+
+/**
+ * External merge sort of binary records, removing duplicates.
+ * <p>
+ * Records are added to an in-memory buffer. When the buffer is full, it is sorted and
+ * written as a run file by a pool of threads while the caller fills the next buffer.
+ * {@link #sort()} merges the runs with a loser tree, reading uncompressed runs by
+ * memory mapping. If all the records fit in one buffer, no files are written.
+ * <p>
+ * Records compare as unsigned bytes over the first {@code keyLength} bytes, which is the
+ * same order as {@code sort(1)} with {@code LC_ALL=C} on the records written in hex.
+ * Records are either all the same length, and the whole record is the key (index rows),
+ * or are variable length with a fixed length key (hash and encoded term for the node
+ * table). Records with the same key are duplicates and only one is kept.
+ * <p>
+ * Records are added by one thread.
+ */
+public class ExternalSort implements AutoCloseable {
+    /** Maximum number of runs merged at once. More runs than this are merged in several passes. */
+    public static int MaxMergeWidth = 128;
+
+    private static final int MinRunBytes   = 1 << 20;
+    private static final int MaxRunBytes   = 1 << 30;
+    private static final int IOBufferSize  = 128 * 1024;
+    // Below this, insertion sort.
+    private static final int SmallSort     = 16;
+
+    private final int keyLength;
+    // 0 for variable length records, which are written with a length prefix.
+    private final int recordLength;
+    private final Path parentDir;
+    private final boolean compress;
+    private final int runBytes;
+    private final int maxBuffers;
+    private final ExecutorService executor;
+    private final BlockingQueue<RunBuffer> freeBuffers = new LinkedBlockingQueue<>();
+    private final List<Future<Path>> pendingRuns = new ArrayList<>();
+    private final List<Path> runFiles = new ArrayList<>();
+    private final List<MergeIterator> merges = new ArrayList<>();
+
+    private int allocatedBuffers = 0;
+    private RunBuffer current = null;
+    private Path tmpDir = null;
+    private int runCounter = 0;
+    private boolean sorting = false;
+
+    /**
+     * Sort records that are all {@code recordLength} bytes, using up to {@code memory}
+     * bytes for buffers and {@code threads} threads to sort and write runs.
+     */
+    public static ExternalSort fixedLength(int recordLength, Path tmpDir, int threads, long memory, boolean compress) {
+        return new ExternalSort(recordLength, recordLength, tmpDir, threads, memory, compress);
+    }
+
+    /**
+     * Sort variable length records by their first {@code keyLength} bytes, using up to
+     * {@code memory} bytes for buffers and {@code threads} threads to sort and write runs.
+     */
+    public static ExternalSort keyed(int keyLength, Path tmpDir, int threads, long memory, boolean compress) {
+        return new ExternalSort(keyLength, 0, tmpDir, threads, memory, compress);
+    }
+
+    private ExternalSort(int keyLength, int recordLength, Path tmpDir, int threads, long memory, boolean compress) {
+        if ( threads < 1 )
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        this.keyLength = keyLength;
+        this.recordLength = recordLength;
+        this.parentDir = Objects.requireNonNull(tmpDir);
+        this.compress = compress;
+        // One buffer being filled, one per thread being sorted and written.
+        this.maxBuffers = threads + 1;
+        long perBuffer = memory / maxBuffers;
+        this.runBytes = (int)Math.max(MinRunBytes, Math.min(MaxRunBytes, perBuffer));
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ExternalSort");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Add a record. The byte array is copied. */
+    public void add(byte[] record) {
+        if ( sorting )
+            throw new IllegalStateException("Records can not be added after sort()");
+        if ( recordLength > 0 ? record.length != recordLength : record.length < keyLength )
+            throw new IllegalArgumentException("Record length: " + record.length);
+        if ( current == null )
+            current = takeBuffer();
+        if ( !current.fits(record.length) ) {
+            if ( current.count > 0 ) {
+                submit(current);
+                current = takeBuffer();
+            }
+            // A record larger than a whole buffer.
+            if ( !current.fits(record.length) )
+                current.data = new byte[current.storedLength(record.length)];
+        }
+        current.add(record);
+    }
+
+    /**
+     * Finish adding records and return the records in sorted order, without duplicates.
+     * Each record returned is a new byte array.
+     */
+    public Iterator<byte[]> sort() {
+        if ( sorting )
+            throw new IllegalStateException("Already sorted");
+        sorting = true;
+        RunBuffer last = current;
+        current = null;
+        if ( pendingRuns.isEmpty() ) {
+            // Everything fits in memory.
+            if ( last == null )
+                return Collections.emptyIterator();
+            sortBuffer(last);
+            return new BufferIterator(last);
+        }
+        if ( last != null && last.count > 0 )
+            submit(last);
+        for ( Future<Path> future : pendingRuns )
+            runFiles.add(await(future));
+        pendingRuns.clear();
+        freeBuffers.clear();
+        while ( runFiles.size() > MaxMergeWidth )
+            mergePass();
+        MergeIterator iter = new MergeIterator(runFiles);
+        merges.add(iter);
+        return iter;
+    }
+
+    /** Delete any run files and stop the threads. */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        merges.forEach(MergeIterator::close);
+        if ( tmpDir != null ) {
+            try ( Stream<Path> files = Files.list(tmpDir) ) {
+                files.forEach(path -> FileOps.deleteSilent(path.toString()));
+                Files.deleteIfExists(tmpDir);
+            } catch (IOException ex) { IO.exception(ex); }
+        }
+    }
+
+    // ---- Runs
+
+    private RunBuffer takeBuffer() {
+        RunBuffer buffer = freeBuffers.poll();
+        if ( buffer == null && allocatedBuffers < maxBuffers ) {
+            allocatedBuffers++;
+            return new RunBuffer(runBytes);
+        }
+        while ( buffer == null ) {
+            checkPending();
+            try {
+                buffer = freeBuffers.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new TDBException("Interrupted", ex);
+            }
+        }
+        return buffer;
+    }
+
+    private void submit(RunBuffer buffer) {
+        pendingRuns.add(executor.submit(() -> {
+            try {
+                sortBuffer(buffer);
+                Path path = newRunFile();
+                try ( OutputStream out = runOutput(path) ) {
+                    byte[] previous = null;
+                    int prevStart = -1;
+                    for ( int i = 0 ; i < buffer.count ; i++ ) {
+                        int offset = buffer.offsets[i];
+                        int start = buffer.start(offset);
+                        if ( prevStart >= 0 && sameKey(buffer.data, prevStart, buffer.data, start) )
+                            continue;
+                        writeRecord(out, buffer.data, start, buffer.length(offset));
+                        prevStart = start;
+                    }
+                }
+                return path;
+            } finally {
+                buffer.clear();
+                freeBuffers.add(buffer);
+            }
+        }));
+        checkPending();
+    }
+
+    /** Report any failure of a run that has finished. */
+    private void checkPending() {
+        for ( Future<Path> future : pendingRuns ) {
+            if ( future.isDone() )
+                await(future);
+        }
+    }
+
+    private static Path await(Future<Path> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TDBException("Interrupted", ex);
+        } catch (ExecutionException ex) {
+            if ( ex.getCause() instanceof RuntimeException runtimeEx )
+                throw runtimeEx;
+            if ( ex.getCause() instanceof IOException ioEx )
+                throw new RuntimeIOException(ioEx);
+            throw new TDBException(ex.getCause());
+        }
+    }
+
+    /** Merge the runs, in groups of {@link #MaxMergeWidth}, in parallel. */
+    private void mergePass() {
+        List<Future<Path>> merged = new ArrayList<>();
+        for ( int i = 0 ; i < runFiles.size() ; i += MaxMergeWidth ) {
+            List<Path> group = List.copyOf(runFiles.subList(i, Math.min(runFiles.size(), i + MaxMergeWidth)));
+            merged.add(executor.submit(() -> {
+                Path path = newRunFile();
+                try ( MergeIterator iter = new MergeIterator(group);
+                      OutputStream out = runOutput(path) ) {
+                    while ( iter.hasNext() ) {
+                        byte[] record = iter.next();
+                        writeRecord(out, record, 0, record.length);
+                    }
+                }
+                group.forEach(p -> FileOps.deleteSilent(p.toString()));
+                return path;
+            }));
+        }
+        runFiles.clear();
+        for ( Future<Path> future : merged )
+            runFiles.add(await(future));
+    }
+
+    private synchronized Path newRunFile() throws IOException {
+        if ( tmpDir == null )
+            tmpDir = Files.createTempDirectory(parentDir, "sort-");
+        return tmpDir.resolve(String.format("run-%04d", runCounter++));
+    }
+
+    private OutputStream runOutput(Path path) throws IOException {
+        OutputStream out = Files.newOutputStream(path);
+        if ( compress ) {
+            out = new GZIPOutputStream(out, IOBufferSize) {
+                { def.setLevel(Deflater.BEST_SPEED); }
+            };
+        }
+        return new BufferedOutputStream(out, IOBufferSize);
+    }
+
+    private void writeRecord(OutputStream out, byte[] bytes, int start, int length) throws IOException {
+        if ( recordLength == 0 ) {
+            out.write(length >>> 24);
+            out.write(length >>> 16);
+            out.write(length >>> 8);
+            out.write(length);
+        }
+        out.write(bytes, start, length);
+    }
+
+    private boolean sameKey(byte[] data1, int start1, byte[] data2, int start2) {
+        return Arrays.equals(data1, start1, start1 + keyLength, data2, start2, start2 + keyLength);
+    }
+
+    private int compareKeys(byte[] data1, int start1, byte[] data2, int start2) {
+        return Arrays.compareUnsigned(data1, start1, start1 + keyLength, data2, start2, start2 + keyLength);
+    }
+
+    // ---- In-memory sort
+
+    /** A buffer of records, and the offsets of the records which are sorted. */
+    private class RunBuffer {
+        byte[] data;
+        int used = 0;
+        int[] offsets;
+        int count = 0;
+
+        RunBuffer(int size) {
+            data = new byte[size];
+            offsets = new int[recordLength > 0 ? size / recordLength : 1024];
+        }
+
+        int storedLength(int length) {
+            return recordLength > 0 ? length : length + Integer.BYTES;
+        }
+
+        boolean fits(int length) {
+            return data.length - used >= storedLength(length);
+        }
+
+        void add(byte[] record) {
+            if ( count == offsets.length )
+                offsets = Arrays.copyOf(offsets, 2 * count);
+            offsets[count++] = used;
+            if ( recordLength == 0 ) {
+                Bytes.setInt(record.length, data, used);
+                used += Integer.BYTES;
+            }
+            System.arraycopy(record, 0, data, used, record.length);
+            used += record.length;
+        }
+
+        int start(int offset) {
+            return recordLength > 0 ? offset : offset + Integer.BYTES;
+        }
+
+        int length(int offset) {
+            return recordLength > 0 ? recordLength : Bytes.getInt(data, offset);
+        }
+
+        int compare(int offset1, int offset2) {
+            return compareKeys(data, start(offset1), data, start(offset2));
+        }
+
+        void clear() {
+            used = 0;
+            count = 0;
+        }
+    }
+
+    private static void sortBuffer(RunBuffer buffer) {
+        int[] tmp = new int[buffer.count];
+        mergeSort(buffer, buffer.offsets, tmp, 0, buffer.count);
+    }
+
+    private static void mergeSort(RunBuffer buffer, int[] a, int[] tmp, int lo, int hi) {
+        if ( hi - lo <= SmallSort ) {
+            for ( int i = lo + 1 ; i < hi ; i++ ) {
+                int x = a[i];
+                int j = i - 1;
+                while ( j >= lo && buffer.compare(a[j], x) > 0 ) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = x;
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(buffer, a, tmp, lo, mid);
+        mergeSort(buffer, a, tmp, mid, hi);
+        if ( buffer.compare(a[mid - 1], a[mid]) <= 0 )
+            return;
+        System.arraycopy(a, lo, tmp, lo, hi - lo);
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        while ( i < mid && j < hi )
+            a[k++] = ( buffer.compare(tmp[j], tmp[i]) < 0 ) ? tmp[j++] : tmp[i++];
+        while ( i < mid )
+            a[k++] = tmp[i++];
+        while ( j < hi )
+            a[k++] = tmp[j++];
+    }
+
+    /** Records from a sorted buffer, without duplicates. */
+    private class BufferIterator implements Iterator<byte[]> {
+        private final RunBuffer buffer;
+        private int idx = 0;
+        private int prevStart = -1;
+
+        BufferIterator(RunBuffer buffer) {
+            this.buffer = buffer;
+            skipDuplicates();
+        }
+
+        private void skipDuplicates() {
+            while ( prevStart >= 0 && idx < buffer.count && sameKey(buffer.data, prevStart, buffer.data, buffer.start(buffer.offsets[idx])) )
+                idx++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return idx < buffer.count;
+        }
+
+        @Override
+        public byte[] next() {
+            if ( !hasNext() )
+                throw new NoSuchElementException();
+            int offset = buffer.offsets[idx++];
+            int start = buffer.start(offset);
+            byte[] record = Arrays.copyOfRange(buffer.data, start, start + buffer.length(offset));
+            prevStart = start;
+            skipDuplicates();
+            return record;
+        }
+    }
+
+    // ---- Merge
+
+    private interface RunReader extends Closeable {
+        /** The next record, or null at the end of the run. */
+        byte[] next() throws IOException;
+    }
+
+    private RunReader openRun(Path path) throws IOException {
+        long size = Files.size(path);
+        if ( compress || size > Integer.MAX_VALUE )
+            return new StreamRunReader(path);
+        return new MappedRunReader(path, size);
+    }
+
+    private class MappedRunReader implements RunReader {
+        private final MappedByteBuffer bytes;
+
+        MappedRunReader(Path path, long size) throws IOException {
+            try ( FileChannel channel = FileChannel.open(path, StandardOpenOption.READ) ) {
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+        }
+
+        @Override
+        public byte[] next() {
+            if ( !bytes.hasRemaining() )
+                return null;
+            int length = ( recordLength > 0 ) ? recordLength : bytes.getInt();
+            byte[] record = new byte[length];
+            bytes.get(record);
+            return record;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    private class StreamRunReader implements RunReader {
+        private final DataInputStream input;
+
+        StreamRunReader(Path path) throws IOException {
+            InputStream in = Files.newInputStream(path);
+            if ( compress )
+                in = new GZIPInputStream(in, IOBufferSize);
+            input = new DataInputStream(new BufferedInputStream(in, IOBufferSize));
+        }
+
+        @Override
+        public byte[] next() throws IOException {
+            int length = recordLength;
+            if ( length == 0 ) {
+                int b = input.read();
+                if ( b < 0 )
+                    return null;
+                length = (b << 24) | (input.readUnsignedByte() << 16) | (input.readUnsignedShort());
+            }
+            byte[] record = new byte[length];
+            int n = input.readNBytes(record, 0, length);
+            if ( n == 0 && recordLength > 0 )
+                return null;
+            if ( n != length )
+                throw new EOFException("Truncated sort run");
+            return record;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+
+    /**
+     * Merge sorted runs using a loser tree: each internal node holds the run that lost
+     * the comparison at that node, and {@code tree[0]} the overall winner, so taking
+     * the next record costs one comparison per level.
+     */
+    private class MergeIterator implements Iterator<byte[]>, Closeable {
+        private final RunReader[] readers;
+        private final byte[][] heads;
+        private final int[] tree;
+        private final int k;
+        private byte[] last = null;
+        private byte[] slot = null;
+
+        MergeIterator(List<Path> runs) {
+            k = runs.size();
+            readers = new RunReader[k];
+            heads = new byte[k][];
+            tree = new int[Math.max(1, k)];
+            try {
+                for ( int i = 0 ; i < k ; i++ ) {
+                    readers[i] = openRun(runs.get(i));
+                    heads[i] = readers[i].next();
+                }
+            } catch (IOException ex) {
+                close();
+                throw new RuntimeIOException(ex);
+            }
+            Arrays.fill(tree, -1);
+            for ( int i = 0 ; i < k ; i++ )
+                adjust(i);
+        }
+
+        /** Whether run {@code a} is before run {@code b}. An exhausted run is after everything. */
+        private boolean before(int a, int b) {
+            if ( heads[a] == null )
+                return false;
+            if ( heads[b] == null )
+                return true;
+            int x = compareKeys(heads[a], 0, heads[b], 0);
+            return x < 0 || ( x == 0 && a < b );
+        }
+
+        /** Replay the matches from leaf {@code s} to the root. */
+        private void adjust(int s) {
+            for ( int t = (s + k) >>> 1 ; t > 0 ; t >>>= 1 ) {
+                if ( tree[t] == -1 ) {
+                    // Building the tree: wait for the other player.
+                    tree[t] = s;
+                    return;
+                }
+                if ( before(tree[t], s) ) {
+                    int winner = tree[t];
+                    tree[t] = s;
+                    s = winner;
+                }
+            }
+            tree[0] = s;
+        }
+
+        private byte[] take() {
+            if ( k == 0 )
+                return null;
+            int winner = tree[0];
+            byte[] record = heads[winner];
+            if ( record == null )
+                return null;
+            try {
+                heads[winner] = readers[winner].next();
+            } catch (IOException ex) { throw new RuntimeIOException(ex); }
+            adjust(winner);
+            return record;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while ( slot == null ) {
+                byte[] record = take();
+                if ( record == null )
+                    return false;
+                if ( last != null && sameKey(last, 0, record, 0) )
+                    continue;
+                slot = record;
+                last = record;
+            }
+            return true;
+        }
+
+        @Override
+        public byte[] next() {
+            if ( !hasNext() )
+                throw new NoSuchElementException();
+            byte[] record = slot;
+            slot = null;
+            return record;
+        }
+
+        @Override
+        public void close() {
+            for ( RunReader reader : readers ) {
+                if ( reader != null )
+                    IO.close(reader);
+            }
+        }
+    }
+}
@@ -62,6 +62,11 @@ import org.apache.jena.riot.system.StreamRDF;
  * Because it uses many threads to write to persistent storage,
  * it can interfere with performance of other applications on the machine it is run on.
  *
+ * <h4>merge</h4>
+ * The merge loader is for adding large amounts of data to a non-empty {@code DatasetGraph}.
+ * It sorts the new data for each index and merges it into the existing index in one sequential pass,
+ * with indexes processed in parallel. Each index is committed separately.
+ *
  * <h4>{@code DataLoader} API</h4>
  *
  * To use a {@code DataLoader}:
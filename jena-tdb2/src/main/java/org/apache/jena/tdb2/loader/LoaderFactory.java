@@ -26,6 +26,7 @@ import org.apache.jena.sparql.core.DatasetGraph;
 import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.tdb2.loader.basic.LoaderBasic;
 import org.apache.jena.tdb2.loader.main.LoaderMain;
+import org.apache.jena.tdb2.loader.main.LoaderMerge;
 import org.apache.jena.tdb2.loader.main.LoaderParallel;
 import org.apache.jena.tdb2.loader.main.LoaderPhased;
 import org.apache.jena.tdb2.loader.main.LoaderPlan;
@@ -196,6 +197,43 @@ public class LoaderFactory {
         return new LoaderParallel(dsg, graphName, output);
     }
 
+    /**
+     * A loader for adding large amounts of data to a non-empty database.
+     * The new data is sorted for each index and merged into the existing index
+     * in key order. Indexes are processed in parallel.
+     * <p>
+     * Only the parts of each index where new data goes are written again, so the cost
+     * depends on how widely the new data is spread over the key ranges of the indexes.
+     * For small additions, use {@link #basicLoader(DatasetGraph, MonitorOutput)}.
+     * <p>
+     * The old copies of the index blocks that are written again stay on disk until the
+     * database is compacted. If the new data falls throughout the indexes, that is
+     * about the size of the indexes. Compact after loading.
+     * <p>
+     * The dataset can not be used for other operations - the code will block other transactions
+     * as necessary and release then when loading has finished.
+     * <p>
+     * Supply a {@link MonitorOutput} for the desirable progress and summary output messages
+     * or {@code null} for no output.
+     */
+    public static DataLoader mergeLoader(DatasetGraph dsg, MonitorOutput output) {
+        Objects.requireNonNull(dsg);
+        return new LoaderMerge(dsg, null, output);
+    }
+
+    /**
+     * A merge loader to load a single graph in the destination {@code DatasetGraph}.
+     * See {@link #mergeLoader(DatasetGraph, MonitorOutput)} for loader characteristics.
+     * <p>
+     * Use {@link Quad#defaultGraphIRI} to load the default graph.
+     *
+     * @see #mergeLoader(DatasetGraph, MonitorOutput)
+     */
+    public static DataLoader mergeLoader(DatasetGraph dsg, Node graphName, MonitorOutput output) {
+        Objects.requireNonNull(dsg);
+        return new LoaderMerge(dsg, graphName, output);
+    }
+
     /**
      * Return a loader to load a dataset, using the provided plan.
      * See {@link LoaderPlans} for the standard plans.
@@ -43,6 +43,7 @@ import org.apache.jena.tdb2.store.nodetable.NodeTable;
 import org.apache.jena.tdb2.store.nodetable.NodeTableTRDF;
 import org.apache.jena.tdb2.store.tupletable.TupleIndex;
 import org.apache.jena.tdb2.store.tupletable.TupleIndexRecord;
+import org.apache.jena.tdb2.sys.SystemTDB;
 import org.slf4j.Logger;
 
 /**
@@ -104,7 +105,7 @@ public class LoaderOps {
         if ( monitor != null )
             sink = new ProgressStreamRDF(sink, monitor);
         sink.start();
-        RDFParser.source(source).parse(sink);
+        RDFParser.source(source).parallel(SystemTDB.LoaderParserThreads).parse(sink);
         sink.finish();
     }
 
@@ -117,7 +118,7 @@ public class LoaderOps {
         if ( monitor != null )
             sink = new ProgressStreamRDF(sink, monitor);
         sink.start();
-        RDFParser.source(input).lang(syntax).parse(sink);
+        RDFParser.source(input).lang(syntax).parallel(SystemTDB.LoaderParserThreads).parse(sink);
         sink.finish();
     }
 
@@ -21,13 +21,21 @@ package org.apache.jena.tdb2.loader.main;
 import static org.apache.jena.tdb2.loader.main.PhasedOps.acquire;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import org.apache.jena.atlas.lib.Cache;
+import org.apache.jena.atlas.lib.CacheFactory;
 import org.apache.jena.atlas.lib.tuple.Tuple;
 import org.apache.jena.atlas.lib.tuple.TupleFactory;
 import org.apache.jena.atlas.logging.Log;
@@ -37,11 +45,13 @@ import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.query.TxnType;
 import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.tdb2.lib.NodeLib;
 import org.apache.jena.tdb2.loader.BulkLoaderException;
 import org.apache.jena.tdb2.loader.base.BulkStartFinish;
 import org.apache.jena.tdb2.loader.base.CoLib;
 import org.apache.jena.system.progress.MonitorOutput;
 import org.apache.jena.tdb2.store.DatasetGraphTDB;
+import org.apache.jena.tdb2.store.Hash;
 import org.apache.jena.tdb2.store.NodeId;
 import org.apache.jena.tdb2.store.nodetable.NodeTable;
 
@@ -50,7 +60,13 @@ import org.apache.jena.tdb2.store.nodetable.NodeTable;
  * converting them to two outputs of
  * blocks of {@code Tuple<NodeId>}.
  * <p>
- * This class runs one task thread which updates
+ * This class runs one task thread which updates the node table, and
+ * {@link LoaderConst#NodeThreads} worker threads.
+ * The terms of each block are partitioned by hash across the workers. Each worker
+ * has its own node to NodeId cache for its partition, and finds the inline NodeIds
+ * and cached NodeIds for its terms, and calculates the node table hash of the terms not
+ * found. Those terms are allocated by the task thread in one {@link NodeTable#bulkNodeToNodeId}
+ * call per block, which only accesses the node table index, then the workers create the tuples.
  * <p>
  * Data is deliver into the process by calling the provided functions for {@code Destination<Tuple<NodeId>}.
  * <p>
@@ -74,6 +90,22 @@ public class DataToTuples implements BulkStartFinish {
 
     private Thread thread;
 
+    // Term partitions, by hash. Each is used by one worker at a time.
+    private final NodePartition[] partitions;
+    private ExecutorService workers;
+
+    /** One partition of the terms, with a cache, and the NodeIds for the current block. */
+    private static class NodePartition {
+        final Cache<Node, NodeId> cache;
+        final Map<Node, NodeId> blockNodeIds = new HashMap<>();
+        final List<Node> misses = new ArrayList<>();
+        final List<Hash> missHashes = new ArrayList<>();
+
+        NodePartition(int cacheSize) {
+            this.cache = CacheFactory.createCache(cacheSize);
+        }
+    }
+
     public DataToTuples(DatasetGraphTDB dsgtdb,
                         Destination<Tuple<NodeId>> tuples3,
                         Destination<Tuple<NodeId>> tuples4,
@@ -84,6 +116,9 @@ public class DataToTuples implements BulkStartFinish {
         this.input = new ArrayBlockingQueue<>(LoaderConst.QueueSizeData);
         this.nodeTable = dsgtdb.getQuadTable().getNodeTupleTable().getNodeTable();
         this.output = output;
+        this.partitions = new NodePartition[LoaderConst.NodeThreads];
+        for ( int i = 0 ; i < partitions.length ; i++ )
+            partitions[i] = new NodePartition(LoaderConst.NodeCacheSize/partitions.length);
 
         NodeTable nodeTable2 = dsgtdb.getTripleTable().getNodeTupleTable().getNodeTable();
         if ( nodeTable != nodeTable2 )
@@ -124,6 +159,11 @@ public class DataToTuples implements BulkStartFinish {
         CoLib.add(coordinator, nodeTable);
         CoLib.start(coordinator);
         transaction = coordinator.begin(TxnType.WRITE);
+        workers = Executors.newFixedThreadPool(partitions.length, runnable->{
+            Thread t = new Thread(runnable, "DataToTuples");
+            t.setDaemon(true);
+            return t;
+        });
 
         try {
             for (;;) {
@@ -131,21 +171,14 @@ public class DataToTuples implements BulkStartFinish {
                 DataBlock data = input.take();
                 if ( data == DataBlock.END )
                     break;
+                allocateNodeIds(data);
                 if ( data.triples != null ) {
-                    List<Tuple<NodeId>> tuples = new ArrayList<>(data.triples.size());
-                    for ( Triple t : data.triples ) {
-                        countTriples++;
-                        accTuples(t, nodeTable, tuples);
-                    }
-                    dispatchTuples3(tuples);
+                    countTriples += data.triples.size();
+                    dispatchTuples3(tuples(data.triples, this::nodes));
                 }
                 if ( data.quads != null ) {
-                    List<Tuple<NodeId>> tuples = new ArrayList<>(data.quads.size());
-                    for ( Quad q : data.quads ) {
-                        countQuads++;
-                        accTuples(q, nodeTable, tuples);
-                    }
-                    dispatchTuples4(tuples);
+                    countQuads += data.quads.size();
+                    dispatchTuples4(tuples(data.quads, this::nodes));
                 }
             }
             dispatchTuples3(LoaderConst.END_TUPLES);
@@ -155,11 +188,118 @@ public class DataToTuples implements BulkStartFinish {
             Log.error(this, "Exception during data loading", ex);
             transaction.abort();
         }
+        workers.shutdownNow();
         transaction.end();
         CoLib.finish(coordinator);
         termination.release();
     }
 
+    /**
+     * Find the NodeIds for all the terms in a block. The workers look in their
+     * partition and hash the terms not found, then those terms are allocated in the
+     * node table by this thread in one call, which accesses the node table index in
+     * sorted order.
+     */
+    private void allocateNodeIds(DataBlock data) {
+        List<Future<?>> lookups = new ArrayList<>(partitions.length);
+        for ( int i = 0 ; i < partitions.length ; i++ ) {
+            int idx = i;
+            lookups.add(workers.submit(()->lookup(idx, data)));
+        }
+        lookups.forEach(DataToTuples::result);
+
+        List<Node> misses = new ArrayList<>();
+        List<Hash> hashes = new ArrayList<>();
+        for ( NodePartition partition : partitions ) {
+            misses.addAll(partition.misses);
+            hashes.addAll(partition.missHashes);
+        }
+        if ( misses.isEmpty() )
+            return;
+        List<NodeId> nodeIds = nodeTable.bulkNodeToNodeId(misses, hashes, true);
+        int j = 0;
+        for ( NodePartition partition : partitions ) {
+            for ( Node node : partition.misses ) {
+                NodeId nodeId = nodeIds.get(j++);
+                partition.blockNodeIds.put(node, nodeId);
+                partition.cache.put(node, nodeId);
+            }
+        }
+    }
+
+    // Worker: the terms of the block in partition idx.
+    private void lookup(int idx, DataBlock data) {
+        NodePartition partition = partitions[idx];
+        partition.blockNodeIds.clear();
+        partition.misses.clear();
+        partition.missHashes.clear();
+        if ( data.triples != null ) {
+            for ( Triple t : data.triples ) {
+                lookup(partition, idx, t.getSubject());
+                lookup(partition, idx, t.getPredicate());
+                lookup(partition, idx, t.getObject());
+            }
+        }
+        if ( data.quads != null ) {
+            for ( Quad q : data.quads ) {
+                lookup(partition, idx, q.getGraph());
+                lookup(partition, idx, q.getSubject());
+                lookup(partition, idx, q.getPredicate());
+                lookup(partition, idx, q.getObject());
+            }
+        }
+    }
+
+    private void lookup(NodePartition partition, int idx, Node node) {
+        if ( partition(node) != idx || partition.blockNodeIds.containsKey(node) )
+            return;
+        NodeId nodeId = NodeId.inline(node);
+        if ( nodeId == null )
+            nodeId = partition.cache.getIfPresent(node);
+        // Record misses as null.
+        partition.blockNodeIds.put(node, nodeId);
+        if ( nodeId == null ) {
+            partition.misses.add(node);
+            partition.missHashes.add(NodeLib.hash(node));
+        }
+    }
+
+    private int partition(Node node) {
+        return (node.hashCode() & Integer.MAX_VALUE) % partitions.length;
+    }
+
+    /** Create tuples on the workers, each taking a range of the items. */
+    private <X> List<Tuple<NodeId>> tuples(List<X> items, Function<X, Tuple<NodeId>> toTuple) {
+        int N = items.size();
+        List<Tuple<NodeId>> tuples = new ArrayList<>(N);
+        if ( N == 0 )
+            return tuples;
+        int step = (N + partitions.length - 1) / partitions.length;
+        List<Future<List<Tuple<NodeId>>>> ranges = new ArrayList<>(partitions.length);
+        for ( int start = 0 ; start < N ; start += step ) {
+            List<X> range = items.subList(start, Math.min(N, start + step));
+            ranges.add(workers.submit(()->{
+                List<Tuple<NodeId>> x = new ArrayList<>(range.size());
+                for ( X item : range )
+                    x.add(toTuple.apply(item));
+                return x;
+            }));
+        }
+        for ( Future<List<Tuple<NodeId>>> f : ranges )
+            tuples.addAll(result(f));
+        return tuples;
+    }
+
+    private static <T> T result(Future<T> future) {
+        try { return future.get(); }
+        catch (InterruptedException e) {
+            throw new BulkLoaderException("InterruptedException", e);
+        }
+        catch (ExecutionException e) {
+            throw new BulkLoaderException("Exception converting terms to NodeIds", e.getCause());
+        }
+    }
+
     //@Override
     public long getCountTriples()   { return countTriples; }
     //@Override
@@ -173,14 +313,6 @@ public class DataToTuples implements BulkStartFinish {
         dest4.deliver(chunk);
     }
 
-    private static void accTuples(Triple triple, NodeTable nodeTable, List<Tuple<NodeId>> acc) {
-        acc.add(nodes(nodeTable, triple));
-    }
-
-    private static void accTuples(Quad quad, NodeTable nodeTable, List<Tuple<NodeId>> acc) {
-        acc.add(nodes(nodeTable, quad));
-    }
-
     // Recycle?
     private List<Tuple<NodeId>> allocChunkTriples() {
         return new ArrayList<>(LoaderConst.ChunkSize);
@@ -190,33 +322,23 @@ public class DataToTuples implements BulkStartFinish {
         return new ArrayList<>(LoaderConst.ChunkSize);
     }
 
-    private static Tuple<NodeId> nodes(NodeTable nt, Triple triple) {
-        NodeId s = idForNode(nt, triple.getSubject());
-        NodeId p = idForNode(nt, triple.getPredicate());
-        NodeId o = idForNode(nt, triple.getObject());
+    private Tuple<NodeId> nodes(Triple triple) {
+        NodeId s = nodeId(triple.getSubject());
+        NodeId p = nodeId(triple.getPredicate());
+        NodeId o = nodeId(triple.getObject());
         return TupleFactory.tuple(s,p,o);
     }
 
-    private Function<List<Quad>, List<Tuple<NodeId>>> quadsToNodeIds(NodeTable nodeTable) {
-        return (List<Quad> quads) -> {
-            List<Tuple<NodeId>> x = new ArrayList<>(quads.size());
-            for(Quad quad: quads) {
-                x.add(nodes(nodeTable, quad));
-            }
-            return x;
-        };
-    }
-
-    private static Tuple<NodeId> nodes(NodeTable nt, Quad quad) {
-        NodeId g = idForNode(nt, quad.getGraph());
-        NodeId s = idForNode(nt, quad.getSubject());
-        NodeId p = idForNode(nt, quad.getPredicate());
-        NodeId o = idForNode(nt, quad.getObject());
+    private Tuple<NodeId> nodes(Quad quad) {
+        NodeId g = nodeId(quad.getGraph());
+        NodeId s = nodeId(quad.getSubject());
+        NodeId p = nodeId(quad.getPredicate());
+        NodeId o = nodeId(quad.getObject());
         return TupleFactory.tuple(g,s,p,o);
     }
 
-    private static final NodeId idForNode(NodeTable nodeTable, Node node) {
-        return nodeTable.getAllocateNodeId(node);
+    // After allocateNodeIds for the block.
+    private NodeId nodeId(Node node) {
+        return partitions[partition(node)].blockNodeIds.get(node);
     }
-
 }
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.tdb2.loader.main;
+
+import static org.apache.jena.tdb2.loader.main.PhasedOps.acquire;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.atlas.lib.ArrayUtils;
+import org.apache.jena.atlas.lib.tuple.Tuple;
+import org.apache.jena.atlas.logging.Log;
+import org.apache.jena.dboe.base.record.Record;
+import org.apache.jena.dboe.base.record.RecordFactory;
+import org.apache.jena.dboe.transaction.txn.Transaction;
+import org.apache.jena.dboe.transaction.txn.TransactionCoordinator;
+import org.apache.jena.dboe.trans.bplustree.BPlusTree;
+import org.apache.jena.dboe.trans.bplustree.rewriter.BPlusTreeRewriter;
+import org.apache.jena.query.TxnType;
+import org.apache.jena.system.progress.MonitorOutput;
+import org.apache.jena.tdb2.lib.ExternalSort;
+import org.apache.jena.tdb2.lib.TupleLib;
+import org.apache.jena.tdb2.loader.base.BulkStartFinish;
+import org.apache.jena.tdb2.loader.base.CoLib;
+import org.apache.jena.tdb2.store.NodeId;
+import org.apache.jena.tdb2.store.tupletable.TupleIndex;
+import org.apache.jena.tdb2.store.tupletable.TupleIndexRecord;
+
+/**
+ * Build index(es) by merging.
+ * Like {@link Indexer}, provides a function {@link #index()} that should be called from another thread
+ * to deliver chunks of tuples and creates one thread per {@link TupleIndex}.
+ * <p>
+ * Instead of inserting each tuple, the tuples for each index are sorted with an
+ * {@link ExternalSort}. When the input finishes, the sorted tuples are merged into the
+ * index in one ordered pass with {@link BPlusTreeRewriter#mergeBPlusTree}. Parts of the
+ * index with no new tuples are kept as they are; only the leaves the new tuples go in,
+ * and the branches above them, are written again, so the cost depends on the key ranges
+ * the new tuples fall in, not on the size of the index. Each index is changed in its own
+ * transaction.
+ * <p>
+ * Leaves and branches that are written again replace the old blocks, which are not
+ * reused until the database is compacted.
+ * <p>
+ * The sort files are written to {@link #SortDirectory}.
+ */
+public class IndexerMerge implements BulkStartFinish {
+
+    /** Percentage of the maximum heap used for sort buffers, shared between all indexes. */
+    public static int SortMemoryPercent = 25;
+
+    /** Directory for the sort files. If null, the system temporary directory ({@code java.io.tmpdir}). */
+    public static String SortDirectory = null;
+
+    private BlockingQueue<List<Tuple<NodeId>>>[] pipesTripleIndexers;
+    private final int N;
+    private final MonitorOutput output;
+    private final Path tmpDir;
+    private final long sortMemory;
+    private TupleIndex[] indexes;
+    private final Semaphore termination = new Semaphore(0);
+
+    @SuppressWarnings("unchecked")
+    public IndexerMerge(MonitorOutput output, int numIndexesSharingMemory, TupleIndex... idxTriples) {
+        pipesTripleIndexers = ArrayUtils.alloc(BlockingQueue.class, idxTriples.length);
+        this.N = idxTriples.length;
+        this.indexes = Arrays.copyOf(idxTriples, N);
+        this.output = output;
+        this.tmpDir = Path.of(SortDirectory != null ? SortDirectory : System.getProperty("java.io.tmpdir"));
+        this.sortMemory = Runtime.getRuntime().maxMemory() / 100 * SortMemoryPercent / Math.max(1, numIndexesSharingMemory);
+
+        for ( int i = 0; i < N ; i++ ) {
+            pipesTripleIndexers[i] = new ArrayBlockingQueue<List<Tuple<NodeId>>>(LoaderConst.QueueSizeTuples);
+        }
+    }
+
+    /** Return a function that delivers multiple {@code List<Tuple<NodeId>>>} to this indexer */
+    public Destination<Tuple<NodeId>> index() {
+        return this::index;
+    }
+
+    private void index(List<Tuple<NodeId>> chunk) {
+        for ( int i = 0; i < N ; i++ ) {
+            try {
+                pipesTripleIndexers[i].put(chunk);
+            }
+            catch (InterruptedException e) {
+                String name = indexes[i].getName();
+                Log.error(this, "Interrupted: "+name, e);
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /** Start the threads that will do the indexing */
+    @Override
+    public void startBulk() {
+        for ( int i = 0; i < N ; i++ ) {
+            TupleIndex idx = indexes[i];
+            BlockingQueue<List<Tuple<NodeId>>> pipe = pipesTripleIndexers[i];
+            new Thread(()->stageIndex(pipe, idx)).start();
+        }
+    }
+
+    /** Wait for all the indexing threads to complete. */
+    @Override
+    public void finishBulk() {
+        acquire(termination, N);
+    }
+
+    private void stageIndex(BlockingQueue<List<Tuple<NodeId>>> pipe, TupleIndex idx) {
+        TupleIndexRecord idxRecord = (TupleIndexRecord)idx;
+        BPlusTree bpt = (BPlusTree)idxRecord.getRangeIndex();
+        RecordFactory recordFactory = bpt.getRecordFactory();
+        boolean workHasBeenDone = false;
+        boolean inputFinished = false;
+        try ( ExternalSort sorter = ExternalSort.fixedLength(recordFactory.keyLength(), tmpDir, 1, sortMemory, false) ) {
+            // Collect and sort.
+            for (;;) {
+                List<Tuple<NodeId>> tuples = pipe.take();
+                if ( tuples.isEmpty() ) {
+                    inputFinished = true;
+                    break;
+                }
+                for ( Tuple<NodeId> tuple : tuples )
+                    sorter.add(TupleLib.record(recordFactory, tuple, idx.getMapping()).getKey());
+            }
+            Iterator<Record> sorted = Iter.map(sorter.sort(), recordFactory::create);
+            if ( sorted.hasNext() ) {
+                // Merge into the index, in key order.
+                TransactionCoordinator coordinator = CoLib.newCoordinator();
+                CoLib.add(coordinator, idx);
+                CoLib.start(coordinator);
+                Transaction transaction = coordinator.begin(TxnType.WRITE);
+                try {
+                    BPlusTreeRewriter.mergeBPlusTree(sorted, bpt);
+                    transaction.commit();
+                    workHasBeenDone = true;
+                } catch (RuntimeException ex) {
+                    transaction.abort();
+                    throw ex;
+                } finally {
+                    transaction.end();
+                    CoLib.finish(coordinator);
+                }
+            }
+        } catch (Exception ex) {
+            Log.error(this, "Interrupted", ex);
+            if ( ! inputFinished )
+                drain(pipe);
+        }
+        if ( workHasBeenDone )
+            output.print("Finish - index %s", idx.getName());
+        termination.release();
+    }
+
+    /** Read the input until the end so the sender does not block. */
+    private static void drain(BlockingQueue<List<Tuple<NodeId>>> pipe) {
+        try {
+            while ( ! pipe.take().isEmpty() ) {}
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
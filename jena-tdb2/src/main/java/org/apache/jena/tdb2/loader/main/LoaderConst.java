@@ -34,6 +34,12 @@ public class LoaderConst {
 
     //public static final int pipeSize = 10;
 
+    /** Number of threads converting terms to NodeIds in {@link DataToTuples}; each has one partition of the terms. */
+    public static final int NodeThreads = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()/2));
+
+    /** Total size of the partitioned node to NodeId caches in {@link DataToTuples}. */
+    public static final int NodeCacheSize = 500_000;
+
     /* package */ static final List<Tuple<NodeId>> END_TUPLES      = Collections.emptyList();
 
     /*package*/ static final int QueueSizeData = 10;
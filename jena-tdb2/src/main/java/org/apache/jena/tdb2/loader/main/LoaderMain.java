@@ -58,6 +58,10 @@ import org.apache.jena.tdb2.sys.TDBInternal;
  * {@link LoaderPlans#loaderPlanPhased} is the phased loader.
  * </p>
  * <p>
+ * {@link LoaderPlans#loaderPlanMerge} is the merge loader for adding to a non-empty database;
+ * the indexes of the data phase are built by {@link IndexerMerge}.
+ * </p>
+ * <p>
  * The process is:
  * <blockquote>
  * Data phase: {@code parser -> to NodeIds/Tuples -> TupleIndex+}
@@ -148,14 +152,9 @@ public class LoaderMain extends LoaderBase implements DataLoader {
 
         // -- Phase 2 block. Indexer and Destination (blocks of Tuple<NodeId>)
         TupleIndex[] idx3 = PhasedOps.indexSetFromNames(loaderPlan.primaryLoad3(), indexMap);
-        Indexer indexer3 = new Indexer(output, idx3);
         TupleIndex[] idx4 = PhasedOps.indexSetFromNames(loaderPlan.primaryLoad4(), indexMap);
-        Indexer indexer4 = new Indexer(output, idx4);
-        dataProcess.add(indexer3);
-        dataProcess.add(indexer4);
-
-        Destination<Tuple<NodeId>> functionIndexer3 = indexer3.index();
-        Destination<Tuple<NodeId>> functionIndexer4 = indexer4.index();
+        Destination<Tuple<NodeId>> functionIndexer3 = indexer(loaderPlan, dsgtdb, idx3, idx3.length+idx4.length, dataProcess, output);
+        Destination<Tuple<NodeId>> functionIndexer4 = indexer(loaderPlan, dsgtdb, idx4, idx3.length+idx4.length, dataProcess, output);
         // -- Phase 2 block.
 
         // -- Phase 1.
@@ -186,13 +185,9 @@ public class LoaderMain extends LoaderBase implements DataLoader {
 
         // -- Phase 2 block.
         TupleIndex[] idx3 = PhasedOps.indexSetFromNames(loaderPlan.primaryLoad3(), indexMap);
-        Indexer indexer3 = new Indexer(output, idx3);
         TupleIndex[] idx4 = PhasedOps.indexSetFromNames(loaderPlan.primaryLoad4(), indexMap);
-        Indexer indexer4 = new Indexer(output, idx4);
-        dataProcess.add(indexer3);
-        dataProcess.add(indexer4);
-        Destination<Tuple<NodeId>> functionIndexer3 = indexer3.index();
-        Destination<Tuple<NodeId>> functionIndexer4 = indexer4.index();
+        Destination<Tuple<NodeId>> functionIndexer3 = indexer(loaderPlan, dsgtdb, idx3, idx3.length+idx4.length, dataProcess, output);
+        Destination<Tuple<NodeId>> functionIndexer4 = indexer(loaderPlan, dsgtdb, idx4, idx3.length+idx4.length, dataProcess, output);
         // -- Phase 2 block.
 
         // -- Phase 1.
@@ -201,6 +196,22 @@ public class LoaderMain extends LoaderBase implements DataLoader {
         return dttInline;
     }
 
+    /**
+     * Create the phase one index stage for some indexes: an {@link Indexer}, or an
+     * {@link IndexerMerge} if the {@link LoaderPlan} merges indexes.
+     */
+    private static Destination<Tuple<NodeId>> indexer(LoaderPlan loaderPlan, DatasetGraphTDB dsgtdb, TupleIndex[] indexes, int numIndexes,
+                                                      List<BulkStartFinish> dataProcess, MonitorOutput output) {
+        if ( loaderPlan.mergeIndexes() ) {
+            IndexerMerge indexer = new IndexerMerge(output, numIndexes, indexes);
+            dataProcess.add(indexer);
+            return indexer.index();
+        }
+        Indexer indexer = new Indexer(output, indexes);
+        dataProcess.add(indexer);
+        return indexer.index();
+    }
+
     /**
      * Create data ingestion and primary index building of a {@link LoaderPlan}.
      * This version uses a thread for parse/NodeTable/Tuple/Index.
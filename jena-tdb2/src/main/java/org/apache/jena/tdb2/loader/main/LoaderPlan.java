@@ -32,6 +32,10 @@ import org.apache.jena.tdb2.store.NodeId;
  * The {@code mulithreadedInput} flag indicates whether the first phase is
  * done in parallel (threads for parer, node table building and primary indexes)
  * or as a single threaded process.
+ * <p>
+ * The {@code mergeIndexes} flag indicates whether the indexes of the first phase
+ * are built by inserting each tuple ({@link Indexer}) or by sorting the new tuples and
+ * merging them into the existing index ({@link IndexerMerge}).
  */
 public class LoaderPlan {
     private final InputStage dataInput;
@@ -39,19 +43,31 @@ public class LoaderPlan {
     private final String[] loadGroup4;
     private final String[][] secondaryGroups3;
     private final String[][] secondaryGroups4;
+    private final boolean mergeIndexes;
 
     public LoaderPlan(InputStage dataInput,
                       String[] loadGroup3, String[] loadGroup4,
                       String[][] secondaryGroups3, String[][] secondaryGroups4) {
+        this(dataInput, loadGroup3, loadGroup4, secondaryGroups3, secondaryGroups4, false);
+    }
+
+    public LoaderPlan(InputStage dataInput,
+                      String[] loadGroup3, String[] loadGroup4,
+                      String[][] secondaryGroups3, String[][] secondaryGroups4,
+                      boolean mergeIndexes) {
+        if ( mergeIndexes && dataInput == InputStage.PARSE_NODE_INDEX )
+            throw new IllegalArgumentException("Merging indexes needs an index stage: "+dataInput);
         this.dataInput = dataInput;
         this.loadGroup3 = loadGroup3;
         this.loadGroup4 = loadGroup4;
         this.secondaryGroups3 = secondaryGroups3;
         this.secondaryGroups4 = secondaryGroups4;
+        this.mergeIndexes = mergeIndexes;
     }
     public InputStage dataInputType()       { return dataInput; }
     public String[] primaryLoad3()          { return loadGroup3; }
     public String[] primaryLoad4()          { return loadGroup4; }
     public String[][] secondaryIndex3()     { return secondaryGroups3; }
     public String[][] secondaryIndex4()     { return secondaryGroups4; }
+    public boolean mergeIndexes()           { return mergeIndexes; }
 }
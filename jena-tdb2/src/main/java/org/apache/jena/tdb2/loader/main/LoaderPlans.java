@@ -61,6 +61,30 @@ public class LoaderPlans {
         new String[][]{ }
         );
 
+    /**
+     * Load into a non-empty database by sorting the new data for each index and merging it
+     * into the existing index in key order.
+     * <p>
+     * Data phase: data to all indexes, one thread for each index, sorting the new tuples. <br/>
+     * When the data has been read, the new tuples are merged into each index, in parallel.<br/>
+     * No other phases.
+     * <p>
+     * The parts of an index with new tuples are written again, so this plan is for
+     * large additions, where inserting tuple by tuple ({@link LoaderBasic})
+     * is slow because of random access to the existing indexes.
+     * The space used by the old index blocks is recovered by compaction.
+     * <p>
+     * This is the loader option for {@code tdb2.tdbloader --loader=merge}.
+     */
+    public static final LoaderPlan loaderPlanMerge = new LoaderPlan(
+        InputStage.MULTI,
+        new String[]{ "SPO", "POS", "OSP" },
+        new String[]{ "GSPO", "GPOS", "GOSP", "SPOG", "POSG", "OSPG" },
+        new String[][]{ },
+        new String[][]{ },
+        true
+        );
+
     /**
      * Lightly parallel, intermediate plan: for triples, this is two threaded. It aims to
      * speed up the data phase on a machine where an index is larger than the size of
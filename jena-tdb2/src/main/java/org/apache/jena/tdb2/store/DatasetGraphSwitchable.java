@@ -19,6 +19,7 @@
 package org.apache.jena.tdb2.store;
 
 import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.jena.atlas.lib.Cache;
@@ -100,6 +101,11 @@ public class DatasetGraphSwitchable extends DatasetGraphTxnCtl
         return dsgx.compareAndSet(oldDSG, newDSG);
     }
 
+    @Override
+    public void addAll(Iterator<Quad> quads) {
+        get().addAll(quads);
+    }
+
     private Graph dftGraph = GraphViewSwitchable.createDefaultGraphSwitchable(this);
 
     @Override
@@ -18,10 +18,13 @@
 
 package org.apache.jena.tdb2.store;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.atlas.lib.tuple.Tuple;
+import org.apache.jena.atlas.lib.tuple.TupleFactory;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.sparql.core.Quad;
@@ -57,6 +60,20 @@ public class QuadTable extends TableBase {
         table.addRow(g, s, p, o);
     }
 
+    /** Add quads, inserting into each index as one batch */
+    public void addAll(List<Quad> quads) {
+        NodeTable nodeTable = table.getNodeTable();
+        List<Tuple<NodeId>> tuples = new ArrayList<>(quads.size());
+        for ( Quad quad : quads ) {
+            NodeId g = nodeTable.getAllocateNodeId(quad.getGraph());
+            NodeId s = nodeTable.getAllocateNodeId(quad.getSubject());
+            NodeId p = nodeTable.getAllocateNodeId(quad.getPredicate());
+            NodeId o = nodeTable.getAllocateNodeId(quad.getObject());
+            tuples.add(TupleFactory.create4(g, s, p, o));
+        }
+        table.getTupleTable().addAll(tuples);
+    }
+
     /** Delete a quad - return true if it was deleted, false if it didn't exist */
     public void delete(Quad quad) {
         delete(quad.getGraph(), quad.getSubject(), quad.getPredicate(), quad.getObject());
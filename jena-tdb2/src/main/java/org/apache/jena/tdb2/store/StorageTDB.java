@@ -18,7 +18,9 @@
 
 package org.apache.jena.tdb2.store;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -84,6 +86,36 @@ public class StorageTDB implements StorageRDF {
         getQuadTable().add(g, s, p, o);
     }
 
+    // Quads are added in batches of this size so that each index is updated in key order.
+    private static final int AddBatchSize = 10_000;
+
+    @Override
+    public void addAll(Iterator<Quad> quads) {
+        checkActive();
+        ensureWriteTxn();
+        List<Triple> triples = new ArrayList<>();
+        List<Quad> namedQuads = new ArrayList<>();
+        while ( quads.hasNext() ) {
+            Quad quad = quads.next();
+            if ( Quad.isDefaultGraph(quad.getGraph()) )
+                triples.add(quad.asTriple());
+            else
+                namedQuads.add(quad);
+            if ( triples.size() >= AddBatchSize ) {
+                getTripleTable().addAll(triples);
+                triples.clear();
+            }
+            if ( namedQuads.size() >= AddBatchSize ) {
+                getQuadTable().addAll(namedQuads);
+                namedQuads.clear();
+            }
+        }
+        if ( !triples.isEmpty() )
+            getTripleTable().addAll(triples);
+        if ( !namedQuads.isEmpty() )
+            getQuadTable().addAll(namedQuads);
+    }
+
     @Override
     public void delete(Node s, Node p, Node o) {
         checkActive();
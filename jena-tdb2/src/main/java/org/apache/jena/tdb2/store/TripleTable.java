@@ -18,10 +18,13 @@
 
 package org.apache.jena.tdb2.store;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.atlas.lib.tuple.Tuple;
+import org.apache.jena.atlas.lib.tuple.TupleFactory;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.tdb2.lib.TupleLib;
@@ -49,6 +52,19 @@ public class TripleTable extends TableBase {
         table.addRow(s, p, o);
     }
 
+    /** Add triples, inserting into each index as one batch */
+    public void addAll(List<Triple> triples) {
+        NodeTable nodeTable = table.getNodeTable();
+        List<Tuple<NodeId>> tuples = new ArrayList<>(triples.size());
+        for ( Triple triple : triples ) {
+            NodeId s = nodeTable.getAllocateNodeId(triple.getSubject());
+            NodeId p = nodeTable.getAllocateNodeId(triple.getPredicate());
+            NodeId o = nodeTable.getAllocateNodeId(triple.getObject());
+            tuples.add(TupleFactory.create3(s, p, o));
+        }
+        table.getTupleTable().addAll(tuples);
+    }
+
     /** Delete a triple */
     public void delete(Triple triple) {
         delete(triple.getSubject(), triple.getPredicate(), triple.getObject());
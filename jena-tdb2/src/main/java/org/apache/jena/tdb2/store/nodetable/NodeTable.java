@@ -25,6 +25,8 @@ import org.apache.jena.atlas.lib.Closeable;
 import org.apache.jena.atlas.lib.Pair;
 import org.apache.jena.atlas.lib.Sync;
 import org.apache.jena.graph.Node;
+import org.apache.jena.tdb2.lib.NodeLib;
+import org.apache.jena.tdb2.store.Hash;
 import org.apache.jena.tdb2.store.NodeId;
 
 /** Node table - conceptually a two way mapping of Node{@literal <->}NodeId
@@ -55,6 +57,14 @@ public interface NodeTable extends Sync, Closeable
      */
     public List<NodeId> bulkNodeToNodeId(List<Node> nodes, boolean withAllocation);
 
+    /** Bulk mapping from {@code Node} to {@code NodeId}, as {@link #bulkNodeToNodeId(List, boolean)},
+     * with the node hashes ({@link NodeLib#hash}) already calculated.
+     * The hashes list aligns with the nodes list.
+     */
+    public default List<NodeId> bulkNodeToNodeId(List<Node> nodes, List<Hash> hashes, boolean withAllocation) {
+        return bulkNodeToNodeId(nodes, withAllocation);
+    }
+
     /** Bulk mapping from {@code NodeId} to {@code Node} */
     public List<Node> bulkNodeIdToNode(List<NodeId> nodeIds);
 
@@ -32,6 +32,7 @@ import org.apache.jena.dboe.transaction.txn.TransactionListener;
 import org.apache.jena.graph.Node;
 import org.apache.jena.tdb2.TDBException;
 import org.apache.jena.tdb2.params.StoreParams;
+import org.apache.jena.tdb2.store.Hash;
 import org.apache.jena.tdb2.store.NodeId;
 
 /**
@@ -162,21 +163,42 @@ public class NodeTableCache implements NodeTable, TransactionListener {
 
     @Override
     public List<NodeId> bulkNodeToNodeId(List<Node> required, boolean withAllocation) {
+        return bulkNodeToNodeId(required, null, withAllocation);
+    }
+
+    @Override
+    public List<NodeId> bulkNodeToNodeId(List<Node> required, List<Hash> requiredHashes, boolean withAllocation) {
         synchronized(lock) {
+            // Look in the cache, then pass the misses to the base table in one call.
+            List<NodeId> nodeIds = new ArrayList<>(required.size());
             List<Node> nodes = new ArrayList<>();
-            for ( Node n : required ) {
-                //
-                if ( getNodeIdForNodeCache(n) == null )
+            List<Hash> hashes = ( requiredHashes == null ) ? null : new ArrayList<>();
+            for ( int i = 0 ; i < required.size() ; i++ ) {
+                Node n = required.get(i);
+                NodeId nid = ( n == Node.ANY ) ? NodeId.NodeIdAny : cacheLookup(n);
+                nodeIds.add(nid);
+                if ( nid == null ) {
                     nodes.add(n);
+                    if ( hashes != null )
+                        hashes.add(requiredHashes.get(i));
+                }
             }
-            // Check bulk access.
-            List<NodeId> x = baseTable.bulkNodeToNodeId(nodes, true);
-            for ( int i = 0; i < nodes.size() ; i++ ) {
-                Node n = nodes.get(i);
-                NodeId nid = x.get(i);
-                cacheUpdate(n ,nid);
+            if ( nodes.isEmpty() )
+                return nodeIds;
+            List<NodeId> x = ( hashes == null )
+                ? baseTable.bulkNodeToNodeId(nodes, withAllocation)
+                : baseTable.bulkNodeToNodeId(nodes, hashes, withAllocation);
+            int j = 0;
+            for ( int i = 0; i < nodeIds.size() ; i++ ) {
+                if ( nodeIds.get(i) != null )
+                    continue;
+                Node n = nodes.get(j);
+                NodeId nid = x.get(j);
+                j++;
+                nodeIds.set(i, nid);
+                cacheUpdate(n, nid);
             }
-            return x;
+            return nodeIds;
         }
     }
 
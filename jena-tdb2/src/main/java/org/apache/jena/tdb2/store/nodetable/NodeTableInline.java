@@ -18,7 +18,11 @@
 
 package org.apache.jena.tdb2.store.nodetable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.jena.graph.Node;
+import org.apache.jena.tdb2.store.Hash;
 import org.apache.jena.tdb2.store.NodeId;
 
 /** NodeTable wrapper to handle inline node ids.
@@ -56,6 +60,41 @@ public class NodeTableInline extends NodeTableWrapper
         if ( nid != null ) return nid;
         return super.getNodeIdForNode(node);
     }
+    @Override
+    public final List<NodeId> bulkNodeToNodeId(List<Node> nodes, boolean withAllocation)
+    {
+        return bulkNodeToNodeId(nodes, null, withAllocation);
+    }
+
+    @Override
+    public final List<NodeId> bulkNodeToNodeId(List<Node> nodes, List<Hash> hashes, boolean withAllocation)
+    {
+        List<NodeId> nodeIds = new ArrayList<>(nodes.size());
+        List<Node> notInline = new ArrayList<>();
+        List<Hash> notInlineHashes = ( hashes == null ) ? null : new ArrayList<>();
+        for ( int i = 0 ; i < nodes.size() ; i++ ) {
+            Node node = nodes.get(i);
+            NodeId nid = NodeId.inline(node);
+            nodeIds.add(nid);
+            if ( nid == null ) {
+                notInline.add(node);
+                if ( hashes != null )
+                    notInlineHashes.add(hashes.get(i));
+            }
+        }
+        if ( notInline.isEmpty() )
+            return nodeIds;
+        List<NodeId> x = ( hashes == null )
+            ? super.bulkNodeToNodeId(notInline, withAllocation)
+            : super.bulkNodeToNodeId(notInline, notInlineHashes, withAllocation);
+        int j = 0;
+        for ( int i = 0 ; i < nodeIds.size() ; i++ ) {
+            if ( nodeIds.get(i) == null )
+                nodeIds.set(i, x.get(j++));
+        }
+        return nodeIds;
+    }
+
     @Override
     public final Node getNodeForNodeId(NodeId id)
     {
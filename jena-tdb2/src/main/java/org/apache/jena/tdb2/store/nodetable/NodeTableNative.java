@@ -18,11 +18,14 @@
 
 package org.apache.jena.tdb2.store.nodetable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.function.Function;
 
 import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.atlas.lib.Bytes;
 import org.apache.jena.atlas.lib.Pair;
 import org.apache.jena.dboe.base.record.Record;
 import org.apache.jena.dboe.index.Index;
@@ -72,9 +75,49 @@ public abstract class NodeTableNative implements NodeTable
         return x == null;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The node hashes are calculated first and the index is then accessed in hash order,
+     * under one lock, so that index lookups and inserts touch neighbouring blocks.
+     */
     @Override
     public List<NodeId> bulkNodeToNodeId(List<Node> nodes, boolean withAllocation) {
-        return NodeTableOps.bulkNodeToNodeIdImpl(this, nodes, withAllocation);
+        if ( nodes.size() <= 1 )
+            return NodeTableOps.bulkNodeToNodeIdImpl(this, nodes, withAllocation);
+        return bulkNodeToNodeId(nodes, null, withAllocation);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only the index is accessed under the lock; the caller has calculated the node hashes.
+     */
+    @Override
+    public List<NodeId> bulkNodeToNodeId(List<Node> nodes, List<Hash> hashes, boolean withAllocation) {
+        int N = nodes.size();
+        Record[] keys = new Record[N];
+        Integer[] order = new Integer[N];
+        for ( int i = 0 ; i < N ; i++ ) {
+            Node node = nodes.get(i);
+            if ( node != Node.ANY )
+                keys[i] = ( hashes == null ) ? indexKey(node) : indexKey(node, hashes.get(i));
+            order[i] = i;
+        }
+        Arrays.sort(order, (i1, i2) -> {
+            if ( keys[i1] == null || keys[i2] == null )
+                return Boolean.compare(keys[i1] != null, keys[i2] != null);
+            return Bytes.compare(keys[i1].getKey(), keys[i2].getKey());
+        });
+        NodeId[] nodeIds = new NodeId[N];
+        synchronized (this) {
+            for ( int i : order ) {
+                nodeIds[i] = ( keys[i] == null )
+                    ? NodeId.NodeIdAny
+                    : accessIndex(nodes.get(i), keys[i], withAllocation);
+            }
+        }
+        return new ArrayList<>(Arrays.asList(nodeIds));
     }
 
     @Override
@@ -118,39 +161,55 @@ public abstract class NodeTableNative implements NodeTable
     }
 
     protected final NodeId accessIndex(Node node, boolean create) {
+        Record r = indexKey(node);
+        synchronized (this)  // Pair to readNodeFromTable.
+        {
+            return accessIndex(node, r, create);
+        }
+    }
+
+    /** The index record, key only, for a node. */
+    private Record indexKey(Node node) {
         Hash hash = new Hash(nodeHashToId.getRecordFactory().keyLength());
         NodeLib.setHash(hash, node);
         byte k[] = hash.getBytes();
         // Key only.
-        Record r = nodeHashToId.getRecordFactory().create(k);
-
-        synchronized (this)  // Pair to readNodeFromTable.
-        {
-            // Key and value, or null
-            Record r2 = nodeHashToId.find(r);
-            if ( r2 != null )
-            {
-                // Found.  Get the NodeId.
-                NodeId id = NodeIdFactory.get(r2.getValue(), 0);
-                return id;
-            }
-
-            // Not found.
-            if ( ! create )
-                return NodeId.NodeDoesNotExist;
-            // Write the node, which allocates an id for it.
-            syncNeeded = true;
-            NodeId id = writeNodeToTable(node);
+        return nodeHashToId.getRecordFactory().create(k);
+    }
 
-            // Update the r record with the new id.
-            // r.value := id bytes;
-            NodeIdFactory.set(id, r.getValue(), 0);
+    /** The index record, key only, for a node with its hash already calculated. */
+    private Record indexKey(Node node, Hash hash) {
+        if ( hash.getLen() != nodeHashToId.getRecordFactory().keyLength() )
+            return indexKey(node);
+        return nodeHashToId.getRecordFactory().create(hash.getBytes());
+    }
 
-            // Put in index - may appear because of concurrency
-            if ( ! nodeHashToId.insert(r) )
-                throw new TDBException("NodeTableBase::nodeToId - record mysteriously appeared");
+    // Called when synchronized.
+    private NodeId accessIndex(Node node, Record r, boolean create) {
+        // Key and value, or null
+        Record r2 = nodeHashToId.find(r);
+        if ( r2 != null )
+        {
+            // Found.  Get the NodeId.
+            NodeId id = NodeIdFactory.get(r2.getValue(), 0);
             return id;
         }
+
+        // Not found.
+        if ( ! create )
+            return NodeId.NodeDoesNotExist;
+        // Write the node, which allocates an id for it.
+        syncNeeded = true;
+        NodeId id = writeNodeToTable(node);
+
+        // Update the r record with the new id.
+        // r.value := id bytes;
+        NodeIdFactory.set(id, r.getValue(), 0);
+
+        // Put in index - may appear because of concurrency
+        if ( ! nodeHashToId.insert(r) )
+            throw new TDBException("NodeTableBase::nodeToId - record mysteriously appeared");
+        return id;
     }
 
     // -------- NodeId<->Node
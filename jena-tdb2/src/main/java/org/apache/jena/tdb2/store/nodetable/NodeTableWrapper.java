@@ -23,6 +23,7 @@ import java.util.List;
 
 import org.apache.jena.atlas.lib.Pair;
 import org.apache.jena.graph.Node;
+import org.apache.jena.tdb2.store.Hash;
 import org.apache.jena.tdb2.store.NodeId;
 
 public class NodeTableWrapper implements NodeTable {
@@ -67,6 +68,11 @@ public class NodeTableWrapper implements NodeTable {
         return nodeTable.bulkNodeToNodeId(nodes, withAllocation);
     }
 
+    @Override
+    public List<NodeId> bulkNodeToNodeId(List<Node> nodes, List<Hash> hashes, boolean withAllocation) {
+        return nodeTable.bulkNodeToNodeId(nodes, hashes, withAllocation);
+    }
+
     @Override
     public List<Node> bulkNodeIdToNode(List<NodeId> nodeIds) {
         return nodeTable.bulkNodeIdToNode(nodeIds);
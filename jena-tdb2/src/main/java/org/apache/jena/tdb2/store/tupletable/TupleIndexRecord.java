@@ -21,6 +21,7 @@ package org.apache.jena.tdb2.store.tupletable;
 import static java.lang.String.format;
 import static org.apache.jena.tdb2.sys.SystemTDB.SizeOfNodeId;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.function.Predicate;
@@ -101,18 +102,34 @@ public class TupleIndexRecord extends TupleIndexBase
         index.delete(r);
     }
 
-    /** Insert tuples */
+    /**
+     * Insert tuples.
+     * The records are inserted in key order so that consecutive inserts go to
+     * the same or neighbouring B+Tree blocks.
+     */
     @Override
     public void addAll(Collection<Tuple<NodeId>> tuples) {
-        for ( Tuple<NodeId> t : tuples )
-            add(t);
+        for ( Record r : sortedRecords(tuples) )
+            index.insert(r);
     }
 
-    /** Delete tuples */
+    /** Delete tuples, in key order. */
     @Override
     public void deleteAll(Collection<Tuple<NodeId>> tuples) {
-        for ( Tuple<NodeId> t : tuples )
-            delete(t);
+        for ( Record r : sortedRecords(tuples) )
+            index.delete(r);
+    }
+
+    private Record[] sortedRecords(Collection<Tuple<NodeId>> tuples) {
+        Record[] records = new Record[tuples.size()];
+        int i = 0;
+        for ( Tuple<NodeId> t : tuples ) {
+            if ( t.len() != tupleLength )
+                throw new TDBException(format("Mismatch: tuple length %d / index for length %d", t.len(), tupleLength));
+            records[i++] = TupleLib.record(factory, t, tupleMap);
+        }
+        Arrays.sort(records, Record::compareByKey);
+        return records;
     }
 
     /** Find all matching tuples - a slot of NodeId.NodeIdAny (or null) means match any.
@@ -173,6 +173,11 @@ public class SystemTDB
     /** Size of read block cache (32 bit systems only). Per file. */
     public static final int BlockReadCacheSize      = intValue("BlockReadCacheSize", 5*1000);
 
+    // ---- Loading
+
+    /** Number of threads the loaders use to parse N-Triples, N-Quads, Turtle and TriG input. 1 means single-threaded parsing. */
+    public static final int LoaderParserThreads     = intValue("LoaderParserThreads", 1);
+
     // ---- Misc
 
     /** Default BGP optimizer */
@@ -58,6 +58,21 @@ public class BulkLoaderX {
      */
     public static boolean CompressSortIndexFiles = true;
 
+    /**
+     * Whether to sort in this process ({@link ExternalSort}) or by running the external
+     * {@code sort(1)} program. Sorting in-process works on binary records, not hex text.
+     */
+    public static boolean SortInProcess = true;
+
+    /**
+     * Percentage of the maximum heap used for in-process sort buffers.
+     */
+    public static int SortMemoryPercent = 50;
+
+    /*package*/ static long sortMemory() {
+        return Runtime.getRuntime().maxMemory() / 100 * SortMemoryPercent;
+    }
+
     // Ubuntu: it now (21.04) is at /usr/bin/gzip.
     //   /bin has become a symbolic link to /usr/bin.
     //   New installs of 20.04 have it at /usr/bin, upgrades have it at /bin.
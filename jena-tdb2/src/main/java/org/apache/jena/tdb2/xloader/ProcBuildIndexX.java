@@ -28,8 +28,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.jena.atlas.io.IO;
+import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.atlas.lib.Timer;
 import org.apache.jena.atlas.lib.tuple.TupleMap;
 import org.apache.jena.atlas.logging.FmtLog;
@@ -49,6 +56,7 @@ import org.apache.jena.system.progress.ProgressMonitor;
 import org.apache.jena.system.progress.ProgressMonitorOutput;
 import org.apache.jena.tdb2.DatabaseMgr;
 import org.apache.jena.tdb2.TDBException;
+import org.apache.jena.tdb2.lib.ExternalSort;
 import org.apache.jena.tdb2.loader.base.CoLib;
 import org.apache.jena.tdb2.store.DatasetGraphTDB;
 import org.apache.jena.tdb2.store.tupletable.TupleIndex;
@@ -97,6 +105,38 @@ public class ProcBuildIndexX
         FmtLog.info(BulkLoaderX.LOG_Index, "%s Index %s : %s seconds - %s at %s TPS", BulkLoaderX.StepMarker, indexName, Timer.timeStr(timeMillis), elapsedStr, rateStr);
     }
 
+    /**
+     * Build several indexes. Indexes of the same tuple length are built together, from
+     * one read of the data file: the records for each index are sorted in-process and
+     * each merge feeds its B+Tree builder directly, with the indexes built concurrently.
+     * If sorting uses the external {@code sort(1)}, the indexes are built one at a time.
+     */
+    public static void exec(String location, List<String> indexNames, int sortThreads, XLoaderFiles loaderFiles) {
+        if ( indexNames.size() == 1 || ! BulkLoaderX.SortInProcess ) {
+            indexNames.forEach(indexName->exec(location, indexName, sortThreads, null, loaderFiles));
+            return;
+        }
+        Map<Integer, List<String>> groups = new TreeMap<>();
+        for ( String indexName : indexNames )
+            groups.computeIfAbsent(indexName.length(), k->new ArrayList<>()).add(indexName);
+
+        for ( List<String> group : groups.values() ) {
+            String names = String.join(",", group);
+            Timer timer = new Timer();
+            FmtLog.info(BulkLoaderX.LOG_Index, "Build indexes %s", names);
+
+            timer.startTimer();
+            DatasetGraph dsg = DatabaseMgr.connectDatasetGraph(location);
+            long items = buildIndexes(dsg, group, sortThreads, loaderFiles);
+            TDBInternal.expel(dsg);
+            long timeMillis = timer.endTimer();
+
+            String elapsedStr = BulkLoaderX.milliToHMS(timeMillis);
+            String rateStr = BulkLoaderX.rateStr(items, timeMillis);
+            FmtLog.info(BulkLoaderX.LOG_Index, "%s Index %s : %s seconds - %s at %s TPS", BulkLoaderX.StepMarker, names, Timer.timeStr(timeMillis), elapsedStr, rateStr);
+        }
+    }
+
     private static long exec2(String location, String indexName, int sortThreads, String sortIndexArgs, XLoaderFiles loaderFiles) {
         DatasetGraph dsg = DatabaseMgr.connectDatasetGraph(location);
         long x = buildIndex(dsg, indexName, sortThreads, sortIndexArgs, loaderFiles);
@@ -155,6 +195,8 @@ public class ProcBuildIndexX
                                          List<String>sortKeyArgs) {
         if ( isEmpty(datafile) )
             return 0;
+        if ( BulkLoaderX.SortInProcess )
+            return sort_build_index_in_process(datafile, dsg, indexName, sortThreads, TMPDIR);
         // Sort task.
         Process proc2;
         OutputStream toSortOutputStream; // Not used. Input is a file.
@@ -237,34 +279,139 @@ public class ProcBuildIndexX
         return count;
     }
 
-    private static long indexBuilder(DatasetGraph dsg, InputStream input, String indexName) {
-        long tickPoint = BulkLoaderX.DataTick;
-        int superTick = BulkLoaderX.DataSuperTick;
+    /**
+     * Sort with {@link ExternalSort}. The records are sorted as binary keys in index
+     * order, which is the same order as {@code sort} on the hex text.
+     */
+    private static long sort_build_index_in_process(String datafile, DatasetGraph dsg, String indexName,
+                                                    int sortThreads, String TMPDIR) {
+        if ( sortThreads <= 0 )
+            sortThreads = 2;
+        TupleIndex index = TDBInternal.findIndex(dsg, indexName);
+        if ( index == null )
+            throw new TDBException("Can not find index: " + indexName);
+        RecordFactory recordFactory = ((TupleIndexRecord)index).getRangeIndex().getRecordFactory();
+        int tupleLength = indexName.length();
+        TupleMap colMap = TupleMap.create(primaryOrder(tupleLength, indexName), indexName);
 
-        // Location of storage, not the DB.
-        DatasetGraphTDB dsgtdb = TDBInternal.getDatasetGraphTDB(dsg);
+        try ( ExternalSort sorter = ExternalSort.fixedLength(recordFactory.keyLength(), Path.of(TMPDIR), sortThreads,
+                                                            BulkLoaderX.sortMemory(), BulkLoaderX.CompressSortIndexFiles) ) {
+            try ( InputStream input = IO.openFile(datafile) ) {
+                Iterator<Record> records = new RecordsFromInput(input, tupleLength, colMap, 1000);
+                records.forEachRemaining(r -> sorter.add(r.getKey()));
+            } catch (IOException ex) { IO.exception(ex); }
+            Iterator<Record> sorted = Iter.map(sorter.sort(), recordFactory::create);
+            return indexBuilder(dsg, sorted, indexName);
+        }
+    }
 
-        int keyLength = SystemTDB.SizeOfNodeId * indexName.length();
-        int valueLength = 0;
+    /**
+     * Build indexes, all with the same tuple length, from one read of the data file.
+     * The sort memory and threads are shared between the indexes. Returns the number of
+     * tuples in the first index.
+     */
+    private static long buildIndexes(DatasetGraph dsg, List<String> indexNames, int sortThreads, XLoaderFiles loaderFiles) {
+        int tupleLength = indexNames.get(0).length();
+        String primaryOrder = primaryOrder(tupleLength, indexNames.get(0));
+        String datafile = ( tupleLength == 3 ) ? loaderFiles.triplesFile : loaderFiles.quadsFile;
+        if ( isEmpty(datafile) )
+            return 0;
+        if ( sortThreads <= 0 )
+            sortThreads = 2;
 
-        // The name is the order. Input is already in the right order.
+        int N = indexNames.size();
+        int threadsPerIndex = Math.max(1, sortThreads / N);
+        long memoryPerIndex = BulkLoaderX.sortMemory() / N;
+        TupleMap[] colMaps = new TupleMap[N];
+        RecordFactory[] recordFactories = new RecordFactory[N];
+        ExternalSort[] sorters = new ExternalSort[N];
+        ExecutorService executor = Executors.newFixedThreadPool(N);
+        try {
+            for ( int i = 0 ; i < N ; i++ ) {
+                String indexName = indexNames.get(i);
+                if ( indexName.length() != tupleLength )
+                    throw new TDBException("Index "+indexName+" is not the same tuple length as "+indexNames.get(0));
+                TupleIndex index = TDBInternal.findIndex(dsg, indexName);
+                if ( index == null )
+                    throw new TDBException("Can not find index: " + indexName);
+                colMaps[i] = TupleMap.create(primaryOrder, indexName);
+                recordFactories[i] = ((TupleIndexRecord)index).getRangeIndex().getRecordFactory();
+                sorters[i] = ExternalSort.fixedLength(recordFactories[i].keyLength(), Path.of(loaderFiles.TMPDIR), threadsPerIndex,
+                                                      memoryPerIndex, BulkLoaderX.CompressSortIndexFiles);
+            }
+
+            // One pass over the data file, in primary order, to all the sorters.
+            byte[] key = new byte[tupleLength * SystemTDB.SizeOfNodeId];
+            try ( InputStream input = IO.openFile(datafile) ) {
+                Iterator<Record> records = new RecordsFromInput(input, tupleLength, null, 1000);
+                while ( records.hasNext() ) {
+                    byte[] primaryKey = records.next().getKey();
+                    for ( int i = 0 ; i < N ; i++ ) {
+                        for ( int j = 0 ; j < tupleLength ; j++ )
+                            System.arraycopy(primaryKey, j * SystemTDB.SizeOfNodeId,
+                                             key, colMaps[i].putSlotIdx(j) * SystemTDB.SizeOfNodeId, SystemTDB.SizeOfNodeId);
+                        sorters[i].add(key);
+                    }
+                }
+            } catch (IOException ex) { IO.exception(ex); }
 
+            // Merge and build the indexes concurrently.
+            List<Future<Long>> builds = new ArrayList<>(N);
+            for ( int i = 0 ; i < N ; i++ ) {
+                String indexName = indexNames.get(i);
+                ExternalSort sorter = sorters[i];
+                RecordFactory recordFactory = recordFactories[i];
+                builds.add(executor.submit(()->indexBuilder(dsg, Iter.map(sorter.sort(), recordFactory::create), indexName)));
+            }
+            long count = -1;
+            for ( Future<Long> build : builds ) {
+                long x = build.get();
+                if ( count < 0 )
+                    count = x;
+            }
+            return count;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TDBException("Interrupted", ex);
+        } catch (ExecutionException ex) {
+            if ( ex.getCause() instanceof RuntimeException runtimeEx )
+                throw runtimeEx;
+            throw new TDBException(ex.getCause());
+        } finally {
+            executor.shutdownNow();
+            for ( ExternalSort sorter : sorters ) {
+                if ( sorter != null )
+                    sorter.close();
+            }
+        }
+    }
+
+    private static String primaryOrder(int tupleLength, String indexName) {
+        if ( tupleLength == 3 )
+            return Names.primaryIndexTriples;
+        if ( tupleLength == 4 )
+            return Names.primaryIndexQuads;
+        throw new TDBException("Index name: " + indexName);
+    }
+
+    private static long indexBuilder(DatasetGraph dsg, InputStream input, String indexName) {
+        int rowBlock = 1000;
         int tupleLength = indexName.length();
+        TupleMap colMap = TupleMap.create(primaryOrder(tupleLength, indexName), indexName);
+        Iterator<Record> iter = new RecordsFromInput(input, tupleLength, colMap, rowBlock);
+        return indexBuilder(dsg, iter, indexName);
+    }
 
+    /** Pack the records, which are in index order, into the index. */
+    private static long indexBuilder(DatasetGraph dsg, Iterator<Record> iter, String indexName) {
+        long tickPoint = BulkLoaderX.DataTick;
+        int superTick = BulkLoaderX.DataSuperTick;
+
+        // The name is the order. Input is already in the right order.
         TupleIndex index = TDBInternal.findIndex(dsg, indexName);
         if ( index == null )
             throw new TDBException("Can not find index: " + indexName);
 
-        String primaryOrder;
-        if ( tupleLength == 3 ) {
-            primaryOrder = Names.primaryIndexTriples;
-        } else if ( tupleLength == 4 ) {
-            primaryOrder = Names.primaryIndexQuads;
-        } else {
-            throw new TDBException("Index name: " + indexName);
-        }
-        TupleMap colMap = TupleMap.create(primaryOrder, indexName);
-
         int blockSize = SystemTDB.BlockSize;
         RecordFactory recordFactory = ((TupleIndexRecord)index).getRangeIndex().getRecordFactory();
 
@@ -278,8 +425,6 @@ public class ProcBuildIndexX
         BlockMgr blkMgrRecords = bpt.getRecordsMgr().getBlockMgr();
         BufferChannel blkState = bpt.getStateManager().getBufferChannel();
         // ----
-        int rowBlock = 1000;
-        Iterator<Record> iter = new RecordsFromInput(input, tupleLength, colMap, rowBlock);
         // ProgressMonitor.
         ProgressMonitor monitor = ProgressMonitorOutput.create(BulkLoaderX.LOG_Index, indexName, tickPoint, superTick);
         ProgressIterator<Record> iter2 = new ProgressIterator<>(iter, monitor);
@@ -24,11 +24,13 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import org.apache.jena.atlas.io.IO;
 import org.apache.jena.atlas.iterator.IteratorSlotted;
@@ -60,6 +62,7 @@ import org.apache.jena.system.progress.ProgressIterator;
 import org.apache.jena.system.progress.ProgressMonitorOutput;
 import org.apache.jena.system.progress.ProgressStreamRDF;
 import org.apache.jena.tdb2.DatabaseMgr;
+import org.apache.jena.tdb2.lib.ExternalSort;
 import org.apache.jena.tdb2.lib.NodeLib;
 import org.apache.jena.tdb2.store.DatasetGraphTDB;
 import org.apache.jena.tdb2.store.Hash;
@@ -123,12 +126,15 @@ public class ProcBuildNodeTableX {
         NodeTable nt = dsgtdb.getTripleTable().getNodeTupleTable().getNodeTable();
         NodeTableTRDF nodeTable = (NodeTableTRDF)nt.baseNodeTable();
 
-        OutputStream toSortOutputStream;
-        InputStream fromSortInputStream;
-
         if ( sortThreads <= 0 )
             sortThreads = 2;
 
+        if ( BulkLoaderX.SortInProcess )
+            return sortInProcess(dsg, dsgtdb, nodeTable, loaderFiles, sortThreads, datafiles);
+
+        OutputStream toSortOutputStream;
+        InputStream fromSortInputStream;
+
         // ** Step 2: The sort
         Process procSort;
         try {
@@ -174,35 +180,11 @@ public class ProcBuildNodeTableX {
         int superTick = BulkLoaderX.DataSuperTick;
 
         Runnable task1 = ()->{
-            ProgressMonitorOutput monitor = ProgressMonitorOutput.create(BulkLoaderX.LOG_Nodes, "Nodes", tickPoint, superTick);
             OutputStream output = IO.ensureBuffered(toSortOutputStream);
-            // Counting.
-            StreamRDF worker = new NodeHashTmpStream(output);
-            ProgressStreamRDF stream = new ProgressStreamRDF(worker, monitor);
-            monitor.start();
-            String label = monitor.getLabel();
-            datafiles.forEach( datafile->{
-                String basename = FileOps.basename(datafile);
-                monitor.setLabel(basename);
-                stream.start();
-                RDFParser.source(datafile).parse(stream);
-                stream.finish();
-            });
-            monitor.finish();
-            monitor.setLabel(label);
-
+            long count = parseNodes(new NodeHashTmpStream(output), datafiles);
             IO.flush(output);
             IO.close(output);
-
-            long x = monitor.getTime();
-
-            long count = monitor.getTicks();
             countParseTicks.set(count);
-
-            double xSec = x/1000.0;
-            double rate = count/xSec;
-            FmtLog.info(BulkLoaderX.LOG_Nodes, "%s Parse (nodes): %s seconds : %,d triples/quads %,.0f TPS", BulkLoaderX.StageMarker,
-                        Timer.timeStr(x), count, rate);
         };
 
         // AsyncParser.asyncParse(files, output) but with logging.
@@ -210,46 +192,11 @@ public class ProcBuildNodeTableX {
 
         // Step3: build node table.
         Runnable task3 = ()->{
-            Timer timer = new Timer();
-            // Don't start timer until sort send something
-
             // Process stream are already buffered.
             InputStream input = IO.ensureBuffered(fromSortInputStream);
-
-            FileSet fileSet = new FileSet(dsgtdb.getLocation(), Names.nodeTableBaseName);
-            BufferChannel blkState = FileFactory.createBufferChannel(fileSet, Names.extBptState);
-            long idxTickPoint = BulkLoaderX.DataTick;
-            int idxSuperTick = BulkLoaderX.DataSuperTick;
-            ProgressMonitorOutput monitor = ProgressMonitorOutput.create(BulkLoaderX.LOG_Terms, "Index", idxTickPoint, idxSuperTick);
-
-            dsg.executeWrite(()->{
-                BinaryDataFile objectFile = nodeTable.getData();
-                Iterator<Record> rIter = records(BulkLoaderX.LOG_Terms, input, objectFile);
-                rIter = new ProgressIterator<>(rIter, monitor);
-                BPlusTree bpt1 = (BPlusTree)(nodeTable.getIndex());
-                BPlusTreeParams bptParams = bpt1.getParams();
-                RecordFactory factory = new RecordFactory(SystemTDB.LenNodeHash,  NodeId.SIZE);
-                // Wait until something has been received from the sort step
-                rIter.hasNext();
-                monitor.start();
-                // .. then start the timer. It is closed after the transaction finishes.
-                timer.startTimer();
-
-                BPlusTree bpt2 = BPlusTreeRewriter.packIntoBPlusTree(rIter,
-                                                                     bptParams, factory, blkState,
-                                                                     bpt1.getNodeManager().getBlockMgr(),
-                                                                     bpt1.getRecordsMgr().getBlockMgr());
-                bpt2.sync();
-                //bpt1.sync();
-                objectFile.sync();
-                monitor.finish();
-            });
+            long count = buildNodeTable(dsg, dsgtdb, nodeTable, objectFile->records(BulkLoaderX.LOG_Terms, input, objectFile));
             IO.close(input);
-            long x = timer.endTimer();
-            long count = monitor.getTicks();
             countIndexedNodes.set(count);
-            String rateStr = BulkLoaderX.rateStr(count, x);
-            FmtLog.info(BulkLoaderX.LOG_Terms, "%s Index terms: %s seconds : %,d indexed RDF terms : %s PerSecond", BulkLoaderX.StageMarker, Timer.timeStr(x), count, rateStr);
         };
         Thread thread3 = async(task3, "AsyncBuild");
 
@@ -276,6 +223,91 @@ public class ProcBuildNodeTableX {
         return Pair.create(countParseTicks.get(), countIndexedNodes.get());
     }
 
+    /**
+     * Node table build using {@link ExternalSort}: parse, adding (hash, thrift bytes)
+     * records to the sorter, then build the node table from the sorted, unique, records.
+     * The sorter sorts and writes runs on its own threads while parsing continues.
+     */
+    private static Pair<Long, Long> sortInProcess(DatasetGraph dsg, DatasetGraphTDB dsgtdb, NodeTableTRDF nodeTable,
+                                                  XLoaderFiles loaderFiles, int sortThreads, List<String> datafiles) {
+        try ( ExternalSort sorter = ExternalSort.keyed(SystemTDB.LenNodeHash, Path.of(loaderFiles.TMPDIR), sortThreads,
+                                                      BulkLoaderX.sortMemory(), BulkLoaderX.CompressSortNodeTableFiles) ) {
+            long countParse = parseNodes(new NodeHashSortStream(sorter), datafiles);
+            Iterator<byte[]> sorted = sorter.sort();
+            long countIndexed = buildNodeTable(dsg, dsgtdb, nodeTable, objectFile->new IteratorSortedNodeTableRecords(sorted, objectFile));
+            return Pair.create(countParse, countIndexed);
+        }
+    }
+
+    /** Step 1: parse the data files, sending the RDF terms to the node stream. Returns the number of triples and quads. */
+    private static long parseNodes(NodeHashTmpStream worker, List<String> datafiles) {
+        long tickPoint = BulkLoaderX.DataTick;
+        int superTick = BulkLoaderX.DataSuperTick;
+        ProgressMonitorOutput monitor = ProgressMonitorOutput.create(BulkLoaderX.LOG_Nodes, "Nodes", tickPoint, superTick);
+        // Counting.
+        ProgressStreamRDF stream = new ProgressStreamRDF(worker, monitor);
+        monitor.start();
+        String label = monitor.getLabel();
+        datafiles.forEach( datafile->{
+            String basename = FileOps.basename(datafile);
+            monitor.setLabel(basename);
+            stream.start();
+            RDFParser.source(datafile).parse(stream);
+            stream.finish();
+        });
+        monitor.finish();
+        monitor.setLabel(label);
+
+        long x = monitor.getTime();
+        long count = monitor.getTicks();
+        double xSec = x/1000.0;
+        double rate = count/xSec;
+        FmtLog.info(BulkLoaderX.LOG_Nodes, "%s Parse (nodes): %s seconds : %,d triples/quads %,.0f TPS", BulkLoaderX.StageMarker,
+                    Timer.timeStr(x), count, rate);
+        return count;
+    }
+
+    /** Step 3: write the node table data file and pack the node table index. Returns the number of RDF terms. */
+    private static long buildNodeTable(DatasetGraph dsg, DatasetGraphTDB dsgtdb, NodeTableTRDF nodeTable,
+                                       Function<BinaryDataFile, Iterator<Record>> recordsMaker) {
+        Timer timer = new Timer();
+        // Don't start timer until sort send something
+
+        FileSet fileSet = new FileSet(dsgtdb.getLocation(), Names.nodeTableBaseName);
+        BufferChannel blkState = FileFactory.createBufferChannel(fileSet, Names.extBptState);
+        long idxTickPoint = BulkLoaderX.DataTick;
+        int idxSuperTick = BulkLoaderX.DataSuperTick;
+        ProgressMonitorOutput monitor = ProgressMonitorOutput.create(BulkLoaderX.LOG_Terms, "Index", idxTickPoint, idxSuperTick);
+
+        dsg.executeWrite(()->{
+            BinaryDataFile objectFile = nodeTable.getData();
+            Iterator<Record> rIter = recordsMaker.apply(objectFile);
+            rIter = new ProgressIterator<>(rIter, monitor);
+            BPlusTree bpt1 = (BPlusTree)(nodeTable.getIndex());
+            BPlusTreeParams bptParams = bpt1.getParams();
+            RecordFactory factory = new RecordFactory(SystemTDB.LenNodeHash,  NodeId.SIZE);
+            // Wait until something has been received from the sort step
+            rIter.hasNext();
+            monitor.start();
+            // .. then start the timer. It is closed after the transaction finishes.
+            timer.startTimer();
+
+            BPlusTree bpt2 = BPlusTreeRewriter.packIntoBPlusTree(rIter,
+                                                                 bptParams, factory, blkState,
+                                                                 bpt1.getNodeManager().getBlockMgr(),
+                                                                 bpt1.getRecordsMgr().getBlockMgr());
+            bpt2.sync();
+            //bpt1.sync();
+            objectFile.sync();
+            monitor.finish();
+        });
+        long x = timer.endTimer();
+        long count = monitor.getTicks();
+        String rateStr = BulkLoaderX.rateStr(count, x);
+        FmtLog.info(BulkLoaderX.LOG_Terms, "%s Index terms: %s seconds : %,d indexed RDF terms : %s PerSecond", BulkLoaderX.StageMarker, Timer.timeStr(x), count, rateStr);
+        return count;
+    }
+
     private static Iterator<Record> records(Logger logger, InputStream input, BinaryDataFile objectFile) {
         return new IteratorNodeTableRecords(logger, input, objectFile);
     }
@@ -344,6 +376,36 @@ public class ProcBuildNodeTableX {
         }
     }
 
+    /** Node table records from the sorted binary records of (hash, thrift bytes). */
+    private static class IteratorSortedNodeTableRecords implements Iterator<Record> {
+        private final static RecordFactory factory = new RecordFactory(SystemTDB.LenNodeHash,  NodeId.SIZE);
+        private final byte[] bHash = new byte[SystemTDB.LenNodeHash];
+        private final byte[] bbNodeId = new byte[NodeId.SIZE];
+        private final Iterator<byte[]> input;
+        private final BinaryDataFile objectFile;
+
+        IteratorSortedNodeTableRecords(Iterator<byte[]> input, BinaryDataFile objectFile) {
+            this.input = input;
+            this.objectFile = objectFile;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return input.hasNext();
+        }
+
+        @Override
+        public Record next() {
+            byte[] bytes = input.next();
+            System.arraycopy(bytes, 0, bHash, 0, bHash.length);
+            // write to nodes.dat -> NodeId
+            long x = objectFile.write(bytes, bHash.length, bytes.length - bHash.length);
+            NodeId nodeId = NodeIdFactory.createPtr(x);
+            Bytes.setLong(nodeId.getPtrLocation(), bbNodeId);
+            return factory.create(bHash, bbNodeId);
+        }
+    }
+
     public static int hexRead(InputStream input) throws IOException {
         int c1 = input.read();
         if ( c1 < 0 )
@@ -426,10 +488,7 @@ public class ProcBuildNodeTableX {
                 byte k[] = hash.getBytes();
                 RDF_Term term = ThriftConvert.convert(node, false);
                 byte[] tBytes = serializer.serialize(term);
-                write(outputData, k);
-                outputData.write(' ');
-                write(outputData, tBytes);
-                outputData.write('\n');
+                output(k, tBytes);
             } catch (TException e) {
                 e.printStackTrace();
             } catch (IOException e) {
@@ -437,6 +496,14 @@ public class ProcBuildNodeTableX {
             }
         }
 
+        /** Output the hash and encoded term of an RDF term. */
+        protected void output(byte[] hashBytes, byte[] termBytes) throws IOException {
+            write(outputData, hashBytes);
+            outputData.write(' ');
+            write(outputData, termBytes);
+            outputData.write('\n');
+        }
+
         private static void write(OutputStream outputData, byte[] bytes) throws IOException {
             for ( byte bits8 : bytes )
                 hexWrite(outputData, bits8);
@@ -453,4 +520,22 @@ public class ProcBuildNodeTableX {
             IO.flush(outputData);
         }
     }
+
+    /** Send (hash, thrift bytes) records to an {@link ExternalSort} */
+    static class NodeHashSortStream extends NodeHashTmpStream {
+        private final ExternalSort sorter;
+
+        NodeHashSortStream(ExternalSort sorter) {
+            super(OutputStream.nullOutputStream());
+            this.sorter = sorter;
+        }
+
+        @Override
+        protected void output(byte[] hashBytes, byte[] termBytes) {
+            byte[] record = new byte[hashBytes.length + termBytes.length];
+            System.arraycopy(hashBytes, 0, record, 0, hashBytes.length);
+            System.arraycopy(termBytes, 0, record, hashBytes.length, termBytes.length);
+            sorter.add(record);
+        }
+    }
 }
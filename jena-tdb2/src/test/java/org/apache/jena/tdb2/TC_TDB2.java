@@ -32,6 +32,7 @@ import org.apache.jena.tdb2.store.nodetable.TS_NodeTable;
 import org.apache.jena.tdb2.store.tupletable.TS_TupleTable;
 import org.apache.jena.tdb2.sys.SystemTDB;
 import org.apache.jena.tdb2.sys.TS_Sys;
+import org.apache.jena.tdb2.xloader.TS_XLoader;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.runner.RunWith;
@@ -55,6 +56,7 @@ import org.junit.runners.Suite;
     , TS_TDBAssembler.class
     , TS_Sys.class
     , TS_Loader.class
+    , TS_XLoader.class
     , TestMiscTDB2.class
     , Scripts_TDB2.class
 } )
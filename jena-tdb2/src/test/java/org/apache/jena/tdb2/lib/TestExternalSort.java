@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.tdb2.lib;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.apache.jena.atlas.lib.Bytes;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestExternalSort {
+    @Rule public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private Path tmpDir;
+    private int maxMergeWidth;
+
+    @Before public void before() {
+        tmpDir = tmpFolder.getRoot().toPath();
+        maxMergeWidth = ExternalSort.MaxMergeWidth;
+    }
+
+    @After public void after() {
+        ExternalSort.MaxMergeWidth = maxMergeWidth;
+    }
+
+    // Small memory so there are many runs: the minimum run buffer is 1M.
+    private static final long SmallMemory = 0;
+    private static final long LargeMemory = 64 * 1024 * 1024;
+
+    @Test public void sort_empty() {
+        try ( ExternalSort sorter = ExternalSort.fixedLength(24, tmpDir, 2, LargeMemory, false) ) {
+            assertFalse(sorter.sort().hasNext());
+        }
+    }
+
+    @Test public void sort_fixed_memory() {
+        testFixed(1000, 100, LargeMemory, false);
+        assertNoFiles();
+    }
+
+    @Test public void sort_fixed_runs() {
+        testFixed(200_000, 50_000, SmallMemory, false);
+    }
+
+    @Test public void sort_fixed_runs_compressed() {
+        testFixed(200_000, 50_000, SmallMemory, true);
+    }
+
+    @Test public void sort_fixed_multipass() {
+        ExternalSort.MaxMergeWidth = 2;
+        testFixed(300_000, 100_000, SmallMemory, false);
+    }
+
+    @Test public void sort_keyed_memory() {
+        testKeyed(1000, 100, LargeMemory, false);
+        assertNoFiles();
+    }
+
+    @Test public void sort_keyed_runs() {
+        testKeyed(100_000, 20_000, SmallMemory, false);
+    }
+
+    @Test public void sort_keyed_runs_compressed() {
+        testKeyed(100_000, 20_000, SmallMemory, true);
+    }
+
+    @Test public void sort_keyed_multipass() {
+        ExternalSort.MaxMergeWidth = 3;
+        testKeyed(100_000, 20_000, SmallMemory, true);
+    }
+
+    @Test public void sort_keyed_large_record() {
+        byte[] large = record(7, 2 * 1024 * 1024);
+        byte[] small = record(3, 10);
+        try ( ExternalSort sorter = ExternalSort.keyed(8, tmpDir, 1, SmallMemory, false) ) {
+            sorter.add(large);
+            sorter.add(small);
+            sorter.add(large);
+            Iterator<byte[]> iter = sorter.sort();
+            assertArrayEquals(small, iter.next());
+            assertArrayEquals(large, iter.next());
+            assertFalse(iter.hasNext());
+        }
+    }
+
+    @Test public void sort_unsigned() {
+        try ( ExternalSort sorter = ExternalSort.fixedLength(2, tmpDir, 1, LargeMemory, false) ) {
+            sorter.add(new byte[] {(byte)0x80, 0});
+            sorter.add(new byte[] {0x7F, 0});
+            sorter.add(new byte[] {(byte)0xFF, 0});
+            sorter.add(new byte[] {0x00, 1});
+            Iterator<byte[]> iter = sorter.sort();
+            assertArrayEquals(new byte[] {0x00, 1}, iter.next());
+            assertArrayEquals(new byte[] {0x7F, 0}, iter.next());
+            assertArrayEquals(new byte[] {(byte)0x80, 0}, iter.next());
+            assertArrayEquals(new byte[] {(byte)0xFF, 0}, iter.next());
+            assertFalse(iter.hasNext());
+        }
+    }
+
+    @Test public void sort_close_deletes_runs() {
+        testFixed(200_000, 50_000, SmallMemory, false);
+        assertNoFiles();
+    }
+
+    /** Records of 3 longs, with {@code distinct} different values. */
+    private void testFixed(int count, int distinct, long memory, boolean compress) {
+        Random random = new Random(count);
+        List<byte[]> records = new ArrayList<>();
+        for ( int i = 0 ; i < count ; i++ ) {
+            int x = random.nextInt(distinct);
+            byte[] record = new byte[24];
+            Bytes.setLong(x % 7, record, 0);
+            Bytes.setLong(-x, record, 8);
+            Bytes.setLong(x, record, 16);
+            records.add(record);
+        }
+        try ( ExternalSort sorter = ExternalSort.fixedLength(24, tmpDir, 2, memory, compress) ) {
+            records.forEach(sorter::add);
+            check(records, sorter.sort(), 24);
+        }
+    }
+
+    /** Records with an 8 byte key and a variable length value determined by the key. */
+    private void testKeyed(int count, int distinct, long memory, boolean compress) {
+        Random random = new Random(count);
+        List<byte[]> records = new ArrayList<>();
+        for ( int i = 0 ; i < count ; i++ )
+            records.add(record(random.nextInt(distinct), 0));
+        try ( ExternalSort sorter = ExternalSort.keyed(8, tmpDir, 2, memory, compress) ) {
+            records.forEach(sorter::add);
+            check(records, sorter.sort(), 8);
+        }
+    }
+
+    private static byte[] record(int x, int extra) {
+        byte[] record = new byte[8 + (x % 50) + extra];
+        Bytes.setLong(Long.reverse(x), record, 0);
+        Arrays.fill(record, 8, record.length, (byte)x);
+        return record;
+    }
+
+    private static void check(List<byte[]> records, Iterator<byte[]> iter, int keyLength) {
+        Comparator<byte[]> cmp = (r1, r2) -> Arrays.compareUnsigned(r1, 0, keyLength, r2, 0, keyLength);
+        TreeSet<byte[]> expected = new TreeSet<>(cmp);
+        expected.addAll(records);
+        List<byte[]> actual = new ArrayList<>();
+        iter.forEachRemaining(actual::add);
+        assertEquals(expected.size(), actual.size());
+        int i = 0;
+        for ( byte[] record : expected )
+            assertArrayEquals(record, actual.get(i++));
+    }
+
+    private void assertNoFiles() {
+        try ( Stream<Path> files = Files.list(tmpDir) ) {
+            assertEquals(0, files.count());
+        } catch (IOException ex) { throw new RuntimeException(ex); }
+    }
+}
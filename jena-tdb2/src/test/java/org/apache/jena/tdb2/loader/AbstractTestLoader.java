@@ -34,8 +34,10 @@ import org.apache.jena.query.ARQ;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFParser;
 import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
 import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.sparql.util.IsoMatcher;
+import org.apache.jena.sparql.util.NodeFactoryExtra;
 import org.apache.jena.sys.JenaSystem;
 import org.apache.jena.system.Txn;
 import org.apache.jena.system.progress.MonitorOutputs;
@@ -145,6 +147,51 @@ public abstract class AbstractTestLoader {
         });
     }
 
+    @Test
+    public void load_dataset_nonempty() {
+        // Second bulk load into a database that already has data,
+        // with one quad that is already present.
+        DatasetGraph dsg = fresh();
+        load(dsg, maker, DIR + "data-2.nt");
+        load(dsg, maker, DIR + "data-1.nq", DIR + "data-2.nt");
+        Txn.executeRead(dsg, ()->{
+            assertEquals(1, dsg.getGraph(g).size());
+            assertEquals(2, dsg.getDefaultGraph().size());
+            assertEquals(1, Iter.count(dsg.find(null, null, null, o)));
+            assertEquals(3, Iter.count(dsg.find(null, s, p, null)));
+        });
+    }
+
+    @Test
+    public void load_dataset_generated() {
+        // Enough data to spread over the term partitions, with repeated and inline terms.
+        DatasetGraph dsg = fresh();
+        DatasetGraph expected = DatasetGraphFactory.createTxnMem();
+        for ( int i = 0 ; i < 5_000 ; i++ ) {
+            Node gi = NodeFactory.createURI("http://example/g"+(i%3));
+            Node si = NodeFactory.createURI("http://example/s"+(i/10));
+            Node pi = NodeFactory.createURI("http://example/p"+(i%7));
+            Node oi = ( i%2 == 0 ) ? NodeFactoryExtra.intToNode(i) : NodeFactory.createLiteralString("v"+i);
+            expected.add(gi, si, pi, oi);
+            expected.add(Quad.defaultGraphIRI, si, pi, oi);
+        }
+        DataLoader loader = maker.apply(dsg, null);
+        loader.startBulk();
+        expected.find().forEachRemaining(quad->{
+            if ( quad.isDefaultGraph() )
+                loader.stream().triple(quad.asTriple());
+            else
+                loader.stream().quad(quad);
+        });
+        loader.finishBulk();
+        Txn.executeRead(dsg, ()->{
+            assertEquals(10_000, Iter.count(dsg.find()));
+            assertEquals(5_000, dsg.getDefaultGraph().size());
+            // No blank nodes.
+            expected.find().forEachRemaining(quad->assertTrue(dsg.contains(quad)));
+        });
+    }
+
     @Test public void isomorphic_1() {
         DatasetGraph dsg = fresh();
         load(dsg, maker , DIR + "data-1.nq", DIR + "data-2.nt");
@@ -45,6 +45,7 @@ public class TestLoaderMainPlan extends AbstractTestLoader {
         add(x, "Phased Plan", LoaderPlans.loaderPlanPhased);
         add(x, "Light plan", LoaderPlans.loaderPlanLight);
         add(x, "Parallel plan", LoaderPlans.loaderPlanParallel);
+        add(x, "Merge plan", LoaderPlans.loaderPlanMerge);
         return x;
     }
 
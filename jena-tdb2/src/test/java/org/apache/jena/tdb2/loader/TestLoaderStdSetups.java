@@ -43,12 +43,14 @@ public class TestLoaderStdSetups extends AbstractTestLoader {
         BiFunction<DatasetGraph, Node, DataLoader> sequential = (dsg, gn)->LoaderFactory.sequentialLoader(dsg, gn, output);
         BiFunction<DatasetGraph, Node, DataLoader> parallel =   (dsg, gn)->LoaderFactory.parallelLoader(dsg, gn, output);
         BiFunction<DatasetGraph, Node, DataLoader> light =      (dsg, gn)->LoaderFactory.createLoader(LoaderPlans.loaderPlanLight, dsg, gn, output);
+        BiFunction<DatasetGraph, Node, DataLoader> merge =      (dsg, gn)->LoaderFactory.mergeLoader(dsg, gn, output);
 
         x.add(new Object[]{"Basic loader",      basic});
         x.add(new Object[]{"Phased loader",     phased});
         x.add(new Object[]{"Sequential loader", sequential});
         x.add(new Object[]{"Parallel loader",   parallel});
         x.add(new Object[]{"Light loader",      light});
+        x.add(new Object[]{"Merge loader",      merge});
         return x;
     }
 
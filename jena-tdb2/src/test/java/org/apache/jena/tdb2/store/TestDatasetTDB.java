@@ -19,6 +19,11 @@
 package org.apache.jena.tdb2.store;
 
 import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.*;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
@@ -26,6 +31,8 @@ import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.shared.AddDeniedException;
+import org.apache.jena.sparql.core.DatasetGraph;
 import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.sparql.sse.SSE;
 import org.apache.jena.sys.JenaSystem;
@@ -327,5 +334,31 @@ public class TestDatasetTDB
         assertTrue(m.isIsomorphicWith(m2));
     }
 
+    @Test public void addAll1()
+    {
+        DatasetGraph dsg = dataset().asDatasetGraph();
+        List<Quad> quads = List.of(SSE.parseQuad("(_ :s :p 1)"),
+                                   SSE.parseQuad("(:g :s :p 2)"),
+                                   SSE.parseQuad("(:g :s :p 3)"),
+                                   SSE.parseQuad("(:g2 :s :p 4)"));
+        dsg.addAll(quads.iterator());
+        for ( Quad quad : quads )
+            assertTrue(dsg.contains(quad));
+        assertEquals(1, dsg.getDefaultGraph().size());
+        assertEquals(2, dsg.getGraph(SSE.parseNode(":g")).size());
+        assertThrows(AddDeniedException.class, ()->dsg.addAll(List.of(SSE.parseQuad("(<urn:x-arq:UnionGraph> :s :p 5)")).iterator()));
+    }
+
+    @Test public void addAll2()
+    {
+        DatasetGraph dsg = dataset().asDatasetGraph();
+        Graph graph = dsg.getGraph(SSE.parseNode(":g"));
+        List<Triple> triples = List.of(SSE.parseTriple("(:s :p 1)"), SSE.parseTriple("(:s :p 2)"));
+        graph.addAll(triples);
+        assertEquals(2, graph.size());
+        assertTrue(dsg.contains(SSE.parseQuad("(:g :s :p 2)")));
+        assertTrue(dsg.getDefaultGraph().isEmpty());
+    }
+
     // removeAll
 }
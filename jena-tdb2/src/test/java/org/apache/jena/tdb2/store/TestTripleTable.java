@@ -23,8 +23,11 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
+import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.atlas.logging.LogCtl;
 import org.apache.jena.dboe.base.file.Location;
 import org.apache.jena.graph.Node;
@@ -142,6 +145,22 @@ public class TestTripleTable
         match(table, null, null, null);
     }
 
+    @Test public void addAll1()
+    {
+        TripleTable table = createTripleTableMem();
+        List<Triple> triples = new ArrayList<>();
+        for ( Node s : List.of(n6, n1, n4) )
+            for ( Node o : List.of(n3, n5, n2) )
+                triples.add(Triple.create(s, n2, o));
+        table.addAll(triples);
+        contains(table, n1, n2, n3);
+        contains(table, n6, n2, n2);
+        notMatch(table, n2, n2, n2);
+        assertEquals(9, Iter.count(table.find(null, null, null)));
+        assertEquals(3, Iter.count(table.find(null, n2, n5)));
+        assertEquals(3, Iter.count(table.find(null, null, n3)));
+    }
+
     private TripleTable createTripleTableMem()
     {
         DatasetGraphTDB dsg = TDB2StorageBuilder.build(Location.mem());
@@ -22,8 +22,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.jena.graph.Node;
 import org.apache.jena.sparql.util.NodeFactoryExtra;
+import org.apache.jena.tdb2.lib.NodeLib;
+import org.apache.jena.tdb2.store.Hash;
 import org.apache.jena.tdb2.store.NodeId;
 import org.junit.Test;
 
@@ -57,6 +62,35 @@ public abstract class AbstractTestNodeTable
         assertEquals(nodeId, nodeId2);
     }
 
+    protected void testBulk(String... strings) {
+        testBulk(false, strings);
+    }
+
+    protected void testBulk(boolean withHashes, String... strings) {
+        NodeTable nt = createEmptyNodeTable();
+        // One node allocated before the bulk operation.
+        writeNode(nt, strings[0]);
+        List<Node> nodes = new ArrayList<>();
+        for ( String str : strings )
+            nodes.add(NodeFactoryExtra.parseNode(str));
+
+        List<Hash> hashes = new ArrayList<>();
+        for ( Node n : nodes )
+            hashes.add(NodeLib.hash(n));
+
+        List<NodeId> nodeIds = withHashes ? nt.bulkNodeToNodeId(nodes, hashes, true) : nt.bulkNodeToNodeId(nodes, true);
+        assertEquals(nodes.size(), nodeIds.size());
+        for ( int i = 0 ; i < nodes.size() ; i++ ) {
+            Node n = nodes.get(i);
+            NodeId nodeId = nodeIds.get(i);
+            assertNotEquals(NodeId.NodeDoesNotExist, nodeId);
+            assertEquals(n, nt.getNodeForNodeId(nodeId));
+            assertEquals(nodeId, nt.getNodeIdForNode(n));
+        }
+        assertEquals(nodeIds, nt.bulkNodeToNodeId(nodes, false));
+        assertEquals(nodeIds, nt.bulkNodeToNodeId(nodes, hashes, false));
+    }
+
     @Test public void nodetable_01()    { testNode("<http://example/x>"); }
     @Test public void nodetable_02()    { testNode("1"); }
     @Test public void nodetable_03()    { testNode("_:x"); }
@@ -64,4 +98,11 @@ public abstract class AbstractTestNodeTable
     @Test public void nodetable_05()    { testNode("'x'@en"); }
     @Test public void nodetable_06()    { testNode("'x'^^<http://example/dt>"); }
     @Test public void nodetable_07()    { testNode("'نواف'"); }
+
+    @Test public void nodetable_bulk_01() { testBulk("<http://example/x>"); }
+    @Test public void nodetable_bulk_02() { testBulk("<http://example/x>", "'x'", "_:b", "<http://example/y>", "'x'@en"); }
+    // Inline and duplicate nodes.
+    @Test public void nodetable_bulk_03() { testBulk("'x'", "1", "<http://example/x>", "'x'", "'2018-01-01'^^<http://www.w3.org/2001/XMLSchema#date>", "<http://example/x>"); }
+    // Hashes calculated by the caller.
+    @Test public void nodetable_bulk_04() { testBulk(true, "'x'", "1", "<http://example/x>", "_:b", "'x'", "'x'@en", "<http://example/x>"); }
 }
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.tdb2.xloader;
+
+import static org.apache.jena.graph.Node.ANY;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.atlas.lib.StrUtils;
+import org.apache.jena.graph.Node;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.DatabaseMgr;
+import org.apache.jena.tdb2.sys.TDBInternal;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Run the xloader steps, with the in-process sort, on a small file. */
+public class TestXLoaderSteps {
+    @Rule public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private static String DATA = StrUtils.strjoinNL
+        ("PREFIX : <http://example/>"
+        ,":s :p 1 ."
+        ,":s :p 'abc' ."
+        ,":s :p 'abc'@en ."
+        ,":s :q _:b ."
+        ,"_:b :p :s ."
+        ,":s :p 1 ."
+        ,":g { :s :p :o . :s :p 'xyz' . _:b :p 123456789012345678901234567890 }"
+        ,":g2 { :s :p :o . :s :p 'Long string with characters éü' }"
+        );
+
+    @Test public void xloader_in_process() throws IOException {
+        boolean sortInProcess = BulkLoaderX.SortInProcess;
+        try {
+            BulkLoaderX.SortInProcess = true;
+            xloader(false);
+        } finally {
+            BulkLoaderX.SortInProcess = sortInProcess;
+        }
+    }
+
+    @Test public void xloader_indexes_together() throws IOException {
+        boolean sortInProcess = BulkLoaderX.SortInProcess;
+        try {
+            BulkLoaderX.SortInProcess = true;
+            xloader(true);
+        } finally {
+            BulkLoaderX.SortInProcess = sortInProcess;
+        }
+    }
+
+    private void xloader(boolean indexesTogether) throws IOException {
+        Path dir = tmpFolder.getRoot().toPath();
+        Path data = dir.resolve("data.trig");
+        Files.writeString(data, DATA);
+        Path tmp = Files.createDirectory(dir.resolve("tmp"));
+        String location = dir.resolve("DB").toString();
+        List<String> files = List.of(data.toString());
+
+        XLoaderFiles loaderFiles = new XLoaderFiles(tmp.toString());
+        ProcBuildNodeTableX.exec(location, loaderFiles, 2, null, files);
+        ProcIngestDataX.exec(location, loaderFiles, files, false);
+        List<String> indexes = List.of("SPO", "POS", "OSP", "GSPO", "GPOS", "GOSP", "SPOG", "POSG", "OSPG");
+        if ( indexesTogether )
+            ProcBuildIndexX.exec(location, indexes, 2, loaderFiles);
+        else
+            indexes.forEach(index->ProcBuildIndexX.exec(location, index, 2, null, loaderFiles));
+
+        DatasetGraph expected = RDFParser.fromString(DATA, Lang.TRIG).toDatasetGraph();
+        DatasetGraph dsg = DatabaseMgr.connectDatasetGraph(location);
+        try {
+            Txn.executeRead(dsg, ()->{
+                assertTrue(IsoMatcher.isomorphic(expected, dsg));
+                // Patterns that use each of the indexes.
+                List<Quad> quads = Iter.toList(dsg.find());
+                for ( Quad q : quads ) {
+                    Node g = q.getGraph();
+                    checkFind(dsg, q, g, q.getSubject(), ANY, ANY);
+                    checkFind(dsg, q, g, ANY, q.getPredicate(), ANY);
+                    checkFind(dsg, q, g, ANY, ANY, q.getObject());
+                    checkFind(dsg, q, ANY, q.getSubject(), ANY, ANY);
+                    checkFind(dsg, q, ANY, ANY, q.getPredicate(), ANY);
+                    checkFind(dsg, q, ANY, ANY, ANY, q.getObject());
+                }
+            });
+        } finally {
+            TDBInternal.expel(dsg);
+        }
+    }
+
+    private static void checkFind(DatasetGraph dsg, Quad quad, Node g, Node s, Node p, Node o) {
+        List<Quad> results = Quad.isDefaultGraph(g)
+            ? Iter.toList(Iter.map(dsg.getDefaultGraph().find(s, p, o), t->Quad.create(Quad.defaultGraphIRI, t)))
+            : Iter.toList(dsg.find(g, s, p, o));
+        assertTrue(quad.toString(), results.contains(quad));
+    }
+}
@@ -98,14 +98,18 @@ public class TextDatasetFactory
     }
 
     /**
-     * Create a Lucene TextIndex
+     * Create a Lucene TextIndex.
+     * If the config sets asynchronous indexing, this is a {@link TextIndexAsync}.
      *
      * @param directory The Lucene Directory for the index
      * @param config The config definition for the index instantiation.
      */
     public static TextIndex createLuceneIndex(Directory directory, TextIndexConfig config)
     {
-        return new TextIndexLucene(directory, config) ;
+        TextIndex index = new TextIndexLucene(directory, config) ;
+        if ( config.isAsyncIndexing() )
+            index = new TextIndexAsync(index, config.isReadYourWrites()) ;
+        return index ;
     }
 
     /**
@@ -18,6 +18,8 @@
 
 package org.apache.jena.query.text ;
 
+import java.util.ArrayList ;
+import java.util.Collection ;
 import java.util.List ;
 import java.util.Map ;
 
@@ -63,5 +65,19 @@ public interface TextIndex extends Closeable //, Transactional
         return query(property, qs, graphURI, lang, limit, highlight);
     }
 
+    /**
+     * Access the index for several subjects at once.
+     * The limit applies to each subject; -1 for as many as possible.
+     * The hits are in no particular order of subject.
+     * <p>
+     * The default implementation makes one query for each subject.
+     */
+    default List<TextHit> query(Collection<String> subjectUris, List<Resource> props, String qs, String graphURI, String lang, int limit, String highlight) {
+        List<TextHit> hits = new ArrayList<>() ;
+        for ( String subjectUri : subjectUris )
+            hits.addAll(query(subjectUri, props, qs, graphURI, lang, limit, highlight)) ;
+        return hits ;
+    }
+
     EntityDefinition getDocDef() ;
 }
@@ -0,0 +1,479 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.query.text;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link TextIndex} that applies changes to another {@link TextIndex} on a background thread.
+ * <p>
+ * The changes of a transaction are buffered; a later change to the same document replaces
+ * an earlier one, except that a delete followed by an add of the same document becomes a
+ * delete then an add. {@link #commit()} passes the buffered changes, as a numbered batch, to
+ * the background thread, which applies all the batches waiting and commits the index
+ * once for them. {@link #rollback()} discards the buffered changes.
+ * <p>
+ * If a transaction buffers more than {@code maxPending} changes, they are passed to the
+ * background thread, which applies them to the index without committing it, so they are
+ * not visible to queries. A rollback then discards them with a rollback of the index.
+ * <p>
+ * Queries see the changes when the background thread has committed them. If
+ * {@code readYourWrites} is true, {@link #commit()} waits until then.
+ * <p>
+ * If the index is a {@link TextIndexLucene}, the number of the last batch in the index is
+ * recorded with each commit of the index, under the key {@link #WatermarkKey}, and batch
+ * numbers continue from it when the index is next opened. If the index is in the file
+ * system, the number of each batch is also written to the file {@link #QueuedFile} in the
+ * index directory by {@link #prepareCommit()}, before the dataset commits. When the
+ * index is opened, batches after the watermark up to the recorded number were committed
+ * to the dataset but may be missing from the index, for example after a crash; this is
+ * logged and the index should be rebuilt, for example with {@code jena.textindexer}.
+ * Otherwise, a crash loses the changes that were not yet in the index, without warning.
+ */
+public class TextIndexAsync implements TextIndex {
+    private static Logger log = LoggerFactory.getLogger(TextIndexAsync.class);
+
+    /** Commit data key for the number of the last batch of changes in the index. */
+    public static final String WatermarkKey = "jena.text.watermark";
+
+    /** File, in the index directory, with the number of the last batch of changes committed. */
+    public static final String QueuedFile = "jena-text.queued";
+
+    /** Default number of changes buffered by a transaction before they are passed to the background thread. */
+    public static final int DefaultMaxPending = 10_000;
+
+    // REPLACE is a delete then an add of the same document.
+    private enum Action { ADD, DELETE, UPDATE, REPLACE }
+
+    private static class Change {
+        final Action action;
+        final Entity entity;
+        Change(Action action, Entity entity) {
+            this.action = action;
+            this.entity = entity;
+        }
+    }
+
+    // PART is some of the changes of a transaction that has not committed yet.
+    private enum Kind { BATCH, PART, ROLLBACK, END }
+
+    private static class Batch {
+        final Kind kind;
+        final long id;
+        final Collection<Change> changes;
+        Batch(Kind kind, long id, Collection<Change> changes) {
+            this.kind = kind;
+            this.id = id;
+            this.changes = changes;
+        }
+    }
+
+    private static final Batch ROLLBACK = new Batch(Kind.ROLLBACK, -1, Collections.emptyList());
+    private static final Batch END = new Batch(Kind.END, -1, Collections.emptyList());
+
+    private final TextIndex index;
+    private final boolean readYourWrites;
+    private final int maxPending;
+    private final Path queuedFile;
+
+    // Changes not yet committed, by document.
+    private final Object pendingLock = new Object();
+    private LinkedHashMap<Object, Change> pending = new LinkedHashMap<>();
+    // Whether some changes of the transaction have been passed to the index thread.
+    private boolean passed = false;
+    private long lastBatch;
+
+    private final BlockingQueue<Batch> queue = new LinkedBlockingQueue<>();
+    private final Thread indexThread;
+    // Last batch processed by the index thread. Guarded by "this".
+    private long indexedBatch;
+    private volatile long watermark;
+    private volatile boolean failed = false;
+    private volatile boolean closed = false;
+
+    public TextIndexAsync(TextIndex index, boolean readYourWrites) {
+        this(index, readYourWrites, DefaultMaxPending);
+    }
+
+    /**
+     * @param index The index to apply changes to.
+     * @param readYourWrites Whether {@link #commit()} waits until the changes are in the index.
+     * @param maxPending The number of changes a transaction buffers before passing them to the background thread.
+     */
+    public TextIndexAsync(TextIndex index, boolean readYourWrites, int maxPending) {
+        this.index = index;
+        this.readYourWrites = readYourWrites;
+        this.maxPending = maxPending;
+        long start = 0;
+        Path file = null;
+        if ( index instanceof TextIndexLucene ) {
+            TextIndexLucene indexLucene = (TextIndexLucene)index;
+            String x = indexLucene.getCommitData().get(WatermarkKey);
+            if ( x != null )
+                start = Long.parseLong(x);
+            if ( indexLucene.getDirectory() instanceof FSDirectory )
+                file = ((FSDirectory)indexLucene.getDirectory()).getDirectory().resolve(QueuedFile);
+        }
+        this.queuedFile = file;
+        long queued = readQueued();
+        if ( queued > start )
+            log.warn("Text index changes (batches " + (start + 1) + " to " + queued + ") were committed but may be missing from the text index: the text index needs rebuilding");
+        this.lastBatch = Math.max(start, queued);
+        this.indexedBatch = lastBatch;
+        this.watermark = start;
+        this.indexThread = new Thread(this::indexer, "TextIndexAsync");
+        indexThread.setDaemon(true);
+        indexThread.start();
+    }
+
+    /** The {@link TextIndex} the changes are applied to. */
+    public TextIndex getIndex() {
+        return index;
+    }
+
+    /** The number of the last batch of changes committed by a transaction. */
+    public long getLastBatch() {
+        synchronized(pendingLock) {
+            return lastBatch;
+        }
+    }
+
+    /**
+     * The number of the last batch of changes committed to the index, with all the
+     * batches before it.
+     */
+    public long getWatermark() {
+        return watermark;
+    }
+
+    /** Wait until the index has processed all the batches committed so far. */
+    public void sync() {
+        awaitIndexed(getLastBatch());
+    }
+
+    // ---- Transactions
+
+    @Override
+    public void prepareCommit() {
+        synchronized(pendingLock) {
+            if ( pending.isEmpty() && !passed )
+                return;
+            // Before the dataset commits, so every batch the dataset has is recorded.
+            writeQueued(lastBatch + 1);
+        }
+    }
+
+    @Override
+    public void commit() {
+        long batchId;
+        synchronized(pendingLock) {
+            if ( pending.isEmpty() && !passed )
+                return;
+            checkNotClosed();
+            batchId = ++lastBatch;
+            queue.add(new Batch(Kind.BATCH, batchId, pending.values()));
+            pending = new LinkedHashMap<>();
+            passed = false;
+        }
+        if ( readYourWrites )
+            awaitIndexed(batchId);
+    }
+
+    @Override
+    public void rollback() {
+        synchronized(pendingLock) {
+            pending.clear();
+            if ( passed )
+                queue.add(ROLLBACK);
+            passed = false;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized(pendingLock) {
+            if ( closed )
+                return;
+            closed = true;
+            // Uncommitted changes are discarded.
+            pending.clear();
+            if ( passed )
+                queue.add(ROLLBACK);
+            passed = false;
+            queue.add(END);
+        }
+        try { indexThread.join(); }
+        catch (InterruptedException ex) { Thread.currentThread().interrupt(); }
+        index.close();
+    }
+
+    // ---- Updates
+
+    @Override
+    public void addEntity(Entity entity) {
+        change(Action.ADD, entity);
+    }
+
+    @Override
+    public void updateEntity(Entity entity) {
+        change(Action.UPDATE, entity);
+    }
+
+    @Override
+    public void deleteEntity(Entity entity) {
+        change(Action.DELETE, entity);
+    }
+
+    private void change(Action action, Entity entity) {
+        // An update replaces all documents for the entity id so it is kept as-is.
+        Object key = ( action == Action.UPDATE ) ? new Object() : documentKey(entity);
+        synchronized(pendingLock) {
+            checkNotClosed();
+            // Remove then put so that the change is after any other changes made in between.
+            Change previous = pending.remove(key);
+            // The delete must still happen: the document may already be in the index.
+            if ( action == Action.ADD && previous != null && previous.action != Action.ADD )
+                action = Action.REPLACE;
+            pending.put(key, new Change(action, entity));
+            if ( pending.size() >= maxPending ) {
+                queue.add(new Batch(Kind.PART, lastBatch + 1, pending.values()));
+                pending = new LinkedHashMap<>();
+                passed = true;
+            }
+        }
+    }
+
+    private static Object documentKey(Entity entity) {
+        String datatype = ( entity.getDatatype() == null ) ? null : entity.getDatatype().getURI();
+        return Arrays.asList(entity.getId(), entity.getGraph(), new HashMap<>(entity.getMap()),
+                             entity.getLanguage(), datatype);
+    }
+
+    private void checkNotClosed() {
+        if ( closed )
+            throw new TextIndexException("TextIndexAsync is closed");
+    }
+
+    private long readQueued() {
+        if ( queuedFile == null || !Files.exists(queuedFile) )
+            return 0;
+        try {
+            return Long.parseLong(Files.readString(queuedFile, UTF_8).trim());
+        } catch (IOException | NumberFormatException ex) {
+            log.warn("Can't read " + queuedFile + ": " + ex.getMessage());
+            return 0;
+        }
+    }
+
+    private void writeQueued(long batchId) {
+        if ( queuedFile == null )
+            return;
+        Path tmp = queuedFile.resolveSibling(QueuedFile + ".tmp");
+        try {
+            try ( FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) ) {
+                channel.write(ByteBuffer.wrap(Long.toString(batchId).getBytes(UTF_8)));
+                channel.force(true);
+            }
+            Files.move(tmp, queuedFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            throw new TextIndexException("Recording text index batch: " + queuedFile, ex);
+        }
+    }
+
+    // ---- Index thread
+
+    private void indexer() {
+        List<Batch> batches = new ArrayList<>();
+        // Batches applied, not yet committed to the index.
+        List<Batch> applied = new ArrayList<>();
+        // Whether changes of an uncommitted transaction have been applied.
+        boolean inPart = false;
+        for (;;) {
+            batches.clear();
+            try {
+                batches.add(queue.take());
+            } catch (InterruptedException ex) {
+                log.warn("Interrupted: text index changes not applied");
+                return;
+            }
+            queue.drainTo(batches);
+            for ( Batch batch : batches ) {
+                switch (batch.kind) {
+                    case PART :
+                        // Commit the batches before, so that a rollback only discards this transaction.
+                        if ( !applied.isEmpty() ) {
+                            commit(applied);
+                            applied.clear();
+                        }
+                        apply(batch);
+                        inPart = true;
+                        break;
+                    case BATCH :
+                        apply(batch);
+                        applied.add(batch);
+                        inPart = false;
+                        break;
+                    case ROLLBACK :
+                        rollbackIndex();
+                        inPart = false;
+                        break;
+                    case END :
+                        // END is always the last batch.
+                        if ( !applied.isEmpty() )
+                            commit(applied);
+                        return;
+                }
+            }
+            if ( !applied.isEmpty() && !inPart ) {
+                commit(applied);
+                applied.clear();
+            }
+        }
+    }
+
+    private void apply(Batch batch) {
+        try {
+            for ( Change change : batch.changes ) {
+                switch (change.action) {
+                    case ADD :      index.addEntity(change.entity); break;
+                    case DELETE :   index.deleteEntity(change.entity); break;
+                    case UPDATE :   index.updateEntity(change.entity); break;
+                    case REPLACE :
+                        index.deleteEntity(change.entity);
+                        index.addEntity(change.entity);
+                        break;
+                }
+            }
+        } catch (Throwable th) {
+            failed(batch.id, batch.id, th);
+        }
+    }
+
+    private void commit(List<Batch> batches) {
+        long first = batches.get(0).id;
+        long last = batches.get(batches.size() - 1).id;
+        try {
+            // The watermark only moves if all batches have been applied.
+            if ( !failed && index instanceof TextIndexLucene )
+                ((TextIndexLucene)index).setCommitData(Map.of(WatermarkKey, Long.toString(last)));
+            index.prepareCommit();
+            index.commit();
+            if ( !failed )
+                watermark = last;
+        } catch (Throwable th) {
+            failed(first, last, th);
+        }
+        synchronized(this) {
+            indexedBatch = last;
+            notifyAll();
+        }
+    }
+
+    private void failed(long first, long last, Throwable th) {
+        failed = true;
+        log.error("Failed to apply text index changes (batches " + first + " to " + last + "): the text index needs rebuilding", th);
+        rollbackIndex();
+    }
+
+    private void rollbackIndex() {
+        try { index.rollback(); }
+        catch (Throwable th) { log.warn("Exception in rollback: " + th.getMessage(), th); }
+    }
+
+    private void awaitIndexed(long batchId) {
+        synchronized(this) {
+            while ( indexedBatch < batchId && indexThread.isAlive() ) {
+                try { wait(); }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new TextIndexException("Interrupted waiting for the text index");
+                }
+            }
+        }
+    }
+
+    // ---- Queries
+
+    @Override
+    public Map<String, Node> get(String uri) {
+        return index.get(uri);
+    }
+
+    @Override
+    public List<TextHit> query(Node property, String qs, String graphURI, String lang, int limit) {
+        return index.query(property, qs, graphURI, lang, limit);
+    }
+
+    @Override
+    public List<TextHit> query(Node property, String qs, String graphURI, String lang) {
+        return index.query(property, qs, graphURI, lang);
+    }
+
+    @Override
+    public List<TextHit> query(Node property, String qs, String graphURI, String lang, int limit, String highlight) {
+        return index.query(property, qs, graphURI, lang, limit, highlight);
+    }
+
+    @Override
+    public List<TextHit> query(List<Resource> props, String qs, String graphURI, String lang, int limit, String highlight) {
+        return index.query(props, qs, graphURI, lang, limit, highlight);
+    }
+
+    @Override
+    public List<TextHit> query(String subjectUri, List<Resource> props, String qs, String graphURI, String lang, int limit, String highlight) {
+        return index.query(subjectUri, props, qs, graphURI, lang, limit, highlight);
+    }
+
+    @Override
+    public List<TextHit> query(Node subj, List<Resource> props, String qs, String graphURI, String lang, int limit, String highlight) {
+        return index.query(subj, props, qs, graphURI, lang, limit, highlight);
+    }
+
+    @Override
+    public List<TextHit> query(String subjectUri, Node property, String qs, String graphURI, String lang, int limit, String highlight) {
+        return index.query(subjectUri, property, qs, graphURI, lang, limit, highlight);
+    }
+
+    @Override
+    public List<TextHit> query(Collection<String> subjectUris, List<Resource> props, String qs, String graphURI, String lang, int limit, String highlight) {
+        return index.query(subjectUris, props, qs, graphURI, lang, limit, highlight);
+    }
+
+    @Override
+    public EntityDefinition getDocDef() {
+        return index.getDocDef();
+    }
+}
@@ -30,6 +30,10 @@ public class TextIndexConfig {
     int maxBasicQueries = 1024;
     boolean valueStored;
     boolean ignoreIndexErrors;
+    int resultCacheSize = 1000;
+    long searcherRefreshInterval = 0;
+    boolean asyncIndexing = false;
+    boolean readYourWrites = false;
 
     public TextIndexConfig(EntityDefinition entDef) {
         this.entDef = entDef;
@@ -94,4 +98,44 @@ public class TextIndexConfig {
     public void setIgnoreIndexErrors(boolean ignore) {
         this.ignoreIndexErrors = ignore;
     }
+
+    public int getResultCacheSize() {
+        return resultCacheSize;
+    }
+
+    /** Number of query results lists kept between queries. 0 means no caching. */
+    public void setResultCacheSize(int resultCacheSize) {
+        this.resultCacheSize = resultCacheSize;
+    }
+
+    public long getSearcherRefreshInterval() {
+        return searcherRefreshInterval;
+    }
+
+    /**
+     * Minimum time, in milliseconds, between checks for changes to the index that were
+     * not made by this process. 0 means check before each query.
+     * Commits by this process are visible to queries immediately.
+     */
+    public void setSearcherRefreshInterval(long searcherRefreshInterval) {
+        this.searcherRefreshInterval = searcherRefreshInterval;
+    }
+
+    public boolean isAsyncIndexing() {
+        return asyncIndexing;
+    }
+
+    /** Apply changes to the index on a background thread. See {@link TextIndexAsync}. */
+    public void setAsyncIndexing(boolean asyncIndexing) {
+        this.asyncIndexing = asyncIndexing;
+    }
+
+    public boolean isReadYourWrites() {
+        return readYourWrites;
+    }
+
+    /** With asynchronous indexing, whether a commit waits for its changes to be in the index. */
+    public void setReadYourWrites(boolean readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
 }
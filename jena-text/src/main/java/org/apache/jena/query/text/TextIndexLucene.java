@@ -21,9 +21,12 @@ package org.apache.jena.query.text ;
 import java.io.IOException ;
 import java.util.*;
 import java.util.Map.Entry ;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.UnaryOperator;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.jena.atlas.lib.Cache ;
+import org.apache.jena.atlas.lib.CacheFactory ;
 import org.apache.jena.datatypes.RDFDatatype ;
 import org.apache.jena.datatypes.TypeMapper ;
 import org.apache.jena.datatypes.xsd.XSDDatatype ;
@@ -52,9 +55,19 @@ import org.apache.lucene.queryparser.surround.query.BasicQueryFactory;
 import org.apache.lucene.search.*;
 import org.apache.lucene.search.highlight.*;
 import org.apache.lucene.store.Directory ;
+import org.apache.lucene.util.BytesRef ;
 import org.slf4j.Logger ;
 import org.slf4j.LoggerFactory ;
 
+/**
+ * A {@link TextIndex} in a Lucene {@link Directory}.
+ * <p>
+ * Queries share an {@link IndexSearcher} from a {@link SearcherManager}, which sees
+ * committed changes only. It is refreshed after each {@link #commit()} and, for changes
+ * by other processes, at most every {@link TextIndexConfig#getSearcherRefreshInterval()}
+ * milliseconds. Query results are cached for the current searcher, up to
+ * {@link TextIndexConfig#getResultCacheSize()} result lists.
+ */
 public class TextIndexLucene implements TextIndex {
     private static Logger          log      = LoggerFactory.getLogger(TextIndexLucene.class) ;
 
@@ -99,6 +112,17 @@ public class TextIndexLucene implements TextIndex {
     // at a time (enforced elsewhere).
     private volatile IndexWriter   indexWriter ;
 
+    // Searchers for queries, on committed changes.
+    private SearcherManager        searcherManager ;
+    private final long             searcherRefreshInterval ;
+    private volatile long          lastRefreshCheck = 0 ;
+    private volatile long          refreshLag = 0 ;
+
+    // Results, keyed by the reader version and the query arguments. Null for no caching.
+    private final Cache<List<Object>, List<TextHit>> resultCache ;
+    private final LongAdder        cacheHits = new LongAdder() ;
+    private final LongAdder        cacheMisses = new LongAdder() ;
+
     /**
      * Constructs a new TextIndexLucene.
      *
@@ -157,7 +181,25 @@ public class TextIndexLucene implements TextIndex {
         if (config.isValueStored() && docDef.getLangField() == null)
             log.warn("Values stored but langField not set. Returned values will not have language tag or datatype.");
 
+        this.searcherRefreshInterval = config.getSearcherRefreshInterval() ;
+        this.resultCache = config.getResultCacheSize() > 0 ? CacheFactory.createCache(config.getResultCacheSize()) : null ;
+
         openIndexWriter();
+        try {
+            searcherManager = new SearcherManager(directory, null) ;
+            if ( resultCache != null )
+                searcherManager.addListener(new ReferenceManager.RefreshListener() {
+                    @Override public void beforeRefresh() {}
+                    // Results for the previous version will not be used again.
+                    @Override public void afterRefresh(boolean didRefresh) {
+                        if ( didRefresh )
+                            resultCache.clear() ;
+                    }
+                }) ;
+        }
+        catch (IOException e) {
+            throw new TextIndexException("searcherManager", e) ;
+        }
     }
 
     private void openIndexWriter() {
@@ -194,6 +236,23 @@ public class TextIndexLucene implements TextIndex {
         return indexWriter;
     }
 
+    /**
+     * Set key/value data to record with the next commit of the index.
+     * The data is kept for later commits until it is set again.
+     */
+    public void setCommitData(Map<String, String> commitData) {
+        indexWriter.setLiveCommitData(new HashMap<>(commitData).entrySet()) ;
+    }
+
+    /** Get the key/value data of the last commit, or set since then by {@link #setCommitData}. */
+    public Map<String, String> getCommitData() {
+        Map<String, String> commitData = new HashMap<>() ;
+        Iterable<Map.Entry<String, String>> x = indexWriter.getLiveCommitData() ;
+        if ( x != null )
+            x.forEach(e -> commitData.put(e.getKey(), e.getValue())) ;
+        return commitData ;
+    }
+
     @Override
     public void prepareCommit() {
         try {
@@ -212,6 +271,16 @@ public class TextIndexLucene implements TextIndex {
         catch (IOException e) {
             throw new TextIndexException("commit", e);
         }
+        // Make the commit visible to queries.
+        long start = System.currentTimeMillis() ;
+        try {
+            searcherManager.maybeRefreshBlocking();
+        }
+        catch (IOException e) {
+            throw new TextIndexException("commit", e);
+        }
+        refreshLag = System.currentTimeMillis() - start ;
+        lastRefreshCheck = start ;
     }
 
     @Override
@@ -232,6 +301,7 @@ public class TextIndexLucene implements TextIndex {
     @Override
     public void close() {
         try {
+            searcherManager.close() ;
             indexWriter.close() ;
         }
         catch (IOException ex) {
@@ -372,19 +442,49 @@ public class TextIndexLucene implements TextIndex {
     @Override
     public Map<String, Node> get(String uri) {
         try {
-            IndexReader indexReader = DirectoryReader.open(directory);
-            List<Map<String, Node>> x = get$(indexReader, uri) ;
-            if ( x.size() == 0 )
-                return null ;
-            // if ( x.size() > 1)
-            // throw new TextIndexException("Multiple entires for "+uri) ;
-            return x.get(0) ;
+            IndexSearcher indexSearcher = acquireSearcher() ;
+            try {
+                List<Map<String, Node>> x = get$(indexSearcher, uri) ;
+                if ( x.size() == 0 )
+                    return null ;
+                // if ( x.size() > 1)
+                // throw new TextIndexException("Multiple entires for "+uri) ;
+                return x.get(0) ;
+            } finally {
+                searcherManager.release(indexSearcher) ;
+            }
         }
         catch (Exception ex) {
             throw new TextIndexException("get", ex) ;
         }
     }
 
+    /** Get a searcher, checking for changes if the refresh interval has passed. Release with {@code searcherManager.release}. */
+    private IndexSearcher acquireSearcher() throws IOException {
+        long now = System.currentTimeMillis() ;
+        if ( searcherRefreshInterval <= 0 || now - lastRefreshCheck >= searcherRefreshInterval ) {
+            lastRefreshCheck = now ;
+            // Does not wait if another thread is refreshing.
+            searcherManager.maybeRefresh() ;
+        }
+        return searcherManager.acquire() ;
+    }
+
+    /** Number of queries answered from the result cache. */
+    public long getResultCacheHits() {
+        return cacheHits.sum() ;
+    }
+
+    /** Number of queries not answered from the result cache, when the cache is enabled. */
+    public long getResultCacheMisses() {
+        return cacheMisses.sum() ;
+    }
+
+    /** Time, in milliseconds, for the last commit to become visible to queries. */
+    public long getRefreshLag() {
+        return refreshLag ;
+    }
+
     private Query parseQuery(String queryString, Analyzer analyzer) throws ParseException {
         Query query = null;
         QueryParser qp = null;
@@ -424,11 +524,10 @@ public class TextIndexLucene implements TextIndex {
         }
     }
 
-    private List<Map<String, Node>> get$(IndexReader indexReader, String uri) throws ParseException, IOException {
+    private List<Map<String, Node>> get$(IndexSearcher indexSearcher, String uri) throws ParseException, IOException {
         String escaped = QueryParserBase.escape(uri) ;
         String qs = docDef.getEntityField() + ":" + escaped ;
         Query query = parseQuery(qs, queryAnalyzer) ;
-        IndexSearcher indexSearcher = new IndexSearcher(indexReader) ;
         ScoreDoc[] sDocs = indexSearcher.search(query, 1).scoreDocs ;
         List<Map<String, Node>> records = new ArrayList<>() ;
         StoredFields sFields = indexSearcher.storedFields();
@@ -496,8 +595,56 @@ public class TextIndexLucene implements TextIndex {
 
     @Override
     public List<TextHit> query(String subjectUri, List<Resource> props, String qs, String graphURI, String lang, int limit, String highlight) {
-        try (IndexReader indexReader = DirectoryReader.open(directory)) {
-            return query$(indexReader, props, qs, addUriPredicate(subjectUri), graphURI, lang, limit, highlight) ;
+        List<Object> key = Arrays.asList(subjectUri, new ArrayList<>(props), qs, graphURI, lang, limit, highlight) ;
+        return query(key, qs, indexSearcher ->
+            query$(indexSearcher, props, qs, addUriPredicate(subjectUri), graphURI, lang, limit, 1, highlight)) ;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This is one Lucene query, with the subjects as a filter on the entity field.
+     */
+    @Override
+    public List<TextHit> query(Collection<String> subjectUris, List<Resource> props, String qs, String graphURI, String lang, int limit, String highlight) {
+        List<String> subjects = new ArrayList<>(new LinkedHashSet<>(subjectUris)) ;
+        if ( subjects.isEmpty() )
+            return new ArrayList<>() ;
+        List<Object> key = Arrays.asList(subjects, new ArrayList<>(props), qs, graphURI, lang, limit, highlight) ;
+        return query(key, qs, indexSearcher -> {
+            List<TextHit> hits = query$(indexSearcher, props, qs, addUrisPredicate(subjects), graphURI, lang, limit, subjects.size(), highlight) ;
+            return limitPerSubject(hits, limit) ;
+        }) ;
+    }
+
+    private interface Search {
+        List<TextHit> search(IndexSearcher indexSearcher) throws ParseException, IOException, InvalidTokenOffsetsException ;
+    }
+
+    /** Run a search, with the result cache if there is one. */
+    private List<TextHit> query(List<Object> queryKey, String qs, Search search) {
+        try {
+            IndexSearcher indexSearcher = acquireSearcher() ;
+            try {
+                if ( resultCache == null )
+                    return search.search(indexSearcher) ;
+                // Results are for this version of the index.
+                long version = ((DirectoryReader)indexSearcher.getIndexReader()).getVersion() ;
+                List<Object> key = new ArrayList<>(queryKey.size()+1) ;
+                key.add(version) ;
+                key.addAll(queryKey) ;
+                List<TextHit> hits = resultCache.getIfPresent(key) ;
+                if ( hits != null )
+                    cacheHits.increment() ;
+                else {
+                    cacheMisses.increment() ;
+                    hits = search.search(indexSearcher) ;
+                    resultCache.put(key, hits) ;
+                }
+                return new ArrayList<>(hits) ;
+            } finally {
+                searcherManager.release(indexSearcher) ;
+            }
         }
         catch (ParseException ex) {
             throw new TextIndexParseException(qs, ex.getMessage()) ;
@@ -523,6 +670,33 @@ public class TextIndexLucene implements TextIndex {
         }
     }
 
+    // As addUriPredicate, for a set of subjects.
+    private UnaryOperator<Query> addUrisPredicate(Collection<String> subjectUris) {
+        return (Query textQuery) -> {
+            String uriField = docDef.getEntityField();
+            List<BytesRef> terms = new ArrayList<>(subjectUris.size());
+            for ( String subjectUri : subjectUris )
+                terms.add(new BytesRef(subjectUri));
+            return new BooleanQuery.Builder()
+                    .add(textQuery, BooleanClause.Occur.MUST)
+                    .add(new TermInSetQuery(uriField, terms), BooleanClause.Occur.FILTER)
+                    .build();
+        };
+    }
+
+    // Hits are in score order: keep the best "limit" hits for each subject.
+    private static List<TextHit> limitPerSubject(List<TextHit> hits, int limit) {
+        if ( limit <= 0 )
+            limit = MAX_N ;
+        Map<Node, Integer> counts = new HashMap<>() ;
+        List<TextHit> results = new ArrayList<>() ;
+        for ( TextHit hit : hits ) {
+            if ( counts.merge(hit.getNode(), 1, Integer::sum) <= limit )
+                results.add(hit) ;
+        }
+        return results ;
+    }
+
     private String getDocField(Document doc, List<String> fields) {
         for (String field : fields) {
             if (doc.get(field) != null) {
@@ -711,7 +885,7 @@ public class TextIndexLucene implements TextIndex {
         return textClause;
     }
 
-    private List<TextHit> query$(IndexReader indexReader, List<Resource> props, String qs, UnaryOperator<Query> textQueryExtender, String graphURI, String lang, int limit, String highlight)
+    private List<TextHit> query$(IndexSearcher indexSearcher, List<Resource> props, String qs, UnaryOperator<Query> textQueryExtender, String graphURI, String lang, int limit, int subjects, String highlight)
             throws ParseException, IOException, InvalidTokenOffsetsException
     {
         List<String> textFields = new ArrayList<>();
@@ -783,9 +957,13 @@ public class TextIndexLucene implements TextIndex {
 
         log.debug("query$ with LIST: {}; INPUT qString: {}; with queryParserType: {}; parseQuery with {} YIELDS: {}; parsed query: {}; limit: {}", props, qString, queryParserType, qa, textQuery, query, limit) ;
 
-        IndexSearcher indexSearcher = new IndexSearcher(indexReader) ;
+        // For several subjects, the limit is for each subject.
+        // Ask for every match, which can be fewer than limit*subjects.
+        int numHits = limit ;
+        if ( subjects > 1 )
+            numHits = (int)Math.max(1, Math.min((long)limit * subjects, indexSearcher.count(query))) ;
 
-        ScoreDoc[] sDocs = indexSearcher.search(query, limit).scoreDocs ;
+        ScoreDoc[] sDocs = indexSearcher.search(query, numHits).scoreDocs ;
 
         // if there were no explicit textFields supplied then Lucene used
         // the default field if defined otherwise Lucene simply interpreted the qs
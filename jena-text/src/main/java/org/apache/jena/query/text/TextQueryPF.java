@@ -18,18 +18,17 @@
 
 package org.apache.jena.query.text ;
 
-import java.util.ArrayList ;
-import java.util.Collection ;
-import java.util.Iterator ;
-import java.util.List ;
+import java.util.* ;
 import java.util.function.Function ;
 
 import org.apache.commons.collections4.ListValuedMap;
 import org.apache.commons.collections4.MultiMapUtils;
 import org.apache.jena.atlas.io.IndentedLineBuffer;
+import org.apache.jena.atlas.io.IndentedWriter ;
 import org.apache.jena.atlas.iterator.Iter ;
 import org.apache.jena.atlas.lib.Cache ;
 import org.apache.jena.atlas.lib.CacheFactory ;
+import org.apache.jena.atlas.lib.Lib ;
 import org.apache.jena.atlas.logging.Log ;
 import org.apache.jena.datatypes.RDFDatatype ;
 import org.apache.jena.datatypes.xsd.XSDDatatype ;
@@ -47,11 +46,14 @@ import org.apache.jena.sparql.engine.QueryIterator ;
 import org.apache.jena.sparql.engine.binding.Binding ;
 import org.apache.jena.sparql.engine.binding.BindingBuilder;
 import org.apache.jena.sparql.engine.binding.BindingFactory ;
+import org.apache.jena.sparql.engine.iterator.QueryIter1 ;
 import org.apache.jena.sparql.engine.iterator.QueryIterPlainWrapper ;
 import org.apache.jena.sparql.engine.iterator.QueryIterSlice ;
 import org.apache.jena.sparql.mgt.Explain ;
 import org.apache.jena.sparql.pfunction.PropFuncArg ;
 import org.apache.jena.sparql.pfunction.PropertyFunctionBase ;
+import org.apache.jena.sparql.serializer.SerializationContext ;
+import org.apache.jena.sparql.util.FmtUtils ;
 import org.apache.jena.sparql.util.IterLib ;
 import org.apache.jena.sparql.util.NodeFactoryExtra ;
 import org.apache.jena.sparql.util.Symbol ;
@@ -153,6 +155,27 @@ public class TextQueryPF extends PropertyFunctionBase {
         return value;
     }
 
+    /**
+     * Number of input bindings read ahead so that the text searches for bound subjects
+     * can be made as one query.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * When the subject is bound by earlier patterns, the input is read in batches and
+     * there is one text search for all the subjects in a batch that have the same query
+     * arguments, rather than one search for each subject. The hits are then joined with
+     * the batch by subject.
+     */
+    @Override
+    public QueryIterator exec(QueryIterator input, PropFuncArg argSubject, Node predicate, PropFuncArg argObject, ExecutionContext execCxt) {
+        if ( textIndex == null )
+            return super.exec(input, argSubject, predicate, argObject, execCxt) ;
+        return new QueryIterTextBatch(input, argSubject, predicate, argObject, execCxt) ;
+    }
+
     @Override
     public QueryIterator exec(Binding binding,
                               PropFuncArg argSubject, Node predicate, PropFuncArg argObject,
@@ -229,6 +252,148 @@ public class TextQueryPF extends PropertyFunctionBase {
         return qIter ;
     }
 
+    /**
+     * Apply the text query to each input binding, in the order of the input. Bindings that
+     * bind the subject to a URI are grouped by their query arguments and each group is
+     * one call of {@link TextIndex#query(Collection, List, String, String, String, int, String)}.
+     * The other bindings are executed one at a time.
+     */
+    private class QueryIterTextBatch extends QueryIter1 {
+        private final PropFuncArg argSubject ;
+        private final Node predicate ;
+        private final PropFuncArg argObject ;
+        private final Deque<Binding> batch = new ArrayDeque<>() ;
+        // The text hits, by subject, for each query argument in the current batch.
+        private final Map<PropFuncArg, ListValuedMap<String,TextHit>> batchHits = new HashMap<>() ;
+        private final Map<PropFuncArg, StrMatch> batchMatches = new HashMap<>() ;
+        private QueryIterator currentStage = null ;
+
+        QueryIterTextBatch(QueryIterator input, PropFuncArg argSubject, Node predicate, PropFuncArg argObject, ExecutionContext execCxt) {
+            super(input, execCxt) ;
+            this.argSubject = argSubject ;
+            this.predicate = predicate ;
+            this.argObject = argObject ;
+        }
+
+        @Override
+        protected boolean hasNextBinding() {
+            if ( isFinished() )
+                return false ;
+            for ( ;; ) {
+                if ( currentStage == null ) {
+                    if ( batch.isEmpty() && !readBatch() )
+                        return false ;
+                    currentStage = nextStage(batch.removeFirst()) ;
+                }
+                if ( currentStage.hasNext() )
+                    return true ;
+                currentStage.close() ;
+                currentStage = null ;
+            }
+        }
+
+        @Override
+        protected Binding moveToNextBinding() {
+            if ( !hasNextBinding() )
+                throw new NoSuchElementException(Lib.className(this) + ".next()/finished") ;
+            return currentStage.nextBinding() ;
+        }
+
+        private boolean readBatch() {
+            batchHits.clear() ;
+            batchMatches.clear() ;
+            QueryIterator input = getInput() ;
+            // Subjects, for each query argument.
+            Map<PropFuncArg, Set<String>> subjects = new LinkedHashMap<>() ;
+            while ( batch.size() < BATCH_SIZE && input.hasNext() ) {
+                Binding binding = input.next() ;
+                batch.add(binding) ;
+                Node subj = boundSubject(binding) ;
+                if ( subj != null )
+                    subjects.computeIfAbsent(Substitute.substitute(argObject, binding), k -> new LinkedHashSet<>())
+                            .add(subj.getURI()) ;
+            }
+            subjects.forEach((arg, uris) -> {
+                // A single subject is left to the usual route.
+                if ( uris.size() < 2 )
+                    return ;
+                StrMatch match = objectToStruct(arg, true) ;
+                if ( match != null ) {
+                    batchHits.put(arg, queryBatch(uris, match, getExecContext())) ;
+                    batchMatches.put(arg, match) ;
+                }
+            }) ;
+            return !batch.isEmpty() ;
+        }
+
+        // The subject, if the binding makes it a URI and the text query can be batched.
+        private Node boundSubject(Binding binding) {
+            if ( !argSubject.isList() ) {
+                Node s = Substitute.substitute(argSubject.getArg(), binding) ;
+                return s.isURI() ? s : null ;
+            }
+            Node s = Substitute.substitute(argSubject.getArg(0), binding) ;
+            if ( !s.isURI() )
+                return null ;
+            // The hit variables must be unbound.
+            for ( int i = 1 ; i < argSubject.getArgListSize() ; i++ ) {
+                if ( !Substitute.substitute(argSubject.getArg(i), binding).isVariable() )
+                    return null ;
+            }
+            return s ;
+        }
+
+        private QueryIterator nextStage(Binding binding) {
+            ExecutionContext execCxt = getExecContext() ;
+            Node subj = boundSubject(binding) ;
+            PropFuncArg arg = ( subj == null ) ? null : Substitute.substitute(argObject, binding) ;
+            ListValuedMap<String,TextHit> hits = ( arg == null ) ? null : batchHits.get(arg) ;
+            if ( hits == null ) {
+                QueryIterator qIter = exec(binding, argSubject, predicate, argObject, execCxt) ;
+                return ( qIter == null ) ? IterLib.noResults(execCxt) : qIter ;
+            }
+            Node score = null, literal = null, graph = null, prop = null ;
+            if ( argSubject.isList() ) {
+                int size = argSubject.getArgListSize() ;
+                score = ( size > 1 ) ? argSubject.getArg(1) : null ;
+                literal = ( size > 2 ) ? argSubject.getArg(2) : null ;
+                graph = ( size > 3 ) ? argSubject.getArg(3) : null ;
+                prop = ( size > 4 ) ? argSubject.getArg(4) : null ;
+            }
+            QueryIterator qIter = resultsToQueryIterator(binding, subj, score, literal, graph, prop, hits.get(subj.getURI()), execCxt) ;
+            int limit = batchMatches.get(arg).getLimit() ;
+            if ( limit >= 0 )
+                qIter = new QueryIterSlice(qIter, 0, limit, execCxt) ;
+            return qIter ;
+        }
+
+        @Override
+        protected void closeSubIterator() {
+            if ( currentStage != null )
+                currentStage.close() ;
+            batch.clear() ;
+            batchHits.clear() ;
+            batchMatches.clear() ;
+        }
+
+        @Override
+        protected void requestSubCancel() {
+            if ( currentStage != null )
+                currentStage.cancel() ;
+        }
+
+        @Override
+        protected void details(IndentedWriter out, SerializationContext sCxt) {
+            out.print("PropertyFunction ["+FmtUtils.stringForNode(predicate, sCxt)+"]") ;
+            out.print("[") ;
+            argSubject.output(out, sCxt) ;
+            out.print("][") ;
+            argObject.output(out, sCxt) ;
+            out.print("]") ;
+            out.println() ;
+        }
+    }
+
     private static void addIf(BindingBuilder builder, Var var, Node node) {
         if (var != null && node != null) {
             builder.add(var, node);
@@ -307,6 +472,15 @@ public class TextQueryPF extends PropertyFunctionBase {
         }
     }
 
+    private ListValuedMap<String,TextHit> queryBatch(Collection<String> subjectUris, StrMatch match, ExecutionContext execCxt) {
+        String graphURI = chooseGraphURI(execCxt);
+        String qs = match.getQueryString();
+        explainQuery(qs, -1, execCxt, graphURI);
+        log.trace("Text query: {} for {} subjects", qs, subjectUris.size()) ;
+        List<TextHit> resultList = textIndex.query(subjectUris, match.getProps(), qs, graphURI, match.getLang(), -1, match.getHighlight()) ;
+        return mapResult(resultList);
+    }
+
     private Cache<String, ListValuedMap<String, TextHit>> prepareCache(ExecutionContext execCxt) {
         @SuppressWarnings("unchecked")
         Cache<String, ListValuedMap<String, TextHit>> queryCache =
@@ -187,6 +187,54 @@ public class TextIndexLuceneAssembler extends AssemblerBase {
                 ignoreIndexErrs = iieNode.asLiteral().getBoolean();
             }
 
+            int resultCacheSize = -1;
+            Statement resultCacheSizeStatement = root.getProperty(pResultCacheSize);
+            if (null != resultCacheSizeStatement) {
+                RDFNode rcsNode = resultCacheSizeStatement.getObject();
+                if (! rcsNode.isLiteral()) {
+                    throw new TextIndexException("text:resultCacheSize property must be a int : " + rcsNode);
+                }
+                try {
+                    resultCacheSize = rcsNode.asLiteral().getInt();
+                } catch (RuntimeException ex) {
+                    throw new TextIndexException("text:resultCacheSize property must be a int : " + rcsNode+ "("+ex.getMessage()+")");
+                }
+            }
+
+            long searcherRefreshInterval = -1;
+            Statement refreshIntervalStatement = root.getProperty(pSearcherRefreshInterval);
+            if (null != refreshIntervalStatement) {
+                RDFNode sriNode = refreshIntervalStatement.getObject();
+                if (! sriNode.isLiteral()) {
+                    throw new TextIndexException("text:searcherRefreshInterval property must be a long : " + sriNode);
+                }
+                try {
+                    searcherRefreshInterval = sriNode.asLiteral().getLong();
+                } catch (RuntimeException ex) {
+                    throw new TextIndexException("text:searcherRefreshInterval property must be a long : " + sriNode+ "("+ex.getMessage()+")");
+                }
+            }
+
+            boolean asyncIndexing = false;
+            Statement asyncIndexingStatement = root.getProperty(pAsyncIndexing);
+            if (null != asyncIndexingStatement) {
+                RDFNode aiNode = asyncIndexingStatement.getObject();
+                if (! aiNode.isLiteral()) {
+                    throw new TextIndexException("text:asyncIndexing property must be a boolean : " + aiNode);
+                }
+                asyncIndexing = aiNode.asLiteral().getBoolean();
+            }
+
+            boolean readYourWrites = false;
+            Statement readYourWritesStatement = root.getProperty(pReadYourWrites);
+            if (null != readYourWritesStatement) {
+                RDFNode rywNode = readYourWritesStatement.getObject();
+                if (! rywNode.isLiteral()) {
+                    throw new TextIndexException("text:readYourWrites property must be a boolean : " + rywNode);
+                }
+                readYourWrites = rywNode.asLiteral().getBoolean();
+            }
+
             // use query cache by default
             boolean cacheQueries = true;
             Statement cacheQueriesStatement = root.getProperty(pCacheQueries);
@@ -208,6 +256,12 @@ public class TextIndexLuceneAssembler extends AssemblerBase {
             config.setMaxBasicQueries(maxBasicQueries);
             config.setValueStored(storeValues);
             config.setIgnoreIndexErrors(ignoreIndexErrs);
+            if (resultCacheSize >= 0)
+                config.setResultCacheSize(resultCacheSize);
+            if (searcherRefreshInterval >= 0)
+                config.setSearcherRefreshInterval(searcherRefreshInterval);
+            config.setAsyncIndexing(asyncIndexing);
+            config.setReadYourWrites(readYourWrites);
             docDef.setCacheQueries(cacheQueries);
 
             return TextDatasetFactory.createLuceneIndex(directory, config) ;
@@ -41,6 +41,10 @@ public class TextVocab
     public static final Property pMaxBasicQueries   = Vocab.property(NS, "maxBasicQueries") ;
     public static final Property pStoreValues       = Vocab.property(NS, "storeValues") ;
     public static final Property pIgnoreIndexErrors       = Vocab.property(NS, "ignoreIndexErrors") ;
+    public static final Property pResultCacheSize   = Vocab.property(NS, "resultCacheSize") ;
+    public static final Property pSearcherRefreshInterval = Vocab.property(NS, "searcherRefreshInterval") ;
+    public static final Property pAsyncIndexing     = Vocab.property(NS, "asyncIndexing") ;
+    public static final Property pReadYourWrites    = Vocab.property(NS, "readYourWrites") ;
     public static final Property pQueryAnalyzer     = Vocab.property(NS, "queryAnalyzer") ;
     public static final Property pQueryParser       = Vocab.property(NS, "queryParser") ;
     public static final Property pEntityMap         = Vocab.property(NS, "entityMap") ;
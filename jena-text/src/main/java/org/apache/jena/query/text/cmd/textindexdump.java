@@ -88,8 +88,11 @@ public class textindexdump extends CmdARQ {
     @Override
     protected void exec() {
 
-        if ( textIndex instanceof TextIndexLucene )
-            dump((TextIndexLucene)textIndex) ;
+        TextIndex index = textIndex ;
+        if ( index instanceof TextIndexAsync )
+            index = ((TextIndexAsync)index).getIndex() ;
+        if ( index instanceof TextIndexLucene )
+            dump((TextIndexLucene)index) ;
         else
             System.err.println("Unsupported index type : "+Lib.className(textIndex)) ;
         }
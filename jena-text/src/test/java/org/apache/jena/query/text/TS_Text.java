@@ -45,6 +45,9 @@ import org.junit.runners.Suite.SuiteClasses;
     , TestTextTxn.class
     , TestTextNonTxnTDB1.class
     , TestTextTxnTDB.class
+    , TestTextIndexLuceneSearcher.class
+    , TestTextIndexAsync.class
+    , TestTextQueryBatch.class
 
     , TestEntityMapAssembler.class
     , TestTextDatasetAssembler.class
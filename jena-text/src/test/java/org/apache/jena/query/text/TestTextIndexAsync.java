@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.query.text;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.atlas.lib.FileOps;
+import org.apache.jena.atlas.lib.StrUtils;
+import org.apache.jena.query.*;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.TDB2Factory;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.After;
+import org.junit.Test;
+
+/** Tests of {@link TextIndexAsync}. */
+public class TestTextIndexAsync {
+    private TextIndex index = null;
+
+    private static TextIndexConfig config() {
+        EntityDefinition eDef = new EntityDefinition("uri", "label", RDFS.label);
+        eDef.setUidField("uid");
+        return new TextIndexConfig(eDef);
+    }
+
+    private TextIndexAsync create(Directory dir, boolean readYourWrites) {
+        TextIndexAsync async = new TextIndexAsync(new TextIndexLucene(dir, config()), readYourWrites);
+        index = async;
+        return async;
+    }
+
+    @After public void after() {
+        if ( index != null )
+            index.close();
+    }
+
+    private static Entity entity(String uri, String label) {
+        Entity entity = new Entity(uri);
+        entity.put("label", label);
+        return entity;
+    }
+
+    private static List<TextHit> query(TextIndex index, String qs) {
+        return index.query(RDFS.label.asNode(), qs, null, null, 10);
+    }
+
+    @Test public void async_readYourWrites() {
+        TextIndexAsync async = create(new ByteBuffersDirectory(), true);
+        async.addEntity(entity("http://example/x1", "apple"));
+        async.commit();
+        assertEquals(1, query(async, "apple").size());
+        assertEquals(1, async.getWatermark());
+    }
+
+    @Test public void async_sync() {
+        TextIndexAsync async = create(new ByteBuffersDirectory(), false);
+        for ( int i = 0 ; i < 10 ; i++ ) {
+            async.addEntity(entity("http://example/x"+i, "apple"));
+            async.commit();
+        }
+        async.sync();
+        assertEquals(10, query(async, "apple").size());
+        assertEquals(10, async.getLastBatch());
+        assertEquals(10, async.getWatermark());
+    }
+
+    @Test public void async_rollback() {
+        TextIndexAsync async = create(new ByteBuffersDirectory(), true);
+        async.addEntity(entity("http://example/x1", "apple"));
+        async.rollback();
+        async.commit();
+        assertEquals(0, query(async, "apple").size());
+        assertEquals(0, async.getLastBatch());
+    }
+
+    @Test public void async_coalesce() {
+        TextIndexAsync async = create(new ByteBuffersDirectory(), true);
+        async.addEntity(entity("http://example/x1", "apple"));
+        async.addEntity(entity("http://example/x1", "apple"));
+        async.addEntity(entity("http://example/x2", "apple"));
+        async.deleteEntity(entity("http://example/x2", "apple"));
+        async.commit();
+        List<TextHit> hits = query(async, "apple");
+        assertEquals(1, hits.size());
+        assertEquals("http://example/x1", hits.get(0).getNode().getURI());
+    }
+
+    @Test public void async_delete() {
+        TextIndexAsync async = create(new ByteBuffersDirectory(), true);
+        async.addEntity(entity("http://example/x1", "apple"));
+        async.commit();
+        async.deleteEntity(entity("http://example/x1", "apple"));
+        async.addEntity(entity("http://example/x2", "apple"));
+        async.commit();
+        List<TextHit> hits = query(async, "apple");
+        assertEquals(1, hits.size());
+        assertEquals("http://example/x2", hits.get(0).getNode().getURI());
+    }
+
+    @Test public void async_delete_readd() {
+        TextIndexAsync async = create(new ByteBuffersDirectory(), true);
+        async.addEntity(entity("http://example/x1", "apple"));
+        async.commit();
+        // Delete then add the same document in one transaction.
+        async.deleteEntity(entity("http://example/x1", "apple"));
+        async.addEntity(entity("http://example/x1", "apple"));
+        async.commit();
+        assertEquals(1, query(async, "apple").size());
+    }
+
+    @Test public void async_maxPending() {
+        TextIndexAsync async = new TextIndexAsync(new TextIndexLucene(new ByteBuffersDirectory(), config()), true, 3);
+        index = async;
+        for ( int i = 0 ; i < 10 ; i++ )
+            async.addEntity(entity("http://example/x"+i, "apple"));
+        async.rollback();
+        async.sync();
+        assertEquals(0, query(async, "apple").size());
+        for ( int i = 0 ; i < 10 ; i++ )
+            async.addEntity(entity("http://example/y"+i, "apple"));
+        async.commit();
+        assertEquals(10, query(async, "apple").size());
+        assertEquals(1, async.getWatermark());
+    }
+
+    @Test public void async_queued() throws IOException {
+        Path path = Files.createTempDirectory("text");
+        try {
+            TextIndexAsync async1 = new TextIndexAsync(new TextIndexLucene(FSDirectory.open(path), config()), true);
+            async1.addEntity(entity("http://example/x1", "apple"));
+            async1.prepareCommit();
+            async1.commit();
+            assertEquals("1", Files.readString(path.resolve(TextIndexAsync.QueuedFile)));
+            async1.close();
+            // As if batches 2 and 3 were committed to the dataset but not to the index.
+            Files.writeString(path.resolve(TextIndexAsync.QueuedFile), "3");
+            TextIndexAsync async2 = create(FSDirectory.open(path), true);
+            assertEquals(1, async2.getWatermark());
+            assertEquals(3, async2.getLastBatch());
+        } finally {
+            if ( index != null )
+                index.close();
+            index = null;
+            FileOps.clearAll(path.toString());
+            Files.delete(path);
+        }
+    }
+
+    @Test public void async_watermark_persists() {
+        Directory dir = new ByteBuffersDirectory();
+        TextIndexAsync async1 = new TextIndexAsync(new TextIndexLucene(dir, config()), false);
+        async1.addEntity(entity("http://example/x1", "apple"));
+        async1.commit();
+        async1.addEntity(entity("http://example/x2", "apple"));
+        async1.commit();
+        // Close applies the committed batches.
+        async1.close();
+
+        TextIndexAsync async2 = create(dir, true);
+        assertEquals(2, async2.getWatermark());
+        assertEquals(2, query(async2, "apple").size());
+        async2.addEntity(entity("http://example/x3", "apple"));
+        async2.commit();
+        assertEquals(3, async2.getWatermark());
+    }
+
+    @Test public void async_dataset() {
+        TextIndexAsync async = create(new ByteBuffersDirectory(), false);
+        Dataset ds = TextDatasetFactory.create(TDB2Factory.createDataset(), async);
+        Txn.executeWrite(ds, ()->{
+            ds.asDatasetGraph().add(SSE.parseQuad("(_ <http://example/s1> rdfs:label 'foo')"));
+            ds.asDatasetGraph().add(SSE.parseQuad("(_ <http://example/s2> rdfs:label 'foo bar')"));
+        });
+        ds.begin(ReadWrite.WRITE);
+        ds.asDatasetGraph().add(SSE.parseQuad("(_ <http://example/s3> rdfs:label 'foo')"));
+        ds.abort();
+        ds.end();
+        async.sync();
+
+        Txn.executeRead(ds, ()->{
+            String qs = StrUtils.strjoinNL(
+                "PREFIX text: <http://jena.apache.org/text#>",
+                "SELECT * { ?s text:query 'foo' }");
+            try ( QueryExecution qExec = QueryExecutionFactory.create(qs, ds) ) {
+                List<QuerySolution> x = Iter.toList(qExec.execSelect());
+                assertEquals(2, x.size());
+            }
+        });
+    }
+}
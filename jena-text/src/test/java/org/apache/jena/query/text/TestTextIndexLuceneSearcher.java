@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.query.text;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.After;
+import org.junit.Test;
+
+/** Tests of the shared searcher and the result cache of {@link TextIndexLucene}. */
+public class TestTextIndexLuceneSearcher {
+    private TextIndexLucene index = null;
+
+    private TextIndexLucene create(int resultCacheSize, long refreshInterval) {
+        EntityDefinition eDef = new EntityDefinition("uri", "label", RDFS.label);
+        TextIndexConfig config = new TextIndexConfig(eDef);
+        config.setResultCacheSize(resultCacheSize);
+        config.setSearcherRefreshInterval(refreshInterval);
+        index = new TextIndexLucene(new ByteBuffersDirectory(), config);
+        return index;
+    }
+
+    @After public void after() {
+        if ( index != null )
+            index.close();
+    }
+
+    private static void add(TextIndex index, String uri, String label) {
+        Entity entity = new Entity(uri);
+        entity.put("label", label);
+        index.addEntity(entity);
+    }
+
+    private static List<TextHit> query(TextIndex index, String qs) {
+        return index.query(RDFS.label.asNode(), qs, null, null, 10);
+    }
+
+    @Test public void searcher_commit_visible() {
+        create(10, 0);
+        add(index, "http://example/x1", "apple");
+        // Not committed.
+        assertEquals(0, query(index, "apple").size());
+        index.commit();
+        assertEquals(1, query(index, "apple").size());
+        add(index, "http://example/x2", "apple");
+        index.commit();
+        assertEquals(2, query(index, "apple").size());
+    }
+
+    @Test public void searcher_rollback() {
+        create(10, 0);
+        add(index, "http://example/x1", "apple");
+        index.commit();
+        add(index, "http://example/x2", "apple");
+        index.rollback();
+        assertEquals(1, query(index, "apple").size());
+    }
+
+    @Test public void searcher_refresh_interval() throws IOException {
+        create(10, 60_000);
+        add(index, "http://example/x1", "apple");
+        index.commit();
+        assertEquals(1, query(index, "apple").size());
+        // Commit not by the TextIndex: seen after the refresh interval.
+        add(index, "http://example/x2", "apple");
+        index.getIndexWriter().commit();
+        assertEquals(1, query(index, "apple").size());
+        index.commit();
+        assertEquals(2, query(index, "apple").size());
+    }
+
+    @Test public void searcher_refresh_each_query() throws IOException {
+        create(10, 0);
+        add(index, "http://example/x1", "apple");
+        index.getIndexWriter().commit();
+        assertEquals(1, query(index, "apple").size());
+    }
+
+    @Test public void result_cache_1() {
+        create(10, 0);
+        add(index, "http://example/x1", "apple");
+        add(index, "http://example/x2", "banana");
+        index.commit();
+        List<TextHit> hits1 = query(index, "apple");
+        List<TextHit> hits2 = query(index, "apple");
+        assertEquals(1, hits1.size());
+        assertEquals(hits1, hits2);
+        assertEquals(1, index.getResultCacheHits());
+        assertEquals(1, index.getResultCacheMisses());
+        // Different query.
+        assertEquals(1, query(index, "banana").size());
+        assertEquals(1, index.getResultCacheHits());
+        assertEquals(2, index.getResultCacheMisses());
+        // Different limit.
+        assertEquals(1, index.query(RDFS.label.asNode(), "apple", null, null, 5).size());
+        assertEquals(3, index.getResultCacheMisses());
+    }
+
+    @Test public void result_cache_2() {
+        create(10, 0);
+        add(index, "http://example/x1", "apple");
+        index.commit();
+        assertEquals(1, query(index, "apple").size());
+        // New commit; not the cached results.
+        add(index, "http://example/x2", "apple");
+        index.commit();
+        List<TextHit> hits = query(index, "apple");
+        assertEquals(2, hits.size());
+        assertEquals(0, index.getResultCacheHits());
+        // The caller's list.
+        hits.clear();
+        assertEquals(2, query(index, "apple").size());
+        assertEquals(1, index.getResultCacheHits());
+    }
+
+    @Test public void result_cache_none() {
+        create(0, 0);
+        add(index, "http://example/x1", "apple");
+        index.commit();
+        assertEquals(1, query(index, "apple").size());
+        assertEquals(1, query(index, "apple").size());
+        assertEquals(0, index.getResultCacheHits());
+        assertEquals(0, index.getResultCacheMisses());
+    }
+
+    @Test public void get_entity() {
+        create(10, 0);
+        add(index, "http://example/x1", "apple");
+        index.commit();
+        assertEquals(NodeFactory.createURI("http://example/x1"), index.get("http://example/x1").get("uri"));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.jena.query.text;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.atlas.lib.StrUtils;
+import org.apache.jena.query.*;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests of text queries where the subject is bound by earlier patterns. */
+public class TestTextQueryBatch {
+    private static final String PREFIXES = StrUtils.strjoinNL(
+        "PREFIX text: <http://jena.apache.org/text#>",
+        "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>",
+        "PREFIX :     <http://example/>");
+
+    private TextIndexLucene index;
+    private Dataset dataset;
+
+    @Before public void before() {
+        EntityDefinition eDef = new EntityDefinition("uri", "label", RDFS.label);
+        TextIndexConfig config = new TextIndexConfig(eDef);
+        config.setValueStored(true);
+        index = new TextIndexLucene(new ByteBuffersDirectory(), config);
+        dataset = TextDatasetFactory.create(DatasetFactory.create(), index);
+        // :s0 ... :s19, of type :T.
+        // Even numbered subjects are "apple", odd numbered subjects are "banana".
+        // :x0 ... :x4 are "apple" and not of type :T.
+        Model model = ModelFactory.createDefaultModel();
+        Resource type = model.createResource("http://example/T");
+        for ( int i = 0 ; i < 20 ; i++ ) {
+            Resource s = model.createResource("http://example/s"+i);
+            s.addProperty(RDF.type, type);
+            s.addProperty(RDFS.label, (i % 2 == 0 ? "apple " : "banana ")+i);
+            if ( i % 4 == 0 )
+                s.addProperty(RDFS.label, "apple pie "+i);
+        }
+        for ( int i = 0 ; i < 5 ; i++ )
+            model.createResource("http://example/x"+i).addProperty(RDFS.label, "apple "+i);
+        dataset.getDefaultModel().add(model);
+    }
+
+    @After public void after() {
+        dataset.close();
+    }
+
+    private List<QuerySolution> query(String... lines) {
+        String qs = PREFIXES + "\n" + StrUtils.strjoinNL(lines);
+        try ( QueryExecution qExec = QueryExecutionFactory.create(qs, dataset) ) {
+            return Iter.toList(qExec.execSelect());
+        }
+    }
+
+    private static Set<String> subjects(List<QuerySolution> results) {
+        Set<String> subjects = new HashSet<>();
+        results.forEach(row -> subjects.add(row.getResource("s").getURI()));
+        return subjects;
+    }
+
+    @Test public void textQueryBatch_1() {
+        long misses = index.getResultCacheMisses();
+        List<QuerySolution> results = query("SELECT * { ?s a :T . ?s text:query 'apple' }");
+        // Subjects with two "apple" labels are two rows.
+        assertEquals(15, results.size());
+        assertEquals(10, subjects(results).size());
+        assertTrue(subjects(results).contains("http://example/s18"));
+        // One search for all the subjects.
+        assertEquals(misses+1, index.getResultCacheMisses());
+    }
+
+    @Test public void textQueryBatch_score() {
+        List<QuerySolution> results = query("SELECT * { ?s a :T . (?s ?score ?literal) text:query 'pie' }");
+        assertEquals(5, results.size());
+        for ( QuerySolution row : results ) {
+            assertTrue(row.getLiteral("score").getFloat() > 0);
+            assertTrue(row.getLiteral("literal").getLexicalForm().startsWith("apple pie"));
+        }
+    }
+
+    @Test public void textQueryBatch_limit() {
+        // The limit is for each subject.
+        List<QuerySolution> results = query("SELECT * { ?s a :T . ?s text:query ('apple' 1) }");
+        assertEquals(10, results.size());
+        assertEquals(10, subjects(results).size());
+    }
+
+    @Test public void textQueryBatch_query_string() {
+        // Different query strings for different subjects.
+        List<QuerySolution> results = query(
+            "SELECT * {",
+            "  VALUES (?s ?q) { (:s0 'apple') (:s1 'banana') (:s2 'apple') (:s3 'apple') (:s5 'banana') }",
+            "  ?s text:query ?q",
+            "}");
+        assertEquals(Set.of("http://example/s0", "http://example/s1", "http://example/s2", "http://example/s5"), subjects(results));
+        assertEquals(5, results.size());
+    }
+
+    @Test public void textQueryBatch_mixed() {
+        // Bound and unbound subjects.
+        List<QuerySolution> results = query(
+            "SELECT * {",
+            "  VALUES ?s { :s0 :s1 :s2 UNDEF }",
+            "  ?s text:query 'apple'",
+            "}");
+        // :s0 (two labels), :s2, and all 15 "apple" entries for UNDEF.
+        assertEquals(3 + 15 + 5, results.size());
+    }
+
+    @Test public void textQueryBatch_many() {
+        // More subjects than one batch.
+        StringBuilder values = new StringBuilder();
+        for ( int j = 0 ; j < 60 ; j++ )
+            for ( int i = 0 ; i < 20 ; i++ )
+                values.append(" :s").append(i);
+        List<QuerySolution> results = query("SELECT * { VALUES ?s {"+values+" } ?s text:query 'banana' }");
+        assertEquals(60 * 10, results.size());
+    }
+
+    @Test public void textQueryBatch_index() {
+        index.close();
+        EntityDefinition eDef = new EntityDefinition("uri", "label", RDFS.label);
+        index = new TextIndexLucene(new ByteBuffersDirectory(), new TextIndexConfig(eDef));
+        for ( int i = 0 ; i < 4 ; i++ ) {
+            Entity entity = new Entity("http://example/e"+i);
+            entity.put("label", "cherry "+i);
+            index.addEntity(entity);
+            entity = new Entity("http://example/e"+i);
+            entity.put("label", "cherry pie "+i);
+            index.addEntity(entity);
+        }
+        index.commit();
+        List<String> subjectUris = List.of("http://example/e0", "http://example/e2", "http://example/e9");
+        List<TextHit> hits = index.query(subjectUris, List.of(RDFS.label), "cherry", null, null, -1, null);
+        assertEquals(4, hits.size());
+        hits = index.query(subjectUris, List.of(RDFS.label), "cherry", null, null, 1, null);
+        assertEquals(2, hits.size());
+    }
+}